@@ -10,6 +10,8 @@ import java.util.List;
 import javax.swing.AbstractAction;
 
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.FileUtil;
@@ -83,6 +85,8 @@ public class EditorPageMenuGitActionsProvider {
 			  @Override
 			  public void actionPerformed(ActionEvent e) {
 				  gitOpScheduler.schedule(
+						  Lane.READ,
+						  Priority.USER,
 						  () -> ProjectAndEditorPageMenuActionsUtil.showHistory(
 								  file,
 								  historyCtrl,
@@ -93,6 +97,8 @@ public class EditorPageMenuGitActionsProvider {
 			  @Override
 			  public void actionPerformed(ActionEvent e) {
 				  gitOpScheduler.schedule(
+						  Lane.READ,
+						  Priority.USER,
 						  () -> ProjectAndEditorPageMenuActionsUtil.showBlame(
 								  file,
 								  historyCtrl,
@@ -97,6 +97,11 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
    */
   private JCheckBox askToCreateNewRepoIfNotCreated;
   
+  /**
+   * Option used to maintain the commit-graph file of the repository.
+   */
+  private JCheckBox maintainCommitGraph;
+  
   /**
    * CheckBox for the option to notify the user about new commits in the remote.
    */
@@ -173,6 +178,12 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     askToCreateNewRepoIfNotCreated = new JCheckBox(TRANSLATOR.getTranslation(Tags.ASK_USER_TO_CREATE_NEW_REPOSITORY));
     askToCreateNewRepoIfNotCreated.setToolTipText(TRANSLATOR.getTranslation(Tags.ASK_USER_TO_CREATE_NEW_REPOSITORY_TOOLTIP));
     mainPanel.add(askToCreateNewRepoIfNotCreated, constraints);
+    
+    // Option that maintains the commit-graph file of the repository
+    constraints.gridy ++;
+    maintainCommitGraph = new JCheckBox(TRANSLATOR.getTranslation(Tags.MAINTAIN_COMMIT_GRAPH));
+    maintainCommitGraph.setToolTipText(TRANSLATOR.getTranslation(Tags.MAINTAIN_COMMIT_GRAPH_TOOLTIP));
+    mainPanel.add(maintainCommitGraph, constraints);
 
     addValidationSection(mainPanel, constraints);
     
@@ -280,6 +291,7 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     rejectPushOnValidationProblems.setEnabled(validateMainFilesBeforePush);
     
     askToCreateNewRepoIfNotCreated.setSelected(OPTIONS_MANAGER.getAskUserToCreateNewRepoIfNotExist());
+    maintainCommitGraph.setSelected(OPTIONS_MANAGER.isMaintainCommitGraph());
     
     WhenRepoDetectedInProject whatToDo = OPTIONS_MANAGER.getWhenRepoDetectedInProject();
     switch (whatToDo) {
@@ -334,6 +346,7 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     OPTIONS_MANAGER.setUpdateSubmodulesOnPull(updateSubmodulesOnPull.isSelected());
     OPTIONS_MANAGER.setDetectAndOpenXprFiles(detectAndOpenXprFiles.isSelected());
     OPTIONS_MANAGER.setAskUserToCreateNewRepoIfNotExist(askToCreateNewRepoIfNotCreated.isSelected());
+    OPTIONS_MANAGER.setMaintainCommitGraph(maintainCommitGraph.isSelected());
     OPTIONS_MANAGER.setValidateFilesBeforeCommit(validateBeforeCommit.isSelected());
     OPTIONS_MANAGER.setRejectCommitOnValidationProblems(rejectCommitOnValidationProblems.isSelected());
     OPTIONS_MANAGER.setValidateMainFilesBeforePush(validateBeforePush.isSelected());
@@ -361,6 +374,7 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     validateBeforePush.setSelected(false);
     rejectPushOnValidationProblems.setSelected(false);
     askToCreateNewRepoIfNotCreated.setSelected(false);
+    maintainCommitGraph.setSelected(false);
   }
 
   /**
@@ -397,7 +411,8 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
         OptionTags.VALIDATE_MAIN_FILES_BEFORE_PUSH,
         OptionTags.REJECT_PUSH_ON_VALIDATION_PROBLEMS,
         OptionTags.DETECT_AND_OPEN_XPR_FILES,
-        OptionTags.ASK_USER_TO_CREATE_REPO
+        OptionTags.ASK_USER_TO_CREATE_REPO,
+        OptionTags.MAINTAIN_COMMIT_GRAPH
     };
   }
 }
@@ -138,8 +138,8 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
 
 		@Override
 		public void windowActivated(WindowEvent e) {
-			// Reset when you leave oxygen. Subsequent calls will recompute it.
-			gitController.getGitAccess().getStatusCache().resetCache();
+			// Reset when you leave oxygen, unless the working tree is watched. Subsequent calls will recompute it.
+			gitController.getGitAccess().getStatusCache().resetCacheIfNotWatched();
 			super.windowActivated(e);
 			boolean isStagingPanelShowing = stagingPanel != null && stagingPanel.isShowing();
 			if (isStagingPanelShowing && refresh) {
@@ -20,6 +20,8 @@ import com.google.common.io.Files;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
@@ -149,7 +151,7 @@ public class ProjectMenuGitActionsProvider {
     gitDiffAction = new AbstractAction(translator.getTranslation(Tags.GIT_DIFF)) {
       @Override
       public void actionPerformed(ActionEvent e) {
-        gitOpScheduler.schedule(ProjectMenuGitActionsProvider.this::doGitDiff);
+        gitOpScheduler.schedule(Lane.READ, Priority.USER, ProjectMenuGitActionsProvider.this::doGitDiff);
       }
     };
     commitAction = new AbstractAction(translator.getTranslation(Tags.COMMIT)) {
@@ -162,6 +164,8 @@ public class ProjectMenuGitActionsProvider {
       @Override
       public void actionPerformed(ActionEvent e) {
         gitOpScheduler.schedule(
+            Lane.READ,
+            Priority.USER,
             () -> ProjectAndEditorPageMenuActionsUtil.showHistory(
                 pluginWS.getProjectManager().getSelectedFiles()[0],
                 historyCtrl,
@@ -172,6 +176,8 @@ public class ProjectMenuGitActionsProvider {
       @Override
       public void actionPerformed(ActionEvent e) {
         gitOpScheduler.schedule(
+            Lane.READ,
+            Priority.USER,
             () -> ProjectAndEditorPageMenuActionsUtil.showBlame(
                 pluginWS.getProjectManager().getSelectedFiles()[0],
                 historyCtrl,
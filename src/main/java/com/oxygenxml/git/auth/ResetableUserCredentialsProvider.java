@@ -56,6 +56,11 @@ public class ResetableUserCredentialsProvider extends UsernamePasswordCredential
    * Flag to keep track if the credentials were previously created.
    */
   private boolean isCredentialsPreviouslyRequested = false; 
+  /**
+   * <code>false</code> to never ask the user for credentials, for example during a
+   * background operation.
+   */
+  private boolean interactive = true;
 
   /**
    * Constructor.
@@ -94,7 +99,7 @@ public class ResetableUserCredentialsProvider extends UsernamePasswordCredential
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Reset credentials provider for: " + uri.toString());
     }
-    if (isCredentialsPreviouslyRequested && !isUserCancelledLogin) {
+    if (interactive && isCredentialsPreviouslyRequested && !isUserCancelledLogin) {
       LoginDialog loginDialog = new LoginDialog(host, getLoginFailureMessage());
       if (loginDialog.getResult() == OKCancelDialog.RESULT_OK) {
         updateUsernameAndPassword(loginDialog.getCredentials());
@@ -183,6 +188,21 @@ public class ResetableUserCredentialsProvider extends UsernamePasswordCredential
     return wasReset;
   }
 
+  /**
+   * @param interactive <code>false</code> to never ask the user for credentials, for example
+   * during a background operation. The operation fails instead.
+   */
+  public void setInteractive(boolean interactive) {
+    this.interactive = interactive;
+  }
+
+  /**
+   * @return <code>false</code> if the user must not be asked for credentials.
+   */
+  public boolean isInteractive() {
+    return interactive;
+  }
+
   /**
    * @return <code>true</code> if the login re-trying should be canceled.
    */
@@ -93,7 +93,7 @@ public class SSHCapableUserCredentialsProvider extends ResetableUserCredentialsP
     // A not so great method to check that the pass phrase is requested.
     passphaseRequested = true;
     
-    if (!validPassphrase(passphrase)) {
+    if (!validPassphrase(passphrase) && isInteractive()) {
       // We don't have a phrase from options. Ask the user.
       LOGGER.debug("Ask for new passphrase...");
       passphrase = new PassphraseDialog(translator.getTranslation(Tags.ENTER_SSH_PASS_PHRASE) + ".").getPassphrase();
@@ -109,7 +109,7 @@ public class SSHCapableUserCredentialsProvider extends ResetableUserCredentialsP
       // The engine will look inside the given item for the response.
       return true;
     } else {
-      // The user canceled the dialog.
+      // The user canceled the dialog or must not be asked.
       return false;
     }
   }
@@ -138,7 +138,10 @@ public class SSHCapableUserCredentialsProvider extends ResetableUserCredentialsP
       LOGGER.debug("Look in cache for answer to: " + promptText + ", got " + response);
     }
     
-    if (response == null) {
+    if (response == null && !isInteractive()) {
+      // Don't ask and don't remember the answer.
+      response = Boolean.FALSE;
+    } else if (response == null) {
       // Ask the user.
       String[] options = new String[] { "   Yes   ", "   No   " };
       int[] optonsId = new int[] { 0, 1 };
@@ -55,6 +55,11 @@ public class JaxbOptions implements Options {
    * <code>true</code> to ask the user to create a new repository if it not exists.
    */
   private boolean askUserToCreateNewRepoIfNotExist = false;
+  
+  /**
+   * <code>true</code> to maintain the commit-graph file of the repository.
+   */
+  private boolean maintainCommitGraph = false;
 	
 	/**
 	 * <code>true</code> to reject commit on validation problems.
@@ -631,4 +636,14 @@ public class JaxbOptions implements Options {
     return askUserToCreateNewRepoIfNotExist;
   }
 
+  @Override
+  public void setMaintainCommitGraph(boolean maintainCommitGraph) {
+    this.maintainCommitGraph = maintainCommitGraph;
+  }
+
+  @Override
+  public boolean getMaintainCommitGraph() {
+    return maintainCommitGraph;
+  }
+
 }
@@ -166,4 +166,9 @@ public class OptionTags {
    */
   public static final String ASK_USER_TO_CREATE_REPO = "com.oxygenxml.git.ask.user.to.create.repo";
 
+  /**
+   * The tag option to maintain the commit-graph file of the repository.
+   */
+  public static final String MAINTAIN_COMMIT_GRAPH = "com.oxygenxml.git.maintain.commit.graph";
+
 }
@@ -352,4 +352,15 @@ public interface Options {
    * @return <code>true</code> to ask the user to create a new repository if it not exists.
    */
   public boolean getAskUserToCreateNewRepoIfNotExist();
+  
+  /**
+   * @param maintainCommitGraph <code>true</code> to maintain the commit-graph file of the repository
+   * and to enable reading it.
+   */
+  public void setMaintainCommitGraph(final boolean maintainCommitGraph);
+  
+  /**
+   * @return <code>true</code> to maintain the commit-graph file of the repository and to enable reading it.
+   */
+  public boolean getMaintainCommitGraph();
 }
@@ -815,6 +815,21 @@ public class OptionsManager {
     return getOptions().getAskUserToCreateNewRepoIfNotExist();
   }
   
+  /**
+   * @param maintainCommitGraph <code>true</code> to maintain the commit-graph file of the repository
+   * and to enable reading it.
+   */
+  public void setMaintainCommitGraph(final boolean maintainCommitGraph) {
+    getOptions().setMaintainCommitGraph(maintainCommitGraph);
+  }
+  
+  /**
+   * @return <code>true</code> to maintain the commit-graph file of the repository and to enable reading it.
+   */
+  public boolean isMaintainCommitGraph() {
+    return getOptions().getMaintainCommitGraph();
+  }
+  
   /**
    * Remove credentials from a given host. 
    * The credentials will be removed for both, token and user + password authentication.
@@ -595,4 +595,14 @@ public class TagBasedOptions implements Options {
     return Boolean.parseBoolean(wsOptionsStorage.getOption(OptionTags.ASK_USER_TO_CREATE_REPO, FALSE));
   }
   
+  @Override
+  public void setMaintainCommitGraph(boolean maintainCommitGraph) {
+    wsOptionsStorage.setOption(OptionTags.MAINTAIN_COMMIT_GRAPH, Boolean.toString(maintainCommitGraph));
+  }
+
+  @Override
+  public boolean getMaintainCommitGraph() {
+    return Boolean.parseBoolean(wsOptionsStorage.getOption(OptionTags.MAINTAIN_COMMIT_GRAPH, FALSE));
+  }
+  
 }
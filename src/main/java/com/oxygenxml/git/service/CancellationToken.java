@@ -0,0 +1,106 @@
+package com.oxygenxml.git.service;
+
+import java.util.concurrent.CancellationException;
+
+import org.eclipse.jgit.lib.EmptyProgressMonitor;
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+/**
+ * Signals that a long running computation is no longer needed. The computation checks
+ * the token from time to time and stops early when it was cancelled.
+ */
+public class CancellationToken {
+  /**
+   * <code>true</code> if the computation was cancelled.
+   */
+  private volatile boolean cancelled = false;
+
+  /**
+   * A token whose cancellation also cancels this one. May be <code>null</code>.
+   */
+  private final CancellationToken parent;
+
+  /**
+   * Constructor.
+   */
+  public CancellationToken() {
+    this(null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param parent A token whose cancellation also cancels this one. May be <code>null</code>.
+   */
+  public CancellationToken(CancellationToken parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Cancels the computation.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * @return <code>true</code> if the computation was cancelled.
+   */
+  public boolean isCancelled() {
+    return cancelled || parent != null && parent.isCancelled();
+  }
+
+  /**
+   * Stops the computation if it was cancelled.
+   *
+   * @throws CancellationException If the computation was cancelled.
+   */
+  public void checkCancelled() {
+    if (isCancelled()) {
+      throw new CancellationException();
+    }
+  }
+
+  /**
+   * @return A JGit progress monitor that reports the cancellation of this token. JGit
+   * commands check it while they walk trees or transfer objects.
+   */
+  public ProgressMonitor asProgressMonitor() {
+    return new EmptyProgressMonitor() {
+      @Override
+      public boolean isCancelled() {
+        return CancellationToken.this.isCancelled();
+      }
+    };
+  }
+
+  /**
+   * @return A JGit progress monitor that reports the progress like {@link #asProgressMonitor()},
+   * but never asks JGit to stop. Used for the steps that must not stop halfway, like a
+   * checkout.
+   */
+  public ProgressMonitor asUninterruptibleProgressMonitor() {
+    ProgressMonitor monitor = asProgressMonitor();
+    return new EmptyProgressMonitor() {
+      @Override
+      public void start(int totalTasks) {
+        monitor.start(totalTasks);
+      }
+
+      @Override
+      public void beginTask(String title, int totalWork) {
+        monitor.beginTask(title, totalWork);
+      }
+
+      @Override
+      public void update(int completed) {
+        monitor.update(completed);
+      }
+
+      @Override
+      public void endTask() {
+        monitor.endTask();
+      }
+    };
+  }
+}
@@ -0,0 +1,125 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphLoader;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphWriter;
+import org.eclipse.jgit.internal.storage.commitgraph.GraphCommits;
+import org.eclipse.jgit.internal.storage.file.ObjectDirectory;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and writes commit-graph files. JGit has no public API for them, so this is
+ * the only class that uses its internal commit-graph packages. They can change in any
+ * JGit release: the callers must treat a {@link LinkageError} thrown from here as
+ * "commit-graph files not supported".
+ */
+final class CommitGraphFiles {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(CommitGraphFiles.class);
+
+  /**
+   * Suffix of the file that locks the commit-graph while it is written, as used by Git.
+   */
+  private static final String LOCK_SUFFIX = ".lock";
+
+  /**
+   * Utility class.
+   */
+  private CommitGraphFiles() {}
+
+  /**
+   * @param repository The repository.
+   *
+   * @return The commit-graph file of the repository, or <code>null</code> if the
+   * objects are not stored in a directory.
+   */
+  static File getGraphFile(Repository repository) {
+    File graphFile = null;
+    if (repository.getObjectDatabase() instanceof ObjectDirectory) {
+      graphFile = new File(
+          ((ObjectDirectory) repository.getObjectDatabase()).getDirectory(),
+          Constants.INFO_COMMIT_GRAPH);
+    }
+    return graphFile;
+  }
+
+  /**
+   * @param graphFile The commit-graph file.
+   * @param commits   Some commits.
+   *
+   * @return <code>true</code> if the commit-graph exists and contains all the commits.
+   *
+   * @throws IOException The file is corrupted or written by a newer Git.
+   */
+  static boolean containsAll(File graphFile, Set<ObjectId> commits) throws IOException {
+    boolean containsAll = false;
+    if (graphFile.isFile()) {
+      CommitGraph graph = CommitGraphLoader.open(graphFile);
+      containsAll = commits.stream().allMatch(commit -> graph.findGraphPosition(commit) >= 0);
+    }
+    return containsAll;
+  }
+
+  /**
+   * Walks the commits reachable from some tips and writes them in the commit-graph file.
+   * The file is written next to it and then moved over it, so JGit and Git never read
+   * a partial file.
+   *
+   * @param graphFile The commit-graph file.
+   * @param tips      The commits from which to walk.
+   * @param walk      The walk that parses the commits.
+   *
+   * @return <code>true</code> if the file was written, <code>false</code> if another
+   * process is writing it.
+   *
+   * @throws IOException Unable to read the commits or to write the file.
+   */
+  static boolean write(File graphFile, Set<ObjectId> tips, RevWalk walk) throws IOException {
+    GraphCommits commits = GraphCommits.fromWalk(NullProgressMonitor.INSTANCE, tips, walk);
+
+    boolean written = false;
+    Path lock = new File(graphFile.getParentFile(), graphFile.getName() + LOCK_SUFFIX).toPath();
+    OutputStream out = null;
+    try {
+      out = Files.newOutputStream(lock, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    } catch (FileAlreadyExistsException e) {
+      // Git or another instance is writing it.
+      LOGGER.debug(e.getMessage(), e);
+    }
+
+    if (out != null) {
+      try {
+        try {
+          new CommitGraphWriter(commits).write(NullProgressMonitor.INSTANCE, out);
+        } finally {
+          out.close();
+        }
+        Files.move(lock, graphFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        written = true;
+      } finally {
+        if (!written) {
+          Files.deleteIfExists(lock);
+        }
+      }
+    }
+    return written;
+  }
+}
@@ -0,0 +1,249 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.metrics.GitMetrics;
+import com.oxygenxml.git.utils.RepoUtil;
+
+/**
+ * Maintains the commit-graph file of the opened repository, when the user enabled it
+ * in the options. The file holds the parents, generation numbers, commit times and tree
+ * ids of all the commits, in the format used by Git. JGit maps it and the revision walks
+ * (the history, the commits ahead and behind, the merge bases) read the commit headers
+ * from it instead of inflating the commit objects.
+ * <br><br>
+ * The file is rewritten in the background when a branch or a tag points to a commit
+ * it doesn't contain.
+ */
+public class CommitGraphMaintainer {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(CommitGraphMaintainer.class);
+
+  /**
+   * Delay before updating, so that the changes of an operation are covered by one update. Milliseconds.
+   */
+  private static final int UPDATE_DELAY = 2000;
+
+  /**
+   * Singleton instance.
+   */
+  private static CommitGraphMaintainer instance;
+
+  /**
+   * The references for which the commit-graph was last found up to date, by Git directory.
+   */
+  private final Map<File, Integer> checkedRefs = new ConcurrentHashMap<>();
+
+  /**
+   * The Git directories of the repositories with an update scheduled or running.
+   */
+  private final Set<File> pendingUpdates = ConcurrentHashMap.newKeySet();
+
+  /**
+   * <code>false</code> if the JGit on the class path can't read or write commit-graph files.
+   */
+  private volatile boolean supported = true;
+
+  /**
+   * Singleton private constructor.
+   */
+  private CommitGraphMaintainer() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized CommitGraphMaintainer getInstance() {
+    if (instance == null) {
+      instance = new CommitGraphMaintainer();
+    }
+    return instance;
+  }
+
+  /**
+   * Updates the commit-graph of a repository in the background. Does nothing if an
+   * update is already pending for the repository or if the user didn't enable
+   * the maintenance of the commit-graph.
+   *
+   * @param repository The repository.
+   */
+  public void scheduleUpdate(Repository repository) {
+    File gitDir = repository.getDirectory().getAbsoluteFile();
+    if (isEnabled() && pendingUpdates.add(gitDir)) {
+      GitQueryExecutor.getInstance().schedule(() -> {
+        pendingUpdates.remove(gitDir);
+        try {
+          update(repository);
+        } catch (IOException e) {
+          LOGGER.debug(e.getMessage(), e);
+        }
+      }, UPDATE_DELAY);
+    }
+  }
+
+  /**
+   * Rewrites the commit-graph of a repository if a branch or a tag points to a commit
+   * it doesn't contain, and enables reading it. Does nothing if the user didn't enable
+   * the maintenance of the commit-graph.
+   * <br><br>
+   * Only the references are read under the {@link RepositoryGate}. The commits are walked
+   * and the file is written without it, so that the repository changes don't wait for them.
+   *
+   * @param repository The repository.
+   *
+   * @return <code>true</code> if the commit-graph was rewritten.
+   *
+   * @throws IOException Unable to read the commits or to write the file.
+   */
+  public boolean update(Repository repository) throws IOException {
+    boolean written = false;
+    if (isEnabled()) {
+      try {
+        written = updateGraph(repository);
+      } catch (LinkageError e) {
+        // The commit-graph classes of JGit changed.
+        supported = false;
+        LOGGER.warn("Unable to maintain the commit-graph: " + e.getMessage(), e);
+      }
+    }
+    return written;
+  }
+
+  /**
+   * @return <code>true</code> if the user enabled the maintenance of the commit-graph
+   * and JGit supports it.
+   */
+  private boolean isEnabled() {
+    return supported && OptionsManager.getInstance().isMaintainCommitGraph();
+  }
+
+  /**
+   * Rewrites the commit-graph of a repository if a branch or a tag points to a commit
+   * it doesn't contain, and enables reading it.
+   *
+   * @param repository The repository.
+   *
+   * @return <code>true</code> if the commit-graph was rewritten.
+   *
+   * @throws IOException Unable to read the commits or to write the file.
+   */
+  private boolean updateGraph(Repository repository) throws IOException {
+    boolean written = false;
+    File graphFile = CommitGraphFiles.getGraphFile(repository);
+    if (graphFile != null) {
+      File gitDir = repository.getDirectory().getAbsoluteFile();
+      try (RevWalk walk = new RevWalk(repository)) {
+        Set<ObjectId> tips = new HashSet<>();
+        int refs;
+        try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().read(repository)) {
+          List<Ref> allRefs = repository.getRefDatabase().getRefs();
+          refs = RepoUtil.hashRefs(allRefs);
+          for (Ref ref : allRefs) {
+            addTip(walk, ref, tips);
+          }
+        }
+
+        boolean upToDate = tips.isEmpty()
+            || Objects.equals(checkedRefs.get(gitDir), refs)
+            || containsAll(graphFile, tips);
+        if (!upToDate) {
+          try (GitMetrics.Timing timing = GitMetrics.getInstance().time(GitMetrics.COMMIT_GRAPH_WRITE)) {
+            written = CommitGraphFiles.write(graphFile, tips, walk);
+          }
+          upToDate = written;
+        }
+        if (upToDate) {
+          checkedRefs.put(gitDir, refs);
+        }
+      }
+
+      if (graphFile.exists()) {
+        enableCommitGraph(repository);
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Adds the commit a reference points to.
+   *
+   * @param walk The walk that parses the objects.
+   * @param ref  The reference.
+   * @param tips Receives the commit, if the reference points to a commit.
+   */
+  private static void addTip(RevWalk walk, Ref ref, Set<ObjectId> tips) {
+    ObjectId id = ref.getObjectId();
+    if (id != null) {
+      try {
+        RevObject object = walk.peel(walk.parseAny(id));
+        if (object instanceof RevCommit) {
+          tips.add(object.copy());
+        }
+      } catch (IOException e) {
+        // A reference to a missing object. Nothing to index for it.
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * @param graphFile The commit-graph file.
+   * @param commits   Some commits.
+   *
+   * @return <code>true</code> if the commit-graph exists and contains all the commits.
+   */
+  private static boolean containsAll(File graphFile, Set<ObjectId> commits) {
+    boolean containsAll = false;
+    try {
+      containsAll = CommitGraphFiles.containsAll(graphFile, commits);
+    } catch (IOException e) {
+      // Corrupted or written by a newer Git. Rewrite it.
+      LOGGER.debug(e.getMessage(), e);
+    }
+    return containsAll;
+  }
+
+  /**
+   * Enables reading the commit-graph, unless the user configured otherwise. Git reads
+   * it by default, JGit only when core.commitGraph is set. Called only when the user
+   * enabled the maintenance of the commit-graph, which sets this configuration.
+   * The configuration is changed under the {@link RepositoryGate}, like the other
+   * changes of the repository.
+   *
+   * @param repository The repository.
+   *
+   * @throws IOException Unable to save the configuration.
+   */
+  private static void enableCommitGraph(Repository repository) throws IOException {
+    StoredConfig config = repository.getConfig();
+    if (config.getString(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH) == null) {
+      try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().write(repository)) {
+        // Checked again, the configuration might have been changed while waiting.
+        if (config.getString(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH) == null) {
+          config.setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH, true);
+          config.save();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.oxygenxml.git.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+
+/**
+ * File statuses indexed by their repository relative path. The paths are kept sorted,
+ * so the statuses from a directory are found with a range lookup, without visiting
+ * the other entries.
+ */
+public class FileStatusIndex {
+  /**
+   * The last character that can appear in a path. Used as the upper bound of a directory range.
+   */
+  private static final char MAX_PATH_CHAR = '\uffff';
+  /**
+   * The statuses, by path. A path can have more than one status, for example a conflict
+   * that is also modified.
+   */
+  private final NavigableMap<String, List<FileStatus>> statuses = new TreeMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param files The initial statuses.
+   */
+  public FileStatusIndex(Collection<FileStatus> files) {
+    files.forEach(this::add);
+  }
+
+  /**
+   * Adds a status.
+   *
+   * @param file The status to add.
+   */
+  public void add(FileStatus file) {
+    statuses.computeIfAbsent(file.getFileLocation(), k -> new ArrayList<>(1)).add(file);
+  }
+
+  /**
+   * Removes the statuses of the given paths. A directory path removes all the statuses
+   * from inside the directory.
+   *
+   * @param paths Repository relative files or directories.
+   */
+  public void removeAll(Collection<String> paths) {
+    for (String path : paths) {
+      statuses.remove(path);
+      getDirectoryRange(path).clear();
+    }
+  }
+
+  /**
+   * Collects the statuses of the given paths. A directory path collects all the statuses
+   * from inside the directory.
+   *
+   * @param paths Repository relative files or directories.
+   *
+   * @return The statuses, ordered by path.
+   */
+  public List<FileStatus> get(Collection<String> paths) {
+    NavigableMap<String, List<FileStatus>> found = new TreeMap<>();
+    for (String path : paths) {
+      List<FileStatus> exact = statuses.get(path);
+      if (exact != null) {
+        found.put(path, exact);
+      }
+      found.putAll(getDirectoryRange(path));
+    }
+    return flatten(found);
+  }
+
+  /**
+   * @return All the statuses, ordered by path.
+   */
+  public List<FileStatus> getAll() {
+    return flatten(statuses);
+  }
+
+  /**
+   * @param dir A repository relative directory.
+   *
+   * @return A view of the statuses from inside the given directory.
+   */
+  private NavigableMap<String, List<FileStatus>> getDirectoryRange(String dir) {
+    String prefix = dir + "/";
+    return statuses.subMap(prefix, true, prefix + MAX_PATH_CHAR, false);
+  }
+
+  /**
+   * @param map Statuses, by path.
+   *
+   * @return All the statuses in a list.
+   */
+  private static List<FileStatus> flatten(Map<String, List<FileStatus>> map) {
+    List<FileStatus> list = new ArrayList<>(map.size());
+    for (List<FileStatus> files : map.values()) {
+      list.addAll(files);
+    }
+    return list;
+  }
+}
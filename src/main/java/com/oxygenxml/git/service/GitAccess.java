@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -18,7 +19,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
 
 import org.apache.sshd.common.SshConstants;
 import org.apache.sshd.common.SshException;
@@ -32,13 +35,14 @@ import org.eclipse.jgit.api.CreateBranchCommand;
 import org.eclipse.jgit.api.CreateBranchCommand.SetupUpstreamMode;
 import org.eclipse.jgit.api.DeleteBranchCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.GitCommand;
 import org.eclipse.jgit.api.ListBranchCommand.ListMode;
 import org.eclipse.jgit.api.LogCommand;
+import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.MergeCommand;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
 import org.eclipse.jgit.api.MergeResult;
 import org.eclipse.jgit.api.MergeResult.MergeStatus;
-import org.eclipse.jgit.api.PullCommand;
-import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.PushCommand;
 import org.eclipse.jgit.api.RebaseCommand.Operation;
 import org.eclipse.jgit.api.RebaseResult;
@@ -52,8 +56,10 @@ import org.eclipse.jgit.api.errors.AbortedByHookException;
 import org.eclipse.jgit.api.errors.CheckoutConflictException;
 import org.eclipse.jgit.api.errors.ConcurrentRefUpdateException;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.InvalidConfigurationException;
 import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.api.errors.NoMessageException;
+import org.eclipse.jgit.api.errors.RefNotAdvertisedException;
 import org.eclipse.jgit.api.errors.StashApplyFailureException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.api.errors.UnmergedPathsException;
@@ -74,6 +80,7 @@ import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.Ref;
@@ -90,6 +97,7 @@ import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.submodule.SubmoduleWalk;
 import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.PushResult;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.RemoteRefUpdate;
@@ -117,6 +125,7 @@ import com.oxygenxml.git.service.exceptions.PrivateRepositoryException;
 import com.oxygenxml.git.service.exceptions.RebaseConflictsException;
 import com.oxygenxml.git.service.exceptions.RebaseUncommittedChangesException;
 import com.oxygenxml.git.service.exceptions.RepoNotInitializedException;
+import com.oxygenxml.git.service.exceptions.RepositoryBusyException;
 import com.oxygenxml.git.service.exceptions.RepositoryUnavailableException;
 import com.oxygenxml.git.service.exceptions.SSHPassphraseRequiredException;
 import com.oxygenxml.git.translator.Tags;
@@ -203,6 +212,10 @@ public class GitAccess {
 	 * Keeps a cache of the computed status to avoid processing overhead.
 	 */
 	private StatusCache statusCache = null;
+	/**
+	 * Lets the read-only operations run together and the changes run alone.
+	 */
+	private final RepositoryGate repositoryGate = new RepositoryGate();
 
 	/**
 	 * Singleton instance.
@@ -218,6 +231,49 @@ public class GitAccess {
     return statusCache;
   }
 
+	/**
+	 * @return The gate that coordinates the read-only operations and the changes of the repositories.
+	 */
+	public RepositoryGate getRepositoryGate() {
+	  return repositoryGate;
+	}
+	
+	/**
+	 * Calls a command that changes the index, the working tree or HEAD. It waits for the
+	 * read-only operations in progress and no other operation starts until it ends.
+	 * 
+	 * @param <T>     The result type.
+	 * @param command The command.
+	 * 
+	 * @return The result of the command.
+	 * 
+	 * @throws GitAPIException If the command fails.
+	 */
+	private <T> T callExclusively(GitCommand<T> command) throws GitAPIException {
+	  try (RepositoryGate.Access access = writeAccess(command.getRepository())) {
+	    return command.call();
+	  }
+	}
+
+	/**
+	 * Waits for the read-only operations in progress before changing a repository.
+	 * No other operation starts until the access is closed.
+	 * 
+	 * @param repository The repository to change.
+	 * 
+	 * @return The access. Close it after the change.
+	 * 
+	 * @throws RepositoryBusyException If the change cannot start on the current thread,
+	 * for example on the AWT thread while other operations read the repository.
+	 */
+	private RepositoryGate.Access writeAccess(Repository repository) throws RepositoryBusyException {
+	  try {
+	    return repositoryGate.write(repository);
+	  } catch (IllegalStateException e) {
+	    throw new RepositoryBusyException(e);
+	  }
+	}
+
 	/**
 	 * @return the singleton instance.
 	 */
@@ -536,6 +592,33 @@ public class GitAccess {
   public GitStatus getStatus() {
     return statusCache.getStatus();
   }
+  
+  /**
+   * Gets the status of the Working Copy. If a new status must be computed, the status of
+   * the groups of subtrees are delivered as soon as they are available.
+   * 
+   * @param batchListener Receives partial statuses, on the threads that compute them.
+   * 
+   * @return A status of the Working Copy, with the unstaged and staged files.
+   */
+  public GitStatus getStatus(Consumer<GitStatus> batchListener) {
+    return getStatus(batchListener, null);
+  }
+	
+  /**
+   * Gets the status of the Working Copy. The user can cancel the computation.
+   * 
+   * @param batchListener Receives partial statuses, on the threads that compute them.
+   *                      May be <code>null</code>.
+   * @param token         Stops the computation when cancelled. May be <code>null</code>.
+   * 
+   * @return A status of the Working Copy, with the unstaged and staged files.
+   * 
+   * @throws CancellationException If the token was cancelled.
+   */
+  public GitStatus getStatus(Consumer<GitStatus> batchListener, CancellationToken token) {
+    return statusCache.getStatus(batchListener, token);
+  }
 	
 	/**
    * Makes a diff between the files from the last commit and the files from the
@@ -566,8 +649,9 @@ public class GitAccess {
       }
       
       if (paths != null && !paths.isEmpty()) {
-        // We have paths. Build a fresh copy.
-        return new GitStatusCommand(() -> git).getUnstagedFiles(paths);
+        // We have paths. Answer from the cache, if there is one, otherwise build a fresh copy.
+        List<FileStatus> unstagedFiles = statusCache.getUnstagedFiles(paths);
+        return unstagedFiles != null ? unstagedFiles : new GitStatusCommand(() -> git).getUnstagedFiles(paths);
       } else {
         return statusCache.getStatus().getUnstagedFiles();
       }
@@ -581,7 +665,7 @@ public class GitAccess {
    * @return API for working with submodules.
    */
 	public SubmoduleAccess getSubmoduleAccess() {
-	  return SubmoduleAccess.wrap(() -> git);
+	  return SubmoduleAccess.wrap(() -> git, () -> statusCache.getSubmoduleStatusSnapshot());
 	}
 
 	/**
@@ -602,10 +686,13 @@ public class GitAccess {
 		  Repository submoduleRepository = SubmoduleWalk.getSubmoduleRepository(parentRepository, submodule);
 		  if (submoduleRepository == null) {
 		    // The submodule wasn't updated.
-		    git.submoduleInit().call();
+		    try (RepositoryGate.Access access = writeAccess(parentRepository)) {
+		      git.submoduleInit().call();
+		    }
 		    
+		    // The clone changes only the repository of the submodule, so it doesn't hold the gate.
 		    CredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
-        git.submoduleUpdate().setCredentialsProvider(credentialsProvider).call();
+		    git.submoduleUpdate().setCredentialsProvider(credentialsProvider).call();
 
 		    submoduleRepository = SubmoduleWalk.getSubmoduleRepository(parentRepository, submodule);
 		  }
@@ -679,7 +766,7 @@ public class GitAccess {
 	  Collection<String> filePaths = getFilePaths(files);
 		try {
 		  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.COMMIT, filePaths));
-		  git.commit().setMessage(message).setAmend(isAmendLastCommit).call();
+		  callExclusively(git.commit().setMessage(message).setAmend(isAmendLastCommit));
 		  fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.COMMIT, filePaths));
 		} catch (GitAPIException e) {
 		  fireOperationFailed(new FileGitEventInfo(GitOperation.COMMIT, filePaths), e);
@@ -711,6 +798,7 @@ public class GitAccess {
 	public void closeRepo() {
 		if (git != null) {
 		  AuthenticationInterceptor.unbind(getHostName());
+		  statusCache.dispose();
 			git.close();
 		}
 	}
@@ -832,7 +920,7 @@ public class GitAccess {
 	public void createBranch(String branchName) {
 		try {
 		  fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, branchName));
-			git.branchCreate().setName(branchName).call();
+			callExclusively(git.branchCreate().setName(branchName));
 			fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, branchName));
 		} catch (GitAPIException e) {
 		  fireOperationFailed(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, branchName), e);
@@ -849,7 +937,7 @@ public class GitAccess {
   public void createBranch(String branchName, String sourceCommit) {
     try {
       fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, branchName));
-      git.branchCreate().setName(branchName).setStartPoint(sourceCommit).call();
+      callExclusively(git.branchCreate().setName(branchName).setStartPoint(sourceCommit));
       fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, branchName));
     } catch (GitAPIException e) {
       fireOperationFailed(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, branchName), e);
@@ -870,10 +958,9 @@ public class GitAccess {
 	    String sourceBranch) throws GitAPIException {
 	  fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, newBranchName));
 	  try {
-      git.branchCreate()
+      callExclusively(git.branchCreate()
         .setName(newBranchName)
-        .setStartPoint(sourceBranch)
-        .call();
+        .setStartPoint(sourceBranch));
       
       fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CREATE_BRANCH, newBranchName));
     } catch (GitAPIException e) {
@@ -892,7 +979,7 @@ public class GitAccess {
 	  command.setForce(true);
 	  try {
 	    fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.DELETE_BRANCH, branchName));
-	      command.call();
+	      callExclusively(command);
 	      fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.DELETE_BRANCH, branchName));
 	  } catch(GitAPIException e) {
 	    fireOperationFailed(new BranchGitEventInfo(GitOperation.DELETE_BRANCH, branchName), e);
@@ -911,6 +998,26 @@ public class GitAccess {
 	 */
 	public PushResponse push(CredentialsProvider credentialsProvider)
 			throws GitAPIException {
+	  return push(credentialsProvider, null);
+	}
+
+	/**
+	 * Pushes all the commits from the local repository to the remote repository
+	 * 
+	 * @param credentialsProvider The credentials provider.
+	 * @param token               Reports the progress and stops the transfer when cancelled.
+	 *                            May be <code>null</code>.
+	 * 
+	 * @return a response.
+	 *          
+	 * @throws GitAPIException
+	 * @throws CancellationException If the token was cancelled before the push started.
+	 */
+	public PushResponse push(CredentialsProvider credentialsProvider, CancellationToken token)
+	    throws GitAPIException {
+	  if (token != null) {
+	    token.checkCancelled();
+	  }
 
 		AuthenticationInterceptor.install();
 
@@ -946,6 +1053,9 @@ public class GitAccess {
 
 
 		PushCommand pushCommand = git.push().setCredentialsProvider(credentialsProvider).setRemote(getRemoteFromCurrentBranch());
+		if (token != null) {
+		  pushCommand.setProgressMonitor(token.asProgressMonitor());
+		}
 		String localBranchName = getBranchInfo().getBranchName();
 		String upstreamBranch = getUpstreamBranchShortNameFromConfig(localBranchName);
 		if (upstreamBranch != null) {
@@ -1012,6 +1122,37 @@ public class GitAccess {
       CredentialsProvider credentialsProvider,
       PullType pullType,
       boolean updateSubmodules) throws GitAPIException {
+    return pull(credentialsProvider, pullType, updateSubmodules, null);
+  }
+
+  /**
+   * Pulls the files that are not on the local repository from the remote
+   * repository
+   * 
+   * @param credentialsProvider Credentials provider.
+   * @param pullType            One of ff, no-ff, ff-only, rebase.
+   * @param updateSubmodules    <code>true</code> to execute the equivalent of a "git submodule update --recursive"
+   * @param token               Reports the progress and stops the fetch when cancelled. Once the
+   *                            objects are transferred, the merge or rebase runs to the end.
+   *                            May be <code>null</code>.
+   * 
+   * @return The result, if successful.
+   *  
+   * @throws CheckoutConflictException There is a conflict between the local
+   *                                   repository and the remote one. The same
+   *                                   file that is in conflict is changed inside
+   *                                   the working copy so operation is aborted.
+   * @throws GitAPIException other errors.
+   * @throws CancellationException If the token was cancelled before the merge or rebase started.
+   */
+  public PullResponse pull(
+      CredentialsProvider credentialsProvider,
+      PullType pullType,
+      boolean updateSubmodules,
+      CancellationToken token) throws GitAPIException {
+    if (token != null) {
+      token.checkCancelled();
+    }
 	  PullResponse pullResponseToReturn = new PullResponse(PullStatus.OK, new HashSet<>());
 	  AuthenticationInterceptor.install();
 
@@ -1021,16 +1162,63 @@ public class GitAccess {
 
 		  // Call "Pull"
 		  Repository repository = git.getRepository();
+		  if (repository.getRepositoryState() != RepositoryState.SAFE) {
+		    throw new WrongRepositoryStateException(MessageFormat.format(
+		        JGitText.get().cannotPullOnARepoWithState, repository.getRepositoryState().name()));
+		  }
 		  ObjectId oldHead = resolveHead(repository);
-      PullCommand pullCmd = git.pull()
-          .setRebase(PullType.REBASE == pullType)
-          .setCredentialsProvider(credentialsProvider)
-          .setRemote(getRemoteFromCurrentBranch());
-      PullResult pullCommandResult = pullCmd.call();
+		  String remote = getRemoteFromCurrentBranch();
+
+		  // Like the pull command, but only the merge or the rebase runs under the repository
+		  // gate. The objects are fetched first, so the status and the history don't wait for
+		  // the transfer. Only the transfer can be cancelled: the merge and the rebase pass
+		  // their progress monitor to the checkout too and a cancelled checkout leaves the index
+		  // and the working tree half updated.
+		  FetchCommand fetchCmd = git.fetch()
+		      .setCredentialsProvider(credentialsProvider)
+		      .setRemote(remote);
+		  if (token != null) {
+		    fetchCmd.setProgressMonitor(token.asProgressMonitor());
+		  }
+		  FetchResult fetchResult = fetchCmd.call();
+		  if (token != null) {
+		    token.checkCancelled();
+		  }
+		  ProgressMonitor monitor = token != null ? token.asUninterruptibleProgressMonitor() : NullProgressMonitor.INSTANCE;
+
+		  MergeResult mergeResult = null;
+		  RebaseResult rebaseResult = null;
+		  try (RepositoryGate.Access access = writeAccess(repository)) {
+		    String branchName = getBranchInfo().getBranchName();
+		    String upstreamBranch = new BranchConfig(repository.getConfig(), branchName).getMerge();
+		    if (upstreamBranch == null) {
+		      throw new InvalidConfigurationException(MessageFormat.format(
+		          JGitText.get().missingConfigurationForKey,
+		          ConfigConstants.CONFIG_BRANCH_SECTION + "." + branchName + "." + ConfigConstants.CONFIG_KEY_MERGE));
+		    }
+		    ObjectId upstreamCommit = getFetchedCommit(fetchResult, remote, upstreamBranch);
+		    String upstreamName = MessageFormat.format(
+		        JGitText.get().upstreamBranchName,
+		        Repository.shortenRefName(upstreamBranch),
+		        repository.getConfig().getString(ConfigConstants.CONFIG_REMOTE_SECTION, remote, ConfigConstants.CONFIG_KEY_URL));
+		    if (PullType.REBASE == pullType && oldHead != null) {
+		      rebaseResult = git.rebase()
+		          .setUpstream(upstreamCommit)
+		          .setUpstreamName(upstreamName)
+		          .setProgressMonitor(monitor)
+		          .call();
+		    } else {
+		      // Also the first pull in an empty repository, which checks out the fetched commit.
+		      mergeResult = git.merge()
+		          .include(upstreamName, upstreamCommit)
+		          .setProgressMonitor(monitor)
+		          .setFastForward(getPullFastForwardMode(repository))
+		          .call();
+		    }
+		  }
 
 		  // Get fetch result
-		  Collection<TrackingRefUpdate> trackingRefUpdates = pullCommandResult.getFetchResult().getTrackingRefUpdates();
-		  String lockFailureMessage = createLockFailureMessageIfNeeded(trackingRefUpdates);
+		  String lockFailureMessage = createLockFailureMessageIfNeeded(fetchResult.getTrackingRefUpdates());
 		  if (!lockFailureMessage.isEmpty()) {
 		    // Lock failure
 		   PluginWorkspaceProvider.getPluginWorkspace()
@@ -1042,11 +1230,10 @@ public class GitAccess {
 		      refreshProject(repository, oldHead, head);
 		    }
 
-		    RebaseResult rebaseResult = pullCommandResult.getRebaseResult();
 		    if (rebaseResult != null) {
 		      treatRebaseResult(pullResponseToReturn, rebaseResult);
 		    } else { 
-		    treatMergeResult(pullResponseToReturn, pullCommandResult.getMergeResult());
+		    treatMergeResult(pullResponseToReturn, mergeResult);
 		  }
 		}
 		}
@@ -1063,6 +1250,41 @@ public class GitAccess {
 
 	}
 
+	/**
+	 * @param fetchResult    The result of a fetch.
+	 * @param remote         The fetched remote.
+	 * @param upstreamBranch The name of the upstream branch on the remote, from the
+	 *                       configuration of the current branch.
+	 * 
+	 * @return The commit of the upstream branch, as fetched.
+	 * 
+	 * @throws RefNotAdvertisedException If the remote doesn't have the branch.
+	 */
+	private static ObjectId getFetchedCommit(FetchResult fetchResult, String remote, String upstreamBranch)
+	    throws RefNotAdvertisedException {
+	  Ref ref = fetchResult.getAdvertisedRef(upstreamBranch);
+	  if (ref == null) {
+	    ref = fetchResult.getAdvertisedRef(Constants.R_HEADS + upstreamBranch);
+	  }
+	  if (ref == null) {
+	    throw new RefNotAdvertisedException(MessageFormat.format(
+	        JGitText.get().couldNotGetAdvertisedRef, remote, upstreamBranch));
+	  }
+	  return ref.getObjectId();
+	}
+
+	/**
+	 * @param repository The repository.
+	 * 
+	 * @return The fast-forward mode configured for pulls, or <code>null</code> to use
+	 * the one configured for merges.
+	 */
+	private static FastForwardMode getPullFastForwardMode(Repository repository) {
+	  FastForwardMode.Merge mode = repository.getConfig().getEnum(
+	      FastForwardMode.Merge.values(), ConfigConstants.CONFIG_PULL_SECTION, null, ConfigConstants.CONFIG_KEY_FF, null);
+	  return mode != null ? FastForwardMode.valueOf(mode) : null;
+	}
+
 	/**
    * Treat rebase result.
    * 
@@ -1280,9 +1502,9 @@ public class GitAccess {
 	  try {
 	    fireOperationAboutToStart(new FileGitEventInfo(GitOperation.STAGE, filePaths));
 	    if (file.getChangeType().equals(GitChangeType.REMOVED)) {
-	      git.rm().addFilepattern(file.getFileLocation()).call();
+	      callExclusively(git.rm().addFilepattern(file.getFileLocation()));
 	    } else {
-	      git.add().addFilepattern(file.getFileLocation()).call();
+	      callExclusively(git.add().addFilepattern(file.getFileLocation()));
 	    }
 	    fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, filePaths));
 	  } catch (GitAPIException e) {
@@ -1319,11 +1541,11 @@ public class GitAccess {
 			}
 			
 			if (addCmd != null) {
-			  addCmd.call();
+			  callExclusively(addCmd);
 			}
 			
 			if (removeCmd != null) {
-			  removeCmd.call();
+			  callExclusively(removeCmd);
 			}
 			
 			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, filePaths));
@@ -1355,7 +1577,9 @@ public class GitAccess {
   public List<FileStatus> getStagedFile(Collection<String> paths) {
     if (git != null) {
       if (paths != null && !paths.isEmpty()) {
-        return new GitStatusCommand(() -> git).getStagedFile(paths);
+        // Answer from the cache, if there is one, otherwise build a fresh copy.
+        List<FileStatus> stagedFiles = statusCache.getStagedFiles(paths);
+        return stagedFiles != null ? stagedFiles : new GitStatusCommand(() -> git).getStagedFile(paths);
       } else {
         return statusCache.getStatus().getStagedFiles();
       }
@@ -1393,7 +1617,7 @@ public class GitAccess {
 				for (FileStatus file : files) {
 					reset.addPath(file.getFileLocation());
 				}
-				reset.call();
+				callExclusively(reset);
 			}
 			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.UNSTAGE, filePaths));
 		} catch (GitAPIException e) {
@@ -1530,7 +1754,7 @@ public class GitAccess {
   public void resetToCommit(ResetType resetType, String commitId) {
     fireOperationAboutToStart(new GitEventInfo(GitOperation.RESET_TO_COMMIT));
     try {
-      git.reset().setMode(resetType).setRef(commitId).call();
+      callExclusively(git.reset().setMode(resetType).setRef(commitId));
       fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.RESET_TO_COMMIT));
     } catch (GitAPIException e) {
       fireOperationFailed(new GitEventInfo(GitOperation.RESET_TO_COMMIT), e);
@@ -1553,7 +1777,7 @@ public class GitAccess {
       CheckoutCommand checkOut = GitAccess.getInstance().getGit().checkout();
       checkOut.setStartPoint(commitId);
       checkOut.addPath(path);
-      checkOut.call();
+      callExclusively(checkOut);
       fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.CHECKOUT_FILE));
     } catch (GitAPIException e) {
       fireOperationFailed(new GitEventInfo(GitOperation.CHECKOUT_FILE), e);
@@ -1589,7 +1813,7 @@ public class GitAccess {
       Repository repo = git.getRepository();
       try (RevWalk revWalk = new RevWalk(repo)) {
         RevCommit revcom = revWalk.parseCommit(getRepository().resolve(commitId));
-        git.revert().include(revcom).call();
+        callExclusively(git.revert().include(revcom));
         Set<String> conflictingFiles = getConflictingFiles();
         if (!conflictingFiles.isEmpty()) {
           MessagePresenterProvider.getBuilder(
@@ -1619,7 +1843,7 @@ public class GitAccess {
 		  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.DISCARD, paths));
 		  CheckoutCommand checkoutCmd = git.checkout();
 		  checkoutCmd.addPaths(paths);
-			checkoutCmd.call();
+			callExclusively(checkoutCmd);
 			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.DISCARD, paths));
 		} catch (GitAPIException e) {
       fireOperationFailed(new FileGitEventInfo(GitOperation.DISCARD, paths), e);
@@ -1688,6 +1912,21 @@ public class GitAccess {
 	 */
 	public void fetch()
 			throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  fetch(true);
+	}
+
+	/**
+	 * Brings all the commits to the local repository but does not merge them.
+	 * 
+	 * @param interactive <code>false</code> to never ask the user for credentials or pass phrases,
+	 * for example during a background fetch. The fetch fails instead.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	public void fetch(boolean interactive)
+	    throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
 	  LOGGER.debug("Begin fetch");
     if (git == null) {
       throw new RepositoryUnavailableException(new NoRepositorySelected("Repository is empty"));
@@ -1696,17 +1935,23 @@ public class GitAccess {
 		AuthenticationInterceptor.install();
 		
 		SSHCapableUserCredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
+		credentialsProvider.setInteractive(interactive);
 		try {
 			StoredConfig config = git.getRepository().getConfig();
 			Set<String> sections = config.getSections();
 			if (sections.contains(ConfigConstants.CONFIG_KEY_REMOTE)) {
-        git.fetch()
-            .setRefSpecs(new RefSpec("+refs/heads/*:refs/remotes/" + getRemoteFromCurrentBranch() + "/*"))
-            .setCheckFetchedObjects(true)
-            .setRemote(getRemoteFromCurrentBranch())
-            .setRemoveDeletedRefs(true)
-						.setCredentialsProvider(credentialsProvider)
-						.call();
+			  String remote = getRemoteFromCurrentBranch();
+			  if (areRemoteTrackingBranchesUpToDate(remote, credentialsProvider)) {
+			    LOGGER.debug("The remote-tracking branches are up to date. No need to fetch.");
+			  } else {
+			    git.fetch()
+			        .setRefSpecs(new RefSpec("+refs/heads/*:refs/remotes/" + remote + "/*"))
+			        .setCheckFetchedObjects(true)
+			        .setRemote(remote)
+			        .setRemoveDeletedRefs(true)
+			        .setCredentialsProvider(credentialsProvider)
+			        .call();
+			  }
 			}
 		} catch (TransportException e) {
 		  LOGGER.debug(e.getMessage(), e);
@@ -1734,6 +1979,47 @@ public class GitAccess {
 		LOGGER.debug("End fetch");
 	}
 
+	/**
+	 * Compares the branches advertised by the remote with the remote-tracking branches. Listing
+	 * the remote branches is a single small request, while a fetch also negotiates and checks
+	 * the objects.
+	 * 
+	 * @param remote              The remote.
+	 * @param credentialsProvider The credentials provider.
+	 * 
+	 * @return <code>true</code> if every remote branch has a remote-tracking branch with the
+	 * same tip and there are no other remote-tracking branches, so a fetch would change nothing.
+	 * 
+	 * @throws GitAPIException If the remote cannot be listed.
+	 */
+	private boolean areRemoteTrackingBranchesUpToDate(String remote, CredentialsProvider credentialsProvider) 
+	    throws GitAPIException {
+	  Map<String, ObjectId> advertised = new HashMap<>();
+	  Collection<Ref> remoteRefs = git.lsRemote()
+	      .setRemote(remote)
+	      .setHeads(true)
+	      .setCredentialsProvider(credentialsProvider)
+	      .call();
+	  for (Ref ref : remoteRefs) {
+	    advertised.put(ref.getName().substring(Constants.R_HEADS.length()), ref.getObjectId());
+	  }
+	  
+	  Map<String, ObjectId> tracking = new HashMap<>();
+	  String trackingPrefix = Constants.R_REMOTES + remote + "/";
+	  try {
+	    for (Ref ref : git.getRepository().getRefDatabase().getRefsByPrefix(trackingPrefix)) {
+	      if (!ref.isSymbolic()) {
+	        tracking.put(ref.getName().substring(trackingPrefix.length()), ref.getObjectId());
+	      }
+	    }
+	  } catch (IOException e) {
+	    LOGGER.debug(e.getMessage(), e);
+	    return false;
+	  }
+	  
+	  return advertised.equals(tracking);
+	}
+
 	/**
 	 * Replace with remote content. Useful when resolving a conflict using 'theirs'.
 	 * 
@@ -1741,7 +2027,7 @@ public class GitAccess {
 	 */
 	public void replaceWithRemoteContent(String filePath) {
 		try {
-			git.checkout().setStage(Stage.THEIRS).addPath(filePath).call();
+			callExclusively(git.checkout().setStage(Stage.THEIRS).addPath(filePath));
 		} catch (Exception e) {
 		  LOGGER.error(e.getMessage(), e);
 		}
@@ -1759,17 +2045,21 @@ public class GitAccess {
 	  return GitOperationScheduler.getInstance().schedule(() -> {
 	    try {
 	      Repository repo = getRepository();
-        RepositoryState repositoryState = repo.getRepositoryState();
+	      RepositoryState repositoryState = repo.getRepositoryState();
 	      if (repositoryState == RepositoryState.REBASING_MERGE) {
-	        git.rebase().setOperation(Operation.ABORT).call();
+	        callExclusively(git.rebase().setOperation(Operation.ABORT));
 	        // EXM-47461 Should update submodules as well.
+	        // The pull fetches without holding the repository gate.
 	        CredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
 	        pull(credentialsProvider, PullType.REBASE, OptionsManager.getInstance().getUpdateSubmodulesOnPull());
 	      } else {
-	        AnyObjectId commitToMerge = repo.resolve("MERGE_HEAD");
-	        git.clean().call();
-	        git.reset().setMode(ResetType.HARD).call();
-	        git.merge().include(commitToMerge).setStrategy(MergeStrategy.RECURSIVE).call();
+	        // Nobody sees the repository between the steps.
+	        try (RepositoryGate.Access access = writeAccess(repo)) {
+	          AnyObjectId commitToMerge = repo.resolve("MERGE_HEAD");
+	          callExclusively(git.clean());
+	          callExclusively(git.reset().setMode(ResetType.HARD));
+	          callExclusively(git.merge().include(commitToMerge).setStrategy(MergeStrategy.RECURSIVE));
+	        }
 	      }
 	      fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.MERGE_RESTART));
 	    } catch (IOException | NoRepositorySelected | GitAPIException e) {
@@ -1827,7 +2117,7 @@ public class GitAccess {
 	public void setBranch(String branch) throws GitAPIException {
 	  fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CHECKOUT, branch));
 	  try {
-	    git.checkout().setName(branch).call();
+	    callExclusively(git.checkout().setName(branch));
 	    fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CHECKOUT, branch));
 	  } catch (GitAPIException e) {
 	    fireOperationFailed(new BranchGitEventInfo(GitOperation.CHECKOUT, branch), e);
@@ -1846,12 +2136,11 @@ public class GitAccess {
     fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CHECKOUT, newBranchName));
     String remoteString = remote.length ==  0 ? Constants.DEFAULT_REMOTE_NAME : remote[0];
     try {
-      git.checkout()
+      callExclusively(git.checkout()
           .setCreateBranch(true)
           .setName(newBranchName)
           .setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK)
-          .setStartPoint(remoteString + "/" + remoteBranchName)
-          .call();
+          .setStartPoint(remoteString + "/" + remoteBranchName));
       fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CHECKOUT, newBranchName));
     } catch (GitAPIException e) {
       fireOperationFailed(new BranchGitEventInfo(GitOperation.CHECKOUT, newBranchName), e);
@@ -1870,11 +2159,10 @@ public class GitAccess {
 	public void checkoutCommitAndCreateBranch(String branchName, String commitID) throws GitAPIException {
 	  fireOperationAboutToStart(new BranchGitEventInfo(GitOperation.CHECKOUT, branchName));
     try {
-  	  git.checkout()
+  	  callExclusively(git.checkout()
   	      .setCreateBranch(true)
   	      .setName(branchName)
-  	      .setStartPoint(commitID)
-  	      .call();
+  	      .setStartPoint(commitID));
   	  fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CHECKOUT, branchName));
     } catch (GitAPIException e) {
       fireOperationFailed(new BranchGitEventInfo(GitOperation.CHECKOUT, branchName), e);
@@ -2019,6 +2307,7 @@ public class GitAccess {
    */
   public void cleanUp() {
     listeners.clear();
+    statusCache.dispose();
     statusCache = new StatusCache(listeners, () -> git);
     closeRepo();
   }
@@ -2070,11 +2359,13 @@ public class GitAccess {
       try {
         // Clear the merge state
         Repository repository = getRepository();
-        repository.writeMergeCommitMsg(null);
-        repository.writeMergeHeads(null);
+        try (RepositoryGate.Access access = writeAccess(repository)) {
+          repository.writeMergeCommitMsg(null);
+          repository.writeMergeHeads(null);
         
-        // Reset the index and work directory to HEAD
-        git.reset().setMode(ResetType.HARD).call();
+          // Reset the index and work directory to HEAD
+          callExclusively(git.reset().setMode(ResetType.HARD));
+        }
         
         fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.ABORT_MERGE, conflictingFiles));
       } catch (GitAPIException | IOException | NoRepositorySelected e) {
@@ -2091,7 +2382,7 @@ public class GitAccess {
     fireOperationAboutToStart(new GitEventInfo(GitOperation.ABORT_REBASE));
     GitOperationScheduler.getInstance().schedule(() -> {
       try {
-        git.rebase().setOperation(Operation.ABORT).call();
+        callExclusively(git.rebase().setOperation(Operation.ABORT));
         fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.ABORT_REBASE));
       } catch (GitAPIException e) {
         fireOperationFailed(new GitEventInfo(GitOperation.ABORT_REBASE), e);
@@ -2107,7 +2398,7 @@ public class GitAccess {
     fireOperationAboutToStart(new GitEventInfo(GitOperation.CONTINUE_REBASE));
     GitOperationScheduler.getInstance().schedule(() -> {
       try {
-        RebaseResult result = git.rebase().setOperation(Operation.CONTINUE).call();
+        RebaseResult result = callExclusively(git.rebase().setOperation(Operation.CONTINUE));
         if (result.getStatus() == RebaseResult.Status.NOTHING_TO_COMMIT) {
           skipCommit();
         }
@@ -2131,7 +2422,7 @@ public class GitAccess {
    */
   private void skipCommit() {
     try {
-      git.rebase().setOperation(Operation.SKIP).call();
+      callExclusively(git.rebase().setOperation(Operation.SKIP));
     } catch (GitAPIException e) {
       LOGGER.error(e.getMessage(), e);
     }
@@ -2147,29 +2438,30 @@ public class GitAccess {
 	 * @return a Vector with commits characteristics of the current repository.
 	 */
 	public List<CommitCharacteristics> getCommitsCharacteristics(HistoryStrategy strategy,  String filePath, RenameTracker renameTracker) {
+	  return getCommitsCharacteristics(strategy, filePath, renameTracker, null);
+	}
+
+	/**
+	 * Compute a Vector with the characteristics of each commit.
+	 * 
+	 * @param filePath A resource for which we are interested in its history. If <code>null</code>, 
+	 * the repository history will be computed.
+	 * @param The rename tracker to follow rename path changes.
+	 * @param token Stops the computation when cancelled. May be <code>null</code>.
+	 * 
+	 * @return a Vector with commits characteristics of the current repository.
+	 * 
+	 * @throws CancellationException If the token was cancelled.
+	 */
+	public List<CommitCharacteristics> getCommitsCharacteristics(
+	    HistoryStrategy strategy,
+	    String filePath,
+	    RenameTracker renameTracker,
+	    CancellationToken token) {
 		List<CommitCharacteristics> revisions = new ArrayList<>();
 
-		try {
-			Repository repository = this.getRepository();
-			if (filePath == null && statusCache.getStatus().hasUncommittedChanges()) {
-				revisions.add(UNCOMMITED_CHANGES);
-			}
-            
-			switch (strategy) {
-			case ALL_BRANCHES:
-				RevCommitUtil.collectAllBranchesRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			case ALL_LOCAL_BRANCHES:
-				RevCommitUtil.collectLocalBranchesRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			case CURRENT_BRANCH:
-				RevCommitUtil.collectCurrentBranchRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			case CURRENT_LOCAL_BRANCH:
-				RevCommitUtil.collectCurrentLocalBranchRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			}
-			
+		try (PagedHistory history = openHistory(strategy, filePath, renameTracker)) {
+			revisions.addAll(history.loadAll(token));
 		} catch (NoWorkTreeException | NoRepositorySelected | IOException e) {
 			LOGGER.error(e.getMessage(), e);
 		}
@@ -2177,6 +2469,36 @@ public class GitAccess {
 		return revisions;
 	}
 
+	/**
+	 * Opens the history of the repository or of a resource. The commits are walked
+	 * one page at a time, when they are presented.
+	 * 
+	 * @param strategy      The branches whose commits are presented.
+	 * @param filePath      A resource for which we are interested in its history. If <code>null</code>, 
+	 * the repository history will be presented.
+	 * @param renameTracker The rename tracker to follow rename path changes.
+	 * 
+	 * @return The history. Close it when it is no longer presented.
+	 * 
+	 * @throws NoRepositorySelected
+	 * @throws IOException Unable to read the references.
+	 */
+	public PagedHistory openHistory(
+	    HistoryStrategy strategy,
+	    String filePath,
+	    RenameTracker renameTracker) throws NoRepositorySelected, IOException {
+	  Repository repository = this.getRepository();
+	  boolean uncommittedChanges = filePath == null && statusCache.getStatus().hasUncommittedChanges();
+	  PagedHistory history;
+	  try (RepositoryGate.Access access = repositoryGate.read(repository)) {
+	    history = RevCommitUtil.openHistory(strategy, filePath, repository, renameTracker);
+	  }
+	  if (uncommittedChanges) {
+	    history.addLeadingRow(UNCOMMITED_CHANGES);
+	  }
+	  return history;
+	}
+
 	/**
 	 * Get a LinkedHashMap with all tag names in current repository.
 	 * Map shows: key = commitID, value = list of tag names.
@@ -2353,7 +2675,7 @@ public class GitAccess {
         mergeCommand.setStrategy(MergeStrategy.RESOLVE).setSquash(isSquash).setCommit(true);
       }
      
-      final MergeResult res = mergeCommand.call();
+      final MergeResult res = callExclusively(mergeCommand);
       if (res.getMergeStatus().equals(MergeResult.MergeStatus.CONFLICTING)) {
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug("We have conflicts here: {}", res.getConflicts());
@@ -2437,7 +2759,7 @@ public class GitAccess {
       if (description != null) {
         createStashCmd.setWorkingDirectoryMessage(description);
       }
-      stash = createStashCmd.call();
+      stash = callExclusively(createStashCmd);
       fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.STASH_CREATE, getBranchInfo().getBranchName()));
     } catch (GitAPIException e) {
       if(repositoryHasConflicts()) {
@@ -2469,7 +2791,7 @@ public class GitAccess {
     try {
       checkIfStashIsApplicable(stashRef);
 
-      git.stashApply().setStashRef(stashRef).call();
+      callExclusively(git.stashApply().setStashRef(stashRef));
 
       List<RevCommit> stashes = new ArrayList<>(listStashes());
         
@@ -2489,6 +2811,9 @@ public class GitAccess {
       displayStashApplyFailedCauseMessage(true, status ,e);
     } catch (StashApplyFailureException | IOException e) {   
       displayStashApplyFailedCauseMessage(true, status ,e);
+    } catch (GitAPIException e) {
+      fireOperationFailed(new GitEventInfo(GitOperation.STASH_APPLY), e);
+      throw e;
     }
 
     return status;
@@ -2589,7 +2914,7 @@ public class GitAccess {
     try {
       checkIfStashIsApplicable(stashRef);
 
-      git.stashApply().setStashRef(stashRef).call();
+      callExclusively(git.stashApply().setStashRef(stashRef));
 
       status = StashApplyStatus.APPLIED_SUCCESSFULLY;
 
@@ -2600,6 +2925,9 @@ public class GitAccess {
       displayStashApplyFailedCauseMessage(false, status ,e);
     } catch (StashApplyFailureException | IOException e) {
       displayStashApplyFailedCauseMessage(false, status ,e);
+    } catch (GitAPIException e) {
+      fireOperationFailed(new GitEventInfo(GitOperation.STASH_APPLY), e);
+      throw e;
     }
 
     return status;
@@ -2646,7 +2974,7 @@ public class GitAccess {
   public void dropStash(int stashIndex) throws GitAPIException {
     fireOperationAboutToStart(new GitEventInfo(GitOperation.STASH_DROP));
     try {
-      git.stashDrop().setStashRef(stashIndex).call();
+      callExclusively(git.stashDrop().setStashRef(stashIndex));
       fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.STASH_DROP));
     } catch (GitAPIException e) {
       LOGGER.error(e.getMessage(), e);
@@ -2664,7 +2992,7 @@ public class GitAccess {
   public void dropAllStashes() throws GitAPIException {
     fireOperationAboutToStart(new GitEventInfo(GitOperation.STASH_DROP));
     try {
-      git.stashDrop().setAll(true).call();
+      callExclusively(git.stashDrop().setAll(true));
       fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.STASH_DROP));
     } catch (GitAPIException e) {
       LOGGER.error(e.getMessage(), e);
@@ -2689,12 +3017,11 @@ public class GitAccess {
 	  try {
 	    RevWalk walk = new RevWalk(getRepository());
 	    RevCommit id = walk.parseCommit(getRepository().resolve(commitId));
-      git.tag()
+      callExclusively(git.tag()
         .setName(name)
         .setMessage(message)
         .setObjectId(id)
-        .setForceUpdate(true)
-        .call();
+        .setForceUpdate(true));
       fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.CREATE_TAG));
     } catch (GitAPIException | NoRepositorySelected | RevisionSyntaxException | IOException e) {
       LOGGER.error(e.getMessage(), e);
@@ -2749,10 +3076,9 @@ public class GitAccess {
   public void deleteTags(final boolean includeRemotes, final String... tags) throws GitAPIException  {
     fireOperationAboutToStart(new GitEventInfo(GitOperation.DELETE_TAG));
     try {
-      getGit()
+      callExclusively(getGit()
       .tagDelete()
-      .setTags(tags)
-      .call();
+      .setTags(tags));
       final CredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
       
       if(includeRemotes) {
@@ -2828,7 +3154,7 @@ public class GitAccess {
 	      checkoutCommand.setCreateBranch(false).setName(Constants.HEAD);
 	    }
 	    try {
-	      checkoutCommand.call();
+	      callExclusively(checkoutCommand);
 	    } catch(GitAPIException e) {
 	      fireOperationFailed(new GitEventInfo(GitOperation.CHECKOUT_COMMIT), e);
 	      throw e;
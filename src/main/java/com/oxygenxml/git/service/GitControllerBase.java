@@ -297,8 +297,10 @@ public abstract class GitControllerBase {
    * @param filesStatuses The resources to resolve.
    */
   private void resolveUsingMine(List<FileStatus> filesStatuses) {
-    discard(filesStatuses);
-    gitAccess.addAll(filesStatuses);
+    listeners.batch(() -> {
+      discard(filesStatuses);
+      gitAccess.addAll(filesStatuses);
+    });
   }
 
   /**
@@ -330,14 +332,17 @@ public abstract class GitControllerBase {
           LOGGER.error(e.getMessage(), e);
         }
       });
-    gitAccess.resetAll(filesStatuses);
-    List<String> paths = new LinkedList<>();
-    for (FileStatus file : filesStatuses) {
-      if (file.getChangeType() != GitChangeType.SUBMODULE) {
-        paths.add(file.getFileLocation());
+    // Unstage and restore. The views are updated once, at the end.
+    listeners.batch(() -> {
+      gitAccess.resetAll(filesStatuses);
+      List<String> paths = new LinkedList<>();
+      for (FileStatus file : filesStatuses) {
+        if (file.getChangeType() != GitChangeType.SUBMODULE) {
+          paths.add(file.getFileLocation());
+        }
       }
-    }
-    gitAccess.restoreLastCommitFile(paths);
+      gitAccess.restoreLastCommitFile(paths);
+    });
   }
 
   /**
@@ -1,5 +1,6 @@
 package com.oxygenxml.git.service;
 
+import com.oxygenxml.git.view.event.BatchGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
 
 /**
@@ -25,4 +26,24 @@ public interface GitEventListener {
    * @param t    Exception/error related to the failure. May be <code>null</code>.
    */
   void operationFailed(GitEventInfo info, Throwable t);
+  /**
+   * The operations of a compound operation successfully ended. Called only for the
+   * listeners with coalesced notifications, instead of one {@link #operationSuccessfullyEnded(GitEventInfo)}
+   * call for each operation. By default, the events are handled one by one.
+   * 
+   * @param batch The events of the operations.
+   */
+  default void operationsSuccessfullyEnded(BatchGitEventInfo batch) {
+    for (GitEventInfo info : batch.getEvents()) {
+      operationSuccessfullyEnded(info);
+    }
+  }
+  /**
+   * @return <code>true</code> to be notified once, when a compound operation ends, about
+   * all the operations that successfully ended during it. The other notifications
+   * are always delivered right away.
+   */
+  default boolean isCoalesced() {
+    return false;
+  }
 }
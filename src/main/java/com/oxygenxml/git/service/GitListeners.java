@@ -1,12 +1,17 @@
 package com.oxygenxml.git.service;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.annotation.TestOnly;
+import com.oxygenxml.git.view.event.BatchGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
 
 /**
  * Git notifications support. Central point to register all parties interested in receiving 
@@ -26,6 +31,23 @@ public class GitListeners {
    * Receive notifications when things change.
    */
   private HashSet<GitEventListener> gitEventListeners = new LinkedHashSet<>();
+  /**
+   * The compound operation in progress on a thread.
+   */
+  private static final class Batch {
+    /**
+     * How many nested compound operations are in progress.
+     */
+    private int depth;
+    /**
+     * The successfully ended operations not yet delivered to the coalesced listeners.
+     */
+    private List<GitEventInfo> pending = new ArrayList<>();
+  }
+  /**
+   * The compound operation in progress on each thread.
+   */
+  private final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
   /**
    * Singleton.
    */
@@ -45,6 +67,15 @@ public class GitListeners {
    return instance; 
   }
   
+  /**
+   * @return A new instance, separate from the singleton. Its listeners don't receive the
+   * notifications of the application.
+   */
+  @TestOnly
+  static GitListeners newInstance() {
+    return new GitListeners();
+  }
+  
   /**
    * Fire operation about to start.
    * 
@@ -78,8 +109,67 @@ public class GitListeners {
       gitEventListener.operationSuccessfullyEnded(info);
     }
     
+    Batch batch = batches.get();
+    boolean queue = batch.depth > 0;
+    if (queue && info.getGitOperation() == GitOperation.OPEN_WORKING_COPY) {
+      // Another repository. Don't mix its events with the ones of the previous repository.
+      flush(batch);
+      queue = false;
+    }
+    if (queue) {
+      batch.pending.add(info);
+    }
+    
     for (GitEventListener gitEventListener : gitEventListeners) {
-      gitEventListener.operationSuccessfullyEnded(info);
+      if (!queue || !gitEventListener.isCoalesced()) {
+        gitEventListener.operationSuccessfullyEnded(info);
+      }
+    }
+  }
+  
+  /**
+   * Runs a compound operation. The listeners with coalesced notifications receive
+   * the successfully ended operations at the end, all at once. Compound operations can be nested.
+   * 
+   * @param compoundOperation The operation.
+   */
+  public void batch(Runnable compoundOperation) {
+    Batch batch = batches.get();
+    batch.depth++;
+    try {
+      compoundOperation.run();
+    } finally {
+      batch.depth--;
+      if (batch.depth == 0) {
+        batches.remove();
+        flush(batch);
+      }
+    }
+  }
+  
+  /**
+   * Delivers the events of a compound operation to the listeners with coalesced notifications.
+   * 
+   * @param batch The compound operation.
+   */
+  private void flush(Batch batch) {
+    List<GitEventInfo> events = batch.pending;
+    batch.pending = new ArrayList<>();
+    if (!events.isEmpty()) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Fire " + events.size() + " coalesced operations.");
+      }
+      
+      BatchGitEventInfo batchInfo = events.size() > 1 ? new BatchGitEventInfo(events) : null;
+      for (GitEventListener gitEventListener : gitEventListeners) {
+        if (gitEventListener.isCoalesced()) {
+          if (batchInfo != null) {
+            gitEventListener.operationsSuccessfullyEnded(batchInfo);
+          } else {
+            gitEventListener.operationSuccessfullyEnded(events.get(0));
+          }
+        }
+      }
     }
   }
   
@@ -1,12 +1,22 @@
 package com.oxygenxml.git.service;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jgit.annotations.NonNull;
@@ -14,10 +24,47 @@ import org.eclipse.jgit.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.metrics.GitMetrics;
+
 /**
- * Schedules git operations on a thread. The same thread is being used. 
+ * Schedules git operations. Each {@link Lane} has its own thread, so a slow fetch
+ * doesn't delay a status refresh or a commit. On a lane, the tasks are executed one
+ * at a time, user actions before background work and, for the same priority, in the
+ * order in which they were scheduled.
  */
 public class GitOperationScheduler {
+
+  /**
+   * The kinds of work that are executed independently of each other.
+   */
+  public enum Lane {
+    /**
+     * Operations that talk to a remote repository without changing the working copy: fetches, remote checks.
+     */
+    NETWORK,
+    /**
+     * Operations that only read the local repository: status refreshes, history, branches.
+     */
+    READ,
+    /**
+     * Operations that change the repository. The default lane.
+     */
+    WRITE
+  }
+
+  /**
+   * The priority of a task on its lane.
+   */
+  public enum Priority {
+    /**
+     * Requested by the user. Executed before any background task.
+     */
+    USER,
+    /**
+     * Background work.
+     */
+    BACKGROUND
+  }
   
   /**
    * Logger.
@@ -30,29 +77,14 @@ public class GitOperationScheduler {
   private static final int OPERATION_SHUTDOWN_TIMEOUT_MS = 2000;
   
   /**
-   * Refresh executor.
+   * The lanes.
    */
-  private ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1) {
-    @Override
-    protected void afterExecute(Runnable r, Throwable t) {
-      if (t != null) {
-        LOGGER.error(t.getMessage(), t);
-      }
+  private final Map<Lane, OperationLane> lanes = new EnumMap<>(Lane.class);
 
-      if (r instanceof Future) {
-        try {
-          ((Future<?>) r).get();
-        } catch (CancellationException e) {
-          LOGGER.debug(e.getMessage(), e);
-        } catch (InterruptedException e) { 
-          LOGGER.error(e.getMessage(), e);
-          Thread.currentThread().interrupt();
-        } catch (Exception e) {
-          LOGGER.error(e.getMessage(), e);
-        }
-      }
-    }
-  };
+  /**
+   * Delays the tasks until they are due. The tasks are then moved on their lanes.
+   */
+  private ScheduledThreadPoolExecutor timer = createTimer();
   
   /**
    * Singleton instance.
@@ -62,7 +94,11 @@ public class GitOperationScheduler {
   /**
    * Singleton private constructor.
    */
-  private GitOperationScheduler() {}
+  private GitOperationScheduler() {
+    for (Lane lane : Lane.values()) {
+      lanes.put(lane, new OperationLane(lane));
+    }
+  }
   
   /**
    * @return The singleton instance.
@@ -76,7 +112,22 @@ public class GitOperationScheduler {
   }
   
   /**
-   * Schedules a runnable for immediate execution.
+   * @return A timer for the delayed tasks.
+   */
+  private static ScheduledThreadPoolExecutor createTimer() {
+    ScheduledThreadPoolExecutor timerExecutor = new ScheduledThreadPoolExecutor(1, r -> {
+      Thread thread = new Thread(r, "Git Operations Timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    timerExecutor.setRemoveOnCancelPolicy(true);
+    return timerExecutor;
+  }
+
+  /**
+   * Schedules a runnable for immediate execution on the {@link Lane#WRITE} lane, with
+   * the {@link Priority#USER} priority. Use {@link #schedule(Lane, Priority, Runnable)}
+   * for the operations that don't change the repository.
    * 
    * @param r Code to be executed on thread.
    * 
@@ -85,12 +136,7 @@ public class GitOperationScheduler {
    */
   @SuppressWarnings("java:S1452")
   public ScheduledFuture<?> schedule(Runnable r) {
-    if (executor.isShutdown()) {
-      // A shutdown operation was canceled.
-      executor = new ScheduledThreadPoolExecutor(1);
-    }
-    
-    return executor.schedule(r, 0, TimeUnit.MILLISECONDS);
+    return schedule(r, 0);
   }
   
   /**
@@ -156,7 +202,8 @@ public class GitOperationScheduler {
   }
 
   /**
-   * Schedules a runnable for execution.
+   * Schedules a runnable for execution on the {@link Lane#WRITE} lane, with the
+   * {@link Priority#USER} priority.
    * 
    * @param r Code to be executed on thread.
    * @param delayMillis Milliseconds after which to execute the runnable.
@@ -166,12 +213,63 @@ public class GitOperationScheduler {
    */
   @SuppressWarnings("java:S1452")
   public ScheduledFuture<?> schedule(Runnable r, int delayMillis) {
-    if (executor.isShutdown()) {
+    return schedule(Lane.WRITE, Priority.USER, null, r, delayMillis);
+  }
+
+  /**
+   * Schedules a runnable for immediate execution on a lane.
+   *
+   * @param lane     The lane on which to execute the runnable.
+   * @param priority The priority of the runnable on its lane.
+   * @param r        Code to be executed on thread.
+   *
+   * @return a ScheduledFuture representing pending completion of the task
+   * and whose get() method will return null upon completion.
+   */
+  @SuppressWarnings("java:S1452")
+  public ScheduledFuture<?> schedule(Lane lane, Priority priority, Runnable r) {
+    return schedule(lane, priority, null, r, 0);
+  }
+
+  /**
+   * Schedules a runnable for execution on a lane.
+   *
+   * @param lane          The lane on which to execute the runnable.
+   * @param priority      The priority of the runnable on its lane.
+   * @param coalescingKey If not <code>null</code> and a task with the same key is waiting
+   * on the lane, no new task is scheduled and the waiting one is returned. The tasks that
+   * share a key must be interchangeable.
+   * @param r             Code to be executed on thread.
+   * @param delayMillis   Milliseconds after which to execute the runnable.
+   *
+   * @return a ScheduledFuture representing pending completion of the task
+   * and whose get() method will return null upon completion. Canceling it before it starts
+   * removes the task from its lane.
+   */
+  @SuppressWarnings("java:S1452")
+  public ScheduledFuture<?> schedule(
+      Lane lane,
+      Priority priority,
+      @Nullable String coalescingKey,
+      Runnable r,
+      int delayMillis) {
+    return lanes.get(lane).schedule(priority, coalescingKey, r, delayMillis);
+  }
+
+  /**
+   * Moves a task on its lane after the given delay.
+   *
+   * @param task        The task.
+   * @param delayMillis The delay, in milliseconds.
+   *
+   * @return The pending move.
+   */
+  private synchronized ScheduledFuture<?> delay(OperationTask<?> task, int delayMillis) {
+    if (timer.isShutdown()) {
       // A shutdown operation was canceled.
-      executor = new ScheduledThreadPoolExecutor(1);
+      timer = createTimer();
     }
-    
-    return executor.schedule(r, delayMillis, TimeUnit.MILLISECONDS);
+    return timer.schedule(task::enqueue, delayMillis, TimeUnit.MILLISECONDS);
   }
   
   /**
@@ -181,16 +279,14 @@ public class GitOperationScheduler {
    * if there are still tasks running.
    */
   public boolean shutdown() {
-    executor.shutdown();
-    try {
-      return executor.awaitTermination(OPERATION_SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
-    } catch (InterruptedException e) {
-      LOGGER.warn("Unable to stop task thread: " + e.getMessage(), e);
-      // Restore interrupted state...
-      Thread.currentThread().interrupt();
-
+    synchronized (this) {
+      timer.shutdown();
     }   
-    return false;
+    boolean terminated = true;
+    for (OperationLane lane : lanes.values()) {
+      terminated &= lane.shutdown();
+    }
+    return terminated;
   }
   
   /**
@@ -200,6 +296,305 @@ public class GitOperationScheduler {
    * @return the number of threads
    */
   public int getActiveCount() {
-    return executor.getActiveCount();
+    return lanes.values().stream().mapToInt(OperationLane::getActiveCount).sum();
+  }
+
+  /**
+   * @param lane A lane.
+   *
+   * @return The number of tasks scheduled on the lane that have not started yet,
+   * including the ones that are not due yet.
+   */
+  public int getQueueDepth(Lane lane) {
+    return lanes.get(lane).waiting.get();
+  }
+
+  /**
+   * @param lane A lane.
+   *
+   * @return The average time, in milliseconds, that the tasks of the lane waited
+   * for the thread after they became due.
+   */
+  public long getAverageWaitTime(Lane lane) {
+    OperationLane operationLane = lanes.get(lane);
+    long started = operationLane.started.get();
+    return started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(operationLane.totalWaitNanos.get() / started);
+  }
+
+  /**
+   * The thread and the queue of one lane.
+   */
+  private class OperationLane {
+    /**
+     * The lane.
+     */
+    private final Lane lane;
+    /**
+     * Executes the tasks, by priority.
+     */
+    private ThreadPoolExecutor executor;
+    /**
+     * The waiting tasks that have a coalescing key, by key.
+     */
+    private final Map<String, OperationTask<?>> coalescingTasks = new ConcurrentHashMap<>();
+    /**
+     * Orders the tasks with the same priority.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+    /**
+     * The number of tasks that have not started yet.
+     */
+    private final AtomicInteger waiting = new AtomicInteger();
+    /**
+     * The number of tasks that started.
+     */
+    private final AtomicLong started = new AtomicLong();
+    /**
+     * The total time the started tasks waited for the thread after they became due. Nanoseconds.
+     */
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param lane The lane.
+     */
+    OperationLane(Lane lane) {
+      this.lane = lane;
+      this.executor = createExecutor();
+    }
+
+    /**
+     * @return An executor that runs one task at a time, by priority.
+     */
+    private ThreadPoolExecutor createExecutor() {
+      return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+          r -> new Thread(r, "Git Operations " + lane)) {
+        @Override
+        protected void afterExecute(Runnable r, Throwable t) {
+          if (t != null) {
+            LOGGER.error(t.getMessage(), t);
+          }
+
+          if (r instanceof Future) {
+            try {
+              ((Future<?>) r).get();
+            } catch (CancellationException e) {
+              LOGGER.debug(e.getMessage(), e);
+            } catch (InterruptedException e) {
+              LOGGER.error(e.getMessage(), e);
+              Thread.currentThread().interrupt();
+            } catch (Exception e) {
+              LOGGER.error(e.getMessage(), e);
+            }
+          }
+        }
+      };
+    }
+
+    /**
+     * Schedules a runnable.
+     *
+     * @param priority      The priority of the runnable.
+     * @param coalescingKey The coalescing key or <code>null</code>.
+     * @param r             Code to be executed on thread.
+     * @param delayMillis   Milliseconds after which to execute the runnable.
+     *
+     * @return The scheduled task.
+     */
+    synchronized ScheduledFuture<?> schedule(Priority priority, String coalescingKey, Runnable r, int delayMillis) {
+      if (coalescingKey != null) {
+        OperationTask<?> waitingTask = coalescingTasks.get(coalescingKey);
+        if (waitingTask != null && !waitingTask.isDone()) {
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Coalesced " + coalescingKey + " on lane " + lane);
+          }
+          return waitingTask;
+        }
+      }
+
+      OperationTask<?> task = new OperationTask<>(
+          this, r, priority, coalescingKey, sequence.getAndIncrement(), delayMillis);
+      waiting.incrementAndGet();
+      if (coalescingKey != null) {
+        coalescingTasks.put(coalescingKey, task);
+      }
+      if (delayMillis > 0) {
+        task.pendingDelay = delay(task, delayMillis);
+      } else {
+        task.enqueue();
+      }
+      return task;
+    }
+
+    /**
+     * @return The executor of the lane.
+     */
+    synchronized ThreadPoolExecutor getExecutor() {
+      if (executor.isShutdown()) {
+        // A shutdown operation was canceled.
+        executor = createExecutor();
+      }
+      return executor;
+    }
+
+    /**
+     * Removes a task that will no longer wait.
+     *
+     * @param task The task.
+     */
+    void dequeued(OperationTask<?> task) {
+      waiting.decrementAndGet();
+      if (task.coalescingKey != null) {
+        coalescingTasks.remove(task.coalescingKey, task);
+      }
+    }
+
+    /**
+     * @return <code>true</code> if all tasks have been executed.
+     */
+    boolean shutdown() {
+      ThreadPoolExecutor toShutdown;
+      synchronized (this) {
+        toShutdown = executor;
+      }
+      toShutdown.shutdown();
+      try {
+        return toShutdown.awaitTermination(OPERATION_SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        LOGGER.warn("Unable to stop task thread: " + e.getMessage(), e);
+        // Restore interrupted state...
+        Thread.currentThread().interrupt();
+      }
+      return false;
+    }
+
+    /**
+     * @return The number of threads executing tasks.
+     */
+    int getActiveCount() {
+      return executor.getActiveCount();
+    }
+  }
+
+  /**
+   * A task scheduled on a lane.
+   *
+   * @param <V> The result type.
+   */
+  private static class OperationTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+    /**
+     * The lane.
+     */
+    private final OperationLane lane;
+    /**
+     * The priority.
+     */
+    private final Priority priority;
+    /**
+     * The coalescing key or <code>null</code>.
+     */
+    private final String coalescingKey;
+    /**
+     * Orders the tasks with the same priority.
+     */
+    private final long sequenceNumber;
+    /**
+     * When the task becomes due, as given by {@link System#nanoTime()}.
+     */
+    private final long dueTime;
+    /**
+     * <code>true</code> after the task started or was canceled.
+     */
+    private final AtomicBoolean dequeued = new AtomicBoolean();
+    /**
+     * The move on the lane, while the task is not due.
+     */
+    private volatile ScheduledFuture<?> pendingDelay;
+
+    /**
+     * Constructor.
+     *
+     * @param lane           The lane.
+     * @param r              The code to execute.
+     * @param priority       The priority.
+     * @param coalescingKey  The coalescing key or <code>null</code>.
+     * @param sequenceNumber Orders the tasks with the same priority.
+     * @param delayMillis    The delay, in milliseconds.
+     */
+    OperationTask(OperationLane lane, Runnable r, Priority priority, String coalescingKey, long sequenceNumber, int delayMillis) {
+      super(r, null);
+      this.lane = lane;
+      this.priority = priority;
+      this.coalescingKey = coalescingKey;
+      this.sequenceNumber = sequenceNumber;
+      this.dueTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+    }
+
+    /**
+     * Puts the task in the queue of its lane.
+     */
+    void enqueue() {
+      if (!isDone()) {
+        lane.getExecutor().execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      if (dequeued.compareAndSet(false, true)) {
+        lane.dequeued(this);
+        lane.started.incrementAndGet();
+        long waitNanos = Math.max(0, System.nanoTime() - dueTime);
+        lane.totalWaitNanos.addAndGet(waitNanos);
+        GitMetrics.getInstance().record(GitMetrics.SCHEDULER_WAIT_PREFIX + lane.lane, waitNanos);
+      }
+      super.run();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean canceled = super.cancel(mayInterruptIfRunning);
+      if (canceled && dequeued.compareAndSet(false, true)) {
+        // It will never start.
+        lane.dequeued(this);
+        ScheduledFuture<?> delay = pendingDelay;
+        if (delay != null) {
+          delay.cancel(false);
+        }
+        lane.getExecutor().remove(this);
+      }
+      return canceled;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(dueTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+      int result;
+      if (o instanceof OperationTask) {
+        OperationTask<?> other = (OperationTask<?>) o;
+        result = priority.compareTo(other.priority);
+        if (result == 0) {
+          result = Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+      } else {
+        result = Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+      }
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this);
+    }
   }
 }
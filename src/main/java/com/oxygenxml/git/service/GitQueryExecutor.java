@@ -0,0 +1,207 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the read-only Git queries that block on disk I/O: tool tips, history
+ * pieces, changed files, revision contents. They run on virtual threads when the
+ * runtime supports them and on a bounded pool of platform threads otherwise.
+ * <br><br>
+ * Unlike the {@link GitOperationScheduler}, the queries run in parallel. A caller
+ * that waits for a query always waits for a limited time, and a query that takes
+ * too long is canceled.
+ */
+public class GitQueryExecutor {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(GitQueryExecutor.class);
+
+  /**
+   * The maximum number of platform threads, when virtual threads are not available.
+   */
+  private static final int MAX_PLATFORM_THREADS = Math.min(16, 2 * Runtime.getRuntime().availableProcessors());
+
+  /**
+   * How long an idle platform thread is kept. Seconds.
+   */
+  private static final int IDLE_THREAD_KEEP_ALIVE = 30;
+
+  /**
+   * Singleton instance.
+   */
+  private static GitQueryExecutor instance;
+
+  /**
+   * Executes the queries.
+   */
+  private final ExecutorService executor;
+
+  /**
+   * <code>true</code> if the queries run on virtual threads.
+   */
+  private final boolean virtualThreads;
+
+  /**
+   * Delays the queries until they are due.
+   */
+  private final ScheduledThreadPoolExecutor timer;
+
+  /**
+   * Singleton private constructor.
+   */
+  private GitQueryExecutor() {
+    ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+    virtualThreads = virtualThreadExecutor != null;
+    executor = virtualThreads ? virtualThreadExecutor : createPlatformThreadExecutor();
+
+    timer = new ScheduledThreadPoolExecutor(1, r -> {
+      Thread thread = new Thread(r, "Git Queries Timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    timer.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized GitQueryExecutor getInstance() {
+    if (instance == null) {
+      instance = new GitQueryExecutor();
+    }
+    return instance;
+  }
+
+  /**
+   * @return An executor that starts a virtual thread for each task or <code>null</code>
+   * if the runtime doesn't support virtual threads.
+   */
+  private static ExecutorService createVirtualThreadExecutor() {
+    ExecutorService virtualThreadExecutor = null;
+    try {
+      // Available starting with Java 21.
+      virtualThreadExecutor = (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("Virtual threads are not available: " + e.getMessage(), e);
+    }
+    return virtualThreadExecutor;
+  }
+
+  /**
+   * @return A bounded pool of daemon platform threads.
+   */
+  private static ExecutorService createPlatformThreadExecutor() {
+    AtomicInteger counter = new AtomicInteger();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(
+        MAX_PLATFORM_THREADS,
+        MAX_PLATFORM_THREADS,
+        IDLE_THREAD_KEEP_ALIVE,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        r -> {
+          Thread thread = new Thread(r, "Git Queries " + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * @return <code>true</code> if the queries run on virtual threads.
+   */
+  public boolean isUsingVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Starts a query.
+   *
+   * @param query The query.
+   *
+   * @return The pending result.
+   */
+  public <T> Future<T> submit(Callable<T> query) {
+    return executor.submit(query);
+  }
+
+  /**
+   * Starts a query after a delay.
+   *
+   * @param query The query.
+   * @param delay The delay. Milliseconds.
+   *
+   * @return The pending start. Canceling it before the delay passes prevents the query from running.
+   */
+  @SuppressWarnings("java:S1452")
+  public ScheduledFuture<?> schedule(Runnable query, long delay) {
+    return timer.schedule(() -> executor.execute(query), delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Executes a query and waits for its result.
+   *
+   * @param query   The query.
+   * @param timeout How long to wait. Milliseconds.
+   *
+   * @return The result of the query.
+   *
+   * @throws IOException The query failed, was interrupted or didn't finish in time.
+   */
+  public <T> T call(Callable<T> query, long timeout) throws IOException {
+    return await(submit(query), timeout);
+  }
+
+  /**
+   * Waits for the result of a query. If the query fails or doesn't finish in time,
+   * it is canceled.
+   *
+   * @param pending The pending result of the query.
+   * @param timeout How long to wait. Milliseconds.
+   *
+   * @return The result of the query.
+   *
+   * @throws IOException The query failed, was interrupted or didn't finish in time.
+   * An {@link IOException} thrown by the query is rethrown as it is.
+   */
+  public <T> T await(Future<T> pending, long timeout) throws IOException {
+    try {
+      return pending.get(timeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a Git query.");
+    } catch (TimeoutException e) {
+      throw new IOException("The Git query didn't finish in " + timeout + " ms.", e);
+    } catch (CancellationException e) {
+      throw new IOException("The Git query was canceled.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(cause != null ? cause.getMessage() : e.getMessage(), cause);
+    } finally {
+      pending.cancel(true);
+    }
+  }
+}
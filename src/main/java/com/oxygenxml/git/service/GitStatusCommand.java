@@ -1,25 +1,38 @@
 package com.oxygenxml.git.service;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.StatusCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
+import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.errors.NoWorkTreeException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.submodule.SubmoduleStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
-import com.oxygenxml.git.utils.RepoUtil;
+import com.oxygenxml.git.service.metrics.GitMetrics;
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
 
 /**
  * A wrapper over a JGit status command that performs groups the files into stage and 
@@ -33,10 +46,44 @@ public class GitStatusCommand {
    * Logger for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(GitAccess.class);
+  /**
+   * The minimum number of index entries for which the status is computed in parallel.
+   * For smaller repositories, reading the index once for every subtree costs more than it gains.
+   */
+  private static final int PARALLEL_STATUS_MIN_ENTRIES = 5000;
+  /**
+   * The number of groups of subtrees when the status is delivered while it is computed.
+   * Smaller groups are delivered sooner.
+   */
+  private static final int STREAMED_GROUPS = 16;
+  /**
+   * Executes the parallel status computations. Created when first needed.
+   */
+  private static ForkJoinPool statusPool;
   /**
    * A provider for the JGit API.
    */
   private Supplier<Git> git;
+  /**
+   * The status of the submodules. Computed once per command.
+   */
+  private SubmoduleStatusSnapshot submodules;
+  /**
+   * How many working tree subtrees are processed in parallel. 1 for a sequential status.
+   */
+  private int parallelism = getDefaultParallelism();
+  /**
+   * The minimum number of index entries for which the status is computed in parallel.
+   */
+  private int parallelMinEntries = PARALLEL_STATUS_MIN_ENTRIES;
+  /**
+   * Stops the computation when it is no longer needed. May be <code>null</code>.
+   */
+  private CancellationToken cancellationToken;
+  /**
+   * Skips the untracked directories that didn't change. May be <code>null</code>.
+   */
+  private UntrackedCache untrackedCache;
 
   /**
    * Constructor.
@@ -44,23 +91,337 @@ public class GitStatusCommand {
    * @param git Supplier for the current git repository.
    */
   GitStatusCommand(Supplier<Git> git) {
+    this(git, null);
+  }
+  
+  /**
+   * Constructor.
+   * 
+   * @param git Supplier for the current git repository.
+   * @param submodules An already computed status of the submodules. <code>null</code> to compute it
+   * when needed.
+   */
+  GitStatusCommand(Supplier<Git> git, SubmoduleStatusSnapshot submodules) {
     this.git = git;
+    this.submodules = submodules;
+  }
     
+  /**
+   * @return The status of the submodules, computed once and reused by this command.
+   */
+  public synchronized SubmoduleStatusSnapshot getSubmoduleStatusSnapshot() {
+    if (submodules == null) {
+      Git g = git != null ? git.get() : null;
+      submodules = g != null ? SubmoduleStatusSnapshot.compute(g.getRepository()) : SubmoduleStatusSnapshot.EMPTY;
+    }
+    return submodules;
+  }
+  
+  /**
+   * @return The configured number of subtrees processed in parallel.
+   */
+  static int getDefaultParallelism() {
+    int defaultParallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+    return Math.max(1, Integer.getInteger(GitAddonSystemProperties.STATUS_PARALLELISM, defaultParallelism));
+  }
+  
+  /**
+   * @param parallelism How many working tree subtrees are processed in parallel. 1 for a sequential status.
+   * @param minEntries  The minimum number of index entries for which the status is computed in parallel.
+   */
+  void setParallelism(int parallelism, int minEntries) {
+    this.parallelism = Math.max(1, parallelism);
+    this.parallelMinEntries = minEntries;
+  }
+  
+  /**
+   * @param cancellationToken Stops the computation when it is no longer needed. When the
+   * token is cancelled, the status methods throw a {@link CancellationException}.
+   */
+  void setCancellationToken(CancellationToken cancellationToken) {
+    this.cancellationToken = cancellationToken;
+  }
+  
+  /**
+   * @param untrackedCache Skips the untracked directories that didn't change.
+   */
+  void setUntrackedCache(UntrackedCache untrackedCache) {
+    this.untrackedCache = untrackedCache;
+  }
+  
+  /**
+   * Computes the JGit status. Observes the cancellation token and uses the untracked cache.
+   * 
+   * @param paths The files or directories of interest. Empty for the entire working tree.
+   * 
+   * @return The JGit status.
+   * 
+   * @throws GitAPIException If it fails.
+   */
+  private Status callStatus(Collection<String> paths) throws GitAPIException {
+    Repository repository = git.get().getRepository();
+    try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().read(repository)) {
+      if (untrackedCache != null) {
+        try {
+          return untrackedCache.getStatus(
+              repository,
+              paths,
+              cancellationToken != null ? cancellationToken.asProgressMonitor() : null);
+        } catch (IOException e) {
+          throw new JGitInternalException(e.getMessage(), e);
+        }
+      }
+
+      StatusCommand statusCmd = git.get().status();
+      if (cancellationToken != null) {
+        statusCmd.setProgressMonitor(cancellationToken.asProgressMonitor());
+      }
+      for (String path : paths) {
+        statusCmd.addPath(path);
+      }
+      return statusCmd.call();
+    }
+  }
+  
+  /**
+   * A cancelled JGit status command returns a partial result. Make sure it is not used.
+   * 
+   * @throws CancellationException If the computation was cancelled.
+   */
+  private void checkCancelled() {
+    if (cancellationToken != null) {
+      cancellationToken.checkCancelled();
+    }
   }
   
   /**
    * @return A status of the Working Copy, with the unstaged and staged files.
    */
   public GitStatus getStatus() {
+    return getStatus((Consumer<GitStatus>) null);
+  }
+  
+  /**
+   * Computes the status of the Working Copy. When there is a listener or the status is
+   * computed in parallel, the working tree is split into groups of subtrees and the status
+   * of each group is delivered as soon as it is available.
+   * 
+   * @param batchListener Receives the status of each group of subtrees, on the thread
+   * that computed it. May be <code>null</code>. 
+   * 
+   * @return A status of the Working Copy, with the unstaged and staged files.
+   * 
+   * @throws CancellationException If the cancellation token was cancelled.
+   */
+  public GitStatus getStatus(Consumer<GitStatus> batchListener) {
     GitStatus gitStatus = null;
-    if (git != null && git.get() != null) {
-      try {
-        LOGGER.debug("-- Compute our GitStatus -> getStatus() --");
-        Status status = git.get().status().call();
-        LOGGER.debug("-- Get JGit status -> git.status().call() --");
-        gitStatus = new GitStatus(getUnstagedFiles(status), getStagedFiles(status), status.hasUncommittedChanges());
-      } catch (GitAPIException e) {
-        LOGGER.error(e.getMessage(), e);
+    try (GitMetrics.Timing timing = GitMetrics.getInstance().time(GitMetrics.STATUS_FULL)) {
+      if (git != null && git.get() != null && (parallelism > 1 || batchListener != null)) {
+        gitStatus = getStatusOfGroups(batchListener);
+      }
+      if (gitStatus == null && git != null && git.get() != null) {
+        try {
+          LOGGER.debug("-- Compute our GitStatus -> getStatus() --");
+          Status status = callStatus(Collections.emptyList());
+          checkCancelled();
+          LOGGER.debug("-- Get JGit status -> git.status().call() --");
+          gitStatus = new GitStatus(getUnstagedFiles(status), getStagedFiles(status), status.hasUncommittedChanges());
+        } catch (GitAPIException e) {
+          LOGGER.error(e.getMessage(), e);
+        }
+      }
+    }
+    return gitStatus != null ? gitStatus 
+        : new GitStatus(Collections.emptyList(),Collections.emptyList(), false);
+  }
+  
+  /**
+   * Splits the working tree into groups of top level subtrees and computes their
+   * status. Large repositories are processed in parallel, so the racily clean files,
+   * whose content must be compared, are hashed in parallel too. Smaller ones are processed
+   * one group after the other, only to deliver the status of each group when it is ready.
+   * 
+   * @param batchListener Receives the status of each group of subtrees. May be <code>null</code>.
+   * 
+   * @return The status or <code>null</code> if the working tree is not worth splitting or
+   * the computation failed.
+   */
+  private GitStatus getStatusOfGroups(Consumer<GitStatus> batchListener) {
+    Repository repository = git.get().getRepository();
+    List<List<String>> groups = null;
+    boolean parallel = false;
+    try {
+      DirCache dirCache = repository.readDirCache();
+      parallel = parallelism > 1 && dirCache.getEntryCount() >= parallelMinEntries;
+      if (parallel || batchListener != null) {
+        int threads = parallel ? parallelism : 1;
+        groups = splitWorkingTree(repository, dirCache, batchListener != null ? Math.max(STREAMED_GROUPS, threads) : threads);
+      }
+    } catch (IOException | NoWorkTreeException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+    if (groups == null) {
+      return null;
+    }
+    
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("-- Compute our GitStatus " + (parallel ? "in parallel" : "sequentially") 
+          + ", on " + groups.size() + " groups of subtrees --");
+    }
+    GitStatus gitStatus = null;
+    try {
+      List<ForkJoinTask<GitStatus>> tasks = new ArrayList<>(groups.size());
+      if (parallel) {
+        ForkJoinPool pool = getStatusPool();
+        for (List<String> group : groups) {
+          tasks.add(pool.submit(() -> getStatusOfSubtrees(group, batchListener)));
+        }
+      }
+      
+      List<FileStatus> unstagedFiles = new ArrayList<>();
+      // The submodules are reported only once, not for every group of subtrees.
+      addSubmodulesToUnstaged(unstagedFiles, getSubmoduleStatusSnapshot());
+      if (batchListener != null && !unstagedFiles.isEmpty()) {
+        batchListener.accept(new GitStatus(new ArrayList<>(unstagedFiles), Collections.emptyList(), false));
+      }
+      List<FileStatus> stagedFiles = new ArrayList<>();
+      boolean hasUncommittedChanges = false;
+      for (int i = 0; i < groups.size(); i++) {
+        GitStatus partial = parallel ? tasks.get(i).join() : getStatusOfSubtrees(groups.get(i), batchListener);
+        checkCancelled();
+        unstagedFiles.addAll(partial.getUnstagedFiles());
+        stagedFiles.addAll(partial.getStagedFiles());
+        hasUncommittedChanges |= partial.hasUncommittedChanges();
+      }
+      gitStatus = new GitStatus(unstagedFiles, stagedFiles, hasUncommittedChanges);
+    } catch (CancellationException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      LOGGER.error(e.getMessage(), e);
+    }
+    return gitStatus;
+  }
+  
+  /**
+   * Computes the status of a group of top level subtrees.
+   * 
+   * @param subtrees      The top level files and directories.
+   * @param batchListener Receives the computed status. May be <code>null</code>.
+   * 
+   * @return The status, without the submodules changes.
+   */
+  private GitStatus getStatusOfSubtrees(List<String> subtrees, Consumer<GitStatus> batchListener) {
+    try {
+      Status status = callStatus(subtrees);
+      checkCancelled();
+      List<FileStatus> unstagedFiles = new ArrayList<>();
+      addFilesToUnstaged(status, unstagedFiles, getSubmoduleStatusSnapshot().getSubmodules());
+      GitStatus partial = new GitStatus(unstagedFiles, getStagedFiles(status), status.hasUncommittedChanges());
+      if (batchListener != null) {
+        batchListener.accept(partial);
+      }
+      return partial;
+    } catch (GitAPIException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+  
+  /**
+   * Splits the top level entries of the working tree into balanced groups. An entry
+   * weighs as much as the index entries inside it.
+   * 
+   * @param repository  The repository.
+   * @param dirCache    The index of the repository.
+   * @param groupsCount The maximum number of groups.
+   * 
+   * @return The groups of top level entries or <code>null</code> if there is a single
+   * top level entry.
+   */
+  private static List<List<String>> splitWorkingTree(Repository repository, DirCache dirCache, int groupsCount) {
+    int entryCount = dirCache.getEntryCount();
+    Map<String, Integer> weights = new HashMap<>();
+    for (int i = 0; i < entryCount; i++) {
+      String path = dirCache.getEntry(i).getPathString();
+      int slash = path.indexOf('/');
+      weights.merge(slash == -1 ? path : path.substring(0, slash), 1, Integer::sum);
+    }
+    String[] topLevelNames = repository.getWorkTree().list();
+    if (topLevelNames != null) {
+      for (String name : topLevelNames) {
+        if (!Constants.DOT_GIT.equals(name)) {
+          // Untracked.
+          weights.putIfAbsent(name, 1);
+        }
+      }
+    }
+    if (weights.size() < 2) {
+      return null;
+    }
+    
+    // The heaviest entries are distributed first, each to the least loaded group.
+    int bucketsCount = Math.min(groupsCount, weights.size());
+    List<List<String>> buckets = new ArrayList<>(bucketsCount);
+    int[] loads = new int[bucketsCount];
+    for (int i = 0; i < bucketsCount; i++) {
+      buckets.add(new ArrayList<>());
+    }
+    weights.entrySet().stream()
+      .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+      .forEach(entry -> {
+        int lightest = 0;
+        for (int i = 1; i < loads.length; i++) {
+          if (loads[i] < loads[lightest]) {
+            lightest = i;
+          }
+        }
+        buckets.get(lightest).add(entry.getKey());
+        loads[lightest] += entry.getValue();
+      });
+    
+    return buckets;
+  }
+  
+  /**
+   * @return The pool on which the status of the subtrees is computed.
+   */
+  private static synchronized ForkJoinPool getStatusPool() {
+    if (statusPool == null) {
+      statusPool = new ForkJoinPool(
+          Runtime.getRuntime().availableProcessors(),
+          pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Git Status Worker " + thread.getPoolIndex());
+            return thread;
+          },
+          null,
+          false);
+    }
+    return statusPool;
+  }
+  
+  /**
+   * Computes the status only for a subset of the Working Copy.
+   *
+   * @param paths The files or directories of interest.
+   *
+   * @return A status with the unstaged and staged files from the given subset.
+   * 
+   * @throws CancellationException If the cancellation token was cancelled.
+   */
+  public GitStatus getStatus(Collection<String> paths) {
+    GitStatus gitStatus = null;
+    try (GitMetrics.Timing timing = GitMetrics.getInstance().time(GitMetrics.STATUS_PATHS)) {
+      if (git != null && git.get() != null) {
+        try {
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("-- Compute our GitStatus for paths " + paths + " --");
+          }
+          Status status = callStatus(paths);
+          checkCancelled();
+          gitStatus = new GitStatus(getUnstagedFiles(status), getStagedFiles(status), status.hasUncommittedChanges());
+        } catch (GitAPIException e) {
+          LOGGER.error(e.getMessage(), e);
+        }
       }
     }
     return gitStatus != null ? gitStatus 
@@ -124,18 +485,30 @@ public class GitStatusCommand {
     List<FileStatus> unstagedFiles = new ArrayList<>();
     if (git != null) {
       try {
-        Set<String> submodules = getSubmoduleAccess().getSubmodules();
-        addSubmodulesToUnstaged(unstagedFiles, submodules);
-        addUntrackedFilesToUnstaged(status, unstagedFiles, submodules);
-        addModifiedFilesToUnstaged(status, unstagedFiles, submodules);
-        addMissingFilesToUnstaged(status, unstagedFiles, submodules);
-        addConflictingFilesToUnstaged(status, unstagedFiles);
-      } catch (NoWorkTreeException | GitAPIException e1) {
+        SubmoduleStatusSnapshot submoduleStatuses = getSubmoduleStatusSnapshot();
+        addSubmodulesToUnstaged(unstagedFiles, submoduleStatuses);
+        addFilesToUnstaged(status, unstagedFiles, submoduleStatuses.getSubmodules());
+      } catch (NoWorkTreeException e1) {
         LOGGER.error(e1.getMessage(), e1);
       }
     }
     return unstagedFiles;
   }
+  
+  /**
+   * Adds the untracked, modified, missing and conflicting files to the list of resources
+   * that are not staged.
+   * 
+   * @param status        The repository's status.
+   * @param unstagedFiles The list of unstaged (not in the INDEX) files.
+   * @param submodules    The set of submodules.
+   */
+  private void addFilesToUnstaged(Status status, List<FileStatus> unstagedFiles, Set<String> submodules) {
+    addUntrackedFilesToUnstaged(status, unstagedFiles, submodules);
+    addModifiedFilesToUnstaged(status, unstagedFiles, submodules);
+    addMissingFilesToUnstaged(status, unstagedFiles, submodules);
+    addConflictingFilesToUnstaged(status, unstagedFiles);
+  }
 
   /**
    * Add conflicting files to the list of resources that are not staged.
@@ -214,23 +587,20 @@ public class GitStatusCommand {
    * Add submodules to the list of resources that are not staged.
    * 
    * @param unstagedFiles The list of unstaged (not in the INDEX) files.
-   * @param submodules    The set of submodules.
-   * 
-   * @throws GitAPIException When an error occurs when trying to check the
-   *                         submodules status.
+   * @param submodules    The status of the submodules.
    */
-  private void addSubmodulesToUnstaged(List<FileStatus> unstagedFiles, Set<String> submodules) throws GitAPIException {
+  private void addSubmodulesToUnstaged(List<FileStatus> unstagedFiles, SubmoduleStatusSnapshot submodules) {
     if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("addSubmodulesToUnstaged " + submodules);
+      LOGGER.debug("addSubmodulesToUnstaged " + submodules.getSubmodules());
     }
-    for (String submodulePath : submodules) {
-      SubmoduleStatus submoduleStatus = git.get().submoduleStatus().call().get(submodulePath);
+    for (String submodulePath : submodules.getSubmodules()) {
+      SubmoduleStatus submoduleStatus = submodules.getStatus(submodulePath);
       if (submoduleStatus != null && submoduleStatus.getHeadId() != null
           && !submoduleStatus.getHeadId().equals(submoduleStatus.getIndexId())) {
         
         unstagedFiles.add(
             new FileStatus(GitChangeType.SUBMODULE, submodulePath).setDescription(
-                RepoUtil.extractSubmoduleChangeDescription(git.get().getRepository(), submoduleStatus)));
+                SubmoduleStatusSnapshot.getChangeDescription(git.get().getRepository(), submoduleStatus)));
         
       }
     }
@@ -240,7 +610,7 @@ public class GitStatusCommand {
    * @return API for working with submodules.
    */
   public SubmoduleAccess getSubmoduleAccess() {
-    return SubmoduleAccess.wrap(git);
+    return SubmoduleAccess.wrap(git, this::getSubmoduleStatusSnapshot);
   }
 
   
@@ -292,7 +662,7 @@ public class GitStatusCommand {
   */
  private List<FileStatus> getStagedFiles(Status status) {
    List<FileStatus> stagedFiles = new ArrayList<>();
-   Set<String> submodules = getSubmoduleAccess().getSubmodules();
+   Set<String> submodules = getSubmoduleStatusSnapshot().getSubmodules();
 
    for (String fileName : status.getChanged()) {
      // File from INDEX, modified from HEAD
@@ -0,0 +1,180 @@
+package com.oxygenxml.git.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+
+/**
+ * The differences between two lists of file statuses, for example between the files
+ * presented in a view and a newly computed status. Applying the differences costs less
+ * than presenting all the files again. The lists are not locked: the files presented in
+ * a view must be compared and updated on the AWT thread.
+ */
+public class GitStatusDelta {
+  /**
+   * Above this number of differences, the views present all the files again with one
+   * event instead of applying the differences one by one, with an event for each.
+   */
+  public static final int MAX_INCREMENTAL_SIZE = 100;
+
+  /**
+   * The files that are only in the new list.
+   */
+  private final List<FileStatus> added = new ArrayList<>();
+  /**
+   * The files that are only in the old list.
+   */
+  private final List<FileStatus> removed = new ArrayList<>();
+  /**
+   * The new statuses of the files whose change type or description changed.
+   */
+  private final List<FileStatus> changed = new ArrayList<>();
+
+  /**
+   * Hidden constructor. Use {@link #compute(List, List)}.
+   */
+  private GitStatusDelta() {
+    // Nothing
+  }
+
+  /**
+   * Computes the differences between two lists of file statuses.
+   *
+   * @param oldFiles The old files.
+   * @param newFiles The new files.
+   *
+   * @return The differences.
+   */
+  public static GitStatusDelta compute(List<FileStatus> oldFiles, List<FileStatus> newFiles) {
+    Map<String, List<FileStatus>> oldByPath = groupByPath(oldFiles);
+    Map<String, List<FileStatus>> newByPath = groupByPath(newFiles);
+
+    GitStatusDelta delta = new GitStatusDelta();
+    for (Map.Entry<String, List<FileStatus>> entry : oldByPath.entrySet()) {
+      List<FileStatus> oldStatuses = entry.getValue();
+      List<FileStatus> newStatuses = newByPath.getOrDefault(entry.getKey(), Collections.emptyList());
+      if (oldStatuses.size() == 1 && newStatuses.size() == 1) {
+        // The common case: one status for a path.
+        if (!isSame(oldStatuses.get(0), newStatuses.get(0))) {
+          delta.changed.add(newStatuses.get(0));
+        }
+      } else {
+        for (FileStatus oldStatus : oldStatuses) {
+          if (newStatuses.stream().noneMatch(f -> isSame(f, oldStatus))) {
+            delta.removed.add(oldStatus);
+          }
+        }
+        for (FileStatus newStatus : newStatuses) {
+          if (oldStatuses.stream().noneMatch(f -> isSame(f, newStatus))) {
+            delta.added.add(newStatus);
+          }
+        }
+      }
+    }
+    for (Map.Entry<String, List<FileStatus>> entry : newByPath.entrySet()) {
+      if (!oldByPath.containsKey(entry.getKey())) {
+        delta.added.addAll(entry.getValue());
+      }
+    }
+    return delta;
+  }
+
+  /**
+   * @param files File statuses.
+   *
+   * @return The statuses, by path, in the order of the list.
+   */
+  private static Map<String, List<FileStatus>> groupByPath(List<FileStatus> files) {
+    Map<String, List<FileStatus>> byPath = new LinkedHashMap<>();
+    for (FileStatus file : files) {
+      byPath.computeIfAbsent(file.getFileLocation(), k -> new ArrayList<>(1)).add(file);
+    }
+    return byPath;
+  }
+
+  /**
+   * @param f1 A file status.
+   * @param f2 Another file status.
+   *
+   * @return <code>true</code> if they are presented the same way.
+   */
+  private static boolean isSame(FileStatus f1, FileStatus f2) {
+    return f1.getChangeType() == f2.getChangeType()
+        && f1.getFileLocation().equals(f2.getFileLocation())
+        && Objects.equals(f1.getDescription(), f2.getDescription());
+  }
+
+  /**
+   * @return The files that are only in the new list.
+   */
+  public List<FileStatus> getAdded() {
+    return added;
+  }
+
+  /**
+   * @return The files that are only in the old list.
+   */
+  public List<FileStatus> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * @return The new statuses of the files whose change type or description changed.
+   * There is one status for each of these paths, in both lists.
+   */
+  public List<FileStatus> getChanged() {
+    return changed;
+  }
+
+  /**
+   * @return The number of differences.
+   */
+  public int size() {
+    return added.size() + removed.size() + changed.size();
+  }
+
+  /**
+   * Applies the differences to the old list, in one pass.
+   *
+   * @param oldFiles The old files, from which the differences were computed.
+   *
+   * @return The new files: the old ones that were not removed, with the new statuses
+   * of the changed ones, followed by the added ones.
+   */
+  public List<FileStatus> applyTo(List<FileStatus> oldFiles) {
+    Set<FileStatus> removedFiles = new HashSet<>(removed);
+    Map<String, FileStatus> changedByPath = new HashMap<>();
+    for (FileStatus file : changed) {
+      changedByPath.put(file.getFileLocation(), file);
+    }
+
+    List<FileStatus> newFiles = new ArrayList<>(oldFiles.size() + added.size());
+    for (FileStatus file : oldFiles) {
+      if (!removedFiles.contains(file)) {
+        newFiles.add(changedByPath.getOrDefault(file.getFileLocation(), file));
+      }
+    }
+    newFiles.addAll(added);
+    return newFiles;
+  }
+
+  /**
+   * @return <code>true</code> if the lists present the same files.
+   */
+  public boolean isEmpty() {
+    return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "added=" + added + ", removed=" + removed + ", changed=" + changed;
+  }
+}
@@ -0,0 +1,773 @@
+package com.oxygenxml.git.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the details presented in the history (message, author, date, committer) of
+ * the commits of a repository inside its Git directory, so that presenting the history
+ * again, even after a restart, doesn't inflate the commit objects.
+ * <br><br>
+ * The commits not found in the store are read from the repository and appended. Each
+ * detail is kept in its own file, with a fixed size record for each commit, in the order
+ * in which the commits were appended. The commit ids file is written last, so a record
+ * is complete when its id was written. The records left incomplete by an interrupted
+ * append are ignored when the store is loaded and dropped by the next append.
+ * <br><br>
+ * The files are changed only while holding the append lock, because other Oxygen
+ * instances may read or append to the same store. When they grow over
+ * {@link #DEFAULT_MAX_LENGTH}, the store is rebuilt: it is emptied and the commits
+ * are appended again as they are read.
+ */
+public class HistoryMetadataStore {
+  /**
+   * The details of a commit.
+   */
+  public static final class CommitMetadata {
+    /**
+     * The full message.
+     */
+    private final String message;
+    /**
+     * The author, with its email.
+     */
+    private final String author;
+    /**
+     * The author date.
+     */
+    private final Date authorDate;
+    /**
+     * The committer name.
+     */
+    private final String committer;
+
+    /**
+     * Constructor.
+     *
+     * @param message    The full message.
+     * @param author     The author, with its email.
+     * @param authorDate The author date.
+     * @param committer  The committer name.
+     */
+    private CommitMetadata(String message, String author, Date authorDate, String committer) {
+      this.message = message;
+      this.author = author;
+      this.authorDate = authorDate;
+      this.committer = committer;
+    }
+
+    /**
+     * @return The full message.
+     */
+    public String getMessage() {
+      return message;
+    }
+
+    /**
+     * @return The author, with its email.
+     */
+    public String getAuthor() {
+      return author;
+    }
+
+    /**
+     * @return The author date.
+     */
+    public Date getAuthorDate() {
+      return authorDate;
+    }
+
+    /**
+     * @return The committer name.
+     */
+    public String getCommitter() {
+      return committer;
+    }
+  }
+
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(HistoryMetadataStore.class);
+  /**
+   * The folder of the store, inside the add-on data folder.
+   */
+  private static final String STORE_FOLDER = "history";
+  /**
+   * The format version. A store with a different version is discarded.
+   */
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * The file that holds the format version.
+   */
+  private static final String VERSION_FILE = "version";
+  /**
+   * The file that identifies the current build of the store. It changes when the store is rebuilt.
+   */
+  private static final String GENERATION_FILE = "generation";
+  /**
+   * The file locked while changing the store, so that two processes don't change it at the same time.
+   */
+  private static final String LOCK_FILE = "append.lock";
+  /**
+   * The commit ids.
+   */
+  private static final String IDS_FILE = "ids";
+  /**
+   * The author dates, in milliseconds.
+   */
+  private static final String DATES_FILE = "dates";
+  /**
+   * The authors, as indexes in the people file.
+   */
+  private static final String AUTHORS_FILE = "authors";
+  /**
+   * The committers, as indexes in the people file.
+   */
+  private static final String COMMITTERS_FILE = "committers";
+  /**
+   * The offsets at which the messages end in the messages file.
+   */
+  private static final String MESSAGE_ENDS_FILE = "message-ends";
+  /**
+   * The distinct authors and committers, each one prefixed by its length.
+   */
+  private static final String PEOPLE_FILE = "people";
+  /**
+   * The messages, one after the other, in UTF-8.
+   */
+  private static final String MESSAGES_FILE = "messages";
+  /**
+   * The record size of the commit ids file.
+   */
+  private static final int ID_SIZE = Constants.OBJECT_ID_LENGTH;
+  /**
+   * The record size of the dates and message ends files.
+   */
+  private static final int LONG_SIZE = Long.BYTES;
+  /**
+   * The record size of the authors and committers files.
+   */
+  private static final int INT_SIZE = Integer.BYTES;
+  /**
+   * The length of the records of a commit in the fixed size files.
+   */
+  private static final int RECORD_SIZE = ID_SIZE + LONG_SIZE + INT_SIZE + INT_SIZE + LONG_SIZE;
+  /**
+   * The length of the files above which the store is rebuilt. Bytes.
+   */
+  static final long DEFAULT_MAX_LENGTH = 256L * 1024 * 1024;
+
+  /**
+   * The store of the last repository whose history was read.
+   */
+  private static HistoryMetadataStore instance;
+
+  /**
+   * The folder of the store.
+   */
+  private final File folder;
+  /**
+   * The length of the files above which the store is rebuilt. Bytes.
+   */
+  private final long maxLength;
+  /**
+   * <code>true</code> after the store was loaded from disk.
+   */
+  private boolean loaded;
+  /**
+   * The generation of the loaded files. <code>null</code> if there were no files.
+   */
+  private String generation;
+  /**
+   * <code>true</code> after failing to read the stored records. The store is rebuilt by the next append.
+   */
+  private boolean corrupted;
+  /**
+   * <code>false</code> after failing to append, so the store is not extended anymore
+   * in this session.
+   */
+  private boolean writable = true;
+  /**
+   * The record of each stored commit.
+   */
+  private final Map<ObjectId, Integer> records = new HashMap<>();
+  /**
+   * The number of stored commits.
+   */
+  private int size;
+  /**
+   * The author date of each record.
+   */
+  private long[] dates = new long[0];
+  /**
+   * The author of each record.
+   */
+  private int[] authors = new int[0];
+  /**
+   * The committer of each record.
+   */
+  private int[] committers = new int[0];
+  /**
+   * The offset at which the message of each record ends.
+   */
+  private long[] messageEnds = new long[0];
+  /**
+   * The distinct authors and committers.
+   */
+  private final List<String> people = new ArrayList<>();
+  /**
+   * The index of each author and committer.
+   */
+  private final Map<String, Integer> peopleIndexes = new HashMap<>();
+  /**
+   * The length of the people file.
+   */
+  private long peopleLength;
+
+  /**
+   * Constructor.
+   *
+   * @param folder The folder of the store.
+   */
+  HistoryMetadataStore(File folder) {
+    this(folder, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param folder    The folder of the store.
+   * @param maxLength The length of the files above which the store is rebuilt. Bytes.
+   */
+  HistoryMetadataStore(File folder, long maxLength) {
+    this.folder = folder;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * @param repository The repository.
+   *
+   * @return The store of the repository.
+   */
+  public static synchronized HistoryMetadataStore forRepository(Repository repository) {
+    File folder = getFolder(repository.getDirectory().getAbsoluteFile());
+    if (instance == null || !instance.folder.equals(folder)) {
+      // Keep only the store of one repository in memory.
+      instance = new HistoryMetadataStore(folder);
+    }
+    return instance;
+  }
+
+  /**
+   * @param gitDir The Git directory of a repository.
+   *
+   * @return The folder of the store of the repository.
+   */
+  static File getFolder(File gitDir) {
+    return new File(new File(gitDir, StatusSnapshotStore.ADDON_DATA_FOLDER), STORE_FOLDER);
+  }
+
+  /**
+   * Reads the details of some commits. The commits not found in the store are parsed
+   * and appended to it. If the walk doesn't retain the bodies, the bodies parsed here
+   * are disposed. All the commits of a person share the same author and committer
+   * strings.
+   *
+   * @param commits The commits.
+   * @param walk    The walk that parsed the commits.
+   *
+   * @return The details of each commit, in the same order.
+   *
+   * @throws IOException Unable to parse a commit.
+   */
+  public synchronized List<CommitMetadata> read(List<? extends RevCommit> commits, RevWalk walk) throws IOException {
+    if (!loaded || !Objects.equals(generation, readGeneration())) {
+      // Not loaded yet, or rebuilt by another Oxygen.
+      loaded = true;
+      load();
+    }
+
+    CommitMetadata[] metadata = new CommitMetadata[commits.size()];
+    try {
+      readStored(commits, metadata);
+    } catch (IOException e) {
+      // The files were changed or deleted from outside. Rebuild them on the next append.
+      LOGGER.debug(e.getMessage(), e);
+      clear();
+      corrupted = true;
+      Arrays.fill(metadata, null);
+    }
+
+    List<RevCommit> toAppend = new ArrayList<>();
+    List<CommitMetadata> metadataToAppend = new ArrayList<>();
+    Map<String, String> newPeople = new HashMap<>();
+    for (int i = 0; i < metadata.length; i++) {
+      if (metadata[i] == null) {
+        RevCommit commit = commits.get(i);
+        walk.parseBody(commit);
+        PersonIdent authorIdent = commit.getAuthorIdent();
+        metadata[i] = new CommitMetadata(
+            commit.getFullMessage(),
+            intern(authorIdent.getName() + " <" + authorIdent.getEmailAddress() + ">", newPeople),
+            authorIdent.getWhen(),
+            intern(commit.getCommitterIdent().getName(), newPeople));
+        if (!walk.isRetainBody()) {
+          commit.disposeBody();
+        }
+        if (!records.containsKey(commit)) {
+          toAppend.add(commit);
+          metadataToAppend.add(metadata[i]);
+        }
+      }
+    }
+
+    if (writable && !toAppend.isEmpty()) {
+      try {
+        append(toAppend, metadataToAppend);
+      } catch (IOException e) {
+        LOGGER.debug(e.getMessage(), e);
+        writable = false;
+      }
+    }
+    return Arrays.asList(metadata);
+  }
+
+  /**
+   * @param person    An author or a committer.
+   * @param newPeople The people not stored yet, met while reading.
+   *
+   * @return The string of the person shared by all the commits.
+   */
+  private String intern(String person, Map<String, String> newPeople) {
+    Integer index = peopleIndexes.get(person);
+    return index != null ? people.get(index) : newPeople.computeIfAbsent(person, p -> p);
+  }
+
+  /**
+   * @return The number of stored commits.
+   */
+  synchronized int size() {
+    if (!loaded) {
+      loaded = true;
+      load();
+    }
+    return size;
+  }
+
+  /**
+   * Reads the details of the stored commits.
+   *
+   * @param commits  The commits.
+   * @param metadata Receives the details of the stored commits. Left <code>null</code>
+   *                 for the other commits.
+   *
+   * @throws IOException Unable to read the messages.
+   */
+  private void readStored(List<? extends RevCommit> commits, CommitMetadata[] metadata) throws IOException {
+    FileChannel messages = null;
+    try {
+      for (int i = 0; i < metadata.length; i++) {
+        Integer record = records.get(commits.get(i));
+        if (record != null) {
+          if (messages == null) {
+            messages = FileChannel.open(new File(folder, MESSAGES_FILE).toPath(), StandardOpenOption.READ);
+          }
+          long start = record == 0 ? 0 : messageEnds[record - 1];
+          ByteBuffer message = ByteBuffer.allocate((int) (messageEnds[record] - start));
+          while (message.hasRemaining()) {
+            if (messages.read(message, start + message.position()) < 0) {
+              throw new IOException("The messages of the history store were truncated.");
+            }
+          }
+          metadata[i] = new CommitMetadata(
+              new String(message.array(), StandardCharsets.UTF_8),
+              people.get(authors[record]),
+              new Date(dates[record]),
+              people.get(committers[record]));
+        }
+      }
+    } finally {
+      if (messages != null) {
+        messages.close();
+      }
+    }
+  }
+
+  /**
+   * Appends commits to the store. First drops the incomplete records, or rebuilds
+   * the store if it can't be read or it is too large.
+   *
+   * @param commits  The commits.
+   * @param metadata The details of each commit.
+   *
+   * @throws IOException Unable to write.
+   */
+  private void append(List<RevCommit> commits, List<CommitMetadata> metadata) throws IOException {
+    Files.createDirectories(folder.toPath());
+    try (FileChannel lockChannel = FileChannel.open(
+            new File(folder, LOCK_FILE).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = lockChannel.tryLock()) {
+      if (lock == null) {
+        // Another Oxygen is appending.
+        return;
+      }
+      if (!corrupted && isCurrentVersion()
+          && (!isUpToDate() || !Objects.equals(generation, readGeneration()))) {
+        // Another Oxygen changed the store since it was loaded, or an append was interrupted.
+        load();
+        dropIncompleteRecords();
+      }
+      if (corrupted || !isCurrentVersion() || getLength() > maxLength) {
+        // A new store, a store written with another format, or one that grew too much.
+        // Start over. The commits are appended again as they are read.
+        clear();
+        delete();
+      }
+
+      int count = commits.size();
+      long[] newDates = new long[count];
+      int[] newAuthors = new int[count];
+      int[] newCommitters = new int[count];
+      long[] newMessageEnds = new long[count];
+      List<String> newPeople = new ArrayList<>();
+      Map<String, Integer> newPeopleIndexes = new HashMap<>();
+      long messagesLength = size == 0 ? 0 : messageEnds[size - 1];
+      long newPeopleLength = peopleLength;
+
+      try (DataOutputStream peopleOut = openForAppend(PEOPLE_FILE);
+          DataOutputStream messagesOut = openForAppend(MESSAGES_FILE)) {
+        for (int i = 0; i < count; i++) {
+          CommitMetadata commitMetadata = metadata.get(i);
+          newDates[i] = commitMetadata.getAuthorDate().getTime();
+          for (String person : new String[] {commitMetadata.getAuthor(), commitMetadata.getCommitter()}) {
+            if (!peopleIndexes.containsKey(person) && !newPeopleIndexes.containsKey(person)) {
+              byte[] bytes = person.getBytes(StandardCharsets.UTF_8);
+              peopleOut.writeInt(bytes.length);
+              peopleOut.write(bytes);
+              newPeopleLength += INT_SIZE + bytes.length;
+              newPeopleIndexes.put(person, people.size() + newPeople.size());
+              newPeople.add(person);
+            }
+          }
+          newAuthors[i] = getPersonIndex(commitMetadata.getAuthor(), newPeopleIndexes);
+          newCommitters[i] = getPersonIndex(commitMetadata.getCommitter(), newPeopleIndexes);
+
+          byte[] message = commitMetadata.getMessage().getBytes(StandardCharsets.UTF_8);
+          messagesOut.write(message);
+          messagesLength += message.length;
+          newMessageEnds[i] = messagesLength;
+        }
+      }
+
+      try (DataOutputStream datesOut = openForAppend(DATES_FILE);
+          DataOutputStream authorsOut = openForAppend(AUTHORS_FILE);
+          DataOutputStream committersOut = openForAppend(COMMITTERS_FILE);
+          DataOutputStream messageEndsOut = openForAppend(MESSAGE_ENDS_FILE)) {
+        for (int i = 0; i < count; i++) {
+          datesOut.writeLong(newDates[i]);
+          authorsOut.writeInt(newAuthors[i]);
+          committersOut.writeInt(newCommitters[i]);
+          messageEndsOut.writeLong(newMessageEnds[i]);
+        }
+      }
+
+      // The ids go last. They mark the records as complete.
+      try (DataOutputStream idsOut = openForAppend(IDS_FILE)) {
+        byte[] id = new byte[ID_SIZE];
+        for (RevCommit commit : commits) {
+          commit.copyRawTo(id, 0);
+          idsOut.write(id);
+        }
+      }
+
+      for (String person : newPeople) {
+        peopleIndexes.put(person, people.size());
+        people.add(person);
+      }
+      peopleLength = newPeopleLength;
+      for (int i = 0; i < count; i++) {
+        addRecord(commits.get(i).copy(), newDates[i], newAuthors[i], newCommitters[i], newMessageEnds[i]);
+      }
+    }
+  }
+
+  /**
+   * @param person           An author or committer.
+   * @param newPeopleIndexes The indexes of the people being appended.
+   *
+   * @return The index of the person.
+   */
+  private int getPersonIndex(String person, Map<String, Integer> newPeopleIndexes) {
+    Integer index = peopleIndexes.get(person);
+    return index != null ? index : newPeopleIndexes.get(person);
+  }
+
+  /**
+   * @param name The name of a file of the store.
+   *
+   * @return A stream that appends to the file.
+   *
+   * @throws IOException Unable to open the file.
+   */
+  private DataOutputStream openForAppend(String name) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+        new File(folder, name).toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+  }
+
+  /**
+   * @return <code>true</code> if the files contain exactly the loaded records.
+   */
+  private boolean isUpToDate() {
+    return isCurrentVersion()
+        && new File(folder, IDS_FILE).length() == (long) size * ID_SIZE
+        && new File(folder, PEOPLE_FILE).length() == peopleLength
+        && new File(folder, MESSAGES_FILE).length() == (size == 0 ? 0 : messageEnds[size - 1]);
+  }
+
+  /**
+   * @return <code>true</code> if the store was written with the current format.
+   */
+  private boolean isCurrentVersion() {
+    boolean current = false;
+    File versionFile = new File(folder, VERSION_FILE);
+    if (versionFile.isFile()) {
+      try {
+        current = Integer.toString(FORMAT_VERSION).equals(
+            new String(Files.readAllBytes(versionFile.toPath()), StandardCharsets.UTF_8).trim());
+      } catch (IOException e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * @return The length of the loaded records, in bytes.
+   */
+  private long getLength() {
+    return (long) size * RECORD_SIZE + (size == 0 ? 0 : messageEnds[size - 1]) + peopleLength;
+  }
+
+  /**
+   * @return The generation of the files, or <code>null</code> if there are no files.
+   */
+  private String readGeneration() {
+    String fileGeneration = null;
+    File generationFile = new File(folder, GENERATION_FILE);
+    if (generationFile.isFile()) {
+      try {
+        fileGeneration = new String(Files.readAllBytes(generationFile.toPath()), StandardCharsets.UTF_8);
+      } catch (IOException e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+    return fileGeneration;
+  }
+
+  /**
+   * Loads the complete records of the store. The incomplete records at the end of the
+   * files are ignored. The files are not changed, because another Oxygen might be
+   * appending to them.
+   */
+  private void load() {
+    clear();
+    corrupted = false;
+    generation = readGeneration();
+    if (isCurrentVersion()) {
+      try {
+        loadRecords();
+      } catch (IOException e) {
+        LOGGER.debug("Unable to read the history store.", e);
+        clear();
+        corrupted = true;
+      }
+    }
+  }
+
+  /**
+   * Loads the complete records of the store.
+   *
+   * @throws IOException Unable to read.
+   */
+  private void loadRecords() throws IOException {
+    ByteBuffer ids = ByteBuffer.wrap(readFile(IDS_FILE));
+    ByteBuffer datesBuffer = ByteBuffer.wrap(readFile(DATES_FILE));
+    ByteBuffer authorsBuffer = ByteBuffer.wrap(readFile(AUTHORS_FILE));
+    ByteBuffer committersBuffer = ByteBuffer.wrap(readFile(COMMITTERS_FILE));
+    ByteBuffer messageEndsBuffer = ByteBuffer.wrap(readFile(MESSAGE_ENDS_FILE));
+    long messagesLength = new File(folder, MESSAGES_FILE).length();
+    loadPeople();
+
+    int count = Math.min(
+        Math.min(ids.capacity() / ID_SIZE, datesBuffer.capacity() / LONG_SIZE),
+        Math.min(
+            Math.min(authorsBuffer.capacity() / INT_SIZE, committersBuffer.capacity() / INT_SIZE),
+            messageEndsBuffer.capacity() / LONG_SIZE));
+    byte[] id = new byte[ID_SIZE];
+    long messageStart = 0;
+    for (int i = 0; i < count; i++) {
+      ids.get(id);
+      long date = datesBuffer.getLong();
+      int author = authorsBuffer.getInt();
+      int committer = committersBuffer.getInt();
+      long messageEnd = messageEndsBuffer.getLong();
+      if (author < 0 || author >= people.size()
+          || committer < 0 || committer >= people.size()
+          || messageEnd < messageStart || messageEnd > messagesLength) {
+        // Not written completely.
+        break;
+      }
+      addRecord(ObjectId.fromRaw(id), date, author, committer, messageEnd);
+      messageStart = messageEnd;
+    }
+  }
+
+  /**
+   * Drops the records left incomplete by an interrupted append, so that the next
+   * ones are appended after the complete ones. Called while holding the append lock.
+   *
+   * @throws IOException Unable to write.
+   */
+  private void dropIncompleteRecords() throws IOException {
+    truncate(IDS_FILE, (long) size * ID_SIZE);
+    truncate(DATES_FILE, (long) size * LONG_SIZE);
+    truncate(AUTHORS_FILE, (long) size * INT_SIZE);
+    truncate(COMMITTERS_FILE, (long) size * INT_SIZE);
+    truncate(MESSAGE_ENDS_FILE, (long) size * LONG_SIZE);
+    truncate(MESSAGES_FILE, size == 0 ? 0 : messageEnds[size - 1]);
+    truncate(PEOPLE_FILE, peopleLength);
+  }
+
+  /**
+   * Loads the authors and committers, up to the last complete one.
+   *
+   * @throws IOException Unable to read.
+   */
+  private void loadPeople() throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(readFile(PEOPLE_FILE));
+    while (buffer.remaining() >= INT_SIZE) {
+      int length = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+        break;
+      }
+      String person = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+      buffer.position(buffer.position() + length);
+      peopleIndexes.put(person, people.size());
+      people.add(person);
+      peopleLength = buffer.position();
+    }
+  }
+
+  /**
+   * @param name The name of a file of the store.
+   *
+   * @return The content of the file. Empty if the file doesn't exist.
+   *
+   * @throws IOException Unable to read.
+   */
+  private byte[] readFile(String name) throws IOException {
+    Path path = new File(folder, name).toPath();
+    return Files.isRegularFile(path) ? Files.readAllBytes(path) : new byte[0];
+  }
+
+  /**
+   * Truncates a file of the store, if it is longer.
+   *
+   * @param name   The name of the file.
+   * @param length The length.
+   *
+   * @throws IOException Unable to write.
+   */
+  private void truncate(String name, long length) throws IOException {
+    Path path = new File(folder, name).toPath();
+    if (Files.isRegularFile(path) && Files.size(path) > length) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+        channel.truncate(length);
+      }
+    }
+  }
+
+  /**
+   * Adds a record to the loaded ones.
+   *
+   * @param id         The commit id.
+   * @param date       The author date.
+   * @param author     The index of the author.
+   * @param committer  The index of the committer.
+   * @param messageEnd The offset at which the message ends.
+   */
+  private void addRecord(ObjectId id, long date, int author, int committer, long messageEnd) {
+    if (size == dates.length) {
+      int capacity = Math.max(1024, size * 2);
+      dates = Arrays.copyOf(dates, capacity);
+      authors = Arrays.copyOf(authors, capacity);
+      committers = Arrays.copyOf(committers, capacity);
+      messageEnds = Arrays.copyOf(messageEnds, capacity);
+    }
+    dates[size] = date;
+    authors[size] = author;
+    committers[size] = committer;
+    messageEnds[size] = messageEnd;
+    records.put(id, size);
+    size++;
+  }
+
+  /**
+   * Forgets the loaded records.
+   */
+  private void clear() {
+    records.clear();
+    size = 0;
+    dates = new long[0];
+    authors = new int[0];
+    committers = new int[0];
+    messageEnds = new long[0];
+    people.clear();
+    peopleIndexes.clear();
+    peopleLength = 0;
+  }
+
+  /**
+   * Deletes the files of the store and starts a new one, with a new generation.
+   * Called while holding the append lock.
+   *
+   * @throws IOException Unable to delete or write.
+   */
+  private void delete() throws IOException {
+    for (String name : new String[] {IDS_FILE, DATES_FILE, AUTHORS_FILE, COMMITTERS_FILE,
+        MESSAGE_ENDS_FILE, PEOPLE_FILE, MESSAGES_FILE}) {
+      Files.deleteIfExists(new File(folder, name).toPath());
+    }
+    Files.write(new File(folder, VERSION_FILE).toPath(), Integer.toString(FORMAT_VERSION).getBytes(StandardCharsets.UTF_8));
+    generation = UUID.randomUUID().toString();
+    Files.write(new File(folder, GENERATION_FILE).toPath(), generation.getBytes(StandardCharsets.UTF_8));
+    corrupted = false;
+  }
+}
@@ -0,0 +1,154 @@
+package com.oxygenxml.git.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jgit.lib.EmptyProgressMonitor;
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+/**
+ * The progress of a long running operation that the user can cancel: push, pull,
+ * history loading. JGit reports the progress through {@link #asProgressMonitor()}.
+ */
+public class OperationProgress extends CancellationToken {
+  /**
+   * The operation title, presented to the user.
+   */
+  private final String title;
+  /**
+   * When the operation started. Milliseconds.
+   */
+  private final long startTime = System.currentTimeMillis();
+  /**
+   * The current task, as reported by JGit. May be <code>null</code>.
+   */
+  private volatile String task;
+  /**
+   * The amount of work of the current task. {@link ProgressMonitor#UNKNOWN} if not known.
+   */
+  private volatile int totalWork = ProgressMonitor.UNKNOWN;
+  /**
+   * The amount of work completed in the current task.
+   */
+  private volatile int completedWork;
+  /**
+   * Notified when the progress changes or the operation is cancelled.
+   */
+  private final List<Runnable> progressListeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Constructor.
+   *
+   * @param title The operation title, presented to the user.
+   */
+  public OperationProgress(String title) {
+    this.title = title;
+  }
+
+  /**
+   * @return The operation title, presented to the user.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * @return How long the operation has been running. Milliseconds.
+   */
+  public long getElapsedTime() {
+    return System.currentTimeMillis() - startTime;
+  }
+
+  /**
+   * @return The current task. May be <code>null</code>.
+   */
+  public String getTask() {
+    return task;
+  }
+
+  /**
+   * @return The completed percent of the current task or -1 if the amount of work is not known.
+   */
+  public int getPercent() {
+    int total = totalWork;
+    return total > 0 ? Math.min(100, completedWork * 100 / total) : -1;
+  }
+
+  /**
+   * Starts a new task.
+   *
+   * @param task      The task name.
+   * @param totalWork The amount of work or {@link ProgressMonitor#UNKNOWN}.
+   */
+  public void beginTask(String task, int totalWork) {
+    this.task = task;
+    this.totalWork = totalWork;
+    this.completedWork = 0;
+    fireProgressChanged();
+  }
+
+  /**
+   * Records completed work in the current task.
+   *
+   * @param work The amount of work completed since the last call.
+   */
+  public void worked(int work) {
+    int previousPercent = getPercent();
+    completedWork += work;
+    // JGit reports very often. Notify only when something visible changes.
+    if (totalWork <= 0 || getPercent() != previousPercent) {
+      fireProgressChanged();
+    }
+  }
+
+  @Override
+  public void cancel() {
+    super.cancel();
+    fireProgressChanged();
+  }
+
+  /**
+   * Adds a listener notified, on the thread that reports the progress, when the
+   * progress changes or the operation is cancelled.
+   *
+   * @param listener The listener.
+   */
+  public void addProgressListener(Runnable listener) {
+    progressListeners.add(listener);
+  }
+
+  /**
+   * Notifies the listeners.
+   */
+  private void fireProgressChanged() {
+    for (Runnable listener : progressListeners) {
+      listener.run();
+    }
+  }
+
+  @Override
+  public ProgressMonitor asProgressMonitor() {
+    return new EmptyProgressMonitor() {
+      @Override
+      public void beginTask(String taskName, int work) {
+        OperationProgress.this.beginTask(taskName, work);
+      }
+
+      @Override
+      public void update(int completed) {
+        worked(completed);
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return OperationProgress.this.isCancelled();
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "OperationProgress [title=" + title + ", task=" + task + ", percent=" + getPercent()
+        + ", cancelled=" + isCancelled() + "]";
+  }
+}
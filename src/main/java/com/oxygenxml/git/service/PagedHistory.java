@@ -0,0 +1,205 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revplot.PlotCommit;
+import org.eclipse.jgit.revplot.PlotCommitList;
+import org.eclipse.jgit.revplot.PlotWalk;
+
+import com.oxygenxml.git.service.HistoryMetadataStore.CommitMetadata;
+import com.oxygenxml.git.view.history.CommitCharacteristics;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
+
+/**
+ * The history of a repository or of a file, loaded one page at a time. The revision
+ * walk stays open between the pages, so each page continues where the previous one
+ * ended. Close it when the history is no longer presented.
+ * <br><br>
+ * The graph of the history needs the commits in topological order, so the walk is a
+ * {@link PlotWalk}, which always sorts them topologically. JGit does that on the first
+ * page: it visits all the reachable commits before returning the first one. Only their
+ * headers are parsed, from the commit-graph when it is maintained (see
+ * {@link CommitGraphMaintainer}), otherwise by reading each commit object. The messages
+ * and the people are read, and the rows created, only for the commits of the loaded pages.
+ * <br><br>
+ * Only one page is loaded at a time. Closing doesn't wait for a page being loaded,
+ * the walk is released when that page ends.
+ */
+public class PagedHistory implements AutoCloseable {
+  /**
+   * The number of commits in a page.
+   */
+  public static final int PAGE_SIZE = 200;
+
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+  /**
+   * Provides the messages, authors and dates of the commits.
+   */
+  private final HistoryMetadataStore metadataStore;
+  /**
+   * The revision walk. <code>null</code> after the last page or after closing.
+   */
+  private PlotWalk walk;
+  /**
+   * The commits walked so far, with their graph lanes.
+   */
+  private final PlotCommitList<VisualLane> commitList;
+  /**
+   * The rows presented before the first commit, like the uncommitted changes.
+   */
+  private final List<CommitCharacteristics> leadingRows = new ArrayList<>();
+  /**
+   * The number of commits already returned in pages.
+   */
+  private int loaded;
+  /**
+   * <code>true</code> after closing.
+   */
+  private volatile boolean closed;
+  /**
+   * Held while a page is loaded.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Constructor.
+   *
+   * @param repository The repository.
+   * @param walk       The revision walk, with its starting commits and filters set.
+   *                   <code>null</code> if there is no history.
+   * @param commitList Collects the walked commits.
+   */
+  PagedHistory(Repository repository, PlotWalk walk, PlotCommitList<VisualLane> commitList) {
+    this.repository = repository;
+    this.metadataStore = HistoryMetadataStore.forRepository(repository);
+    this.walk = walk;
+    this.commitList = commitList;
+    if (walk != null) {
+      commitList.source(walk);
+    }
+  }
+
+  /**
+   * Adds a row presented before the first commit.
+   *
+   * @param row The row.
+   */
+  public void addLeadingRow(CommitCharacteristics row) {
+    lock.lock();
+    try {
+      leadingRows.add(row);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Walks the next page of commits.
+   *
+   * @param token Stops the walk when cancelled. May be <code>null</code>.
+   *
+   * @return The commits of the page. Empty if the whole history was already loaded.
+   *
+   * @throws IOException Unable to read the commits.
+   * @throws CancellationException If the token was cancelled.
+   */
+  public List<CommitCharacteristics> loadNextPage(CancellationToken token) throws IOException {
+    lock.lock();
+    try {
+      if (token != null) {
+        token.checkCancelled();
+      }
+
+      List<CommitCharacteristics> page = new ArrayList<>(leadingRows);
+      if (walk != null && !closed) {
+        int highMark = loaded + PAGE_SIZE;
+        try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().read(repository)) {
+          commitList.fillTo(highMark);
+          // The list might contain a commit more than requested. It goes in the next page.
+          List<PlotCommit<VisualLane>> commits = new ArrayList<>(
+              commitList.subList(loaded, Math.min(commitList.size(), highMark)));
+          List<CommitMetadata> metadata = metadataStore.read(commits, walk);
+          for (int i = 0; i < commits.size(); i++) {
+            page.add(new CommitCharacteristics(commits.get(i), metadata.get(i)));
+          }
+          loaded += commits.size();
+        }
+        if (commitList.size() < highMark) {
+          // The walk ended.
+          closed = true;
+        }
+      }
+      // Only now, so a page that failed to load can be loaded again.
+      leadingRows.clear();
+      return page;
+    } finally {
+      if (closed) {
+        releaseWalk();
+      }
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Walks all the remaining commits.
+   *
+   * @param token Stops the walk when cancelled. May be <code>null</code>.
+   *
+   * @return The remaining commits.
+   *
+   * @throws IOException Unable to read the commits.
+   * @throws CancellationException If the token was cancelled.
+   */
+  public List<CommitCharacteristics> loadAll(CancellationToken token) throws IOException {
+    List<CommitCharacteristics> commits = new ArrayList<>();
+    do {
+      commits.addAll(loadNextPage(token));
+    } while (hasMorePages());
+    return commits;
+  }
+
+  /**
+   * @return <code>true</code> if there are commits not walked yet.
+   */
+  public boolean hasMorePages() {
+    lock.lock();
+    try {
+      return walk != null && !closed || !leadingRows.isEmpty();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the revision walk. No other page is loaded afterwards.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (lock.tryLock()) {
+      try {
+        releaseWalk();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Releases the revision walk. Called while holding the lock.
+   */
+  private void releaseWalk() {
+    if (walk != null) {
+      walk.close();
+      walk = null;
+    }
+  }
+}
@@ -14,6 +14,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.service.exceptions.PrivateRepositoryException;
 import com.oxygenxml.git.service.exceptions.RepositoryUnavailableException;
@@ -43,6 +45,11 @@ public class RemoteRepositoryChangeWatcher {
    */
   private static final int SLEEP = 400;
   
+  /**
+   * Coalescing key for the remote checks.
+   */
+  private static final String CHECK_REMOTE_KEY = "check-remote";
+  
   /**
    * Task for verifying and coalescing.
    */
@@ -75,7 +82,8 @@ public class RemoteRepositoryChangeWatcher {
     // Check the currently opened editors.
     boolean isNotifyAboutNewRemoteCommits = OptionsManager.getInstance().isNotifyAboutNewRemoteCommits();
     if(isNotifyAboutNewRemoteCommits) {
-      GitOperationScheduler.getInstance().schedule(() -> checkRemoteRepository(true), 2 * SLEEP);
+      GitOperationScheduler.getInstance().schedule(
+          Lane.NETWORK, Priority.BACKGROUND, CHECK_REMOTE_KEY, () -> checkRemoteRepository(true), 2 * SLEEP);
     }
   
   }
@@ -108,7 +116,8 @@ public class RemoteRepositoryChangeWatcher {
           if (future != null) {
             future.cancel(false);
           }
-          future = GitOperationScheduler.getInstance().schedule(() -> checkRemoteRepository(true), SLEEP);
+          future = GitOperationScheduler.getInstance().schedule(
+              Lane.NETWORK, Priority.BACKGROUND, CHECK_REMOTE_KEY, () -> checkRemoteRepository(true), SLEEP);
         }
       }
     };
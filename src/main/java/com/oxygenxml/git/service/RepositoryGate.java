@@ -0,0 +1,114 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.swing.SwingUtilities;
+
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coordinates the access to the repositories. Any number of read-only operations
+ * (status, history, diffs) run together, while an operation that changes the index,
+ * the working tree or HEAD waits for them and runs alone.
+ * <br><br>
+ * The AWT thread never waits to read. If a change is in progress, it reads without
+ * coordination, as it did before. It never waits to change a repository either: the
+ * changes are scheduled on the {@link GitOperationScheduler.Lane#WRITE} lane and a
+ * change that cannot start right away on the AWT thread fails.
+ */
+public class RepositoryGate {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryGate.class);
+
+  /**
+   * An access through the gate. Must be closed when the operation ends.
+   */
+  public interface Access extends AutoCloseable {
+    /**
+     * Releases the access.
+     */
+    @Override
+    void close();
+  }
+
+  /**
+   * An access that doesn't hold anything.
+   */
+  private static final Access NO_ACCESS = () -> {};
+
+  /**
+   * The locks, by Git directory.
+   */
+  private final Map<File, ReentrantReadWriteLock> locks = new ConcurrentHashMap<>();
+
+  /**
+   * Waits until no change is in progress.
+   *
+   * @param repository The repository to read.
+   *
+   * @return The access. Close it after reading.
+   */
+  public Access read(Repository repository) {
+    Access access = NO_ACCESS;
+    if (repository != null) {
+      Lock lock = getLock(repository).readLock();
+      if (!SwingUtilities.isEventDispatchThread()) {
+        lock.lock();
+        access = lock::unlock;
+      } else if (lock.tryLock()) {
+        access = lock::unlock;
+      } else {
+        LOGGER.debug("A change is in progress. Read without waiting on the AWT thread.");
+      }
+    }
+    return access;
+  }
+
+  /**
+   * Waits until the operations in progress end. No other operation starts until the
+   * access is closed.
+   *
+   * @param repository The repository to change.
+   *
+   * @return The access. Close it after the change.
+   *
+   * @throws IllegalStateException If the current thread reads the repository, or if
+   * this is the AWT thread and other operations are in progress.
+   */
+  public Access write(Repository repository) {
+    Access access = NO_ACCESS;
+    if (repository != null) {
+      ReentrantReadWriteLock lock = getLock(repository);
+      if (lock.getReadHoldCount() > 0 && !lock.isWriteLockedByCurrentThread()) {
+        // A read lock cannot be upgraded. Waiting would never end.
+        throw new IllegalStateException("Cannot change the repository while reading it on the same thread.");
+      }
+      if (!SwingUtilities.isEventDispatchThread()) {
+        lock.writeLock().lock();
+      } else if (!lock.writeLock().tryLock()) {
+        throw new IllegalStateException("Cannot change the repository on the AWT thread while other operations are in progress.");
+      }
+      access = lock.writeLock()::unlock;
+    }
+    return access;
+  }
+
+  /**
+   * @param repository A repository.
+   *
+   * @return The lock of the repository.
+   */
+  private ReentrantReadWriteLock getLock(Repository repository) {
+    return locks.computeIfAbsent(
+        repository.getDirectory().getAbsoluteFile(),
+        dir -> new ReentrantReadWriteLock(true));
+  }
+}
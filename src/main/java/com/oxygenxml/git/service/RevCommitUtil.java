@@ -5,11 +5,11 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 import org.eclipse.jgit.api.Git;
@@ -26,7 +26,6 @@ import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.revplot.PlotCommit;
 import org.eclipse.jgit.revplot.PlotCommitList;
 import org.eclipse.jgit.revplot.PlotWalk;
 import org.eclipse.jgit.revwalk.FollowFilter;
@@ -51,6 +50,7 @@ import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.view.history.CommitCharacteristics;
 import com.oxygenxml.git.view.history.CommitsAheadAndBehind;
+import com.oxygenxml.git.view.history.HistoryStrategy;
 import com.oxygenxml.git.view.history.RenameTracker;
 import com.oxygenxml.git.view.history.graph.GraphColorUtil;
 import com.oxygenxml.git.view.history.graph.VisualCommitsList;
@@ -101,7 +101,8 @@ public class RevCommitUtil {
         ObjectId head = repository.resolve(commitID);
 
       
-        try (RevWalk rw = new RevWalk(repository)) {
+        try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().read(repository);
+            RevWalk rw = new RevWalk(repository)) {
           RevCommit commit = rw.parseCommit(head);
           RevCommit oldCommit = commit.getParentCount() > 0 ? rw.parseCommit(commit.getParent(0)) : null;
           RevCommit[] parents = commit.getParents();
@@ -339,17 +340,19 @@ public class RevCommitUtil {
    * @param revisions Revisions are collected in here.
    * @param repository Loaded repository.
    * @param renameTracker    Track the renames for current file path.
+   * @param token            Stops the collection when cancelled. May be <code>null</code>.
    * 
    * @throws IOException 
-   * @throws GitAPIException
+   * @throws CancellationException If the token was cancelled.
    */
   public static void collectCurrentLocalBranchRevisions(
       String filePath, 
       List<CommitCharacteristics> revisions, 
       Repository repository,
-      RenameTracker renameTracker) throws IOException {
+      RenameTracker renameTracker,
+      CancellationToken token) throws IOException {
 	  
-	  collectCurrentBranchRevisions(filePath, revisions, repository, renameTracker, false);
+	  collectRevisions(openCurrentBranchHistory(filePath, repository, renameTracker, false), revisions, token);
   }
   
   /**
@@ -359,17 +362,19 @@ public class RevCommitUtil {
    * @param revisions Revisions are collected in here.
    * @param repository Loaded repository.
    * @param renameTracker    Track the renames for current file path.
+   * @param token            Stops the collection when cancelled. May be <code>null</code>.
    * 
    * @throws IOException 
-   * @throws GitAPIException
+   * @throws CancellationException If the token was cancelled.
    */
   public static void collectLocalBranchesRevisions(
       String filePath, 
       List<CommitCharacteristics> revisions, 
       Repository repository,
-      RenameTracker renameTracker) throws IOException {
+      RenameTracker renameTracker,
+      CancellationToken token) throws IOException {
 	  
-	  collectAllBranchRevisions(filePath, revisions, repository, renameTracker, false);
+	  collectRevisions(openAllBranchesHistory(filePath, repository, renameTracker, false), revisions, token);
   }
   
   
@@ -380,17 +385,19 @@ public class RevCommitUtil {
    * @param revisions Revisions are collected in here.
    * @param repository Loaded repository.
    * @param renameTracker    Track the renames for current file path.
+   * @param token            Stops the collection when cancelled. May be <code>null</code>.
    * 
    * @throws IOException 
-   * @throws GitAPIException
+   * @throws CancellationException If the token was cancelled.
    */
   public static void collectAllBranchesRevisions(
       String filePath, 
       List<CommitCharacteristics> revisions, 
       Repository repository,
-      RenameTracker renameTracker) throws IOException {
+      RenameTracker renameTracker,
+      CancellationToken token) throws IOException {
 	  
-	  collectAllBranchRevisions(filePath, revisions, repository, renameTracker, true);
+	  collectRevisions(openAllBranchesHistory(filePath, repository, renameTracker, true), revisions, token);
   }
   
   
@@ -401,35 +408,73 @@ public class RevCommitUtil {
    * @param revisions Revisions are collected in here.
    * @param repository Loaded repository.
    * @param renameTracker    Track the renames for current file path.
+   * @param token            Stops the collection when cancelled. May be <code>null</code>.
    * 
    * @throws IOException 
-   * @throws GitAPIException
+   * @throws CancellationException If the token was cancelled.
    */
   public static void collectCurrentBranchRevisions(
       String filePath, 
       List<CommitCharacteristics> revisions, 
       Repository repository,
-      RenameTracker renameTracker) throws IOException {
+      RenameTracker renameTracker,
+      CancellationToken token) throws IOException {
 	  
-	  collectCurrentBranchRevisions(filePath, revisions, repository, renameTracker, true);
+	  collectRevisions(openCurrentBranchHistory(filePath, repository, renameTracker, true), revisions, token);
   }
   
 
   /**
-   * Collects the revisions from the current branch and the remote branch linked to it, if this option is selected .
+   * Opens the history presented for a strategy. The revisions are walked one page at a time.
+   * 
+   * @param strategy         The branches whose revisions are presented.
+   * @param filePath         An optional resource path. If not null, only the revisions that changed this resource are presented.
+   * @param repository       Loaded repository.
+   * @param renameTracker    Track the renames for current file path.
+   * 
+   * @return The history. Close it when it is no longer presented.
+   * 
+   * @throws IOException 
+   */
+  public static PagedHistory openHistory(
+      HistoryStrategy strategy,
+      String filePath,
+      Repository repository,
+      RenameTracker renameTracker) throws IOException {
+    PagedHistory history;
+    switch (strategy) {
+      case ALL_BRANCHES:
+        history = openAllBranchesHistory(filePath, repository, renameTracker, true);
+        break;
+      case ALL_LOCAL_BRANCHES:
+        history = openAllBranchesHistory(filePath, repository, renameTracker, false);
+        break;
+      case CURRENT_LOCAL_BRANCH:
+        history = openCurrentBranchHistory(filePath, repository, renameTracker, false);
+        break;
+      case CURRENT_BRANCH:
+      default:
+        history = openCurrentBranchHistory(filePath, repository, renameTracker, true);
+        break;
+    }
+    return history;
+  }
+  
+
+  /**
+   * Opens the history of the current branch and of the remote branch linked to it, if this option is selected .
    * 
    * @param filePath         An optional resource path. If not null, only the revisions that changed this resource are collected.
-   * @param revisions        Revisions are collected in here.
    * @param repository       Loaded repository.
    * @param renameTracker    Track the renames for current file path.
    * @param includeRemote    <code>true</code> if the remote branch should be also presented.
    * 
+   * @return The history.
+   * 
    * @throws IOException 
-   * @throws GitAPIException
    */
-  private static void collectCurrentBranchRevisions(
+  private static PagedHistory openCurrentBranchHistory(
       String filePath, 
-      List<CommitCharacteristics> revisions, 
       Repository repository,
       RenameTracker renameTracker,
       boolean includeRemote) throws IOException {
@@ -438,8 +483,10 @@ public class RevCommitUtil {
     // EXM-44307 Show current branch commits only.
     String fullBranch = repository.getFullBranch();
     Ref branchHead = repository.exactRef(fullBranch);
+    PagedHistory history;
     if (branchHead != null) {
-      try (PlotWalk plotWalk = new PlotWalk(repository)) {
+      PlotWalk plotWalk = new PlotWalk(repository);
+      try {
     	  RevCommit root = plotWalk.parseCommit(branchHead.getObjectId());
 		  plotWalk.markStart(root);
 		  if(filePath != null && renameTracker != null) {
@@ -458,32 +505,36 @@ public class RevCommitUtil {
 	        }
 		}  
 		
-        collectRevisions(filePath, revisions, repository, plotWalk, renameTracker);
+        history = createHistory(filePath, repository, plotWalk, renameTracker);
+      } catch (IOException | RuntimeException e) {
+        plotWalk.close();
+        throw e;
       }
 
     } else {
       // Probably a new repository without any history. 
+      history = new PagedHistory(repository, null, null);
     }
+    return history;
   }
   
   
   
   
   /**
-   * Collects the revisions from all repository branches.
+   * Opens the history of all repository branches.
    * 
    * @param filePath         An optional resource path. If not null, only the revisions that changed this resource are collected.
-   * @param revisions        Revisions are collected in here.
    * @param repository       Loaded repository.
    * @param renameTracker    Track the renames for current file path.
    * @param includeRemote    <code>true</code> if the remote branches should be also presented.
    * 
+   * @return The history.
+   * 
    * @throws IOException 
-   * @throws GitAPIException
    */
-  private static void collectAllBranchRevisions(
+  private static PagedHistory openAllBranchesHistory(
       String filePath, 
-      List<CommitCharacteristics> revisions, 
       Repository repository,
       RenameTracker renameTracker,
       boolean includeRemote) throws IOException {
@@ -493,7 +544,8 @@ public class RevCommitUtil {
 		  allRefs.addAll(GitAccess.getInstance().getRemoteBrachListForCurrentRepo());
 	  }
 	  
-	  try (PlotWalk plotWalk = new PlotWalk(repository)) {
+	  PlotWalk plotWalk = new PlotWalk(repository);
+	  try {
 		  for (Ref ref : allRefs) {
 			  plotWalk.markStart(plotWalk.parseCommit(ref.getObjectId()));
 			}
@@ -501,7 +553,10 @@ public class RevCommitUtil {
 			  renameTracker.reset(filePath);
 			  plotWalk.setRevFilter(renameTracker.getFilter());
 		  }
-		  collectRevisions(filePath, revisions, repository, plotWalk, renameTracker);
+		  return createHistory(filePath, repository, plotWalk, renameTracker);
+	  } catch (IOException | RuntimeException e) {
+	    plotWalk.close();
+	    throw e;
 	  }
   }
   
@@ -523,21 +578,19 @@ public class RevCommitUtil {
  
   
   /**
-   * Collects all the revisions by waking the revision iterator.
+   * Creates a history that walks the revisions one page at a time.
    * 
    * @param filePath An optional resource path. If not null, only the revisions that changed this resource are collected.
-   * @param commits Revisions/Commits are collected in here.
    * @param repository Loaded repository.
    * @param plotWalk Revision iterator.
+   * @param renameTracker Track the renames for current file path.
    * 
-   * @throws IOException
-   * @throws GitAPIException
+   * @return The history.
    */
-  private static void collectRevisions(
+  private static PagedHistory createHistory(
 		  String filePath,
-		  List<CommitCharacteristics> commits,
 		  Repository repository,
-		  PlotWalk plotWalk, RenameTracker renameTracker) throws IOException {
+		  PlotWalk plotWalk, RenameTracker renameTracker) {
 
 	  if (filePath != null) {
 		  FollowFilter filter = FollowFilter.create(filePath, repository.getConfig().get(DiffConfig.KEY));
@@ -547,18 +600,32 @@ public class RevCommitUtil {
 		  plotWalk.setTreeFilter(filter);
 	  }
 
+	  // The messages and the authors are read through the history store, when not already stored.
+	  plotWalk.setRetainBody(false);
+
 	  boolean isDarkTheme = PluginWorkspaceProvider.getPluginWorkspace().getColorTheme().isDarkTheme();
 	  PlotCommitList<VisualLane> plotCommitList = new VisualCommitsList(GraphColorUtil.createColorDispatcher(isDarkTheme));
-	  plotCommitList.source(plotWalk);
-	  plotCommitList.fillTo(Integer.MAX_VALUE);
+	  return new PagedHistory(repository, plotWalk, plotCommitList);
+  }
 
-	  Iterator<PlotCommit<VisualLane>> commitListIterator = plotCommitList.iterator();
 
-	  while (commitListIterator.hasNext()) {
-		  PlotCommit<VisualLane> commit = commitListIterator.next();
-		  commits.add(new CommitCharacteristics(commit));
+  /**
+   * Collects all the revisions by walking all the pages of a history.
+   * 
+   * @param history The history. Closed at the end.
+   * @param commits Revisions/Commits are collected in here.
+   * @param token Stops the collection when cancelled. May be <code>null</code>.
+   * 
+   * @throws IOException
+   * @throws CancellationException If the token was cancelled.
+   */
+  private static void collectRevisions(
+		  PagedHistory history,
+		  List<CommitCharacteristics> commits,
+		  CancellationToken token) throws IOException {
+	  try (PagedHistory toWalk = history) {
+	    commits.addAll(toWalk.loadAll(token));
 	  }
-
   }
   
   
@@ -0,0 +1,113 @@
+package com.oxygenxml.git.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps track of the long running operations, so that the views can present their
+ * progress and let the user cancel them.
+ */
+public class RunningOperations {
+  /**
+   * Singleton instance.
+   */
+  private static RunningOperations instance;
+
+  /**
+   * The operations in progress, in the order in which they started.
+   */
+  private final List<OperationProgress> running = new CopyOnWriteArrayList<>();
+
+  /**
+   * Notified when an operation starts, ends or makes progress.
+   */
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Singleton private constructor.
+   */
+  private RunningOperations() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized RunningOperations getInstance() {
+    if (instance == null) {
+      instance = new RunningOperations();
+    }
+    return instance;
+  }
+
+  /**
+   * Registers a new operation.
+   *
+   * @param title The operation title, presented to the user.
+   *
+   * @return The progress of the operation. Pass it to {@link #end(OperationProgress)} when the operation ends.
+   */
+  public OperationProgress begin(String title) {
+    OperationProgress progress = new OperationProgress(title);
+    progress.addProgressListener(this::fireChanged);
+    running.add(progress);
+    fireChanged();
+    return progress;
+  }
+
+  /**
+   * Unregisters an operation. Calling it again has no effect.
+   *
+   * @param progress The progress of the operation.
+   */
+  public void end(OperationProgress progress) {
+    if (running.remove(progress)) {
+      fireChanged();
+    }
+  }
+
+  /**
+   * @param progress The progress of an operation.
+   *
+   * @return <code>true</code> if the operation didn't end yet.
+   */
+  public boolean isRunning(OperationProgress progress) {
+    return running.contains(progress);
+  }
+
+  /**
+   * @return The most recently started operation that is still running.
+   */
+  public Optional<OperationProgress> getCurrent() {
+    List<OperationProgress> snapshot = new ArrayList<>(running);
+    return snapshot.isEmpty() ? Optional.empty() : Optional.of(snapshot.get(snapshot.size() - 1));
+  }
+
+  /**
+   * Adds a listener notified, on the thread of the operation, when an operation
+   * starts, ends or makes progress.
+   *
+   * @param listener The listener.
+   */
+  public void addChangeListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener.
+   *
+   * @param listener The listener.
+   */
+  public void removeChangeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Notifies the listeners.
+   */
+  private void fireChanged() {
+    for (Runnable listener : listeners) {
+      listener.run();
+    }
+  }
+}
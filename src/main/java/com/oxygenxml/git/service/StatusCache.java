@@ -1,23 +1,54 @@
 package com.oxygenxml.git.service;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import javax.swing.SwingUtilities;
+
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.NoWorkTreeException;
+import org.eclipse.jgit.lib.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.service.metrics.GitMetrics;
+import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.utils.RepoUtil;
+import com.oxygenxml.git.view.event.FileGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.event.GitOperation;
 
 import ro.sync.exml.workspace.api.PluginWorkspace;
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
 import ro.sync.exml.workspace.api.editor.WSEditor;
 import ro.sync.exml.workspace.api.listeners.WSEditorChangeListener;
 import ro.sync.exml.workspace.api.listeners.WSEditorListener;
 
 /**
- * A cache intended to avoid reading the file system too often.
+ * A cache intended to avoid reading the file system too often. The working tree is
+ * watched for changes and only the changed paths are re-computed. A full rescan happens
+ * when the repository is opened, when file system events are lost or when the index/HEAD
+ * are changed by an external tool.<br><br>
+ * 
+ * Each invalidation increments a generation number. A computation started for an older
+ * generation is cancelled, when its result would be discarded anyway, and restarted.
+ * The invalidations don't wait for the running computation. Neither does the AWT thread:
+ * while a status is computed, it gets the last published status.
+ *
  * @author alex_jitianu
  */
 public class StatusCache {
@@ -28,11 +59,105 @@ public class StatusCache {
   /**
    * Inner cache.
    */
-  private GitStatus cache = null;
+  private volatile GitStatus cache = null;
   /**
    * A supplier of a newly computed status.
    */
   private Supplier<Git> statusComputer;
+  /**
+   * Records the paths changed in the working tree. <code>null</code> if the working tree
+   * is not watched.
+   */
+  private volatile WorkingTreeWatcher watcher;
+  /**
+   * The index checksum and HEAD against which the cached status was computed.
+   */
+  private volatile String repositoryStateStamp;
+  /**
+   * The status of the submodules, computed together with the cached status.
+   */
+  private SubmoduleStatusSnapshot submodules;
+  /**
+   * The last computed status of the submodules of the current repository. Presented
+   * without waiting for a running computation.
+   */
+  private volatile SubmoduleStatusSnapshot lastSubmodules;
+  /**
+   * The Git directory of the repository for which the status was computed.
+   */
+  private File statusGitDir;
+  /**
+   * <code>true</code> until the first status is computed for a newly opened repository.
+   * Until then, the status saved by a previous session can be presented.
+   */
+  private volatile boolean persistedStatusUsable = true;
+  /**
+   * Paths known to have changed, besides the ones reported by the watcher.
+   */
+  private final Set<String> dirtyPaths = ConcurrentHashMap.newKeySet();
+  /**
+   * <code>true</code> if the cached status must be discarded and computed again.
+   */
+  private volatile boolean rescanRequested = false;
+  /**
+   * Incremented on each invalidation.
+   */
+  private final AtomicLong generation = new AtomicLong();
+  /**
+   * Cancels the running computation. <code>null</code> if no computation is running.
+   */
+  private volatile CancellationToken runningComputation;
+  /**
+   * Cancels the running computation when the user no longer needs the status.
+   * May be <code>null</code>.
+   */
+  private CancellationToken userToken;
+  /**
+   * <code>true</code> if the running computation is a full scan.
+   */
+  private volatile boolean runningFullScan = false;
+  /**
+   * The last completed status. Presented while a newer one is computed.
+   */
+  private volatile GitStatus lastCompleted;
+  /**
+   * Held while the cached status is brought up to date.
+   */
+  private final ReentrantLock computationLock = new ReentrantLock();
+  /**
+   * The untracked directories of the current repository. Loaded when first needed.
+   */
+  private UntrackedCache untrackedCache;
+  /**
+   * The Git directory for which the untracked cache was loaded.
+   */
+  private File untrackedCacheGitDir;
+  /**
+   * The unstaged files from the cached status, indexed by path. Built when first needed.
+   */
+  private FileStatusIndex unstagedIndex;
+  /**
+   * The staged files from the cached status, indexed by path. Built when first needed.
+   */
+  private FileStatusIndex stagedIndex;
+  
+  /**
+   * How an operation affects the cached status.
+   */
+  private enum Invalidation {
+    /**
+     * Only refs or the remote repository changed. The working copy status is not affected.
+     */
+    NONE,
+    /**
+     * Only the status of the paths affected by the operation changed.
+     */
+    PATHS,
+    /**
+     * HEAD moved or the entire working copy might have changed.
+     */
+    FULL
+  }
   
   /**
    * Constructor.
@@ -45,10 +170,15 @@ public class StatusCache {
     listeners.addGitPriorityListener(new GitEventAdapter() {
       @Override
       public void operationSuccessfullyEnded(GitEventInfo info) {
-        if (// If you push changes the state of the working copy doesn't change.
-            info.getGitOperation() != GitOperation.PUSH &&
-            // If another branch is removed the state of the working copy doesn't change.
-            info.getGitOperation() != GitOperation.DELETE_BRANCH) {
+        if (info.getGitOperation() == GitOperation.OPEN_WORKING_COPY) {
+          persistedStatusUsable = true;
+          lastCompleted = null;
+          lastSubmodules = null;
+        }
+        Invalidation invalidation = getInvalidation(info.getGitOperation());
+        if (invalidation == Invalidation.PATHS && info instanceof FileGitEventInfo) {
+          pathsChanged(((FileGitEventInfo) info).getAffectedFilePaths());
+        } else if (invalidation != Invalidation.NONE) {
           resetCache();
         }
       }
@@ -56,22 +186,614 @@ public class StatusCache {
   }
   
   /**
+   * @param operation A Git operation.
+   * 
+   * @return How the operation affects the cached status.
+   */
+  private static Invalidation getInvalidation(GitOperation operation) {
+    Invalidation invalidation;
+    switch (operation) {
+      case PUSH:
+      case CREATE_BRANCH:
+      case DELETE_BRANCH:
+      case CREATE_TAG:
+      case DELETE_TAG:
+      case STASH_DROP:
+        invalidation = Invalidation.NONE;
+        break;
+      case STAGE:
+      case UNSTAGE:
+      case DISCARD:
+        invalidation = Invalidation.PATHS;
+        break;
+      default:
+        // Commit, checkout, merge, rebase, reset, pull, stash apply, configuration changes...
+        invalidation = Invalidation.FULL;
+        break;
+    }
+    return invalidation;
+  }
+  
+  /**
+   * @return A status of the currently loaded Git repository. See {@link #getStatus(Consumer, CancellationToken)}.
+   */
+  public GitStatus getStatus() {
+    return getStatus(null);
+  }
+  
+  /**
+   * Gets the status of the currently loaded Git repository. If the status is not cached,
+   * it is computed and the status of the groups of subtrees are delivered as soon as
+   * they are available. See {@link #getStatus(Consumer, CancellationToken)}.
+   * 
+   * @param batchListener Receives the status of each group of subtrees, on the thread
+   * that computed it, when a full computation is needed. May be <code>null</code>.
+   * 
    * @return A status of the currently loaded Git repository.
    */
-  public synchronized GitStatus getStatus() {
-    if (cache == null) {
-      cache = new GitStatusCommand(statusComputer).getStatus();
+  public GitStatus getStatus(Consumer<GitStatus> batchListener) {
+    return getStatus(batchListener, null);
+  }
+  
+  /**
+   * Gets the status of the currently loaded Git repository. If the status is not cached,
+   * it is computed and the status of the groups of subtrees are delivered as soon as
+   * they are available.<br><br>
+   * 
+   * The calling thread waits for the status of the current generation. The AWT thread
+   * doesn't wait for a running computation or for a full scan, if a status was already
+   * published for the current repository. It gets that status instead.
+   * 
+   * @param batchListener Receives the status of each group of subtrees, on the thread
+   * that computed it, when a full computation is needed. May be <code>null</code>.
+   * @param token Stops the computation when cancelled by the user. May be <code>null</code>.
+   * 
+   * @return A status of the currently loaded Git repository.
+   * 
+   * @throws CancellationException If the token was cancelled.
+   */
+  public GitStatus getStatus(Consumer<GitStatus> batchListener, CancellationToken token) {
+    GitStatus published = lastCompleted;
+    if (!lockComputation(published)) {
+      return published;
     }
+    try {
+      return computeCurrentStatus(batchListener, token);
+    } finally {
+      computationLock.unlock();
+    }
+  }
+  
+  /**
+   * Acquires the computation lock. On the AWT thread, when there is a published status
+   * to present instead, it doesn't wait for a running computation and doesn't start a full scan.
+   * 
+   * @param published The last published status. May be <code>null</code>.
+   * 
+   * @return <code>true</code> if the lock was acquired, <code>false</code> if the published
+   * status should be presented.
+   */
+  private boolean lockComputation(GitStatus published) {
+    boolean locked;
+    if (published != null && SwingUtilities.isEventDispatchThread()) {
+      locked = hasValidCache() && computationLock.tryLock();
+    } else {
+      computationLock.lock();
+      locked = true;
+    }
+    return locked;
+  }
+  
+  /**
+   * Computes the status of the current generation. Restarts while the computation is
+   * superseded by newer invalidations. Must be called with the computation lock held.
+   * 
+   * @param batchListener Receives the status of each group of subtrees. May be <code>null</code>.
+   * @param token Stops the computation when cancelled by the user. May be <code>null</code>.
+   * 
+   * @return The status.
+   * 
+   * @throws CancellationException If the token was cancelled.
+   */
+  private GitStatus computeCurrentStatus(Consumer<GitStatus> batchListener, CancellationToken token) {
+    Consumer<GitStatus> listener = batchListener;
+    long computedGeneration;
+    do {
+      computedGeneration = generation.get();
+      userToken = token;
+      try {
+        computeStatus(listener);
+      } catch (CancellationException e) {
+        if (token != null && token.isCancelled()) {
+          // The cached status is left as it is. The next call computes it.
+          throw e;
+        }
+        LOGGER.debug("Status computation superseded by a newer change. Restart.");
+        // The listener already received a part of the superseded status.
+        listener = null;
+      } finally {
+        runningComputation = null;
+        userToken = null;
+      }
+      // Invalidated while computing. The result is already stale.
+    } while (computedGeneration != generation.get() || cache == null);
+    lastCompleted = cache;
     return cache;
   }
 
   /**
-   * Reset inner cache.
+   * Brings the cached status up to date.
+   * 
+   * @param batchListener Receives the status of each group of subtrees, when a full
+   * computation is needed. May be <code>null</code>.
+   * 
+   * @throws CancellationException If a newer invalidation cancelled the computation.
+   */
+  private void computeStatus(Consumer<GitStatus> batchListener) {
+    if (rescanRequested) {
+      rescanRequested = false;
+      cache = null;
+      submodules = null;
+      unstagedIndex = null;
+      stagedIndex = null;
+    }
+
+    if (cache != null) {
+      Set<String> changedPaths = drainDirtyPaths();
+      boolean rescan = false;
+      if (watcher != null) {
+        WorkingTreeWatcher.Changes changes = watcher.drainChanges();
+        rescan = changes.isOverflow()
+            || changes.isGitMetadataChanged() && !Objects.equals(repositoryStateStamp, computeRepositoryStateStamp());
+        changedPaths.addAll(changes.getPaths());
+      }
+      if (rescan) {
+        LOGGER.debug("Working tree events lost or repository changed externally. Rescan.");
+        cache = null;
+      } else if (changedPaths.isEmpty()) {
+        GitMetrics.getInstance().statusCacheHit();
+      } else {
+        GitMetrics.getInstance().statusCacheUpdate();
+        try {
+          cache = updateStatus(changedPaths, startComputation(false));
+        } catch (CancellationException e) {
+          // Not applied. Compute them on the next attempt.
+          dirtyPaths.addAll(changedPaths);
+          throw e;
+        }
+      }
+    }
+
+    if (cache == null) {
+      GitMetrics.getInstance().statusCacheMiss();
+      watchWorkingTree();
+      if (watcher != null) {
+        // The full scan covers everything recorded so far.
+        watcher.drainChanges();
+      }
+      dirtyPaths.clear();
+      unstagedIndex = null;
+      stagedIndex = null;
+      GitStatusCommand statusCommand = new GitStatusCommand(statusComputer);
+      statusCommand.setCancellationToken(startComputation(true));
+      statusCommand.setUntrackedCache(getUntrackedCache());
+      cache = statusCommand.getStatus(batchListener);
+      submodules = statusCommand.getSubmoduleStatusSnapshot();
+      lastSubmodules = submodules;
+      repositoryStateStamp = computeRepositoryStateStamp();
+      Git git = statusComputer.get();
+      statusGitDir = git != null ? git.getRepository().getDirectory() : null;
+      persistedStatusUsable = false;
+      persistStatus();
+    }
+  }
+
+  /**
+   * @return The paths marked as changed since the last call. 
+   */
+  private Set<String> drainDirtyPaths() {
+    Set<String> drained = new HashSet<>();
+    for (String path : dirtyPaths) {
+      // Remove one by one. Paths added meanwhile are kept for the next call.
+      if (dirtyPaths.remove(path)) {
+        drained.add(path);
+      }
+    }
+    return drained;
+  }
+
+  /**
+   * Registers a new computation, that can be cancelled by a newer invalidation.
+   * 
+   * @param fullScan <code>true</code> for a full scan, <code>false</code> for an update
+   * of some paths.
+   * 
+   * @return The token that cancels the computation.
+   */
+  private CancellationToken startComputation(boolean fullScan) {
+    CancellationToken token = new CancellationToken(userToken);
+    runningFullScan = fullScan;
+    runningComputation = token;
+    return token;
+  }
+
+  /**
+   * Marks the cached status as outdated and cancels the running computation, if its
+   * result would be discarded.
+   * 
+   * @param rescan <code>true</code> if the cached status must be computed again,
+   * <code>false</code> if only some paths changed. A running full scan is not cancelled
+   * in this case, the paths are updated right after it ends.
+   */
+  private void supersede(boolean rescan) {
+    generation.incrementAndGet();
+    CancellationToken running = runningComputation;
+    if (running != null && (rescan || !runningFullScan)) {
+      running.cancel();
+    }
+  }
+
+  /**
+   * @return The last completed status, without waiting for a running computation. 
+   * <code>null</code> if no status was computed for the current repository yet.
+   */
+  public GitStatus getLastCompletedStatus() {
+    return lastCompleted;
+  }
+
+  /**
+   * @return <code>true</code> if there is a cached status and it wasn't discarded.
    */
-  public synchronized void resetCache() {
+  private boolean hasValidCache() {
+    return cache != null && !rescanRequested;
+  }
+
+  /**
+   * Checks, without computing anything, if the status might have changed since it was
+   * last computed.
+   *
+   * @return <code>false</code> only if the status is cached and the watched working tree
+   * didn't report any change since.
+   */
+  public boolean hasPendingChanges() {
+    WorkingTreeWatcher currentWatcher = watcher;
+    return !hasValidCache()
+        || !dirtyPaths.isEmpty()
+        || currentWatcher == null
+        || currentWatcher.hasChanges();
+  }
+
+  /**
+   * Loads the status saved by a previous session. It is meant to be presented while
+   * the actual status is computed and it is available only until the first status is
+   * computed for the current repository.
+   *
+   * @return The saved status or <code>null</code> if there is no saved status, the index
+   * or HEAD changed since it was saved, or a status was already computed.
+   */
+  public GitStatus loadPersistedStatus() {
+    GitStatus persisted = null;
+    Git git = statusComputer.get();
+    if (!hasValidCache() && persistedStatusUsable && git != null) {
+      persistedStatusUsable = false;
+      persisted = StatusSnapshotStore.load(git.getRepository().getDirectory(), computeRepositoryStateStamp());
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Persisted status " + (persisted != null ? "loaded" : "unavailable"));
+      }
+    }
+    return persisted;
+  }
+
+  /**
+   * Saves the cached status, to be presented on the next start, and the untracked cache.
+   */
+  private void persistStatus() {
+    if (cache != null && repositoryStateStamp != null && statusGitDir != null) {
+      StatusSnapshotStore.save(statusGitDir, cache, repositoryStateStamp);
+    }
+    if (untrackedCache != null) {
+      untrackedCache.save(untrackedCacheGitDir);
+    }
+  }
+
+  /**
+   * @return The untracked cache of the current repository or <code>null</code> if
+   * <code>core.untrackedCache</code> is disabled.
+   */
+  private UntrackedCache getUntrackedCache() {
+    Git git = statusComputer.get();
+    if (git == null || !UntrackedCache.isEnabled(git.getRepository())) {
+      return null;
+    }
+    File gitDir = git.getRepository().getDirectory();
+    if (untrackedCache == null || !gitDir.equals(untrackedCacheGitDir)) {
+      if (untrackedCache != null) {
+        untrackedCache.save(untrackedCacheGitDir);
+      }
+      untrackedCache = UntrackedCache.load(gitDir);
+      untrackedCacheGitDir = gitDir;
+    }
+    return untrackedCache;
+  }
+
+  /**
+   * Re-computes the status of the given paths and merges it into the cached status.
+   *
+   * @param paths Repository relative paths that changed.
+   * @param token Cancels the update.
+   *
+   * @return The updated status.
+   * 
+   * @throws CancellationException If the update was cancelled.
+   */
+  private GitStatus updateStatus(Set<String> paths, CancellationToken token) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Update status for paths " + paths);
+    }
+    Set<String> affectedSubmodules = getAffectedSubmodules(paths);
+    if (!affectedSubmodules.isEmpty()) {
+      // A change inside a submodule is reported on the submodule itself.
+      paths = new HashSet<>(paths);
+      paths.addAll(affectedSubmodules);
+      Git git = statusComputer.get();
+      submodules = git != null ? SubmoduleStatusSnapshot.compute(git.getRepository()) : SubmoduleStatusSnapshot.EMPTY;
+      lastSubmodules = submodules;
+    }
+    GitStatusCommand statusCommand = new GitStatusCommand(statusComputer, submodules);
+    statusCommand.setCancellationToken(token);
+    statusCommand.setUntrackedCache(getUntrackedCache());
+    GitStatus partial = statusCommand.getStatus(paths);
+
+    ensureIndexes();
+    update(unstagedIndex, partial.getUnstagedFiles(), paths);
+    update(stagedIndex, partial.getStagedFiles(), paths);
+    List<FileStatus> unstaged = unstagedIndex.getAll();
+    List<FileStatus> staged = stagedIndex.getAll();
+    boolean hasUncommittedChanges = !staged.isEmpty()
+        || unstaged.stream().anyMatch(f -> f.getChangeType() != GitChangeType.UNTRACKED);
+
+    return new GitStatus(unstaged, staged, hasUncommittedChanges);
+  }
+
+  /**
+   * Replaces the entries from the given paths with the newly computed ones.
+   *
+   * @param index The cached entries.
+   * @param fresh The newly computed entries.
+   * @param paths The re-computed paths.
+   */
+  private static void update(FileStatusIndex index, List<FileStatus> fresh, Set<String> paths) {
+    index.removeAll(paths);
+    for (FileStatus fileStatus : fresh) {
+      // A path scoped status command still reports all the submodules.
+      if (isInside(fileStatus.getFileLocation(), paths)) {
+        index.add(fileStatus);
+      }
+    }
+  }
+
+  /**
+   * Builds the path indexes of the cached status, if not already built.
+   */
+  private void ensureIndexes() {
+    if (unstagedIndex == null) {
+      unstagedIndex = new FileStatusIndex(cache.getUnstagedFiles());
+      stagedIndex = new FileStatusIndex(cache.getStagedFiles());
+    }
+  }
+
+  /**
+   * Gets the unstaged files from the given subset, from the cached status. Like 
+   * {@link #getStatus(Consumer, CancellationToken)}, the AWT thread doesn't wait and gets 
+   * the files from the last published status instead.
+   *
+   * @param paths Repository relative files or directories.
+   *
+   * @return The unstaged files or <code>null</code> if there is no cached status.
+   */
+  public List<FileStatus> getUnstagedFiles(Collection<String> paths) {
+    GitStatus published = lastCompleted;
+    if (!lockComputation(published)) {
+      return new FileStatusIndex(published.getUnstagedFiles()).get(paths);
+    }
+    try {
+      List<FileStatus> files = null;
+      if (hasValidCache()) {
+        // Bring the cache up to date with the changed paths.
+        computeCurrentStatus(null, null);
+        ensureIndexes();
+        files = unstagedIndex.get(paths);
+      }
+      return files;
+    } finally {
+      computationLock.unlock();
+    }
+  }
+
+  /**
+   * Gets the staged files from the given subset, from the cached status. Like 
+   * {@link #getStatus(Consumer, CancellationToken)}, the AWT thread doesn't wait and gets 
+   * the files from the last published status instead.
+   *
+   * @param paths Repository relative files or directories.
+   *
+   * @return The staged files or <code>null</code> if there is no cached status.
+   */
+  public List<FileStatus> getStagedFiles(Collection<String> paths) {
+    GitStatus published = lastCompleted;
+    if (!lockComputation(published)) {
+      return new FileStatusIndex(published.getStagedFiles()).get(paths);
+    }
+    try {
+      List<FileStatus> files = null;
+      if (hasValidCache()) {
+        // Bring the cache up to date with the changed paths.
+        computeCurrentStatus(null, null);
+        ensureIndexes();
+        files = stagedIndex.get(paths);
+      }
+      return files;
+    } finally {
+      computationLock.unlock();
+    }
+  }
+
+  /**
+   * The index or the working tree files were changed by one of our operations. Only
+   * the given paths are affected.
+   *
+   * @param paths Repository relative paths whose index entries or files changed.
+   */
+  private void pathsChanged(Collection<String> paths) {
+    if (hasValidCache()) {
+      dirtyPaths.addAll(paths);
+      // Our own change of the index doesn't need a rescan.
+      repositoryStateStamp = computeRepositoryStateStamp();
+      supersede(false);
+    }
+  }
+
+  /**
+   * Collects the submodules affected by the given changed paths: the submodules
+   * that contain a path, are a path or are inside a changed directory.
+   *
+   * @param paths Repository relative paths that changed.
+   *
+   * @return The paths of the affected submodules.
+   */
+  private Set<String> getAffectedSubmodules(Set<String> paths) {
+    Set<String> affected = new HashSet<>();
+    if (submodules != null) {
+      for (String submodule : submodules.getSubmodules()) {
+        if (isInside(submodule, paths)
+            || paths.stream().anyMatch(path -> path.startsWith(submodule + "/"))) {
+          affected.add(submodule);
+        }
+      }
+    }
+    return affected;
+  }
+
+  /**
+   * Checks if the given path is one of the given paths or is inside one of them.
+   *
+   * @param path  A repository relative path.
+   * @param paths Repository relative files or directories.
+   *
+   * @return <code>true</code> if the path is covered by the given paths.
+   */
+  private static boolean isInside(String path, Set<String> paths) {
+    String current = path;
+    while (true) {
+      if (paths.contains(current)) {
+        return true;
+      }
+      int index = current.lastIndexOf('/');
+      if (index == -1) {
+        return false;
+      }
+      current = current.substring(0, index);
+    }
+  }
+
+  /**
+   * Makes sure the working tree of the current repository is watched.
+   */
+  private void watchWorkingTree() {
+    Git git = statusComputer.get();
+    if (git == null) {
+      dispose();
+      return;
+    }
+
+    try {
+      Repository repository = git.getRepository();
+      File workTree = repository.getWorkTree();
+      if (watcher == null || !watcher.isWatching(workTree)) {
+        dispose();
+        watcher = WorkingTreeWatcher.start(repository);
+      }
+    } catch (NoWorkTreeException | IOException e) {
+      LOGGER.debug("Unable to watch the working tree. Changes will be detected on full scans.", e);
+      dispose();
+    }
+  }
+
+  /**
+   * @return The index checksum and HEAD of the current repository.
+   */
+  private String computeRepositoryStateStamp() {
+    String stamp = null;
+    Git git = statusComputer.get();
+    if (git != null) {
+      Repository repository = git.getRepository();
+      stamp = RepoUtil.getIndexChecksum(repository) + ":" + RepoUtil.getHeadId(repository);
+    }
+    return stamp;
+  }
+
+  /**
+   * Gets the status of the submodules of the current repository, without waiting for a
+   * running status computation. The submodules status computed along with the last status
+   * is reused. Only the submodules are inspected if no status was computed yet.
+   * 
+   * @return The status of the submodules of the current repository.
+   */
+  public SubmoduleStatusSnapshot getSubmoduleStatusSnapshot() {
+    SubmoduleStatusSnapshot snapshot = lastSubmodules;
+    if (snapshot == null) {
+      Git git = statusComputer.get();
+      snapshot = git != null ? SubmoduleStatusSnapshot.compute(git.getRepository()) : SubmoduleStatusSnapshot.EMPTY;
+    }
+    return snapshot;
+  }
+
+  /**
+   * Reset inner cache. Doesn't wait for a running computation, it is cancelled and
+   * the status is computed again.
+   */
+  public void resetCache() {
     LOGGER.debug("Reset cahche", new Exception());
-    cache = null;
-    
+    rescanRequested = true;
+    supersede(true);
+  }
+
+  /**
+   * Drops the cache, unless the working tree is watched. When watched, the changes
+   * done outside the application are already recorded.
+   */
+  public void resetCacheIfNotWatched() {
+    WorkingTreeWatcher currentWatcher = watcher;
+    if (currentWatcher == null || currentWatcher.isPolling()) {
+      resetCache();
+    }
+  }
+
+  /**
+   * Marks the given paths as changed. Their status will be re-computed on the next request.
+   *
+   * @param paths Repository relative paths.
+   */
+  public void markDirty(Collection<String> paths) {
+    dirtyPaths.addAll(paths);
+    supersede(false);
+  }
+
+  /**
+   * Stops watching the working tree. The cache can still be used.
+   */
+  public void dispose() {
+    computationLock.lock();
+    try {
+      // Save the incremental updates as well.
+      persistStatus();
+      if (watcher != null) {
+        watcher.close();
+        watcher = null;
+      }
+    } finally {
+      computationLock.unlock();
+    }
   }
 
   /**
@@ -103,11 +825,28 @@ public class StatusCache {
       editorAccess.addEditorListener(new WSEditorListener() {
         @Override
         public void editorSaved(int operationType) {
-          if (RepoUtil.isFileFromRepository(editorAccess.getEditorLocation())) {
-            resetCache();
+          URL editorLocation = editorAccess.getEditorLocation();
+          if (RepoUtil.isFileFromRepository(editorLocation)) {
+            markSavedFileDirty(editorLocation);
           }
         }
       });
     }
   }
+
+  /**
+   * Marks a saved file as changed.
+   *
+   * @param editorLocation The location of the saved file.
+   */
+  private void markSavedFileDirty(URL editorLocation) {
+    File file = PluginWorkspaceProvider.getPluginWorkspace().getUtilAccess().locateFile(editorLocation);
+    Git git = statusComputer.get();
+    if (file != null && git != null) {
+      String path = RepoUtil.getFilePathRelativeToRepo(file, git.getRepository().getWorkTree().getAbsolutePath());
+      markDirty(List.of(FileUtil.rewriteSeparator(path)));
+    } else {
+      resetCache();
+    }
+  }
 }
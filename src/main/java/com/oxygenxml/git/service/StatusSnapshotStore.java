@@ -0,0 +1,156 @@
+package com.oxygenxml.git.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Persists the last computed status of a repository inside its Git directory. On the
+ * next start, the status can be presented right away, before a new status is computed,
+ * as long as the index and HEAD did not change in the meantime.
+ */
+public class StatusSnapshotStore {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(StatusSnapshotStore.class);
+  /**
+   * The folder, inside the Git directory, where the add-on keeps its data.
+   */
+  static final String ADDON_DATA_FOLDER = "oxygen-git-client";
+  /**
+   * The name of the snapshot file.
+   */
+  private static final String SNAPSHOT_FILE_NAME = "status.snapshot";
+  /**
+   * The format version. Snapshots with a different version are ignored.
+   */
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * Hidden constructor.
+   */
+  private StatusSnapshotStore() {
+    // Nothing
+  }
+
+  /**
+   * Saves the status of a repository.
+   *
+   * @param gitDir The Git directory of the repository.
+   * @param status The status to save.
+   * @param stamp  The index checksum and HEAD against which the status was computed.
+   */
+  public static void save(File gitDir, GitStatus status, String stamp) {
+    File snapshotFile = getSnapshotFile(gitDir);
+    File tempFile = new File(snapshotFile.getParentFile(), SNAPSHOT_FILE_NAME + ".tmp");
+    try {
+      Files.createDirectories(snapshotFile.getParentFile().toPath());
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(stamp);
+        out.writeBoolean(status.hasUncommittedChanges());
+        writeFiles(out, status.getUnstagedFiles());
+        writeFiles(out, status.getStagedFiles());
+      }
+      Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Loads the saved status of a repository.
+   *
+   * @param gitDir The Git directory of the repository.
+   * @param stamp  The current index checksum and HEAD of the repository.
+   *
+   * @return The saved status or <code>null</code> if there is no saved status or it was
+   * computed against a different index or HEAD.
+   */
+  public static GitStatus load(File gitDir, String stamp) {
+    GitStatus status = null;
+    File snapshotFile = getSnapshotFile(gitDir);
+    if (stamp != null && snapshotFile.isFile()) {
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(snapshotFile.toPath())))) {
+        if (in.readInt() == FORMAT_VERSION && stamp.equals(in.readUTF())) {
+          boolean hasUncommittedChanges = in.readBoolean();
+          List<FileStatus> unstaged = readFiles(in);
+          List<FileStatus> staged = readFiles(in);
+          status = new GitStatus(unstaged, staged, hasUncommittedChanges);
+        }
+      } catch (IOException | IllegalArgumentException e) {
+        LOGGER.debug("Unable to read the status snapshot.", e);
+      }
+    }
+    return status;
+  }
+
+  /**
+   * @param gitDir The Git directory of the repository.
+   *
+   * @return The file that holds the saved status.
+   */
+  private static File getSnapshotFile(File gitDir) {
+    return new File(new File(gitDir, ADDON_DATA_FOLDER), SNAPSHOT_FILE_NAME);
+  }
+
+  /**
+   * Writes a list of files.
+   *
+   * @param out   Output.
+   * @param files The files to write.
+   *
+   * @throws IOException Unable to write.
+   */
+  private static void writeFiles(DataOutputStream out, List<FileStatus> files) throws IOException {
+    out.writeInt(files.size());
+    for (FileStatus file : files) {
+      out.writeUTF(file.getChangeType().name());
+      out.writeUTF(file.getFileLocation());
+      String description = file.getDescription();
+      out.writeBoolean(description != null);
+      if (description != null) {
+        out.writeUTF(description);
+      }
+    }
+  }
+
+  /**
+   * Reads a list of files.
+   *
+   * @param in Input.
+   *
+   * @return The files.
+   *
+   * @throws IOException Unable to read.
+   */
+  private static List<FileStatus> readFiles(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    List<FileStatus> files = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      GitChangeType changeType = GitChangeType.valueOf(in.readUTF());
+      FileStatus file = new FileStatus(changeType, in.readUTF());
+      if (in.readBoolean()) {
+        file.setDescription(in.readUTF());
+      }
+      files.add(file);
+    }
+    return files;
+  }
+}
@@ -1,6 +1,5 @@
 package com.oxygenxml.git.service;
 
-import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -21,18 +20,36 @@ public class SubmoduleAccess {
    * Git repository API.
    */
   private Supplier<Git> git;
+  /**
+   * Supplier for the status of the submodules.
+   */
+  private Supplier<SubmoduleStatusSnapshot> submodules;
   /**
    * Private constructor.
    * 
    * @param git Git repository API.
+   * @param submodules Supplier for the status of the submodules.
    */
-  private SubmoduleAccess(Supplier<Git> git) {
+  private SubmoduleAccess(Supplier<Git> git, Supplier<SubmoduleStatusSnapshot> submodules) {
     this.git = git;
-    
+    this.submodules = submodules;
   }
   
   static SubmoduleAccess wrap(Supplier<Git> git) {
-    return new SubmoduleAccess(git);
+    return wrap(git, () -> {
+      Git g = git.get();
+      return g != null ? SubmoduleStatusSnapshot.compute(g.getRepository()) : SubmoduleStatusSnapshot.EMPTY;
+    });
+  }
+  
+  /**
+   * @param git Git repository API.
+   * @param submodules Supplier for an already computed status of the submodules.
+   * 
+   * @return API for working with submodules.
+   */
+  static SubmoduleAccess wrap(Supplier<Git> git, Supplier<SubmoduleStatusSnapshot> submodules) {
+    return new SubmoduleAccess(git, submodules);
   }
 
   /**
@@ -46,13 +63,9 @@ public class SubmoduleAccess {
    */
   public ObjectId submoduleCompare(String submodulePath, boolean index) {
     ObjectId objID = null;
-    try {
-      SubmoduleStatus submoduleStatus = git.get().submoduleStatus().addPath(submodulePath).call().get(submodulePath);
-      if (submoduleStatus != null) {
-        objID = index ? submoduleStatus.getIndexId() : submoduleStatus.getHeadId();
-      }
-    } catch (GitAPIException e) {
-      LOGGER.error(e.getMessage(), e);
+    SubmoduleStatus submoduleStatus = submodules.get().getStatus(submodulePath);
+    if (submoduleStatus != null) {
+      objID = index ? submoduleStatus.getIndexId() : submoduleStatus.getHeadId();
     }
     return objID;
   }
@@ -64,14 +77,7 @@ public class SubmoduleAccess {
    * @return a list containing all the submodules
    */
   public Set<String> getSubmodules() {
-    try {
-      if (git.get() != null) {
-        return git.get().submoduleStatus().call().keySet();
-      }
-    } catch (GitAPIException e) {
-      LOGGER.error(e.getMessage(), e);
-    }
-    return new HashSet<>();
+    return submodules.get().getSubmodules();
   }
   
   /**
@@ -81,7 +87,10 @@ public class SubmoduleAccess {
    *                         submodule.
    */
   public void discardSubmodule() throws GitAPIException {
-    git.get().submoduleSync().call();
-    git.get().submoduleUpdate().setStrategy(MergeStrategy.RECURSIVE).call();
+    Git g = git.get();
+    try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().write(g.getRepository())) {
+      g.submoduleSync().call();
+      g.submoduleUpdate().setStrategy(MergeStrategy.RECURSIVE).call();
+    }
   }
 }
@@ -0,0 +1,228 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.errors.ConfigInvalidException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.submodule.SubmoduleStatus;
+import org.eclipse.jgit.submodule.SubmoduleStatusType;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.utils.RepoUtil;
+
+/**
+ * The status of all the submodules of a repository, computed in a single pass. The
+ * submodules repositories are inspected in parallel. The same snapshot is shared by all
+ * the parties interested in the submodules during a status pass.
+ */
+public class SubmoduleStatusSnapshot {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubmoduleStatusSnapshot.class);
+  /**
+   * A snapshot without submodules.
+   */
+  static final SubmoduleStatusSnapshot EMPTY = new SubmoduleStatusSnapshot(Collections.emptyMap());
+  /**
+   * The maximum number of change descriptions to keep.
+   */
+  private static final int MAX_CACHED_DESCRIPTIONS = 64;
+  /**
+   * Change descriptions, by submodule path and by the two gitlink commits that are compared.
+   */
+  private static final Map<String, String> DESCRIPTIONS_CACHE = new LinkedHashMap<String, String>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+      return size() > MAX_CACHED_DESCRIPTIONS;
+    }
+  };
+
+  /**
+   * The submodules status, by path.
+   */
+  private final Map<String, SubmoduleStatus> statuses;
+
+  /**
+   * Constructor.
+   *
+   * @param statuses The submodules status, by path.
+   */
+  private SubmoduleStatusSnapshot(Map<String, SubmoduleStatus> statuses) {
+    this.statuses = statuses;
+  }
+
+  /**
+   * A submodule, as recorded in the index of the parent repository.
+   */
+  private static class GitLink {
+    /**
+     * The submodule path.
+     */
+    private final String path;
+    /**
+     * The commit recorded in the index.
+     */
+    private final ObjectId indexId;
+    /**
+     * <code>true</code> if the submodule is declared in ".gitmodules".
+     */
+    private final boolean declared;
+    /**
+     * <code>true</code> if the submodule has an URL in the repository configuration.
+     */
+    private final boolean configured;
+
+    /**
+     * Constructor.
+     *
+     * @param path       The submodule path.
+     * @param indexId    The commit recorded in the index.
+     * @param declared   <code>true</code> if the submodule is declared in ".gitmodules".
+     * @param configured <code>true</code> if the submodule has an URL in the configuration.
+     */
+    GitLink(String path, ObjectId indexId, boolean declared, boolean configured) {
+      this.path = path;
+      this.indexId = indexId;
+      this.declared = declared;
+      this.configured = configured;
+    }
+
+    /**
+     * Inspects the submodule repository. Mirrors the JGit submodule status command.
+     *
+     * @param parent The parent repository.
+     *
+     * @return The submodule status.
+     */
+    SubmoduleStatus computeStatus(Repository parent) {
+      if (!declared) {
+        return new SubmoduleStatus(SubmoduleStatusType.MISSING, path, indexId);
+      }
+      if (!configured) {
+        return new SubmoduleStatus(SubmoduleStatusType.UNINITIALIZED, path, indexId);
+      }
+
+      ObjectId headId = null;
+      try (Repository submoduleRepository = SubmoduleWalk.getSubmoduleRepository(parent, path)) {
+        if (submoduleRepository == null) {
+          return new SubmoduleStatus(SubmoduleStatusType.UNINITIALIZED, path, indexId);
+        }
+        headId = submoduleRepository.resolve(Constants.HEAD);
+      } catch (IOException e) {
+        LOGGER.error(e.getMessage(), e);
+      }
+
+      SubmoduleStatus status;
+      if (headId == null) {
+        status = new SubmoduleStatus(SubmoduleStatusType.UNINITIALIZED, path, indexId, null);
+      } else if (!headId.equals(indexId)) {
+        status = new SubmoduleStatus(SubmoduleStatusType.REV_CHECKED_OUT, path, indexId, headId);
+      } else {
+        status = new SubmoduleStatus(SubmoduleStatusType.INITIALIZED, path, indexId, headId);
+      }
+      return status;
+    }
+  }
+
+  /**
+   * Computes the status of all the submodules of the given repository.
+   *
+   * @param repository The parent repository.
+   *
+   * @return The snapshot. Never <code>null</code>.
+   */
+  public static SubmoduleStatusSnapshot compute(Repository repository) {
+    if (repository == null || repository.isBare()) {
+      return EMPTY;
+    }
+
+    List<GitLink> gitLinks = new ArrayList<>();
+    try (SubmoduleWalk walk = SubmoduleWalk.forIndex(repository)) {
+      while (walk.next()) {
+        gitLinks.add(new GitLink(
+            walk.getPath(),
+            walk.getObjectId(),
+            walk.getModulesPath() != null,
+            walk.getConfigUrl() != null));
+      }
+    } catch (IOException | ConfigInvalidException e) {
+      LOGGER.error(e.getMessage(), e);
+      return EMPTY;
+    }
+
+    if (gitLinks.isEmpty()) {
+      return EMPTY;
+    }
+
+    // Opening each submodule repository is the expensive part.
+    Stream<GitLink> stream = gitLinks.size() > 1 ? gitLinks.parallelStream() : gitLinks.stream();
+    Map<String, SubmoduleStatus> statuses = stream
+        .map(gitLink -> gitLink.computeStatus(repository))
+        .collect(Collectors.toMap(SubmoduleStatus::getPath, s -> s, (s1, s2) -> s1, TreeMap::new));
+
+    return new SubmoduleStatusSnapshot(Collections.unmodifiableMap(statuses));
+  }
+
+  /**
+   * @return The paths of all the submodules.
+   */
+  public Set<String> getSubmodules() {
+    return statuses.keySet();
+  }
+
+  /**
+   * @param path The submodule path.
+   *
+   * @return The status of the submodule or <code>null</code> if there is no such submodule.
+   */
+  public SubmoduleStatus getStatus(String path) {
+    return statuses.get(path);
+  }
+
+  /**
+   * @return <code>true</code> if there are no submodules.
+   */
+  public boolean isEmpty() {
+    return statuses.isEmpty();
+  }
+
+  /**
+   * Describes the change of a submodule. The description is cached by the two gitlink
+   * commits, because it requires parsing commits from the submodule repository.
+   *
+   * @param repository      The parent repository.
+   * @param submoduleStatus The submodule status.
+   *
+   * @return The change description.
+   */
+  public static String getChangeDescription(Repository repository, SubmoduleStatus submoduleStatus) {
+    String key = submoduleStatus.getPath()
+        + ":" + ObjectId.toString(submoduleStatus.getIndexId())
+        + ":" + ObjectId.toString(submoduleStatus.getHeadId());
+    String description;
+    synchronized (DESCRIPTIONS_CACHE) {
+      description = DESCRIPTIONS_CACHE.get(key);
+    }
+    if (description == null) {
+      description = RepoUtil.extractSubmoduleChangeDescription(repository, submoduleStatus);
+      synchronized (DESCRIPTIONS_CACHE) {
+        DESCRIPTIONS_CACHE.put(key, description);
+      }
+    }
+    return description;
+  }
+}
@@ -0,0 +1,657 @@
+package com.oxygenxml.git.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.CoreConfig;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
+import com.oxygenxml.git.utils.RepoUtil;
+
+/**
+ * Remembers the untracked directories of a working tree, in the spirit of Git's
+ * <code>core.untrackedCache</code>. For each directory that holds only untracked files,
+ * the untracked files and the modification time of every directory inside it are recorded.
+ * As long as none of these directories changed, the untracked files are taken from the
+ * cache and the status computation doesn't walk the directory again.<br><br>
+ *
+ * Adding, removing or renaming a file changes the modification time of its directory.
+ * Editing an untracked file doesn't change its status. The ignore rules are checked as
+ * well: the <code>.gitignore</code> files of the directories and of their parents, the
+ * <code>info/exclude</code> file and <code>core.excludesFile</code>.
+ */
+public class UntrackedCache {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(UntrackedCache.class);
+  /**
+   * The name of the cache file, kept next to the status snapshot.
+   */
+  private static final String CACHE_FILE_NAME = "untracked.cache";
+  /**
+   * The format version. Caches with a different version are ignored.
+   */
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * Directories modified this recently are not cached. A file created right after the
+   * directory was listed might leave its modification time unchanged.
+   */
+  private static final long RACY_INTERVAL_MILLIS = 2000;
+  /**
+   * The name of the ignore rules file.
+   */
+  private static final String GITIGNORE = ".gitignore";
+  /**
+   * The HEAD for which the directories were found untracked.
+   */
+  private String headId;
+  /**
+   * The index for which the directories were found untracked.
+   */
+  private String indexChecksum;
+  /**
+   * The stamp of the repository wide ignore rules.
+   */
+  private String excludesStamp;
+  /**
+   * The untracked directories, by their repository relative path.
+   */
+  private final Map<String, UntrackedDirectory> directories = new ConcurrentHashMap<>();
+  /**
+   * <code>true</code> if the cache changed since it was loaded or saved.
+   */
+  private volatile boolean modified = false;
+
+  /**
+   * A directory that holds only untracked files.
+   */
+  private static class UntrackedDirectory {
+    /**
+     * The untracked files from inside the directory. Ignored files are not included.
+     */
+    private final List<String> files;
+    /**
+     * The stamps of the directory and of the directories inside it, by path.
+     */
+    private final Map<String, String> directoryStamps;
+    /**
+     * The stamps of the ignore rules from the parent directories, by path.
+     */
+    private final Map<String, String> parentIgnoreStamps;
+
+    /**
+     * Constructor.
+     *
+     * @param files              The untracked files.
+     * @param directoryStamps    The stamps of the directories inside.
+     * @param parentIgnoreStamps The stamps of the ignore rules from the parent directories.
+     */
+    UntrackedDirectory(List<String> files, Map<String, String> directoryStamps, Map<String, String> parentIgnoreStamps) {
+      this.files = files;
+      this.directoryStamps = directoryStamps;
+      this.parentIgnoreStamps = parentIgnoreStamps;
+    }
+
+    /**
+     * @param workTree The working tree.
+     *
+     * @return <code>true</code> if no file was added or removed and the ignore rules
+     * didn't change.
+     */
+    boolean isUnchanged(File workTree) {
+      for (Map.Entry<String, String> entry : directoryStamps.entrySet()) {
+        if (!entry.getValue().equals(getDirectoryStamp(new File(workTree, entry.getKey())))) {
+          return false;
+        }
+      }
+      for (Map.Entry<String, String> entry : parentIgnoreStamps.entrySet()) {
+        if (!entry.getValue().equals(getFileStamp(new File(new File(workTree, entry.getKey()), GITIGNORE)))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Skips the given directories while walking the working tree.
+   */
+  private static class SkipDirectoriesFilter extends TreeFilter {
+    /**
+     * The repository relative paths of the directories.
+     */
+    private final Set<String> skipped;
+
+    /**
+     * Constructor.
+     *
+     * @param skipped The repository relative paths of the directories.
+     */
+    SkipDirectoriesFilter(Set<String> skipped) {
+      this.skipped = skipped;
+    }
+
+    @Override
+    public boolean include(TreeWalk walker) {
+      return !walker.isSubtree() || !skipped.contains(walker.getPathString());
+    }
+
+    @Override
+    public boolean shouldBeRecursive() {
+      return false;
+    }
+
+    @Override
+    public TreeFilter clone() {
+      return this;
+    }
+  }
+
+  /**
+   * A directory whose modification time didn't change is taken from the cache, so a file
+   * added without changing it is missed. The cache is used only when requested.
+   *
+   * @param repository The repository.
+   *
+   * @return <code>true</code> if <code>core.untrackedCache</code> is <code>true</code>. When it
+   * is not set or it is "keep", the value of the {@link GitAddonSystemProperties#UNTRACKED_CACHE}
+   * system property.
+   */
+  public static boolean isEnabled(Repository repository) {
+    String value = repository.getConfig().getString(ConfigConstants.CONFIG_CORE_SECTION, null, "untrackedCache");
+    Boolean configured = StringUtils.toBooleanOrNull(value);
+    return configured != null ? configured : Boolean.getBoolean(GitAddonSystemProperties.UNTRACKED_CACHE);
+  }
+
+  /**
+   * Computes the status of the working tree. The untracked directories that didn't
+   * change are not walked, their untracked files are taken from the cache.
+   *
+   * @param repository The repository.
+   * @param paths      The files or directories of interest. Empty for the entire working tree.
+   * @param monitor    Cancels the computation. May be <code>null</code>.
+   *
+   * @return The status.
+   *
+   * @throws IOException Unable to read the repository.
+   */
+  public Status getStatus(Repository repository, Collection<String> paths, ProgressMonitor monitor) throws IOException {
+    long scanStart = System.currentTimeMillis();
+    String stateStamp = checkRepositoryState(repository);
+    Map<String, UntrackedDirectory> unchanged = getUnchangedDirectories(repository.getWorkTree(), paths);
+
+    IndexDiff diff = new IndexDiff(repository, Constants.HEAD, new FileTreeIterator(repository));
+    TreeFilter filter = unchanged.isEmpty() ? null : new SkipDirectoriesFilter(unchanged.keySet());
+    if (!paths.isEmpty()) {
+      TreeFilter pathFilter = PathFilterGroup.createFromStrings(paths);
+      filter = filter == null ? pathFilter : AndTreeFilter.create(pathFilter, filter);
+    }
+    if (filter != null) {
+      diff.setFilter(filter);
+    }
+    if (monitor != null) {
+      diff.diff(monitor, ProgressMonitor.UNKNOWN, ProgressMonitor.UNKNOWN, "");
+    } else {
+      diff.diff();
+    }
+
+    if (monitor == null || !monitor.isCancelled()) {
+      // A cancelled walk is incomplete.
+      record(repository, diff, paths, stateStamp, scanStart);
+    }
+    for (Map.Entry<String, UntrackedDirectory> entry : unchanged.entrySet()) {
+      for (String file : entry.getValue().files) {
+        if (isCovered(file, paths)) {
+          diff.getUntracked().add(file);
+        }
+      }
+    }
+    if (LOGGER.isDebugEnabled() && !unchanged.isEmpty()) {
+      LOGGER.debug("Untracked directories taken from cache: " + unchanged.keySet());
+    }
+    return new Status(diff);
+  }
+
+  /**
+   * @param dir A repository relative directory.
+   *
+   * @return <code>true</code> if the directory is in the cache.
+   */
+  boolean isCached(String dir) {
+    return directories.containsKey(dir);
+  }
+
+  /**
+   * Drops the entire cache when HEAD or the repository wide ignore rules changed and
+   * the directories that are no longer untracked when the index changed.
+   *
+   * @param repository The repository.
+   *
+   * @return The HEAD and index against which the cache is valid.
+   *
+   * @throws IOException Unable to read the index.
+   */
+  private synchronized String checkRepositoryState(Repository repository) throws IOException {
+    String currentHeadId = RepoUtil.getHeadId(repository);
+    String currentExcludesStamp = getExcludesStamp(repository);
+    if (!Objects.equals(headId, currentHeadId) || !Objects.equals(excludesStamp, currentExcludesStamp)) {
+      directories.clear();
+      headId = currentHeadId;
+      excludesStamp = currentExcludesStamp;
+      modified = true;
+    }
+    String currentIndexChecksum = RepoUtil.getIndexChecksum(repository);
+    if (!Objects.equals(indexChecksum, currentIndexChecksum)) {
+      if (!directories.isEmpty()) {
+        DirCache index = repository.readDirCache();
+        directories.keySet().removeIf(dir -> index.getEntriesWithin(dir).length > 0);
+      }
+      indexChecksum = currentIndexChecksum;
+      modified = true;
+    }
+    return headId + ":" + indexChecksum;
+  }
+
+  /**
+   * Collects the cached directories that didn't change. The changed ones are removed.
+   *
+   * @param workTree The working tree.
+   * @param paths    The files or directories of interest. Empty for the entire working tree.
+   *
+   * @return The unchanged directories, by path.
+   */
+  private Map<String, UntrackedDirectory> getUnchangedDirectories(File workTree, Collection<String> paths) {
+    Map<String, UntrackedDirectory> unchanged = new HashMap<>();
+    for (Map.Entry<String, UntrackedDirectory> entry : directories.entrySet()) {
+      String dir = entry.getKey();
+      if (isCovered(dir, paths) || paths.stream().anyMatch(path -> path.startsWith(dir + "/"))) {
+        if (entry.getValue().isUnchanged(workTree)) {
+          unchanged.put(dir, entry.getValue());
+        } else {
+          directories.remove(dir, entry.getValue());
+          modified = true;
+        }
+      }
+    }
+    return unchanged;
+  }
+
+  /**
+   * Records the untracked directories walked entirely by a status computation.
+   *
+   * @param repository The repository.
+   * @param diff       The status computation.
+   * @param paths      The files or directories of interest. Empty for the entire working tree.
+   * @param stateStamp The HEAD and index against which the status was computed.
+   * @param scanStart  When the status computation started.
+   *
+   * @throws IOException Unable to read the repository.
+   */
+  private synchronized void record(
+      Repository repository,
+      IndexDiff diff,
+      Collection<String> paths,
+      String stateStamp,
+      long scanStart) throws IOException {
+    if (!stateStamp.equals(headId + ":" + indexChecksum)) {
+      // The repository changed in the meantime.
+      return;
+    }
+
+    Set<String> untrackedFolders = diff.getUntrackedFolders();
+    Map<String, List<String>> filesByFolder = new HashMap<>();
+    for (String file : diff.getUntracked()) {
+      String folder = getTopmostFolder(file, untrackedFolders);
+      if (folder != null) {
+        filesByFolder.computeIfAbsent(folder, k -> new ArrayList<>()).add(file);
+      }
+    }
+
+    File workTree = repository.getWorkTree();
+    for (String folder : untrackedFolders) {
+      if (!directories.containsKey(folder)
+          && isCovered(folder, paths)
+          && filesByFolder.containsKey(folder)
+          && !isInHead(repository, folder)) {
+        Map<String, String> directoryStamps = new HashMap<>();
+        if (collectDirectoryStamps(
+            workTree, folder, diff.getIgnoredNotInIndex(), scanStart - RACY_INTERVAL_MILLIS, directoryStamps)) {
+          directories.put(
+              folder,
+              new UntrackedDirectory(filesByFolder.get(folder), directoryStamps, getParentIgnoreStamps(workTree, folder)));
+          modified = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * @param file    A repository relative file.
+   * @param folders Repository relative folders.
+   *
+   * @return The top most of the given folders that contains the file or <code>null</code>.
+   */
+  private static String getTopmostFolder(String file, Set<String> folders) {
+    String topmost = null;
+    int index = file.lastIndexOf('/');
+    while (index != -1) {
+      String parent = file.substring(0, index);
+      if (folders.contains(parent)) {
+        topmost = parent;
+      }
+      index = parent.lastIndexOf('/');
+    }
+    return topmost;
+  }
+
+  /**
+   * Checks if HEAD has files inside the given directory. These files are removed from
+   * the index and they must be reported by the status.
+   *
+   * @param repository The repository.
+   * @param dir        A repository relative directory.
+   *
+   * @return <code>true</code> if the directory is present in HEAD.
+   *
+   * @throws IOException Unable to read HEAD.
+   */
+  private static boolean isInHead(Repository repository, String dir) throws IOException {
+    ObjectId head = repository.resolve(Constants.HEAD);
+    if (head == null) {
+      return false;
+    }
+    try (RevWalk revWalk = new RevWalk(repository);
+        TreeWalk treeWalk = TreeWalk.forPath(repository, dir, revWalk.parseCommit(head).getTree())) {
+      return treeWalk != null;
+    }
+  }
+
+  /**
+   * Records the stamps of a directory and of all the directories inside it, except
+   * the ignored ones.
+   *
+   * @param workTree  The working tree.
+   * @param folder    A repository relative directory.
+   * @param ignored   The ignored paths.
+   * @param racyLimit Directories modified after this moment are not cached.
+   * @param stamps    Receives the stamps.
+   *
+   * @return <code>false</code> if a directory was modified too recently to be cached.
+   *
+   * @throws IOException Unable to list a directory.
+   */
+  private static boolean collectDirectoryStamps(
+      File workTree,
+      String folder,
+      Set<String> ignored,
+      long racyLimit,
+      Map<String, String> stamps) throws IOException {
+    Deque<String> toVisit = new ArrayDeque<>();
+    toVisit.push(folder);
+    while (!toVisit.isEmpty()) {
+      String dir = toVisit.pop();
+      File dirFile = new File(workTree, dir);
+      if (dirFile.lastModified() >= racyLimit) {
+        return false;
+      }
+      stamps.put(dir, getDirectoryStamp(dirFile));
+      try (DirectoryStream<Path> children = Files.newDirectoryStream(dirFile.toPath())) {
+        for (Path child : children) {
+          String childPath = dir + "/" + child.getFileName();
+          if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS) && !ignored.contains(childPath)) {
+            toVisit.push(childPath);
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param workTree The working tree.
+   * @param folder   A repository relative directory.
+   *
+   * @return The stamps of the ignore rules from the parent directories of the given one.
+   */
+  private static Map<String, String> getParentIgnoreStamps(File workTree, String folder) {
+    Map<String, String> stamps = new HashMap<>();
+    stamps.put("", getFileStamp(new File(workTree, GITIGNORE)));
+    int index = folder.indexOf('/');
+    while (index != -1) {
+      String parent = folder.substring(0, index);
+      stamps.put(parent, getFileStamp(new File(new File(workTree, parent), GITIGNORE)));
+      index = folder.indexOf('/', index + 1);
+    }
+    return stamps;
+  }
+
+  /**
+   * @param repository The repository.
+   *
+   * @return The stamp of the <code>info/exclude</code> file and of <code>core.excludesFile</code>.
+   */
+  private static String getExcludesStamp(Repository repository) {
+    StringBuilder stamp = new StringBuilder(
+        getFileStamp(new File(repository.getDirectory(), Constants.INFO_EXCLUDE)));
+    String excludesFile = repository.getConfig().get(CoreConfig.KEY).getExcludesFile();
+    if (excludesFile != null) {
+      FS fs = repository.getFS();
+      File file = excludesFile.startsWith("~/")
+          ? fs.resolve(fs.userHome(), excludesFile.substring(2))
+          : fs.resolve(null, excludesFile);
+      stamp.append('|').append(excludesFile).append('=').append(getFileStamp(file));
+    }
+    return stamp.toString();
+  }
+
+  /**
+   * @param dir A directory.
+   *
+   * @return The modification time of the directory and the stamp of its ignore rules.
+   */
+  private static String getDirectoryStamp(File dir) {
+    return dir.lastModified() + ":" + getFileStamp(new File(dir, GITIGNORE));
+  }
+
+  /**
+   * @param file A file.
+   *
+   * @return The modification time and the length of the file or "-" if it doesn't exist.
+   */
+  private static String getFileStamp(File file) {
+    return file.isFile() ? file.lastModified() + "/" + file.length() : "-";
+  }
+
+  /**
+   * @param path  A repository relative path.
+   * @param paths Repository relative files or directories. Empty for the entire working tree.
+   *
+   * @return <code>true</code> if the path is one of the given paths or is inside one of them.
+   */
+  private static boolean isCovered(String path, Collection<String> paths) {
+    return paths.isEmpty() || paths.stream().anyMatch(p -> path.equals(p) || path.startsWith(p + "/"));
+  }
+
+  /**
+   * @param gitDir The Git directory of the repository.
+   *
+   * @return The file that holds the cache.
+   */
+  private static File getCacheFile(File gitDir) {
+    return new File(new File(gitDir, StatusSnapshotStore.ADDON_DATA_FOLDER), CACHE_FILE_NAME);
+  }
+
+  /**
+   * Saves the cache, if it changed.
+   *
+   * @param gitDir The Git directory of the repository.
+   */
+  public synchronized void save(File gitDir) {
+    if (!modified) {
+      return;
+    }
+    File cacheFile = getCacheFile(gitDir);
+    File tempFile = new File(cacheFile.getParentFile(), CACHE_FILE_NAME + ".tmp");
+    try {
+      Files.createDirectories(cacheFile.getParentFile().toPath());
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+        out.writeInt(FORMAT_VERSION);
+        writeNullable(out, headId);
+        writeNullable(out, indexChecksum);
+        writeNullable(out, excludesStamp);
+        out.writeInt(directories.size());
+        for (Map.Entry<String, UntrackedDirectory> entry : directories.entrySet()) {
+          out.writeUTF(entry.getKey());
+          UntrackedDirectory dir = entry.getValue();
+          out.writeInt(dir.files.size());
+          for (String file : dir.files) {
+            out.writeUTF(file);
+          }
+          writeMap(out, dir.directoryStamps);
+          writeMap(out, dir.parentIgnoreStamps);
+        }
+      }
+      Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      modified = false;
+    } catch (IOException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Loads the cache saved for a repository.
+   *
+   * @param gitDir The Git directory of the repository.
+   *
+   * @return The saved cache or an empty one if there is no saved cache.
+   */
+  public static UntrackedCache load(File gitDir) {
+    UntrackedCache cache = new UntrackedCache();
+    File cacheFile = getCacheFile(gitDir);
+    if (cacheFile.isFile()) {
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+        if (in.readInt() == FORMAT_VERSION) {
+          cache.headId = readNullable(in);
+          cache.indexChecksum = readNullable(in);
+          cache.excludesStamp = readNullable(in);
+          int size = in.readInt();
+          for (int i = 0; i < size; i++) {
+            String dir = in.readUTF();
+            int filesCount = in.readInt();
+            List<String> files = new ArrayList<>(filesCount);
+            for (int j = 0; j < filesCount; j++) {
+              files.add(in.readUTF());
+            }
+            cache.directories.put(dir, new UntrackedDirectory(files, readMap(in), readMap(in)));
+          }
+        }
+      } catch (IOException e) {
+        LOGGER.debug("Unable to read the untracked cache.", e);
+        cache = new UntrackedCache();
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * Writes a string that can be <code>null</code>.
+   *
+   * @param out   Output.
+   * @param value The string.
+   *
+   * @throws IOException Unable to write.
+   */
+  private static void writeNullable(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  /**
+   * Reads a string that can be <code>null</code>.
+   *
+   * @param in Input.
+   *
+   * @return The string.
+   *
+   * @throws IOException Unable to read.
+   */
+  private static String readNullable(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  /**
+   * Writes a map of strings.
+   *
+   * @param out Output.
+   * @param map The map.
+   *
+   * @throws IOException Unable to write.
+   */
+  private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+    out.writeInt(map.size());
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeUTF(entry.getValue());
+    }
+  }
+
+  /**
+   * Reads a map of strings.
+   *
+   * @param in Input.
+   *
+   * @return The map.
+   *
+   * @throws IOException Unable to read.
+   */
+  private static Map<String, String> readMap(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    Map<String, String> map = new HashMap<>(size);
+    for (int i = 0; i < size; i++) {
+      map.put(in.readUTF(), in.readUTF());
+    }
+    return map;
+  }
+}
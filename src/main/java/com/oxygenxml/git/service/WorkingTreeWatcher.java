@@ -0,0 +1,474 @@
+package com.oxygenxml.git.service;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.ignore.IgnoreNode;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.CoreConfig;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.FS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.utils.FileUtil;
+
+/**
+ * Watches the working tree of a repository and keeps track of the paths that changed
+ * since the last time they were collected. The status cache uses this information to
+ * re-compute the status only for the changed paths.
+ * <br><br>
+ * The ignored directories, like the build output, are not watched, unless they contain
+ * tracked files. Each watched directory uses a watch of the operating system, and
+ * there is a limit for them.
+ */
+public class WorkingTreeWatcher implements Closeable {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(WorkingTreeWatcher.class);
+
+  /**
+   * The changes collected by the watcher since the last time they were drained.
+   */
+  public static class Changes {
+    /**
+     * Repository relative paths (files or directories) that changed.
+     */
+    private final Set<String> paths;
+    /**
+     * <code>true</code> if some events were lost and the entire working tree must be rescanned.
+     */
+    private final boolean overflow;
+    /**
+     * <code>true</code> if the index or the HEAD of the repository were touched.
+     */
+    private final boolean gitMetadataChanged;
+
+    /**
+     * Constructor.
+     *
+     * @param paths Repository relative paths (files or directories) that changed.
+     * @param overflow <code>true</code> if the entire working tree must be rescanned.
+     * @param gitMetadataChanged <code>true</code> if the index or the HEAD of the repository were touched.
+     */
+    Changes(Set<String> paths, boolean overflow, boolean gitMetadataChanged) {
+      this.paths = paths;
+      this.overflow = overflow;
+      this.gitMetadataChanged = gitMetadataChanged;
+    }
+
+    /**
+     * @return Repository relative paths (files or directories) that changed.
+     */
+    public Set<String> getPaths() {
+      return paths;
+    }
+
+    /**
+     * @return <code>true</code> if some events were lost and the entire working tree must be rescanned.
+     */
+    public boolean isOverflow() {
+      return overflow;
+    }
+
+    /**
+     * @return <code>true</code> if the index or the HEAD of the repository were touched.
+     */
+    public boolean isGitMetadataChanged() {
+      return gitMetadataChanged;
+    }
+
+    /**
+     * @return <code>true</code> if nothing changed.
+     */
+    public boolean isEmpty() {
+      return !overflow && !gitMetadataChanged && paths.isEmpty();
+    }
+  }
+
+  /**
+   * The working tree directory.
+   */
+  private final Path workTree;
+  /**
+   * The Git metadata directory.
+   */
+  private final Path gitDir;
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+  /**
+   * The ignore rules of the repository that don't come from a .gitignore file,
+   * from info/exclude and core.excludesFile, in the order in which they apply.
+   */
+  private final List<IgnoreNode> repositoryIgnoreRules = new ArrayList<>();
+  /**
+   * The rules of the .gitignore file of each directory. Empty rules for the directories without one.
+   */
+  private final Map<Path, IgnoreNode> ignoreRules = new ConcurrentHashMap<>();
+  /**
+   * The index, read when an ignored directory is found, to check if it contains tracked
+   * files. <code>null</code> if it wasn't read since the last change.
+   */
+  private DirCache index;
+  /**
+   * The watch service.
+   */
+  private final WatchService watchService;
+  /**
+   * The watched directories.
+   */
+  private final Map<WatchKey, Path> watchedDirs = new ConcurrentHashMap<>();
+  /**
+   * Repository relative paths that changed since the last drain. Guarded by <code>this</code>.
+   */
+  private Set<String> dirtyPaths = new HashSet<>();
+  /**
+   * <code>true</code> if events were lost since the last drain. Guarded by <code>this</code>.
+   */
+  private boolean overflow = false;
+  /**
+   * <code>true</code> if the index or HEAD were touched since the last drain. Guarded by <code>this</code>.
+   */
+  private boolean gitMetadataChanged = false;
+  /**
+   * The thread that processes the file system events.
+   */
+  private final Thread eventsThread;
+
+  /**
+   * Constructor.
+   *
+   * @param repository The repository.
+   *
+   * @throws IOException Unable to install the watcher.
+   */
+  private WorkingTreeWatcher(Repository repository) throws IOException {
+    this.repository = repository;
+    this.workTree = repository.getWorkTree().toPath().toAbsolutePath().normalize();
+    this.gitDir = repository.getDirectory().toPath().toAbsolutePath().normalize();
+    this.watchService = FileSystems.getDefault().newWatchService();
+    loadRepositoryIgnoreRules();
+
+    eventsThread = new Thread(this::processEvents, "Git Working Tree Watcher");
+    eventsThread.setDaemon(true);
+  }
+
+  /**
+   * Starts watching the working tree of a repository.
+   *
+   * @param repository The repository.
+   *
+   * @return The watcher.
+   *
+   * @throws IOException Unable to install the watcher.
+   */
+  public static WorkingTreeWatcher start(Repository repository) throws IOException {
+    WorkingTreeWatcher watcher = new WorkingTreeWatcher(repository);
+    try {
+      watcher.registerTree(watcher.workTree);
+      watcher.register(watcher.gitDir);
+    } catch (IOException e) {
+      watcher.close();
+      throw e;
+    }
+    watcher.eventsThread.start();
+
+    return watcher;
+  }
+
+  /**
+   * @param dir A working tree directory.
+   *
+   * @return <code>true</code> if the given working tree is the watched one.
+   */
+  public boolean isWatching(File dir) {
+    return workTree.equals(dir.toPath().toAbsolutePath().normalize());
+  }
+
+  /**
+   * @return <code>true</code> if the file system is not able to notify about changes
+   * and it is polled instead. Changes are reported with a delay in this case.
+   */
+  public boolean isPolling() {
+    return watchService.getClass().getSimpleName().startsWith("Polling");
+  }
+
+  /**
+   * Collects the changes recorded since the last call and starts recording anew.
+   *
+   * @return The changes. Never <code>null</code>.
+   */
+  public synchronized Changes drainChanges() {
+    Changes changes = new Changes(Collections.unmodifiableSet(dirtyPaths), overflow, gitMetadataChanged);
+    dirtyPaths = new HashSet<>();
+    overflow = false;
+    gitMetadataChanged = false;
+
+    return changes;
+  }
+
+  /**
+   * @return <code>true</code> if changes were recorded since the last drain. The
+   * changes of the Git metadata are not taken into account.
+   */
+  public synchronized boolean hasChanges() {
+    return !dirtyPaths.isEmpty() || overflow;
+  }
+
+  /**
+   * Records a path as changed. Used for changes that are known before the
+   * file system notifies about them.
+   *
+   * @param path Repository relative path.
+   */
+  public synchronized void markDirty(String path) {
+    dirtyPaths.add(path);
+  }
+
+  /**
+   * Registers a directory and all its sub-directories.
+   *
+   * @param root The root directory.
+   *
+   * @throws IOException Unable to register.
+   */
+  private void registerTree(Path root) throws IOException {
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+        if (isGitMetadata(dir) || !dir.equals(root) && isIgnored(dir)) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        register(dir);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException exc) {
+        LOGGER.debug("Unable to watch: " + file, exc);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  /**
+   * Registers a directory.
+   *
+   * @param dir The directory to register.
+   *
+   * @throws IOException Unable to register.
+   */
+  private void register(Path dir) throws IOException {
+    WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+    watchedDirs.put(key, dir);
+  }
+
+  /**
+   * @param dir A directory from the working tree.
+   *
+   * @return <code>true</code> if the directory holds Git metadata.
+   */
+  private boolean isGitMetadata(Path dir) {
+    return dir.equals(gitDir)
+        || dir.getFileName() != null && Constants.DOT_GIT.equals(dir.getFileName().toString());
+  }
+
+  /**
+   * Loads the ignore rules of info/exclude and core.excludesFile.
+   */
+  private void loadRepositoryIgnoreRules() {
+    repositoryIgnoreRules.add(loadIgnoreRules(gitDir.resolve(Constants.INFO_EXCLUDE)));
+    String excludesFile = repository.getConfig().get(CoreConfig.KEY).getExcludesFile();
+    if (excludesFile != null) {
+      FS fs = repository.getFS();
+      File file = excludesFile.startsWith("~/")
+          ? fs.resolve(fs.userHome(), excludesFile.substring(2))
+          : fs.resolve(null, excludesFile);
+      repositoryIgnoreRules.add(loadIgnoreRules(file.toPath()));
+    }
+  }
+
+  /**
+   * @param file A file with ignore rules.
+   *
+   * @return The rules. Empty if the file doesn't exist or can't be read.
+   */
+  private static IgnoreNode loadIgnoreRules(Path file) {
+    IgnoreNode rules = new IgnoreNode();
+    if (Files.isRegularFile(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        rules.parse(file.toString(), in);
+      } catch (IOException e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+    return rules;
+  }
+
+  /**
+   * @param dir A directory from the working tree, inside a watched directory.
+   *
+   * @return <code>true</code> if the directory is ignored and it doesn't contain tracked files.
+   */
+  private boolean isIgnored(Path dir) {
+    // The rules of the closest .gitignore file win.
+    Boolean ignored = null;
+    Path parent = dir.getParent();
+    while (ignored == null && parent != null && parent.startsWith(workTree)) {
+      String pathInParent = FileUtil.rewriteSeparator(parent.relativize(dir).toString());
+      ignored = ignoreRules.computeIfAbsent(parent, p -> loadIgnoreRules(p.resolve(Constants.DOT_GIT_IGNORE)))
+          .checkIgnored(pathInParent, true);
+      parent = parent.equals(workTree) ? null : parent.getParent();
+    }
+
+    String path = FileUtil.rewriteSeparator(workTree.relativize(dir).toString());
+    for (int i = 0; ignored == null && i < repositoryIgnoreRules.size(); i++) {
+      ignored = repositoryIgnoreRules.get(i).checkIgnored(path, true);
+    }
+
+    return ignored != null && ignored && !containsTrackedFiles(path);
+  }
+
+  /**
+   * @param path A repository relative directory path.
+   *
+   * @return <code>true</code> if the directory contains tracked files, or if the index can't be read.
+   */
+  private boolean containsTrackedFiles(String path) {
+    boolean tracked = true;
+    try {
+      if (index == null) {
+        index = repository.readDirCache();
+      }
+      tracked = index.getEntriesWithin(path).length > 0;
+    } catch (IOException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+    return tracked;
+  }
+
+  /**
+   * Processes the events received from the file system until the watcher is closed.
+   */
+  private void processEvents() {
+    while (true) {
+      WatchKey key;
+      try {
+        key = watchService.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ClosedWatchServiceException e) {
+        return;
+      }
+
+      Path dir = watchedDirs.get(key);
+      if (dir != null) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+          processEvent(dir, event);
+        }
+      }
+
+      if (!key.reset()) {
+        // The directory is no longer accessible. Its parent was notified about the deletion.
+        watchedDirs.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Records a file system event.
+   *
+   * @param dir   The directory in which the event took place.
+   * @param event The event.
+   */
+  private void processEvent(Path dir, WatchEvent<?> event) {
+    if (event.kind() == OVERFLOW) {
+      LOGGER.debug("Working tree events overflow.");
+      synchronized (this) {
+        overflow = true;
+      }
+    } else if (dir.equals(gitDir)) {
+      String name = event.context().toString();
+      if ("index".equals(name)) {
+        index = null;
+      }
+      if (Constants.HEAD.equals(name) || "index".equals(name)) {
+        synchronized (this) {
+          gitMetadataChanged = true;
+        }
+      }
+    } else {
+      Path child = dir.resolve((Path) event.context());
+      boolean isDir = Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS);
+      if (isGitMetadata(child)
+          // Changes inside a directory are reported by the directory itself.
+          || event.kind() == ENTRY_MODIFY && isDir) {
+        return;
+      }
+      if (isDir && isIgnored(child)) {
+        // The build output, for example. Changes to ignored files don't change the status.
+        return;
+      }
+      boolean ignoreRulesChanged = Constants.DOT_GIT_IGNORE.equals(child.getFileName().toString());
+      if (ignoreRulesChanged) {
+        ignoreRules.remove(dir);
+      }
+      if (event.kind() == ENTRY_CREATE && isDir || ignoreRulesChanged) {
+        try {
+          // A .gitignore change might un-ignore directories.
+          registerTree(isDir ? child : dir);
+        } catch (IOException e) {
+          LOGGER.debug(e.getMessage(), e);
+          synchronized (this) {
+            overflow = true;
+          }
+        }
+      }
+
+      markDirty(FileUtil.rewriteSeparator(workTree.relativize(child).toString()));
+    }
+  }
+
+  /**
+   * Stops watching the working tree.
+   */
+  @Override
+  public void close() {
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+    watchedDirs.clear();
+  }
+}
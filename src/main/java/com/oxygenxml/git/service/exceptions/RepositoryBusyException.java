@@ -0,0 +1,18 @@
+package com.oxygenxml.git.service.exceptions;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+
+/**
+ * Thrown when a change of the repository cannot start on the current thread, for
+ * example on the AWT thread while other operations read the repository.
+ */
+public class RepositoryBusyException extends GitAPIException {
+  /**
+   * Constructor.
+   *
+   * @param cause The cause.
+   */
+  public RepositoryBusyException(IllegalStateException cause) {
+    super(cause.getMessage(), cause);
+  }
+}
@@ -0,0 +1,278 @@
+package com.oxygenxml.git.service.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+
+/**
+ * Timing histograms of the refresh phases and of the status computations, status
+ * cache counters and scheduler queues. Published as the JMX MBean
+ * {@value #OBJECT_NAME}, so that slow installations can be diagnosed without a profiler.
+ */
+public class GitMetrics implements GitMetricsMBean {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(GitMetrics.class);
+
+  /**
+   * The name of the MBean.
+   */
+  public static final String OBJECT_NAME = "com.oxygenxml.git:type=GitMetrics";
+
+  /**
+   * Refresh phase: the states of the actions and of the toolbar buttons.
+   */
+  public static final String REFRESH_ACTIONS = "refresh.actions";
+  /**
+   * Refresh phase: the branches combo.
+   */
+  public static final String REFRESH_BRANCH_COMBO = "refresh.branchCombo";
+  /**
+   * Refresh phase: the status of the working copy.
+   */
+  public static final String REFRESH_STATUS = "refresh.status";
+  /**
+   * Refresh phase: the fetch.
+   */
+  public static final String REFRESH_FETCH = "refresh.fetch";
+  /**
+   * Refresh phase: the commits ahead and behind the remote, after a fetch.
+   */
+  public static final String REFRESH_COUNTERS = "refresh.counters";
+  /**
+   * Refresh phase: the check for new commits in the remote repository.
+   */
+  public static final String REFRESH_REMOTE_WATCHER = "refresh.remoteWatcher";
+  /**
+   * Refresh phase: the branches view.
+   */
+  public static final String REFRESH_BRANCH_PANEL = "refresh.branchPanel";
+  /**
+   * Refresh phase: the history view.
+   */
+  public static final String REFRESH_HISTORY = "refresh.history";
+  /**
+   * A whole refresh.
+   */
+  public static final String REFRESH = "refresh";
+  /**
+   * The status computation for the whole working tree.
+   */
+  public static final String STATUS_FULL = "status.full";
+  /**
+   * The status computation for some paths.
+   */
+  public static final String STATUS_PATHS = "status.paths";
+  /**
+   * Writing the commit-graph file.
+   */
+  public static final String COMMIT_GRAPH_WRITE = "commitGraph.write";
+  /**
+   * The prefix of the scheduler wait times, followed by the lane.
+   */
+  public static final String SCHEDULER_WAIT_PREFIX = "scheduler.wait.";
+
+  /**
+   * A running measurement. Closing it records the duration.
+   */
+  public interface Timing extends AutoCloseable {
+    /**
+     * Records the duration.
+     */
+    @Override
+    void close();
+  }
+
+  /**
+   * Singleton instance.
+   */
+  private static GitMetrics instance;
+
+  /**
+   * The histograms, by name.
+   */
+  private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+  /**
+   * Status requests answered from the cache.
+   */
+  private final AtomicLong statusCacheHits = new AtomicLong();
+  /**
+   * Status requests answered by updating some paths of the cached status.
+   */
+  private final AtomicLong statusCacheUpdates = new AtomicLong();
+  /**
+   * Status requests that needed a full computation.
+   */
+  private final AtomicLong statusCacheMisses = new AtomicLong();
+
+  /**
+   * Singleton private constructor.
+   */
+  private GitMetrics() {}
+
+  /**
+   * @return The singleton instance. Registered as an MBean on first use.
+   */
+  public static synchronized GitMetrics getInstance() {
+    if (instance == null) {
+      instance = new GitMetrics();
+      instance.register();
+    }
+    return instance;
+  }
+
+  /**
+   * Registers the MBean on the platform MBean server.
+   */
+  private void register() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        // Another class loader of the add-on, after a reload.
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+    } catch (JMException | SecurityException e) {
+      LOGGER.debug("Unable to publish the Git metrics: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Starts measuring.
+   *
+   * @param name The name of the measured phase.
+   *
+   * @return The measurement. Close it when the phase ends.
+   */
+  public Timing time(String name) {
+    long start = System.nanoTime();
+    return () -> record(name, System.nanoTime() - start);
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param name  The name of the measured phase.
+   * @param nanos The duration. Nanoseconds.
+   */
+  public void record(String name, long nanos) {
+    timers.computeIfAbsent(name, n -> new LatencyHistogram()).record(nanos);
+  }
+
+  /**
+   * @param name The name of a measured phase.
+   *
+   * @return The histogram of the phase. Empty if the phase never ran.
+   */
+  public LatencyHistogram getTimer(String name) {
+    return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+  }
+
+  /**
+   * A status request was answered from the cache.
+   */
+  public void statusCacheHit() {
+    statusCacheHits.incrementAndGet();
+  }
+
+  /**
+   * A status request was answered by updating some paths of the cached status.
+   */
+  public void statusCacheUpdate() {
+    statusCacheUpdates.incrementAndGet();
+  }
+
+  /**
+   * A status request needed a full computation.
+   */
+  public void statusCacheMiss() {
+    statusCacheMisses.incrementAndGet();
+  }
+
+  @Override
+  public String[] getTimers() {
+    return new TreeMap<>(timers).entrySet().stream()
+        .filter(entry -> entry.getValue().getCount() > 0)
+        .map(entry -> entry.getKey() + ": " + entry.getValue())
+        .toArray(String[]::new);
+  }
+
+  @Override
+  public long getStatusCacheHits() {
+    return statusCacheHits.get();
+  }
+
+  @Override
+  public long getStatusCacheUpdates() {
+    return statusCacheUpdates.get();
+  }
+
+  @Override
+  public long getStatusCacheMisses() {
+    return statusCacheMisses.get();
+  }
+
+  @Override
+  public double getStatusCacheHitRatio() {
+    long hits = statusCacheHits.get() + statusCacheUpdates.get();
+    long total = hits + statusCacheMisses.get();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  @Override
+  public String[] getSchedulerQueues() {
+    GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+    Lane[] lanes = Lane.values();
+    String[] queues = new String[lanes.length];
+    for (int i = 0; i < lanes.length; i++) {
+      queues[i] = lanes[i] + ": waiting=" + scheduler.getQueueDepth(lanes[i])
+          + ", averageWait=" + scheduler.getAverageWaitTime(lanes[i]) + "ms";
+    }
+    return queues;
+  }
+
+  @Override
+  public String dump() {
+    StringBuilder dump = new StringBuilder("Git metrics");
+    for (String timer : getTimers()) {
+      dump.append("\n  ").append(timer);
+    }
+    dump.append(String.format(
+        "%n  status cache: hits=%d, updates=%d, misses=%d, hit ratio=%.2f",
+        getStatusCacheHits(),
+        getStatusCacheUpdates(),
+        getStatusCacheMisses(),
+        getStatusCacheHitRatio()));
+    for (String queue : getSchedulerQueues()) {
+      dump.append("\n  scheduler ").append(queue);
+    }
+    return dump.toString();
+  }
+
+  @Override
+  public void dumpToLog() {
+    LOGGER.info(dump());
+  }
+
+  @Override
+  public void reset() {
+    timers.values().forEach(LatencyHistogram::reset);
+    statusCacheHits.set(0);
+    statusCacheUpdates.set(0);
+    statusCacheMisses.set(0);
+  }
+}
@@ -0,0 +1,51 @@
+package com.oxygenxml.git.service.metrics;
+
+/**
+ * The refresh and status metrics, as published through JMX.
+ */
+public interface GitMetricsMBean {
+  /**
+   * @return One line for each timed phase: the name, the number of runs and the duration percentiles.
+   */
+  String[] getTimers();
+
+  /**
+   * @return How many times the cached status was returned as it was.
+   */
+  long getStatusCacheHits();
+
+  /**
+   * @return How many times the cached status was updated for some changed paths.
+   */
+  long getStatusCacheUpdates();
+
+  /**
+   * @return How many times the status was computed for the whole working tree.
+   */
+  long getStatusCacheMisses();
+
+  /**
+   * @return The ratio of the status requests answered from the cache, with or without updating some paths.
+   */
+  double getStatusCacheHitRatio();
+
+  /**
+   * @return One line for each scheduler lane: the number of waiting tasks and the average wait.
+   */
+  String[] getSchedulerQueues();
+
+  /**
+   * @return All the metrics, as text.
+   */
+  String dump();
+
+  /**
+   * Writes all the metrics to the log.
+   */
+  void dumpToLog();
+
+  /**
+   * Drops all the recorded metrics.
+   */
+  void reset();
+}
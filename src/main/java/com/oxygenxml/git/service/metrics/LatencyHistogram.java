@@ -0,0 +1,128 @@
+package com.oxygenxml.git.service.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in fixed buckets. Recording is lock free and cheap enough for
+ * every refresh phase.
+ */
+public class LatencyHistogram {
+  /**
+   * The upper bounds of the buckets, in milliseconds. The last bucket has no upper bound.
+   */
+  private static final long[] BUCKET_BOUNDS = {
+      1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000
+  };
+
+  /**
+   * The number of durations in each bucket.
+   */
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+  /**
+   * The number of durations.
+   */
+  private final AtomicLong count = new AtomicLong();
+  /**
+   * The sum of the durations. Nanoseconds.
+   */
+  private final AtomicLong totalNanos = new AtomicLong();
+  /**
+   * The longest duration. Nanoseconds.
+   */
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos The duration. Nanoseconds.
+   */
+  public void record(long nanos) {
+    long duration = Math.max(0, nanos);
+    long millis = TimeUnit.NANOSECONDS.toMillis(duration);
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[bucket]) {
+      bucket++;
+    }
+    buckets.incrementAndGet(bucket);
+    count.incrementAndGet();
+    totalNanos.addAndGet(duration);
+    maxNanos.accumulateAndGet(duration, Math::max);
+  }
+
+  /**
+   * @return The number of recorded durations.
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * @return The average duration or 0 if nothing was recorded. Milliseconds.
+   */
+  public double getMean() {
+    long recorded = count.get();
+    return recorded == 0 ? 0 : totalNanos.get() / (recorded * 1_000_000.0);
+  }
+
+  /**
+   * @return The longest duration. Milliseconds.
+   */
+  public double getMax() {
+    return maxNanos.get() / 1_000_000.0;
+  }
+
+  /**
+   * @param percentile A percentile, between 0 and 100.
+   *
+   * @return The upper bound of the bucket that contains the percentile, in milliseconds,
+   * or -1 if it is in the last bucket, which has no upper bound.
+   */
+  public long getPercentile(double percentile) {
+    long recorded = count.get();
+    long rank = (long) Math.ceil(recorded * percentile / 100);
+    long seen = 0;
+    int bucket = 0;
+    for (; bucket < BUCKET_BOUNDS.length; bucket++) {
+      seen += buckets.get(bucket);
+      if (seen >= rank) {
+        break;
+      }
+    }
+    return bucket < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[bucket] : -1;
+  }
+
+  /**
+   * Drops the recorded durations.
+   */
+  public void reset() {
+    for (int i = 0; i < buckets.length(); i++) {
+      buckets.set(i, 0);
+    }
+    count.set(0);
+    totalNanos.set(0);
+    maxNanos.set(0);
+  }
+
+  /**
+   * @param bound The upper bound of a bucket, as returned by {@link #getPercentile(double)}.
+   *
+   * @return The bound, for presenting.
+   */
+  private static String formatBound(long bound) {
+    return bound >= 0 ? "<" + bound + "ms" : ">=" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1] + "ms";
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "count=%d, mean=%.1fms, p50%s, p90%s, p99%s, max=%.1fms",
+        getCount(),
+        getMean(),
+        formatBound(getPercentile(50)),
+        formatBound(getPercentile(90)),
+        formatBound(getPercentile(99)),
+        getMax());
+  }
+}
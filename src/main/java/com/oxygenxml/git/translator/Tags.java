@@ -1973,5 +1973,40 @@ public class Tags {
    */
   public static final String ASK_LOAD_REPOSITORY = "Ask_Load_Repository";
   
+  /**
+   * English: Operation canceled
+   */
+  public static final String OPERATION_CANCELED = "Operation_Canceled";
+  
+  /**
+   * English: Loading history...
+   */
+  public static final String LOADING_HISTORY = "Loading_History";
+  
+  /**
+   * English: Computing the status...
+   */
+  public static final String COMPUTING_STATUS = "Computing_Status";
+  
+  /**
+   * English: Could not load more commits because of: {0}
+   */
+  public static final String LOAD_HISTORY_PAGE_FAILED = "Load_History_Page_Failed";
+  
+  /**
+   * English: Retry
+   */
+  public static final String RETRY = "Retry";
+  
+  /**
+   * English: Maintain the commit-graph file of the repository
+   */
+  public static final String MAINTAIN_COMMIT_GRAPH = "Maintain_Commit_Graph";
+  
+  /**
+   * English: Speeds up the history by writing the commit-graph file in the background. Sets core.commitGraph in the repository configuration.
+   */
+  public static final String MAINTAIN_COMMIT_GRAPH_TOOLTIP = "Maintain_Commit_Graph_Tooltip";
+  
 }
-
+
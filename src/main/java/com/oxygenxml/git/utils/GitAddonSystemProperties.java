@@ -18,4 +18,17 @@ public class GitAddonSystemProperties {
    */
   public static final String USE_JSCH_FOR_SSH_OPERATIONS = "useJschForSSHOperations";
   
+  /**
+   * The number of working tree subtrees for which the status is computed in parallel.
+   * By default, the number of processors, but no more than 4. Use 1 to compute the
+   * status on a single thread.
+   */
+  public static final String STATUS_PARALLELISM = "gitStatusParallelism";
+  
+  /**
+   * Setting this property to <code>true</code> makes the add-on cache the untracked directories
+   * of the repositories that don't set <code>core.untrackedCache</code>.
+   */
+  public static final String UNTRACKED_CACHE = "gitUntrackedCache";
+  
 }
@@ -3,12 +3,14 @@ package com.oxygenxml.git.utils;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.xml.XMLConstants;
@@ -20,6 +22,7 @@ import org.apache.xerces.jaxp.SAXParserFactoryImpl;
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -42,6 +45,7 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.sax.XPRHandler;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitStatus;
+import com.oxygenxml.git.service.RepositoryGate;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -57,6 +61,10 @@ public class RepoUtil {
    * Logger for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RepoUtil.class);
+  /**
+   * The length of the SHA-1 checksum that ends the index file.
+   */
+  private static final int INDEX_CHECKSUM_LENGTH = 20;
  
 
   /**
@@ -340,6 +348,22 @@ public static boolean isRepoRebasing(RepositoryState repoState) {
     return repoDir;
   }
 
+  /**
+   * Computes a hash of the names and targets of some references. It changes when a
+   * reference is created, deleted or moved.
+   * 
+   * @param refs The references.
+   * 
+   * @return The hash.
+   */
+  public static int hashRefs(Iterable<Ref> refs) {
+    int hash = 1;
+    for (Ref ref : refs) {
+      hash = 31 * hash + Objects.hash(ref.getName(), ref.getObjectId());
+    }
+    return hash;
+  }
+
   /**
    * Recursively updates submodules.
    * 
@@ -349,8 +373,12 @@ public static boolean isRepoRebasing(RepositoryState repoState) {
    * @throws IOException Problems while iterating the modules.
    */
   public static void updateSubmodules(Git git) throws GitAPIException, IOException {
-    // Update current repo.
-    git.submoduleInit().call();
+    // Update current repo. Only the configuration is changed under the repository gate.
+    // The update clones and checks out in the repositories of the submodules, so the
+    // readers of this one don't wait for the transfer.
+    try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().write(git.getRepository())) {
+      git.submoduleInit().call();
+    }
     git.submoduleUpdate().call();
     
     // Go recursively.
@@ -562,4 +590,48 @@ public static boolean isRepoRebasing(RepositoryState repoState) {
     return Iterables.getLast(Splitter.on(" ").splitToList(cloneCommand.trim()));
   }
 
+  /**
+   * Reads the checksum stored at the end of the index file. It changes every time
+   * the index is written.
+   * 
+   * @param repository The repository.
+   * 
+   * @return The checksum, as hex, or <code>null</code> if the repository has no index yet.
+   */
+  public static String getIndexChecksum(Repository repository) {
+    String checksum = null;
+    File indexFile = repository.isBare() ? null : repository.getIndexFile();
+    if (indexFile != null && indexFile.length() > INDEX_CHECKSUM_LENGTH) {
+      try (RandomAccessFile raf = new RandomAccessFile(indexFile, "r")) {
+        byte[] bytes = new byte[INDEX_CHECKSUM_LENGTH];
+        raf.seek(raf.length() - INDEX_CHECKSUM_LENGTH);
+        raf.readFully(bytes);
+        checksum = ObjectId.fromRaw(bytes).name();
+      } catch (IOException e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+    return checksum;
+  }
+  
+  /**
+   * Resolves the HEAD of the given repository.
+   * 
+   * @param repository The repository.
+   * 
+   * @return The commit id, as hex, or <code>null</code> if there is no commit yet.
+   */
+  public static String getHeadId(Repository repository) {
+    String headId = null;
+    try {
+      ObjectId head = repository.resolve(Constants.HEAD);
+      if (head != null) {
+        headId = head.name();
+      }
+    } catch (IOException | RevisionSyntaxException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+    return headId;
+  }
+
 }
@@ -8,8 +8,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Random;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
 
 import javax.swing.JTextArea;
 import javax.swing.SwingUtilities;
@@ -26,6 +25,9 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitQueryExecutor;
+import com.oxygenxml.git.service.RepositoryGate;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.Equaler;
@@ -57,14 +59,10 @@ public class BlamePerformer {
    * The current active commit. The one that contained the caret line. 
    */
   protected RevCommit activeRevCommit;
-  /**
-   * Timer to sync the caret with a revision in the history view.
-   */
-  private  Timer caretSyncTimer = new Timer();
   /**
    * Task to sync the caret with a revision in the history view.
    */
-  private  TimerTask caretSyncTask;
+  private  ScheduledFuture<?> caretSyncTask;
   /**
    * Revision ID to Painter mapping.
    */
@@ -143,7 +141,10 @@ public class BlamePerformer {
     //    blamer.setStartCommit(commitID); NOSONAR
     
     blamer.setFilePath(filePath);
-    BlameResult blame = blamer.call();
+    BlameResult blame;
+    try (RepositoryGate.Access access = GitAccess.getInstance().getRepositoryGate().read(repository)) {
+      blame = blamer.call();
+    }
     textpage = currentPage;
     JTextArea textArea = (JTextArea) textpage.getTextComponent();
     Highlighter highlighter = textArea.getHighlighter();
@@ -197,14 +198,9 @@ public class BlamePerformer {
     caretListener = e -> {
       cancelCaretSyncTask();
       
-      caretSyncTask = new TimerTask() {
-        @Override
-        public void run() {
-          syncCaretWithHistory(filePath, historyController, textArea, e.getDot());
-        }
-      };
-      
-      caretSyncTimer.schedule(caretSyncTask, CARET_LISTENER_DELAY);
+      caretSyncTask = GitQueryExecutor.getInstance().schedule(
+          () -> syncCaretWithHistory(filePath, historyController, textArea, e.getDot()),
+          CARET_LISTENER_DELAY);
     };
     textArea.addCaretListener(caretListener);
     
@@ -216,7 +212,7 @@ public class BlamePerformer {
    */
   private void cancelCaretSyncTask() {
     if (caretSyncTask != null) {
-      caretSyncTask.cancel();
+      caretSyncTask.cancel(false);
     }
   }
   
@@ -38,6 +38,8 @@ import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitEventAdapter;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -144,7 +146,7 @@ public class BranchManagementPanel extends JPanel {
             || operation == GitOperation.CHECKOUT_COMMIT) {
           
           if(isShowing()) {
-            GitOperationScheduler.getInstance().schedule(BranchManagementPanel.this::refreshBranches);
+            GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.BACKGROUND, BranchManagementPanel.this::refreshBranches);
           } else {
             shouldRefresh = true;
           }
@@ -152,7 +154,7 @@ public class BranchManagementPanel extends JPanel {
         
         } else if (operation == GitOperation.OPEN_WORKING_COPY) {
           if(isShowing()) {
-            GitOperationScheduler.getInstance().schedule(BranchManagementPanel.this::showBranches);
+            GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.BACKGROUND, BranchManagementPanel.this::showBranches);
           } else {
             forceShowBranches = true;
             shouldRefresh = true;
@@ -177,7 +179,7 @@ public class BranchManagementPanel extends JPanel {
       if(actualState && !wasPreviousShowed) {
         RepoUtil.initRepoIfNeeded(true);
         
-        GitOperationScheduler.getInstance().schedule(() -> {
+        GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.BACKGROUND, () -> {
           if(shouldRefresh) {
             if(forceShowBranches) {
               showBranches();
@@ -2,8 +2,12 @@ package com.oxygenxml.git.view.branches;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Constants;
@@ -12,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitQueryExecutor;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -38,32 +43,96 @@ public class BranchesCache {
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(BranchesCache.class);
 
+	/**
+	 * Marks a node without tool tip, or one whose tool tip could not be computed.
+	 */
+	private static final String NO_TOOL_TIP = "";
+
 	/**
 	 * A map where: <code>key</code>: the node value, <code>value</code>: the tool tip for node. 
 	 */
-	private final Map<String, String> nodesTooltips = new HashMap<>();
+	private final Map<String, String> nodesTooltips = new ConcurrentHashMap<>();
 
+	/**
+	 * The nodes whose tool tips are being computed.
+	 */
+	private final Set<String> pendingTooltips = ConcurrentHashMap.newKeySet();
 
 	/**
+	 * Incremented on each reset. The tool tips computed before a reset are dropped.
+	 */
+	private final AtomicInteger generation = new AtomicInteger();
+
+
+	/**
+	 * On the AWT thread the tool tip is computed in the background. Until it is ready,
+	 * <code>null</code> is returned and <code>whenComputed</code> is notified on the AWT
+	 * thread when it is. On other threads the tool tip is computed right away.
+	 * 
 	 * @param leaf <code>true<code> if is leaf
 	 * @param path the branch path
 	 * @param branchName the branch name
+	 * @param whenComputed Notified when a tool tip computed in the background is ready.
 	 * 
-	 * @return The computed tool tip text.
+	 * @return The computed tool tip text or <code>null</code>.
+	 */
+	public String getToolTip(boolean leaf, String path, String branchName, Runnable whenComputed) {
+		String toolTip = null;
+		if (!branchName.isEmpty()) {
+			toolTip = nodesTooltips.get(path);
+			if (toolTip == null) {
+				if (SwingUtilities.isEventDispatchThread()) {
+					computeLater(leaf, path, branchName, whenComputed);
+				} else {
+					toolTip = computeToolTip(leaf, path, branchName);
+					nodesTooltips.put(path, toolTip);
+				}
+			}
+		}
+		return NO_TOOL_TIP.equals(toolTip) ? null : toolTip;
+	}
+
+	/**
+	 * Computes a tool tip in the background, unless it is already being computed.
 	 * 
-	 * @throws NoRepositorySelected 
-	 * @throws IOException 
-	 * @throws GitAPIException 
+	 * @param leaf <code>true<code> if is leaf
+	 * @param path the branch path
+	 * @param branchName the branch name
+	 * @param whenComputed Notified on the AWT thread when the tool tip is ready.
 	 */
-	public String getToolTip(boolean leaf, String path, String branchName) {
-		return !branchName.isEmpty() ? nodesTooltips.computeIfAbsent(path, s -> {
-			try {
-				return ToolTipContentProvider.computeToolTipText(leaf, path, branchName);
-			} catch (GitAPIException | IOException | NoRepositorySelected e) {
-				LOGGER.error(e.getMessage(), e);
+	private void computeLater(boolean leaf, String path, String branchName, Runnable whenComputed) {
+		if (pendingTooltips.add(path)) {
+			int expectedGeneration = generation.get();
+			GitQueryExecutor.getInstance().submit(() -> {
+				try {
+					String toolTip = computeToolTip(leaf, path, branchName);
+					if (expectedGeneration == generation.get()) {
+						nodesTooltips.put(path, toolTip);
+						SwingUtilities.invokeLater(whenComputed);
+					}
+				} finally {
+					pendingTooltips.remove(path);
+				}
 				return null;
-			}
-		}) : null;
+			});
+		}
+	}
+
+	/**
+	 * @param leaf <code>true<code> if is leaf
+	 * @param path the branch path
+	 * @param branchName the branch name
+	 * 
+	 * @return The tool tip or {@link #NO_TOOL_TIP}, also when it cannot be computed.
+	 */
+	private static String computeToolTip(boolean leaf, String path, String branchName) {
+		String toolTip = null;
+		try {
+			toolTip = ToolTipContentProvider.computeToolTipText(leaf, path, branchName);
+		} catch (GitAPIException | IOException | NoRepositorySelected | RuntimeException e) {
+			LOGGER.debug(e.getMessage(), e);
+		}
+		return toolTip != null ? toolTip : NO_TOOL_TIP;
 	}
 
 
@@ -71,6 +140,7 @@ public class BranchesCache {
 	 * Reset the cache.
 	 */
 	public void reset() {
+		generation.incrementAndGet();
 		nodesTooltips.clear();
 	}
 
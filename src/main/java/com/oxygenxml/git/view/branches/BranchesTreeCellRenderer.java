@@ -4,12 +4,15 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.event.MouseEvent;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import javax.swing.Icon;
 import javax.swing.JLabel;
 import javax.swing.JTree;
+import javax.swing.ToolTipManager;
 import javax.swing.border.EmptyBorder;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeCellRenderer;
@@ -74,6 +77,11 @@ public class BranchesTreeCellRenderer extends DefaultTreeCellRenderer {
    */
   private boolean isLeaf = false;
   
+  /**
+   * The rendered tree.
+   */
+  private JTree tree;
+  
   
   /**
    * Constructor.
@@ -103,6 +111,7 @@ public class BranchesTreeCellRenderer extends DefaultTreeCellRenderer {
       return null;
     }
       
+    this.tree = tree;
     Icon icon = null;
     branchName = "";
     this.isLeaf = leaf;
@@ -211,7 +220,23 @@ public class BranchesTreeCellRenderer extends DefaultTreeCellRenderer {
  
   @Override
 	public String getToolTipText() {
-		return cache != null ? cache.getToolTip(isLeaf, path, branchName) : super.getToolTipText();
+    JTree renderedTree = tree;
+		return cache != null 
+		    ? cache.getToolTip(isLeaf, path, branchName, () -> refreshToolTip(renderedTree)) 
+		    : super.getToolTipText();
 	}
   
+  /**
+   * Shows again the tool tip for the node under the mouse, now that it was computed.
+   * 
+   * @param tree The tree.
+   */
+  private static void refreshToolTip(JTree tree) {
+    Point mouse = tree != null && tree.isShowing() ? tree.getMousePosition() : null;
+    if (mouse != null) {
+      ToolTipManager.sharedInstance().mouseMoved(
+          new MouseEvent(tree, MouseEvent.MOUSE_MOVED, System.currentTimeMillis(), 0, mouse.x, mouse.y, 0, false));
+    }
+  }
+  
 }
@@ -0,0 +1,149 @@
+package com.oxygenxml.git.view.components;
+
+import java.awt.BorderLayout;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.oxygenxml.git.constants.Icons;
+import com.oxygenxml.git.constants.UIConstants;
+import com.oxygenxml.git.service.OperationProgress;
+import com.oxygenxml.git.service.RunningOperations;
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+/**
+ * Presents the progress of the most recent long running operation and lets the user
+ * cancel it. Hidden when no operation is running.
+ */
+public class OperationProgressPanel extends JPanel {
+  /**
+   * The operations that end faster than this are not presented, to avoid flickering. Milliseconds.
+   */
+  private static final int SHOW_DELAY = 500;
+  /**
+   * The operation title, task and percent.
+   */
+  private final JLabel progressLabel = new ApplicationLabel();
+  /**
+   * Cancels the presented operation.
+   */
+  private final JButton cancelButton = new JButton(Translator.getInstance().getTranslation(Tags.CANCEL));
+  /**
+   * The presented operation. <code>null</code> if no operation is running.
+   */
+  private transient OperationProgress presented;
+  /**
+   * <code>true</code> if an update is already scheduled on AWT.
+   */
+  private final AtomicBoolean updateScheduled = new AtomicBoolean();
+  /**
+   * Presents an operation once it runs for longer than {@link #SHOW_DELAY}.
+   */
+  private final Timer showTimer = new Timer(SHOW_DELAY, e -> updateProgress());
+  /**
+   * Schedules an update when an operation starts, ends or makes progress. The progress
+   * is reported very often, so the updates are coalesced.
+   */
+  private final transient Runnable changeListener = () -> {
+    if (updateScheduled.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(() -> {
+        updateScheduled.set(false);
+        updateProgress();
+      });
+    }
+  };
+
+  /**
+   * Constructor.
+   */
+  public OperationProgressPanel() {
+    super(new BorderLayout(UIConstants.COMPONENT_RIGHT_PADDING, 0));
+    setBorder(BorderFactory.createEmptyBorder(
+        0,
+        UIConstants.COMPONENT_LEFT_PADDING,
+        UIConstants.COMPONENT_BOTTOM_PADDING,
+        UIConstants.COMPONENT_RIGHT_PADDING));
+    progressLabel.setIcon(Icons.getIcon(Icons.LOADING_ICON));
+    add(progressLabel, BorderLayout.CENTER);
+
+    cancelButton.addActionListener(e -> {
+      if (presented != null) {
+        presented.cancel();
+      }
+    });
+    add(cancelButton, BorderLayout.EAST);
+
+    showTimer.setRepeats(false);
+    setVisible(false);
+  }
+
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    RunningOperations.getInstance().addChangeListener(changeListener);
+    updateProgress();
+  }
+
+  @Override
+  public void removeNotify() {
+    RunningOperations.getInstance().removeChangeListener(changeListener);
+    showTimer.stop();
+    super.removeNotify();
+  }
+
+  /**
+   * Presents the most recent running operation.
+   */
+  private void updateProgress() {
+    Optional<OperationProgress> current = RunningOperations.getInstance().getCurrent();
+    presented = current.orElse(null);
+    if (presented != null && !isVisible()) {
+      long remaining = SHOW_DELAY - presented.getElapsedTime();
+      if (remaining > 0) {
+        // It might end soon. Check again later.
+        showTimer.setInitialDelay((int) remaining);
+        showTimer.restart();
+        presented = null;
+      }
+    }
+    if (presented != null) {
+      StringBuilder text = new StringBuilder(presented.getTitle());
+      if (presented.isCancelled()) {
+        text.append(' ').append(Translator.getInstance().getTranslation(Tags.OPERATION_CANCELED));
+      } else {
+        String task = presented.getTask();
+        if (task != null) {
+          text.append(' ').append(task);
+        }
+        int percent = presented.getPercent();
+        if (percent >= 0) {
+          text.append(' ').append(percent).append('%');
+        }
+      }
+      progressLabel.setText(text.toString());
+      cancelButton.setEnabled(!presented.isCancelled());
+    }
+    setVisible(presented != null);
+  }
+
+  /**
+   * @return The label that presents the progress.
+   */
+  public JLabel getProgressLabel() {
+    return progressLabel;
+  }
+
+  /**
+   * @return The button that cancels the presented operation.
+   */
+  public JButton getCancelButton() {
+    return cancelButton;
+  }
+}
@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.constants.UIConstants;
 import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.exceptions.NoChangesInSquashedCommitException;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
@@ -152,12 +153,17 @@ public class SquashMergeDialog extends OKCancelDialog {
   
   @Override
   protected void doOK() {
-    try {
-      GitAccess.getInstance().squashAndMergeBranch(selectedBranch, commitMessageTextArea.getText());
-    } catch (GitAPIException | IOException | NoRepositorySelected | NoChangesInSquashedCommitException e) {
-      LOGGER.error(e.getMessage(), e);
-      ExceptionHandlerUtil.handleMergeException(e);
-    }
+    final String branch = selectedBranch;
+    final String commitMessage = commitMessageTextArea.getText();
+    // On the write lane, the merge waits for the operations that read the repository.
+    GitOperationScheduler.getInstance().schedule(() -> {
+      try {
+        GitAccess.getInstance().squashAndMergeBranch(branch, commitMessage);
+      } catch (GitAPIException | IOException | NoRepositorySelected | NoChangesInSquashedCommitException e) {
+        LOGGER.error(e.getMessage(), e);
+        ExceptionHandlerUtil.handleMergeException(e);
+      }
+    });
     super.doOK();
   }
   
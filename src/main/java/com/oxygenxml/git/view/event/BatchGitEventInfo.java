@@ -0,0 +1,40 @@
+package com.oxygenxml.git.view.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The events of the operations that successfully ended during a compound operation,
+ * delivered together to the listeners that asked for coalesced notifications.
+ */
+public class BatchGitEventInfo extends GitEventInfo {
+
+  /**
+   * The events, in the order in which they were fired.
+   */
+  private final List<GitEventInfo> events;
+
+  /**
+   * Constructor.
+   *
+   * @param events The events, in the order in which they were fired. At least one.
+   */
+  public BatchGitEventInfo(List<GitEventInfo> events) {
+    // The last operation determines the final state.
+    super(events.get(events.size() - 1).getGitOperation());
+    this.events = Collections.unmodifiableList(new ArrayList<>(events));
+  }
+
+  /**
+   * @return The events, in the order in which they were fired.
+   */
+  public List<GitEventInfo> getEvents() {
+    return events;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchGitEventInfo [Events: " + events + "].";
+  }
+}
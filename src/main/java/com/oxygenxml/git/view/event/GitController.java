@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.Future;
 
 import org.eclipse.jgit.api.errors.CheckoutConflictException;
@@ -25,8 +26,10 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.OperationProgress;
 import com.oxygenxml.git.service.PullResponse;
 import com.oxygenxml.git.service.PushResponse;
+import com.oxygenxml.git.service.RunningOperations;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.service.exceptions.RebaseConflictsException;
 import com.oxygenxml.git.service.exceptions.RebaseUncommittedChangesException;
@@ -84,6 +87,8 @@ public class GitController extends GitControllerBase {
     PushPullEvent pushPullEvent = new PushPullEvent(command.getOperation(), message);
     listeners.fireOperationAboutToStart(pushPullEvent);
 
+    // The user can cancel it even before it starts.
+    command.progress = RunningOperations.getInstance().begin(message);
     return GitOperationScheduler.getInstance().schedule(command);
   }
 
@@ -165,10 +170,18 @@ public class GitController extends GitControllerBase {
    * Execute push / pull.
    */
   private abstract class ExecuteCommandRunnable implements Runnable {
+    /**
+     * Reports the progress and tells if the user cancelled the operation.
+     */
+    protected OperationProgress progress = new OperationProgress("");
 
     @Override
     public void run() {
-      executeCommand();
+      try {
+        executeCommand();
+      } finally {
+        RunningOperations.getInstance().end(progress);
+      }
     }
 
     /**
@@ -190,7 +203,13 @@ public class GitController extends GitControllerBase {
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug("Preparing for push/pull command");
         }
-        event = doOperation(credentialsProvider);
+        event = doCancellableOperation(credentialsProvider);
+      } catch (CancellationException e) {
+        LOGGER.debug(e.getMessage(), e);
+        event = Optional.of(new PushPullEvent(
+            getOperation(),
+            composeAndReturnFailureMessage(translator.getTranslation(Tags.OPERATION_CANCELED)),
+            e));
       } catch (JGitInternalException e) {
         LOGGER.debug(e.getMessage(), e);
 
@@ -298,6 +317,9 @@ public class GitController extends GitControllerBase {
      * @param event The event that happened.
      */
     private void notifyListeners(Optional<PushPullEvent> event) {
+      // Ended. Any progress reported from now on is stale.
+      RunningOperations.getInstance().end(progress);
+      
       PushPullEvent toFire = null;
       if (event.isPresent()) {
         toFire = event.get();
@@ -370,6 +392,30 @@ public class GitController extends GitControllerBase {
      * @throws GitAPIException
      */
     protected abstract Optional<PushPullEvent> doOperation(CredentialsProvider credentialsProvider) throws GitAPIException;
+    
+    /**
+     * Push or pull, depending on the implementation. JGit reports a cancellation through
+     * various exceptions. They are all turned into a {@link CancellationException}.
+     * 
+     * @param credentialsProvider The credentials provider.
+     * 
+     * @return an optional response.
+     * 
+     * @throws GitAPIException
+     * @throws CancellationException If the user cancelled the operation.
+     */
+    private Optional<PushPullEvent> doCancellableOperation(CredentialsProvider credentialsProvider) throws GitAPIException {
+      try {
+        return doOperation(credentialsProvider);
+      } catch (GitAPIException | JGitInternalException e) {
+        if (progress.isCancelled()) {
+          CancellationException cancellation = new CancellationException(e.getMessage());
+          cancellation.initCause(e);
+          throw cancellation;
+        }
+        throw e;
+      }
+    }
   }
 
   /**
@@ -394,7 +440,7 @@ public class GitController extends GitControllerBase {
     @Override
     protected Optional<PushPullEvent> doOperation(CredentialsProvider credentialsProvider)
         throws  GitAPIException {
-      PushResponse response = gitAccess.push(credentialsProvider);
+      PushResponse response = gitAccess.push(credentialsProvider, progress);
       PushPullEvent event = null;
       if (Status.OK == response.getStatus()) {
         event = new PushPullEvent(GitOperation.PUSH, translator.getTranslation(Tags.PUSH_SUCCESSFUL));
@@ -472,7 +518,8 @@ public class GitController extends GitControllerBase {
           PullResponse response = gitAccess.pull(
               credentialsProvider,
               pullType,
-              OptionsManager.getInstance().getUpdateSubmodulesOnPull());
+              OptionsManager.getInstance().getUpdateSubmodulesOnPull(),
+              progress);
           event = treatPullResponse(response);
         }
       }
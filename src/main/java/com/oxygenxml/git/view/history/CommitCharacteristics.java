@@ -3,30 +3,40 @@ package com.oxygenxml.git.view.history;
 import java.util.Date;
 import java.util.List;
 
-import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.revplot.PlotCommit;
 
+import com.oxygenxml.git.service.HistoryMetadataStore.CommitMetadata;
 import com.oxygenxml.git.service.RevCommitUtil;
 import com.oxygenxml.git.service.RevCommitUtilBase;
 import com.oxygenxml.git.view.history.graph.VisualCommitsList;
 
 /**
  * Class for Commit Characteristics shown in historyTable.
+ * <br><br>
+ * A history might hold hundreds of thousands of commits, so only the message and the
+ * people are kept. The ids and the parents are derived from the plot commit on first
+ * access. The people come from the {@link com.oxygenxml.git.service.HistoryMetadataStore},
+ * which shares them between all the commits of the repository.
  * 
  * @Alexandra_Dinisor
  *
  */
 public class CommitCharacteristics {
 
+	/**
+	 * Marks a row without a date.
+	 */
+	private static final long NO_DATE = Long.MIN_VALUE;
+
 	/**
 	 * The commit message.
 	 */
 	private final String commitMessage;
 
 	/**
-	 * The commit date.
+	 * The commit date, in milliseconds. {@link #NO_DATE} if there is no date.
 	 */
-	private final Date date;
+	private final long date;
 
 	/**
 	 * The commit author with its email.
@@ -34,47 +44,43 @@ public class CommitCharacteristics {
 	private final String author;
 
 	/**
-	 * The abbreviated commitId.
+	 * The committer name.
 	 */
-	private final String commitAbbreviatedId;
+	private final String committer;
 
 	/**
-	 * The long version of the commitId.
+	 * The plot for current commit. Holds the id and the parents.
 	 */
-	private final String commitId;
-
+	private final PlotCommit<VisualCommitsList.VisualLane> plotCommit;
+	
 	/**
-	 * The committer name.
+	 * The abbreviated commit id. Derived from the plot commit on first access.
 	 */
-	private final String committer;
-
+	private String commitAbbreviatedId;
+	
 	/**
-	 * The abbreviated commitId of the parent.
+	 * The commit id. Derived from the plot commit on first access.
 	 */
-	private final List<String> parentCommitId;
+	private String commitId;
 	
 	/**
-	 * The plot for current commit. 
+	 * The ids of the parents. Derived from the plot commit on first access.
 	 */
-	private final PlotCommit<VisualCommitsList.VisualLane> plotCommit;
-	
+	private List<String> parentCommitId;
 	
+
 	/**
 	 * Constructor.
 	 * 
-	 * @param plotCommit The plot commit from which the details are extracted.
-	 */
-	public CommitCharacteristics(PlotCommit<VisualCommitsList.VisualLane> plotCommit) {
-		commitMessage = plotCommit.getFullMessage();
-	    PersonIdent authorIdent = plotCommit.getAuthorIdent();
-	    author = authorIdent.getName() + " <" + authorIdent.getEmailAddress() + ">";
-	    date = authorIdent.getWhen();
-	    commitAbbreviatedId = plotCommit.getId().abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name();
-	    commitId = plotCommit.getId().getName();
-	    PersonIdent committerIdent = plotCommit.getCommitterIdent();
-	    committer = committerIdent.getName();
-	    parentCommitId = RevCommitUtil.getParentsId(plotCommit);
-        this.plotCommit = plotCommit;
+	 * @param plotCommit The plot commit.
+	 * @param metadata   The message, author and date of the commit.
+	 */
+	public CommitCharacteristics(PlotCommit<VisualCommitsList.VisualLane> plotCommit, CommitMetadata metadata) {
+	  commitMessage = metadata.getMessage();
+	  author = metadata.getAuthor();
+	  date = metadata.getAuthorDate().getTime();
+	  committer = metadata.getCommitter();
+	  this.plotCommit = plotCommit;
 	}
 
 	/**
@@ -92,19 +98,19 @@ public class CommitCharacteristics {
 			String commitAbbreviatedId, String commitId, String committer, List<String> parentCommitId) {
 
 		this.commitMessage = commitMessage;
-		this.date = authorDate;
+		this.date = authorDate != null ? authorDate.getTime() : NO_DATE;
 		this.author = author;
+		this.committer = committer;
+		this.plotCommit = null;
 		this.commitAbbreviatedId = commitAbbreviatedId;
 		this.commitId = commitId;
-		this.committer = committer;
 		this.parentCommitId = parentCommitId;
-		this.plotCommit = null;
 	}
 
 	@Override
 	public String toString() {
-		return "[ " + commitMessage + " , " + date + " , " + author + " , " + commitAbbreviatedId + " , " + commitId + " , "
-				+ committer + " , " + parentCommitId + " ]";
+		return "[ " + commitMessage + " , " + getDate() + " , " + author + " , " + getCommitAbbreviatedId() + " , " + getCommitId() + " , "
+				+ committer + " , " + getParentCommitId() + " ]";
 
 	}
 
@@ -121,7 +127,7 @@ public class CommitCharacteristics {
 	 * @return The commit date.
 	 */
 	public Date getDate() {
-		return date;
+		return date != NO_DATE ? new Date(date) : null;
 	}
 
 	
@@ -137,6 +143,9 @@ public class CommitCharacteristics {
 	 * @return The abbreviated commit id.
 	 */
 	public String getCommitAbbreviatedId() {
+		if (commitAbbreviatedId == null && plotCommit != null) {
+		  commitAbbreviatedId = plotCommit.abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name();
+		}
 		return commitAbbreviatedId;
 	}
 
@@ -144,6 +153,9 @@ public class CommitCharacteristics {
 	 * @return The commit id.
 	 */
 	public String getCommitId() {
+		if (commitId == null && plotCommit != null) {
+		  commitId = plotCommit.getName();
+		}
 		return commitId;
 	}
 
@@ -162,6 +174,9 @@ public class CommitCharacteristics {
 	 * @return List with parents id.
 	 */
 	public List<String> getParentCommitId() {
+		if (parentCommitId == null && plotCommit != null) {
+		  parentCommitId = RevCommitUtil.getParentsId(plotCommit);
+		}
 		return parentCommitId;
 	}
 	
@@ -0,0 +1,483 @@
+package com.oxygenxml.git.view.history;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.lib.AbbreviatedObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revplot.PlotCommit;
+
+import com.oxygenxml.git.service.RevCommitUtilBase;
+
+/**
+ * Finds the commits of the History view that match the filter text. The filter is split
+ * in tokens and a commit matches when each token is contained in its author, message
+ * or date, or is its id.
+ * <br><br>
+ * The authors, messages and dates are split in words only once, and each word keeps
+ * the commits that contain it. Large histories are indexed in the background with
+ * {@link #index()}. Filtering indexes only the few commits that are left. A token is
+ * searched in the words, not in the commits. When the filter text is extended while
+ * typing, a token is only searched in the words matched by the token it extends.
+ * <br><br>
+ * The index is used from the AWT thread and from the thread that indexes the commits,
+ * so the commits must be appended with {@link #append(Collection)}.
+ */
+public class CommitFilterIndex {
+  /**
+   * The commits with a row index in a word.
+   */
+  private static final class Postings {
+    /**
+     * The rows, in ascending order.
+     */
+    private int[] rows = new int[1];
+    /**
+     * The number of rows.
+     */
+    private int size;
+
+    /**
+     * Adds a row, greater than the previous ones.
+     *
+     * @param row The row.
+     */
+    private void add(int row) {
+      if (size == rows.length) {
+        int[] grown = new int[size + (size >> 1) + 1];
+        System.arraycopy(rows, 0, grown, 0, size);
+        rows = grown;
+      }
+      rows[size++] = row;
+    }
+
+    /**
+     * Marks the rows.
+     *
+     * @param bits Receives the rows.
+     */
+    private void addTo(BitSet bits) {
+      for (int i = 0; i < size; i++) {
+        bits.set(rows[i]);
+      }
+    }
+  }
+
+  /**
+   * The words matched by a token.
+   */
+  private static final class TokenMatch {
+    /**
+     * The matched words of the authors and messages.
+     */
+    private final List<String> textWords;
+    /**
+     * The matched words of the dates.
+     */
+    private final List<String> dateWords;
+
+    /**
+     * Constructor.
+     *
+     * @param textWords The matched words of the authors and messages.
+     * @param dateWords The matched words of the dates.
+     */
+    private TokenMatch(List<String> textWords, List<String> dateWords) {
+      this.textWords = textWords;
+      this.dateWords = dateWords;
+    }
+  }
+
+  /**
+   * A token of the filter.
+   */
+  private static final class Token {
+    /**
+     * The token, as typed.
+     */
+    private final String text;
+    /**
+     * The token, in lower case.
+     */
+    private final String lowerCase;
+
+    /**
+     * Constructor.
+     *
+     * @param text The token, as typed.
+     */
+    private Token(String text) {
+      this.text = text;
+      this.lowerCase = text.toLowerCase();
+    }
+
+    /**
+     * @param other Another token.
+     *
+     * @return <code>true</code> if every text containing this token also contains the other one.
+     */
+    private boolean refines(Token other) {
+      return text.contains(other.text) && lowerCase.contains(other.lowerCase);
+    }
+  }
+
+  /**
+   * Separates the tokens of the filter.
+   */
+  private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[, .!-]+");
+  /**
+   * Separates the indexed words. Contains the separators of the tokens, so a token is
+   * contained in a text if and only if it is contained in one of its words.
+   */
+  private static final Pattern WORD_SEPARATORS = Pattern.compile("[\\s,.!-]+");
+  /**
+   * The number of commits that can be indexed when filtering, without making the user wait.
+   */
+  private static final int SYNCHRONOUS_INDEXING_LIMIT = 1000;
+  /**
+   * The number of commits indexed at once in the background. The filtering waits for them.
+   */
+  private static final int INDEXING_CHUNK = 1000;
+
+  /**
+   * The commits of the history, in the order of the rows. Only commits are appended to it.
+   */
+  private final List<CommitCharacteristics> commits;
+  /**
+   * The number of commits already indexed.
+   */
+  private int indexed;
+  /**
+   * The commits of each word of the authors and messages, in lower case.
+   */
+  private final Map<String, Postings> textWords = new HashMap<>();
+  /**
+   * The commits of each word of the dates.
+   */
+  private final Map<String, Postings> dateWords = new HashMap<>();
+  /**
+   * The rows of the commits without a plot commit, like the uncommitted changes.
+   */
+  private final List<Integer> rowsWithoutPlot = new ArrayList<>();
+  /**
+   * The tokens of the last filter and the words they matched.
+   */
+  private Map<Token, TokenMatch> lastMatches = new HashMap<>();
+  /**
+   * The last parsed filter.
+   */
+  private String lastFilter;
+  /**
+   * The tokens of the last parsed filter.
+   */
+  private List<Token> lastTokens;
+
+  /**
+   * Constructor.
+   *
+   * @param commits The commits of the history. Commits appended to it later are indexed
+   *                by {@link #index()} or the next time the history is filtered.
+   */
+  public CommitFilterIndex(List<CommitCharacteristics> commits) {
+    this.commits = commits;
+  }
+
+  /**
+   * Appends commits to the history.
+   *
+   * @param newCommits The commits.
+   */
+  public synchronized void append(Collection<CommitCharacteristics> newCommits) {
+    commits.addAll(newCommits);
+  }
+
+  /**
+   * @return <code>true</code> if there are too many commits not indexed yet to filter
+   * them without making the user wait. They should be indexed with {@link #index()}
+   * on a background thread.
+   */
+  public synchronized boolean needsIndexing() {
+    return commits.size() - indexed > SYNCHRONOUS_INDEXING_LIMIT;
+  }
+
+  /**
+   * Indexes the commits not indexed yet. Called on a background thread. Indexes a few
+   * commits at a time, so the filtering doesn't wait for all of them.
+   */
+  public void index() {
+    boolean done = false;
+    while (!done) {
+      synchronized (this) {
+        indexNewCommits(Math.min(commits.size(), indexed + INDEXING_CHUNK));
+        done = indexed == commits.size();
+      }
+    }
+  }
+
+  /**
+   * Filters the commits. Indexes the commits not indexed yet.
+   *
+   * @param filter The filter text.
+   *
+   * @return The commits that match, in the order of the history.
+   */
+  public synchronized List<CommitCharacteristics> filter(String filter) {
+    indexNewCommits(commits.size());
+
+    BitSet rows = null;
+    Map<Token, TokenMatch> matches = new HashMap<>();
+    for (Token token : parse(filter)) {
+      BitSet tokenRows;
+      if (WORD_SEPARATORS.matcher(token.text).find()) {
+        // Can't be searched in words.
+        tokenRows = scan(token);
+      } else {
+        TokenMatch match = findWords(token);
+        matches.put(token, match);
+        tokenRows = new BitSet(commits.size());
+        match.textWords.forEach(word -> textWords.get(word).addTo(tokenRows));
+        match.dateWords.forEach(word -> dateWords.get(word).addTo(tokenRows));
+        addIdMatches(token, tokenRows);
+      }
+
+      if (rows == null) {
+        rows = tokenRows;
+      } else {
+        rows.and(tokenRows);
+      }
+    }
+    lastMatches = matches;
+
+    List<CommitCharacteristics> filtered;
+    if (rows == null) {
+      filtered = new ArrayList<>(commits);
+    } else {
+      filtered = new ArrayList<>(rows.cardinality());
+      for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+        filtered.add(commits.get(row));
+      }
+    }
+    return filtered;
+  }
+
+  /**
+   * Checks a commit against the filter without the index. Used for the commits of a
+   * page that is presented while filtering.
+   *
+   * @param commit The commit.
+   * @param filter The filter text.
+   *
+   * @return <code>true</code> if the commit matches the filter.
+   */
+  public synchronized boolean matches(CommitCharacteristics commit, String filter) {
+    return matches(commit, parse(filter));
+  }
+
+  /**
+   * Checks a commit against some tokens without the index.
+   *
+   * @param commit The commit.
+   * @param tokens The tokens.
+   *
+   * @return <code>true</code> if the commit matches all the tokens.
+   */
+  private static boolean matches(CommitCharacteristics commit, List<Token> tokens) {
+    boolean matches = true;
+    if (!tokens.isEmpty()) {
+      String author = toLowerCase(commit.getAuthor());
+      String message = toLowerCase(commit.getCommitMessage());
+      Date date = commit.getDate();
+      String dateText = date != null ? date.toString() : "";
+      String commitId = toLowerCase(commit.getCommitId());
+      String shortCommitId = commitId.length() >= RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH
+          ? commitId.substring(0, RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH) : "";
+      for (Token token : tokens) {
+        if (!author.contains(token.lowerCase)
+            && !dateText.contains(token.text)
+            && !message.contains(token.lowerCase)
+            && !commitId.equals(token.lowerCase)
+            && !shortCommitId.equals(token.lowerCase)) {
+          matches = false;
+          break;
+        }
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Splits the filter in tokens. The empty tokens are skipped, they match every commit.
+   *
+   * @param filter The filter text.
+   *
+   * @return The tokens.
+   */
+  private List<Token> parse(String filter) {
+    if (lastTokens == null || !filter.equals(lastFilter)) {
+      List<Token> tokens = new ArrayList<>();
+      for (String token : TOKEN_SEPARATORS.split(filter)) {
+        String trimmed = token.trim();
+        if (!trimmed.isEmpty()) {
+          tokens.add(new Token(trimmed));
+        }
+      }
+      lastFilter = filter;
+      lastTokens = tokens;
+    }
+    return lastTokens;
+  }
+
+  /**
+   * Finds the words that contain a token. If the token extends a token of the previous
+   * filter, it is searched only in the words matched by that token.
+   *
+   * @param token The token.
+   *
+   * @return The matched words.
+   */
+  private TokenMatch findWords(Token token) {
+    Token extended = null;
+    for (Token previous : lastMatches.keySet()) {
+      if (token.refines(previous) && (extended == null || previous.text.length() > extended.text.length())) {
+        extended = previous;
+      }
+    }
+
+    TokenMatch match;
+    if (extended != null) {
+      TokenMatch previousMatch = lastMatches.get(extended);
+      match = new TokenMatch(
+          findWords(previousMatch.textWords, token.lowerCase),
+          findWords(previousMatch.dateWords, token.text));
+    } else {
+      match = new TokenMatch(
+          findWords(textWords.keySet(), token.lowerCase),
+          findWords(dateWords.keySet(), token.text));
+    }
+    return match;
+  }
+
+  /**
+   * @param words Some words.
+   * @param text  A text.
+   *
+   * @return The words that contain the text.
+   */
+  private static List<String> findWords(Collection<String> words, String text) {
+    return words.stream()
+        .filter(word -> word.contains(text))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Marks the commits whose id is the token.
+   *
+   * @param token The token.
+   * @param rows  Receives the rows of the commits.
+   */
+  private void addIdMatches(Token token, BitSet rows) {
+    String id = token.lowerCase;
+    boolean shortId = id.length() == RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH;
+    if ((shortId || id.length() == Constants.OBJECT_ID_STRING_LENGTH) && AbbreviatedObjectId.isId(id)) {
+      AbbreviatedObjectId abbreviatedId = AbbreviatedObjectId.fromString(id);
+      for (int row = 0; row < indexed; row++) {
+        PlotCommit<?> plotCommit = commits.get(row).getPlotCommit();
+        if (plotCommit != null && abbreviatedId.prefixCompare(plotCommit) == 0) {
+          rows.set(row);
+        }
+      }
+    }
+    for (int row : rowsWithoutPlot) {
+      String commitId = toLowerCase(commits.get(row).getCommitId());
+      if (commitId.equals(id)
+          || commitId.length() >= RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH
+          && commitId.substring(0, RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).equals(id)) {
+        rows.set(row);
+      }
+    }
+  }
+
+  /**
+   * Checks every commit against a token.
+   *
+   * @param token The token.
+   *
+   * @return The rows of the matching commits.
+   */
+  private BitSet scan(Token token) {
+    BitSet rows = new BitSet(commits.size());
+    List<Token> tokens = Collections.singletonList(token);
+    for (int row = 0; row < indexed; row++) {
+      if (matches(commits.get(row), tokens)) {
+        rows.set(row);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Splits the authors, messages and dates of the commits not indexed yet in words.
+   *
+   * @param end The index after the last commit to index.
+   */
+  private void indexNewCommits(int end) {
+    if (indexed < end) {
+      // The new words might match the previous tokens too.
+      lastMatches = new HashMap<>();
+    }
+    Set<String> words = new HashSet<>();
+    for (; indexed < end; indexed++) {
+      CommitCharacteristics commit = commits.get(indexed);
+      if (commit.getPlotCommit() == null) {
+        rowsWithoutPlot.add(indexed);
+      }
+
+      words.clear();
+      addWords(toLowerCase(commit.getAuthor()), words);
+      addWords(toLowerCase(commit.getCommitMessage()), words);
+      for (String word : words) {
+        textWords.computeIfAbsent(word, w -> new Postings()).add(indexed);
+      }
+
+      Date date = commit.getDate();
+      if (date != null) {
+        words.clear();
+        addWords(date.toString(), words);
+        for (String word : words) {
+          dateWords.computeIfAbsent(word, w -> new Postings()).add(indexed);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param text  A text.
+   * @param words Receives the words of the text.
+   */
+  private static void addWords(String text, Set<String> words) {
+    for (String word : WORD_SEPARATORS.split(text)) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+  }
+
+  /**
+   * @param text A text. May be <code>null</code>.
+   *
+   * @return The text in lower case. Empty for <code>null</code>.
+   */
+  private static String toLowerCase(String text) {
+    return text != null ? text.toLowerCase() : "";
+  }
+}
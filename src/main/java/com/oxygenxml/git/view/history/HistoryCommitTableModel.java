@@ -1,14 +1,24 @@
 package com.oxygenxml.git.view.history;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 
+import javax.swing.SwingUtilities;
 import javax.swing.table.AbstractTableModel;
 
 import org.eclipse.jgit.revplot.PlotCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.CancellationToken;
+import com.oxygenxml.git.service.GitQueryExecutor;
+import com.oxygenxml.git.service.PagedHistory;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.Equaler;
@@ -22,14 +32,14 @@ import com.oxygenxml.git.utils.Equaler;
  */
 public class HistoryCommitTableModel extends AbstractTableModel {
   /**
-   * Number of columns.
+   * Logger for logging.
    */
-  private static final int COLUMN_COUNT = 5;
-  
+  private static final Logger LOGGER = LoggerFactory.getLogger(HistoryCommitTableModel.class);
+
   /**
-   * Length of the short commit id
+   * Number of columns.
    */
-  private static final int SHORT_COMMIT_ID_LENGTH = 7;
+  private static final int COLUMN_COUNT = 5;
   
   /**
 	 * Commit graph table column index.
@@ -71,14 +81,218 @@ public class HistoryCommitTableModel extends AbstractTableModel {
    */
   private transient List<CommitCharacteristics> allCommitsCharacteristicsFiltered;
 
+  /**
+   * Finds the commits that match the filter.
+   */
+  private final transient CommitFilterIndex filterIndex;
+
+  /**
+   * Loads the next pages of the history. <code>null</code> if the whole history is loaded.
+   */
+  private transient PagedHistory history;
+
+  /**
+   * Stops loading pages when the model is no longer presented.
+   */
+  private final transient CancellationToken pagesToken = new CancellationToken();
+
+  /**
+   * <code>true</code> while a page is loaded.
+   */
+  private boolean loadingPage;
+
+  /**
+   * Searches waiting for the next page.
+   */
+  private final transient List<Runnable> pendingSearches = new ArrayList<>();
+
+  /**
+   * The error that stopped loading the next page. <code>null</code> if the last page was loaded.
+   * While it is set, pages are loaded only when {@link #retryLoadNextPage()} is called.
+   */
+  private transient IOException pageError;
+
+  /**
+   * <code>true</code> while the commits are indexed in the background for filtering.
+   */
+  private boolean indexing;
+
+  /**
+   * <code>true</code> if the filter is applied after the commits are indexed.
+   */
+  private boolean filterPending;
+
+  /**
+   * Receives the errors that stop loading the next page. Called on the AWT thread.
+   */
+  private transient Consumer<IOException> pageErrorHandler = e -> {};
+
 	/**
 	 * Construct the Table Model with a Vector containing all commitCharacteristics.
 	 * 
 	 * @param commitVector The computed commitVector
 	 */
 	public HistoryCommitTableModel(List<CommitCharacteristics> commitVector) {
-		this.allCommitsCharacteristicsFiltered = new ArrayList<>(commitVector);
-		this.allCommitsCharacteristics = new ArrayList<>(commitVector);
+		this(commitVector, null);
+	}
+
+	/**
+	 * Construct the Table Model with the first page of a history.
+	 * 
+	 * @param firstPage The commits of the first page.
+	 * @param history   Loads the next pages. <code>null</code> if the first page contains the whole history.
+	 */
+	public HistoryCommitTableModel(List<CommitCharacteristics> firstPage, PagedHistory history) {
+		this.allCommitsCharacteristicsFiltered = new ArrayList<>(firstPage);
+		this.allCommitsCharacteristics = new ArrayList<>(firstPage);
+		this.filterIndex = new CommitFilterIndex(allCommitsCharacteristics);
+		this.history = history;
+		indexInBackground();
+	}
+
+	/**
+	 * @return <code>true</code> if there are commits not loaded yet.
+	 */
+	public boolean hasMorePages() {
+	  return history != null;
+	}
+
+	/**
+	 * @param pageErrorHandler Receives the errors that stop loading the next page,
+	 *                         on the AWT thread. The loading can be resumed with {@link #retryLoadNextPage()}.
+	 */
+	public void setPageErrorHandler(Consumer<IOException> pageErrorHandler) {
+	  this.pageErrorHandler = pageErrorHandler;
+	}
+
+	/**
+	 * @return The error that stopped loading the next page, or <code>null</code>.
+	 */
+	public IOException getPageError() {
+	  return pageError;
+	}
+
+	/**
+	 * Loads the next page of the history in the background, if it isn't already loading.
+	 * Called on the AWT thread, when the user scrolls toward the end of the table.
+	 * Does nothing after a page failed to load, until {@link #retryLoadNextPage()} is called.
+	 */
+	public void loadNextPage() {
+	  if (history != null && !loadingPage && pageError == null) {
+	    loadingPage = true;
+	    final PagedHistory pages = history;
+	    GitQueryExecutor.getInstance().schedule(() -> {
+	      try {
+	        List<CommitCharacteristics> page = pages.loadNextPage(pagesToken);
+	        boolean morePages = pages.hasMorePages();
+	        SwingUtilities.invokeLater(() -> pageLoaded(pages, page, morePages));
+	      } catch (IOException e) {
+	        LOGGER.debug(e.getMessage(), e);
+	        SwingUtilities.invokeLater(() -> pageFailed(pages, e));
+	      } catch (CancellationException e) {
+	        // The model was disposed.
+	        LOGGER.debug(e.getMessage(), e);
+	      }
+	    }, 0);
+	  }
+	}
+
+	/**
+	 * Loads again the page that failed to load. Called on the AWT thread.
+	 */
+	public void retryLoadNextPage() {
+	  pageError = null;
+	  loadNextPage();
+	}
+
+	/**
+	 * Records the error that stopped loading a page. The history stays open, so the page can be loaded again.
+	 * Called on the AWT thread.
+	 * 
+	 * @param pages The history the page comes from.
+	 * @param error The reason the page was not loaded.
+	 */
+	private void pageFailed(PagedHistory pages, IOException error) {
+	  if (pages == history) {
+	    loadingPage = false;
+	    pageError = error;
+	    pageErrorHandler.accept(error);
+	  }
+	}
+
+	/**
+	 * Presents a page of the history. Called on the AWT thread.
+	 * 
+	 * @param pages     The history the page comes from.
+	 * @param page      The commits of the page.
+	 * @param morePages <code>true</code> if there are commits not loaded yet.
+	 */
+	private void pageLoaded(PagedHistory pages, List<CommitCharacteristics> page, boolean morePages) {
+	  if (pages == history) {
+	    loadingPage = false;
+	    if (!morePages) {
+	      history.close();
+	      history = null;
+	    }
+
+	    filterIndex.append(page);
+	    indexInBackground();
+	    int firstRow = allCommitsCharacteristicsFiltered.size();
+	    for (CommitCharacteristics commit : page) {
+	      if (textToFilter == null || filterIndex.matches(commit, textToFilter)) {
+	        allCommitsCharacteristicsFiltered.add(commit);
+	      }
+	    }
+	    if (allCommitsCharacteristicsFiltered.size() > firstRow) {
+	      fireTableRowsInserted(firstRow, allCommitsCharacteristicsFiltered.size() - 1);
+	    }
+
+	    List<Runnable> searches = new ArrayList<>(pendingSearches);
+	    pendingSearches.clear();
+	    searches.forEach(Runnable::run);
+
+	    if (textToFilter != null && !textToFilter.isEmpty()) {
+	      // The matches can be anywhere in the history.
+	      loadNextPage();
+	    }
+	  }
+	}
+
+	/**
+	 * Searches a commit among the presented ones. If it isn't found, the next pages
+	 * of the history are loaded until it is found or the history ends.
+	 * Called on the AWT thread.
+	 * 
+	 * @param matcher Identifies the commit.
+	 * @param found   Receives the row of the commit, if it is found.
+	 */
+	public void findCommit(Predicate<CommitCharacteristics> matcher, IntConsumer found) {
+	  int row = -1;
+	  for (int i = 0; i < allCommitsCharacteristicsFiltered.size(); i++) {
+	    if (matcher.test(allCommitsCharacteristicsFiltered.get(i))) {
+	      row = i;
+	      break;
+	    }
+	  }
+
+	  if (row != -1) {
+	    found.accept(row);
+	  } else if (history != null) {
+	    pendingSearches.add(() -> findCommit(matcher, found));
+	    loadNextPage();
+	  }
+	}
+
+	/**
+	 * Stops loading pages and releases the history. Called when the model is no longer presented.
+	 */
+	public void dispose() {
+	  pendingSearches.clear();
+	  pagesToken.cancel();
+	  if (history != null) {
+	    history.close();
+	    history = null;
+	  }
 	}
 	
 	/**
@@ -206,96 +420,62 @@ public class HistoryCommitTableModel extends AbstractTableModel {
 	public void filterChanged(String text) {
 	  if (!Equaler.verifyEquals(text, this.textToFilter)) {
 	    this.textToFilter = text;
-	    if (text != null && text.length() > 0) {
-	      allCommitsCharacteristicsFiltered.clear();
-	      for (Iterator<CommitCharacteristics> iterator = allCommitsCharacteristics.iterator(); iterator.hasNext();) {
-	        CommitCharacteristics comitCharac = iterator.next();
-	        if(!shouldFilter(comitCharac, textToFilter)) {
-	          allCommitsCharacteristicsFiltered.add(comitCharac);
-	        }
-	      }
+	    if (text != null && text.length() > 0 && filterIndex.needsIndexing()) {
+	      // Filter after the commits are indexed in the background.
+	      filterPending = true;
+	      indexInBackground();
 	    } else {
-	      allCommitsCharacteristicsFiltered = new ArrayList<>(allCommitsCharacteristics);
+	      filterPending = false;
+	      applyFilter();
 	    }
-	    //update model
-	    fireTableDataChanged();
 	  }
 	}
-	
+
 	/**
-	 * Tells if a commit should be removed or not.
-	 * 
-	 * @param commitCharac The commit with details
-	 * @param textFilter The filter that should be applied
-	 * 
-	 * @return <code>true</code> if the commit should be removed, false otherwise
+	 * Presents the commits that match the filter. Called on the AWT thread.
 	 */
-	private static boolean shouldFilter(CommitCharacteristics commitCharac, String textFilter) {
-	  boolean shouldFilter = false;
-	  if( textFilter != null &&  !textFilter.isEmpty()) {
-	    String date = "";
-	    String author = ""; 
-	    String message = "";
-	    String longCommitId = "";
-      String shortCommitId = "";
-
-	    String authorTemp = commitCharac.getAuthor();
-	    if(authorTemp != null) {
-	      author = authorTemp.toLowerCase();
-	    }
-	    Date dateTemp = commitCharac.getDate();
-	    if(dateTemp != null) {
-	      date = dateTemp.toString();
-	    }
-	    String commitIdTemp = commitCharac.getCommitId();
-	    if(commitIdTemp != null) {
-        longCommitId = commitIdTemp.toLowerCase();
-        if(longCommitId.length() >= SHORT_COMMIT_ID_LENGTH) {
-          shortCommitId = longCommitId.substring(0,SHORT_COMMIT_ID_LENGTH);
-        }
-      }
-	    String messageTemp = commitCharac.getCommitMessage();
-	    if(messageTemp != null) {
-	      message = messageTemp.toLowerCase();
-	    }
-	    shouldFilter = shouldFilterCommit(textFilter, date, author, shortCommitId, longCommitId, message);
-	  } 
-	  return shouldFilter;
+	private void applyFilter() {
+	  String text = textToFilter;
+	  if (text != null && text.length() > 0) {
+	    allCommitsCharacteristicsFiltered = filterIndex.filter(text);
+	  } else {
+	    allCommitsCharacteristicsFiltered = new ArrayList<>(allCommitsCharacteristics);
+	  }
+	  //update model
+	  fireTableDataChanged();
+
+	  if (text != null && text.length() > 0) {
+	    // The matches can be anywhere in the history.
+	    loadNextPage();
+	  }
 	}
-	
+
 	/**
-	 * Tells if a commit should be removed or not.
-	 * 
-	 * @param textFilter The text from filter field
-	 * @param date The date of the commit
-	 * @param author The author of the commit
-	 * @param shortCommitId The short commit id
-	 * @param longCommitId The full commit id 
-	 * @param message The message of the commit
-	 * 
-	 * @return <code>true</code> if commit should be filtered
+	 * Indexes the commits for filtering on a background thread, if there are too many
+	 * to index them when filtering. Called on the AWT thread, or from the constructor.
 	 */
-	private static boolean shouldFilterCommit(
-      String textFilter,
-      String date,
-      String author,
-      String shortCommitId,
-      String longCommitId,
-      String message) {
-	  boolean shouldFilter = false;
-	  String[] tokens = textFilter.split("[, .!-]+");
-	  for (int i = 0; i < tokens.length; i++) {
-	    String token = tokens[i].trim();
-	    String lowercaseToken = token.toLowerCase();
-	    if(!author.contains(lowercaseToken) &&
-          !date.contains(token) &&
-          !message.contains(lowercaseToken) &&
-          !longCommitId.equals(lowercaseToken) &&
-          !shortCommitId.equals(lowercaseToken)){
-        return true;
-      }
+	private void indexInBackground() {
+	  if (!indexing && filterIndex.needsIndexing()) {
+	    indexing = true;
+	    GitQueryExecutor.getInstance().schedule(() -> {
+	      filterIndex.index();
+	      SwingUtilities.invokeLater(this::indexingDone);
+	    }, 0);
 	  }
-	  return shouldFilter;
 	}
 
+	/**
+	 * Applies the filter that waited for the commits to be indexed. Called on the AWT thread.
+	 */
+	private void indexingDone() {
+	  indexing = false;
+	  if (filterIndex.needsIndexing()) {
+	    // Pages were loaded meanwhile.
+	    indexInBackground();
+	  } else if (filterPending) {
+	    filterPending = false;
+	    applyFilter();
+	  }
+	}
+	
 }
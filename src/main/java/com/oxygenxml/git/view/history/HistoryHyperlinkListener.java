@@ -1,7 +1,5 @@
 package com.oxygenxml.git.view.history;
 
-import java.util.List;
-
 import javax.swing.JTable;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
@@ -16,20 +14,13 @@ public class HistoryHyperlinkListener implements HyperlinkListener {
 	 */
 	private JTable historyTable;
 	
-	/**
-	 * The Vector with CommitCharcteristics.
-	 */
-	private List<CommitCharacteristics> commits;
-
 	/**
 	 * Construct HyperlinkListener parent commit id shown in commitDescriptionPane.
 	 * 
 	 * @param historyTable   The historyTable
-	 * @param commits        The list with commitCharacterstics.
 	 */
-	public HistoryHyperlinkListener(JTable historyTable, List<CommitCharacteristics> commits) {
+	public HistoryHyperlinkListener(JTable historyTable) {
 		this.historyTable = historyTable;
-		this.commits = commits;
 	}
 
 	@Override
@@ -39,10 +30,11 @@ public class HistoryHyperlinkListener implements HyperlinkListener {
 			String query = event.getURL().getQuery();
 			int parentStringIdx = query.indexOf('=') + 1;
 			String parentCommitId = query.substring(parentStringIdx);
-			int parentTableIndex = CommitCharacteristics.getCommitTableIndex(commits, parentCommitId);
-			if (parentTableIndex != -1) {
-				historyTable.getSelectionModel().setSelectionInterval(parentTableIndex, parentTableIndex);
-			}
+			// The parent might be in a page that is not loaded yet.
+			HistoryCommitTableModel model = (HistoryCommitTableModel) historyTable.getModel();
+			model.findCommit(
+			    commit -> commit.getCommitAbbreviatedId().equals(parentCommitId),
+			    parentTableIndex -> historyTable.getSelectionModel().setSelectionInterval(parentTableIndex, parentTableIndex));
 		}
 
 	}
@@ -8,6 +8,7 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
@@ -16,6 +17,7 @@ import java.awt.event.MouseEvent;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -24,6 +26,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -63,19 +67,28 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
+import com.oxygenxml.git.service.GitQueryExecutor;
+import com.oxygenxml.git.service.OperationProgress;
+import com.oxygenxml.git.service.PagedHistory;
 import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.RunningOperations;
 import com.oxygenxml.git.service.annotation.TestOnly;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.service.exceptions.PrivateRepositoryException;
 import com.oxygenxml.git.service.exceptions.RepositoryUnavailableException;
 import com.oxygenxml.git.service.exceptions.SSHPassphraseRequiredException;
+import com.oxygenxml.git.service.metrics.GitMetrics;
+import com.oxygenxml.git.service.metrics.GitMetrics.Timing;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.Equaler;
 import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.utils.RepoUtil;
 import com.oxygenxml.git.view.FilterTextField;
+import com.oxygenxml.git.view.components.OperationProgressPanel;
 import com.oxygenxml.git.view.event.GitController;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.event.GitOperation;
@@ -107,6 +120,11 @@ public class HistoryPanel extends JPanel {
    * History label right inset.
    */
   private static final int INFO_HISTORY_WIDTH_INSET = 20;
+
+  /**
+   * How long to wait for the revisions to be walked. Milliseconds.
+   */
+  private static final long HISTORY_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
   
   /**
    * Logger for logging.
@@ -203,7 +221,7 @@ public class HistoryPanel extends JPanel {
   /**
    * <code>true</code> if the branch has uncommited changes.
    */
-  private boolean hasUncommitedChanges  = false;
+  private volatile boolean hasUncommitedChanges  = false;
 
   /**
    * <code>true<code> if the component has previous state for showed.
@@ -246,6 +264,8 @@ public class HistoryPanel extends JPanel {
 
     JScrollPane historyTableScrollPane = new JScrollPane(historyTable);
     historyTable.setFillsViewportHeight(true);
+    // Load the next page of the history when the last commits come into view.
+    historyTableScrollPane.getViewport().addChangeListener(e -> loadNextPageIfNeeded());
 
     commitDescriptionPane = new JEditorPane();
     initEditorPane(commitDescriptionPane);
@@ -297,7 +317,7 @@ public class HistoryPanel extends JPanel {
           GitOperation operation = info.getGitOperation();
           switch (operation) {
           case OPEN_WORKING_COPY:
-            GitOperationScheduler.getInstance().schedule(HistoryPanel.this::showRepositoryHistory);
+            GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.BACKGROUND, HistoryPanel.this::showRepositoryHistory);
             break;
           case PULL:
           case PUSH:
@@ -334,6 +354,7 @@ public class HistoryPanel extends JPanel {
     }, PluginWorkspace.MAIN_EDITING_AREA);
 
     add(centerSplitPane, BorderLayout.CENTER);
+    add(new OperationProgressPanel(), BorderLayout.SOUTH);
   }
 
   /**
@@ -411,11 +432,14 @@ public class HistoryPanel extends JPanel {
       editorAccess.addEditorListener(new WSEditorListener() {
         @Override
         public void editorSaved(int operationType) {
-          boolean newHasUncommitedChanges = GitAccess.getInstance().getStatusCache().getStatus().hasUncommittedChanges();
-          if(hasUncommitedChanges != newHasUncommitedChanges) {
-            GitOperationScheduler.getInstance().schedule(() -> treatEditorSavedEvent(editorLocation));
-          }
-          hasUncommitedChanges = newHasUncommitedChanges;
+          // Don't block the EDT while the status is computed.
+          GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.BACKGROUND, () -> {
+            boolean newHasUncommitedChanges = GitAccess.getInstance().getStatusCache().getStatus().hasUncommittedChanges();
+            if(hasUncommitedChanges != newHasUncommitedChanges) {
+              treatEditorSavedEvent(editorLocation);
+            }
+            hasUncommitedChanges = newHasUncommitedChanges;
+          });
         }
       });
     }
@@ -744,7 +768,7 @@ public class HistoryPanel extends JPanel {
    * Schedules commit history to show for the active file.
    */
   public void scheduleRefreshHistory() {
-    GitOperationScheduler.getInstance().schedule(() -> showHistory(activeFilePath, true));
+    GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.BACKGROUND, () -> showHistory(activeFilePath, true));
   }
   
 
@@ -764,7 +788,7 @@ public class HistoryPanel extends JPanel {
         || !Equaler.verifyEquals(filePath, activeFilePath)) {
       this.activeFilePath = filePath;
 
-      try {
+      try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_HISTORY)) {
         // Make sure we know about the remote as well, to present data about the
         // upstream branch.
         tryFetch();
@@ -801,32 +825,67 @@ public class HistoryPanel extends JPanel {
         commitDescriptionPane.setText("");
         
         RenameTracker renameTracker = new RenameTracker();
-        final List<CommitCharacteristics> commitCharacteristicsVector = gitAccess.getCommitsCharacteristics(
-        		currentStrategy, filePath, renameTracker);
-
-        hasUncommitedChanges = GitAccess.getInstance().getStatusCache().getStatus().hasUncommittedChanges();
+        final HistoryStrategy strategy = currentStrategy;
+        // The revisions walk is the longest query. Compute the rest while it runs.
+        // Only the rows of the first page are created now, the rest when the user scrolls to them.
+        final PagedHistory history = gitAccess.openHistory(strategy, filePath, renameTracker);
+        final OperationProgress progress = RunningOperations.getInstance().begin(
+            TRANSLATOR.getTranslation(Tags.LOADING_HISTORY));
+        final Future<List<CommitCharacteristics>> pendingCommits = GitQueryExecutor.getInstance().submit(
+            () -> history.loadNextPage(progress));
+
+        final List<CommitCharacteristics> commitCharacteristicsVector;
+        final Repository repo;
+        final CommitMessageTableRenderer renderer;
+        boolean firstPageLoaded = false;
+        try {
+          hasUncommitedChanges = GitAccess.getInstance().getStatusCache().getStatus().hasUncommittedChanges();
         
-        final Repository repo = gitAccess.getRepository();
+          repo = gitAccess.getRepository();
        
-        final CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repo,
-            repo.getFullBranch());
-        Optional.ofNullable(contextualMenuPresenter).ifPresent(
-            menuPresenter -> menuPresenter.setCommitsAheadAndBehind(commitsAheadAndBehind));
-        // Compute the row height.
-        final String currentBranchName = gitAccess.getBranchInfo().getBranchName();
-        final Map<String, List<String>> localBranchesMap = gitAccess.getBranchMap(repo, ConfigConstants.CONFIG_KEY_LOCAL);
-        CommitMessageTableRenderer renderer = new CommitMessageTableRenderer(repo, commitsAheadAndBehind,
-            currentBranchName, getTagMap(repo),
-            localBranchesMap,
-            gitAccess.getBranchMap(repo, ConfigConstants.CONFIG_KEY_REMOTE));
+          final CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repo,
+              repo.getFullBranch());
+          Optional.ofNullable(contextualMenuPresenter).ifPresent(
+              menuPresenter -> menuPresenter.setCommitsAheadAndBehind(commitsAheadAndBehind));
+          // Compute the row height.
+          final String currentBranchName = gitAccess.getBranchInfo().getBranchName();
+          final Map<String, List<String>> localBranchesMap = gitAccess.getBranchMap(repo, ConfigConstants.CONFIG_KEY_LOCAL);
+          renderer = new CommitMessageTableRenderer(repo, commitsAheadAndBehind,
+              currentBranchName, getTagMap(repo),
+              localBranchesMap,
+              gitAccess.getBranchMap(repo, ConfigConstants.CONFIG_KEY_REMOTE));
+
+          commitCharacteristicsVector = GitQueryExecutor.getInstance().await(pendingCommits, HISTORY_TIMEOUT);
+          firstPageLoaded = true;
+        } catch (IOException e) {
+          if (progress.isCancelled()) {
+            // Cancelled by the user. Keep presenting the previous history.
+            LOGGER.debug(e.getMessage(), e);
+            return;
+          }
+          throw e;
+        } finally {
+          // Stops the revisions walk, if it is still running.
+          progress.cancel();
+          pendingCommits.cancel(true);
+          RunningOperations.getInstance().end(progress);
+          if (!firstPageLoaded) {
+            history.close();
+          }
+        }
         
         final int rh = getRowHeight(renderer, getFirstCommit(commitCharacteristicsVector));
 
         final HistoryCommitTableModel historyModel = new HistoryCommitTableModel(
-            commitCharacteristicsVector);
+            commitCharacteristicsVector, history.hasMorePages() ? history : null);
+        historyModel.setPageErrorHandler(error -> pageLoadFailed(historyModel, error));
         
         SwingUtilities.invokeLater(() -> { 
           historyModel.filterChanged(filter.getText());
+          TableModel previousModel = historyTable.getModel();
+          if (previousModel instanceof HistoryCommitTableModel) {
+            ((HistoryCommitTableModel) previousModel).dispose();
+          }
           historyTable.setModel(historyModel);
           updateHistoryTableWidths();
 
@@ -848,7 +907,7 @@ public class HistoryPanel extends JPanel {
         if (hyperlinkListener != null) {
           commitDescriptionPane.removeHyperlinkListener(hyperlinkListener);
         }
-        hyperlinkListener = new HistoryHyperlinkListener(historyTable, commitCharacteristicsVector);
+        hyperlinkListener = new HistoryHyperlinkListener(historyTable);
         commitDescriptionPane.addHyperlinkListener(hyperlinkListener);
 
         // Select the local branch HEAD.
@@ -895,6 +954,44 @@ public class HistoryPanel extends JPanel {
   }
   
 
+  /**
+   * Presents the error that stopped loading the history and lets the user load the page again.
+   * 
+   * @param model The model of the history.
+   * @param error The reason the page was not loaded.
+   */
+  private void pageLoadFailed(HistoryCommitTableModel model, IOException error) {
+    if (historyTable.getModel() == model) {
+      String[] options = new String[] { 
+          "   " + TRANSLATOR.getTranslation(Tags.RETRY) + "   ",
+          "   " + TRANSLATOR.getTranslation(Tags.CANCEL) + "   "};
+      int[] optionIds = new int[] { 0, 1 };
+      int result = PluginWorkspaceProvider.getPluginWorkspace().showConfirmDialog(
+          TRANSLATOR.getTranslation(Tags.GIT_HISTORY),
+          MessageFormat.format(TRANSLATOR.getTranslation(Tags.LOAD_HISTORY_PAGE_FAILED), error.getMessage()),
+          options,
+          optionIds);
+      if (result == optionIds[0] && historyTable.getModel() == model) {
+        model.retryLoadNextPage();
+      }
+    }
+  }
+
+  /**
+   * Loads the next page of the history if the last loaded commits are visible.
+   */
+  private void loadNextPageIfNeeded() {
+    TableModel model = historyTable.getModel();
+    if (model instanceof HistoryCommitTableModel && ((HistoryCommitTableModel) model).hasMorePages()) {
+      Rectangle visible = historyTable.getVisibleRect();
+      int lastVisibleRow = historyTable.rowAtPoint(new Point(0, visible.y + visible.height - 1));
+      if (lastVisibleRow == -1 || lastVisibleRow >= model.getRowCount() - PagedHistory.PAGE_SIZE / 2) {
+        ((HistoryCommitTableModel) model).loadNextPage();
+      }
+    }
+  }
+  
+
   /**
    * Gets the tags from the current repository.
    * 
@@ -1074,16 +1171,13 @@ public class HistoryPanel extends JPanel {
   private void selectCommit(ObjectId id) {
     SwingUtilities.invokeLater(() -> {
       HistoryCommitTableModel model = (HistoryCommitTableModel) historyTable.getModel();
-      List<CommitCharacteristics> commits = model.getAllCommits();
-      for (int i = 0; i < commits.size(); i++) {
-        CommitCharacteristics commitCharacteristics = commits.get(i);
-        if (id.getName().equals(commitCharacteristics.getCommitId())) {
-          final int sel = i;
-          historyTable.scrollRectToVisible(historyTable.getCellRect(sel, 0, true));
-          historyTable.getSelectionModel().setSelectionInterval(sel, sel);
-          break;
-        }
-      }
+      // The commit might be in a page that is not loaded yet.
+      model.findCommit(
+          commitCharacteristics -> id.getName().equals(commitCharacteristics.getCommitId()),
+          sel -> {
+            historyTable.scrollRectToVisible(historyTable.getCellRect(sel, 0, true));
+            historyTable.getSelectionModel().setSelectionInterval(sel, sel);
+          });
     });
   }
 
@@ -0,0 +1,260 @@
+package com.oxygenxml.git.view.refresh;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
+import com.oxygenxml.git.service.annotation.TestOnly;
+import com.oxygenxml.git.utils.RepositoryStatusInfo;
+import com.oxygenxml.git.utils.RepositoryStatusInfo.RepositoryStatus;
+
+/**
+ * Fetches from the remote repository on the network lane of the {@link GitOperationScheduler},
+ * so that refreshing the local status never waits on the network. A fetch runs at most once per interval,
+ * even if it is requested more often, and never while another one is in flight. While
+ * the remote is unreachable, the interval grows exponentially. The periodic fetches
+ * never ask the user for credentials.
+ */
+public class FetchScheduler {
+  /**
+   * Executes a fetch.
+   */
+  @FunctionalInterface
+  public interface FetchTask {
+    /**
+     * Fetches from the remote repository.
+     * 
+     * @param gitDir      The Git directory of the repository to fetch.
+     * @param interactive <code>false</code> if the user must not be asked for credentials.
+     * 
+     * @return The state of the remote repository or <code>null</code> if the repository
+     * is no longer the current one and nothing was fetched.
+     */
+    RepositoryStatusInfo fetch(File gitDir, boolean interactive);
+  }
+
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(FetchScheduler.class);
+  /**
+   * The default interval between two fetches. Milliseconds.
+   */
+  public static final long DEFAULT_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+  /**
+   * The longest interval between two fetches, when the remote repository is unreachable. Milliseconds.
+   */
+  static final long MAX_BACKOFF_INTERVAL = TimeUnit.MINUTES.toMillis(30);
+
+  /**
+   * Executes the fetch.
+   */
+  private final FetchTask fetchTask;
+  /**
+   * Receives the result of each fetch, on the network lane.
+   */
+  private final Consumer<RepositoryStatusInfo> resultHandler;
+  /**
+   * The interval between two fetches while the remote is reachable. Milliseconds.
+   */
+  private final long interval;
+  /**
+   * Executes the fetches.
+   */
+  private final GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+  /**
+   * <code>true</code> after the periodic fetches were stopped.
+   */
+  private volatile boolean stopped;
+  /**
+   * <code>true</code> while a fetch is scheduled to run now or is running.
+   */
+  private final AtomicBoolean inFlight = new AtomicBoolean();
+  /**
+   * The next periodic fetch.
+   */
+  private ScheduledFuture<?> nextFetch;
+  /**
+   * The Git directory of the repository fetched last.
+   */
+  private File lastRepository;
+  /**
+   * When the last fetch finished. Milliseconds.
+   */
+  private long lastFetchTime;
+  /**
+   * The number of consecutive fetches that failed to reach the remote.
+   */
+  private int failures;
+
+  /**
+   * Constructor.
+   *
+   * @param fetchTask     Executes the fetch.
+   * @param resultHandler Receives the result of each fetch, on the network lane.
+   * @param interval      The interval between two fetches while the remote is reachable. Milliseconds.
+   */
+  public FetchScheduler(
+      FetchTask fetchTask,
+      Consumer<RepositoryStatusInfo> resultHandler,
+      long interval) {
+    this.fetchTask = fetchTask;
+    this.resultHandler = resultHandler;
+    this.interval = interval;
+  }
+
+  /**
+   * Requests a fetch. It runs right away for a repository not fetched before or if
+   * the current interval has passed since the last fetch. Otherwise the request is
+   * ignored, a periodic fetch being already scheduled. The user may be asked for credentials.
+   *
+   * @param gitDir The Git directory of the current repository.
+   */
+  public synchronized void requestFetch(File gitDir) {
+    if (inFlight.get() || stopped) {
+      LOGGER.debug("Fetch already in progress");
+      return;
+    }
+
+    if (!Objects.equals(gitDir, lastRepository)) {
+      // Another repository. Start over.
+      lastRepository = gitDir;
+      failures = 0;
+      lastFetchTime = 0;
+    }
+
+    if (System.currentTimeMillis() - lastFetchTime >= getCurrentInterval()) {
+      if (nextFetch != null) {
+        nextFetch.cancel(false);
+      }
+      inFlight.set(true);
+      scheduler.schedule(Lane.NETWORK, Priority.BACKGROUND, null, () -> fetch(gitDir, true), 0);
+    }
+  }
+
+  /**
+   * The current repository changed. The periodic fetches of the previous repository
+   * stop and the result of a fetch still in flight for it is dropped. The new
+   * repository is fetched periodically.
+   * 
+   * @param gitDir The Git directory of the new repository. <code>null</code> if there is none.
+   */
+  public synchronized void repositoryChanged(File gitDir) {
+    if (stopped || Objects.equals(gitDir, lastRepository)) {
+      return;
+    }
+    
+    if (nextFetch != null) {
+      nextFetch.cancel(false);
+      nextFetch = null;
+    }
+    lastRepository = gitDir;
+    failures = 0;
+    lastFetchTime = 0;
+    if (gitDir != null) {
+      nextFetch = scheduler.schedule(Lane.NETWORK, Priority.BACKGROUND, null, this::periodicFetch, (int) interval);
+    }
+  }
+
+  /**
+   * A periodic fetch of the current repository. Skipped if a requested fetch is already in flight.
+   */
+  private void periodicFetch() {
+    File gitDir;
+    synchronized (this) {
+      gitDir = lastRepository;
+    }
+    if (gitDir != null && inFlight.compareAndSet(false, true)) {
+      fetch(gitDir, false);
+    }
+  }
+
+  /**
+   * Executes a fetch, publishes its result and schedules the next one.
+   * 
+   * @param gitDir      The Git directory of the repository to fetch.
+   * @param interactive <code>false</code> if the user must not be asked for credentials.
+   */
+  private void fetch(File gitDir, boolean interactive) {
+    RepositoryStatusInfo result;
+    try {
+      result = fetchTask.fetch(gitDir, interactive);
+    } catch (RuntimeException e) {
+      LOGGER.error(e.getMessage(), e);
+      result = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, e.getMessage());
+    }
+
+    synchronized (this) {
+      boolean current = result != null && gitDir.equals(lastRepository);
+      if (current) {
+        lastFetchTime = System.currentTimeMillis();
+        if (result.getRepoStatus() == RepositoryStatus.UNAVAILABLE) {
+          failures++;
+        } else {
+          failures = 0;
+        }
+      } else {
+        // The repository changed while fetching.
+        result = null;
+      }
+      if (!stopped && lastRepository != null && (current || nextFetch == null || nextFetch.isDone())) {
+        nextFetch = scheduler.schedule(
+            Lane.NETWORK, Priority.BACKGROUND, null, this::periodicFetch, (int) getCurrentInterval());
+      }
+      inFlight.set(false);
+    }
+
+    if (result != null) {
+      try {
+        resultHandler.accept(result);
+      } catch (RuntimeException e) {
+        LOGGER.error(e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * @return The interval until the next fetch, taking the failures into account. Milliseconds.
+   */
+  synchronized long getCurrentInterval() {
+    long current = interval;
+    for (int i = 0; i < failures && current < MAX_BACKOFF_INTERVAL; i++) {
+      current *= 2;
+    }
+    return Math.max(interval, Math.min(current, MAX_BACKOFF_INTERVAL));
+  }
+
+  /**
+   * Stops the periodic fetches.
+   */
+  public synchronized void shutdown() {
+    stopped = true;
+    if (nextFetch != null) {
+      nextFetch.cancel(false);
+    }
+  }
+
+  /**
+   * Waits for the fetch in progress, if any.
+   *
+   * @param timeout The maximum time to wait. Milliseconds.
+   *
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  @TestOnly
+  public void waitForFetch(long timeout) throws InterruptedException {
+    long end = System.currentTimeMillis() + timeout;
+    while (inFlight.get() && System.currentTimeMillis() < end) {
+      Thread.sleep(20);
+    }
+  }
+}
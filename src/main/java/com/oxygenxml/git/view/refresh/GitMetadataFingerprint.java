@@ -0,0 +1,130 @@
+package com.oxygenxml.git.view.refresh;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.lib.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The last modification time and size of the Git metadata files that change when the
+ * repository changes: HEAD, the index, the configuration, the references and the
+ * files that mark a merge, rebase, cherry-pick or revert in progress. Only the file
+ * attributes are read, never the content.
+ */
+public final class GitMetadataFingerprint {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(GitMetadataFingerprint.class);
+
+  /**
+   * A file modified this recently might be modified again without its modification
+   * time changing, on file systems with a coarse time resolution. Milliseconds.
+   */
+  private static final long RACY_INTERVAL = 2500;
+
+  /**
+   * The metadata files, relative to the Git directory.
+   */
+  private static final String[] METADATA_FILES = {
+      Constants.HEAD,
+      "index",
+      Constants.CONFIG,
+      Constants.PACKED_REFS,
+      Constants.MERGE_HEAD,
+      Constants.CHERRY_PICK_HEAD,
+      Constants.REVERT_HEAD,
+      "rebase-merge",
+      "rebase-apply"
+  };
+
+  /**
+   * The Git directory.
+   */
+  private final File gitDir;
+  /**
+   * The name, last modification time and size of each metadata file.
+   */
+  private final List<String> entries;
+  /**
+   * <code>true</code> if a file was modified too recently for its modification time to be trusted.
+   */
+  private final boolean racy;
+
+  /**
+   * Constructor.
+   *
+   * @param gitDir  The Git directory.
+   * @param entries The name, last modification time and size of each metadata file.
+   * @param racy    <code>true</code> if a file was modified too recently for its modification time to be trusted.
+   */
+  private GitMetadataFingerprint(File gitDir, List<String> entries, boolean racy) {
+    this.gitDir = gitDir;
+    this.entries = entries;
+    this.racy = racy;
+  }
+
+  /**
+   * Computes the fingerprint of a repository.
+   *
+   * @param gitDir The Git directory.
+   *
+   * @return The fingerprint.
+   */
+  public static GitMetadataFingerprint compute(File gitDir) {
+    long racyLimit = System.currentTimeMillis() - RACY_INTERVAL;
+    long lastModified = 0;
+    List<String> entries = new ArrayList<>();
+    for (String name : METADATA_FILES) {
+      File file = new File(gitDir, name);
+      long modified = file.lastModified();
+      lastModified = Math.max(lastModified, modified);
+      entries.add(name + ":" + modified + ":" + file.length());
+    }
+
+    Path refsDir = new File(gitDir, Constants.R_REFS).toPath();
+    if (Files.isDirectory(refsDir)) {
+      List<String> refs = new ArrayList<>();
+      try (Stream<Path> paths = Files.walk(refsDir)) {
+        for (Iterator<Path> iterator = paths.iterator(); iterator.hasNext();) {
+          Path path = iterator.next();
+          File file = path.toFile();
+          long modified = file.lastModified();
+          lastModified = Math.max(lastModified, modified);
+          refs.add(refsDir.relativize(path) + ":" + modified + ":" + file.length());
+        }
+      } catch (IOException | UncheckedIOException e) {
+        // A reference deleted while walking, for example. Don't trust this fingerprint.
+        LOGGER.debug(e.getMessage(), e);
+        lastModified = Long.MAX_VALUE;
+      }
+      Collections.sort(refs);
+      entries.addAll(refs);
+    }
+
+    return new GitMetadataFingerprint(gitDir.getAbsoluteFile(), entries, lastModified > racyLimit);
+  }
+
+  /**
+   * @param previous The fingerprint computed before. May be <code>null</code>.
+   *
+   * @return <code>true</code> if the repository surely didn't change since the previous
+   * fingerprint was computed.
+   */
+  public boolean isUnchangedSince(GitMetadataFingerprint previous) {
+    return previous != null
+        && !previous.racy
+        && gitDir.equals(previous.gitDir)
+        && entries.equals(previous.entries);
+  }
+}
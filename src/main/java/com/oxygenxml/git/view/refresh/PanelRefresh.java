@@ -1,11 +1,12 @@
 package com.oxygenxml.git.view.refresh;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.function.Supplier;
 
@@ -17,16 +18,26 @@ import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.ProjectHelper;
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.CommitGraphMaintainer;
 import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitEventAdapter;
+import com.oxygenxml.git.service.GitListeners;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.service.GitStatus;
+import com.oxygenxml.git.service.GitStatusDelta;
+import com.oxygenxml.git.service.OperationProgress;
 import com.oxygenxml.git.service.RemoteRepositoryChangeWatcher;
+import com.oxygenxml.git.service.RunningOperations;
 import com.oxygenxml.git.service.annotation.TestOnly;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.service.exceptions.PrivateRepositoryException;
 import com.oxygenxml.git.service.exceptions.RepositoryUnavailableException;
 import com.oxygenxml.git.service.exceptions.SSHPassphraseRequiredException;
+import com.oxygenxml.git.service.metrics.GitMetrics;
+import com.oxygenxml.git.service.metrics.GitMetrics.Timing;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.RepositoryStatusInfo;
@@ -36,7 +47,10 @@ import com.oxygenxml.git.view.branches.BranchManagementPanel;
 import com.oxygenxml.git.view.branches.BranchesUtil;
 import com.oxygenxml.git.view.dialog.LoginDialog;
 import com.oxygenxml.git.view.dialog.PassphraseDialog;
+import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
 import com.oxygenxml.git.view.history.HistoryPanel;
+import com.oxygenxml.git.view.refresh.RepositorySnapshot.Part;
 import com.oxygenxml.git.view.staging.BranchSelectionCombo;
 import com.oxygenxml.git.view.staging.ChangesPanel;
 import com.oxygenxml.git.view.staging.StagingPanel;
@@ -72,6 +86,10 @@ public class PanelRefresh implements GitRefreshSupport {
 	 * Translation support.
 	 */
 	private static final Translator TRANSLATOR = Translator.getInstance();
+	/**
+	 * Coalescing key for the refresh tasks.
+	 */
+	private static final String REFRESH_KEY = "refresh-status";
 	/**
 	 * Refresh executor.
 	 */
@@ -81,17 +99,38 @@ public class PanelRefresh implements GitRefreshSupport {
 	 */
 	private ScheduledFuture<?> refreshFuture;
 	/**
-	 * Repository change watcher.
+	 * Recomputes the views only when they present stale data.
 	 */
-	private RemoteRepositoryChangeWatcher watcher;
+	private final StaleViewsTracker staleViews = new StaleViewsTracker();
+	/**
+	 * The Git metadata presented by the last complete refresh.
+	 */
+	private volatile GitMetadataFingerprint lastRefreshFingerprint;
+	/**
+	 * Fetches from the remote repository without delaying the refresh.
+	 */
+	private final FetchScheduler fetchScheduler = new FetchScheduler(
+	    this::fetch, this::fetchDone, FetchScheduler.DEFAULT_INTERVAL);
 	/**
-	 * Branch management panel.
+	 * Reschedules the periodic fetches when another repository is opened.
 	 */
-	private BranchManagementPanel branchesPanel;
+	private final GitEventAdapter repositoryListener = new GitEventAdapter() {
+	  @Override
+	  public void operationSuccessfullyEnded(GitEventInfo info) {
+	    if (info.getGitOperation() == GitOperation.OPEN_WORKING_COPY) {
+	      Repository repository = getCurrentRepository();
+	      fetchScheduler.repositoryChanged(repository != null ? repository.getDirectory() : null);
+	    }
+	  }
+	};
+	/**
+	 * <code>true</code> if the last refresh found uncommitted changes.
+	 */
+	private volatile boolean uncommittedChanges;
 	/**
-	 * History panel.
+	 * Repository change watcher.
 	 */
-	private HistoryPanel historyPanel;
+	private RemoteRepositoryChangeWatcher watcher;
 	
 	/**
 	 * Supplies a listener that will be used to notify when different 
@@ -103,6 +142,15 @@ public class PanelRefresh implements GitRefreshSupport {
 	 * Refresh task.
 	 */
 	private Runnable refreshRunnable = () -> {
+		try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH)) {
+		  refresh();
+		}
+	};
+
+	/**
+	 * Refreshes the views that present stale data.
+	 */
+	private void refresh() {
 		LOGGER.debug("Start refresh on thread.");
 
 		boolean isAfterRestart = !ProjectHelper.getInstance().wasProjectLoaded();
@@ -110,23 +158,27 @@ public class PanelRefresh implements GitRefreshSupport {
 			try {
 				Repository repository = gitAccess.getRepository();
 				if (repository != null) {
+					GitMetadataFingerprint fingerprint = GitMetadataFingerprint.compute(repository.getDirectory());
+					if (fingerprint.isUnchangedSince(lastRefreshFingerprint)
+					    && !gitAccess.getStatusCache().hasPendingChanges()) {
+					  LOGGER.debug("Nothing changed since the last refresh.");
+					  return;
+					}
+
+					GitStatus status;
 					if (stagingPanel != null) {
-					  // refresh the states of the actions
-					  stagingPanel.getGitActionsManager().refreshActionsStates();
-					  
-					  // call the listener; can be null from tests
-					  Optional.ofNullable(updateActionsStatesListenerSupplier)
-  					  .filter(t -> Objects.nonNull(t.get()))
-  					  .map(Supplier<UpdateActionsStatesListener>::get)
-  					  .ifPresent(UpdateActionsStatesListener::updateButtonStates);
-					  
-					  Optional.ofNullable(stagingPanel.getBranchesCombo()).ifPresent(BranchSelectionCombo::refresh);
-					  
-					  // refresh the buttons
-					  stagingPanel.updateConflictButtonsPanelBasedOnRepoState();
-					  stagingPanel.updateToolbarsButtonsStates();
+						// Present the status saved by the previous session while the actual one is computed.
+						GitStatus persistedStatus = gitAccess.getStatusCache().loadPersistedStatus();
+						if (persistedStatus != null) {
+						  updateFiles(
+						      stagingPanel.getUnstagedChangesPanel(), 
+						      persistedStatus.getUnstagedFiles());
+						  updateFiles(
+						      stagingPanel.getStagedChangesPanel(), 
+						      persistedStatus.getStagedFiles());
+						}
 						
-						GitStatus status = GitAccess.getInstance().getStatus();
+						status = getStatus(persistedStatus == null);
 						updateFiles(
 								stagingPanel.getUnstagedChangesPanel(), 
 								status.getUnstagedFiles());
@@ -134,32 +186,36 @@ public class PanelRefresh implements GitRefreshSupport {
 								stagingPanel.getStagedChangesPanel(), 
 								status.getStagedFiles());
 
-						RepositoryStatusInfo rstatus = fetch();
-						updateCounters(rstatus);
-
-						if (OptionsManager.getInstance().isNotifyAboutNewRemoteCommits()) {
-							// Make the check more frequently.
-							watcher.checkRemoteRepository(false);
+						// The remote is contacted on its own thread. The counters are updated when the fetch ends.
+						fetchScheduler.requestFetch(repository.getDirectory());
+					} else {
+						try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_STATUS)) {
+						  status = gitAccess.getStatusCache().getStatus();
 						}
-						
-					}
-					if(branchesPanel != null && branchesPanel.isShowing()) {
-						branchesPanel.refreshBranches();
-					}
-					if (historyPanel != null && historyPanel.isShowing()) {
-						historyPanel.scheduleRefreshHistory();
 					}
 
+					// Recompute only the views that present a changed part of the repository.
+					uncommittedChanges = status.hasUncommittedChanges();
+					staleViews.repositoryChanged(RepositorySnapshot.take(repository, status.hasUncommittedChanges()));
+
+					// Index the new commits for the revision walks.
+					CommitGraphMaintainer.getInstance().scheduleUpdate(repository);
+
 					// EXM-47079 Rewrite the fetch property with wildcards.
 					BranchesUtil.fixupFetchInConfig(GitAccess.getInstance().getRepository().getConfig());
+
+					lastRefreshFingerprint = fingerprint;
 				}
 			} catch (NoRepositorySelected | IOException e) {
 				LOGGER.debug(e.getMessage(), e);
+			} catch (CancellationException e) {
+			  // The user cancelled the status computation. The next refresh computes it again.
+			  LOGGER.debug(e.getMessage(), e);
 			}
 		}
 
 		LOGGER.debug("End refresh on thread.");
-	};
+	}
 
 	/**
 	 * Constructor.
@@ -180,6 +236,7 @@ public class PanelRefresh implements GitRefreshSupport {
 	public PanelRefresh(RemoteRepositoryChangeWatcher watcher, Supplier<UpdateActionsStatesListener> updateActionsStatesListenerSupplier) {
 		this.watcher = watcher;
 		this.updateActionsStatesListenerSupplier = updateActionsStatesListenerSupplier;
+		GitListeners.getInstance().addGitListener(repositoryListener);
 	}
 	
 	/**
@@ -187,11 +244,36 @@ public class PanelRefresh implements GitRefreshSupport {
 	 */
 	@Override
 	public void call() {
-		if (refreshFuture != null && !refreshFuture.isDone()) {
-			LOGGER.debug("cancel refresh task");
-			refreshFuture.cancel(true);
-		}
-		refreshFuture = refreshExecutor.schedule(refreshRunnable, getScheduleDelay());
+		// A refresh that hasn't started yet will also cover this request. It is not
+		// postponed, so a stream of requests still refreshes the views periodically.
+		refreshFuture = refreshExecutor.schedule(
+		    Lane.READ, Priority.BACKGROUND, REFRESH_KEY, refreshRunnable, getScheduleDelay());
+	}
+
+	/**
+	 * Recomputes the states of the actions, the branches combo and the toolbar buttons.
+	 */
+	private void refreshStagingStates() {
+	  try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_ACTIONS)) {
+	    // refresh the states of the actions
+	    stagingPanel.getGitActionsManager().refreshActionsStates();
+
+	    // call the listener; can be null from tests
+	    Optional.ofNullable(updateActionsStatesListenerSupplier)
+	      .filter(t -> Objects.nonNull(t.get()))
+	      .map(Supplier<UpdateActionsStatesListener>::get)
+	      .ifPresent(UpdateActionsStatesListener::updateButtonStates);
+	  }
+
+	  try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_BRANCH_COMBO)) {
+	    Optional.ofNullable(stagingPanel.getBranchesCombo()).ifPresent(BranchSelectionCombo::refresh);
+	  }
+
+	  try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_ACTIONS)) {
+	    // refresh the buttons
+	    stagingPanel.updateConflictButtonsPanelBasedOnRepoState();
+	    stagingPanel.updateToolbarsButtonsStates();
+	  }
 	}
 
 	/**
@@ -202,31 +284,93 @@ public class PanelRefresh implements GitRefreshSupport {
 	}
 
 	/**
-	 * Update the counters presented on the Pull/Push toolbar action.
+	 * Gets the status of the working copy. The computation is presented as a running
+	 * operation, so the user can cancel it.
+	 * 
+	 * @param stream <code>true</code> to present the status in the empty panels while it is computed.
+	 * 
+	 * @return The status.
+	 * 
+	 * @throws CancellationException If the user cancelled the computation.
+	 */
+	private GitStatus getStatus(boolean stream) {
+	  ChangesPanel unstagedPanel = stagingPanel.getUnstagedChangesPanel();
+	  ChangesPanel stagedPanel = stagingPanel.getStagedChangesPanel();
+	  GitStatus status;
+	  OperationProgress progress = RunningOperations.getInstance().begin(
+	      TRANSLATOR.getTranslation(Tags.COMPUTING_STATUS));
+	  try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_STATUS)) {
+	    if (stream && unstagedPanel.getFilesStatuses().isEmpty() && stagedPanel.getFilesStatuses().isEmpty()) {
+	      status = gitAccess.getStatus(batch -> {
+	        unstagedPanel.append(batch.getUnstagedFiles());
+	        stagedPanel.append(batch.getStagedFiles());
+	      }, progress);
+	    } else {
+	      status = gitAccess.getStatus(null, progress);
+	    }
+	  } finally {
+	    RunningOperations.getInstance().end(progress);
+	  }
+	  return status;
+	}
+
+	/**
+	 * Publishes the result of a fetch: the state of the remote, the commits ahead and behind it
+	 * and the new remote branches and commits in the views that present them.
 	 * 
-	 * @param status The current status.
+	 * @param status The state of the remote repository.
 	 */
-	private void updateCounters(RepositoryStatusInfo status) {
-		stagingPanel.getCommitPanel().setRepoStatus(status);
+	private void fetchDone(RepositoryStatusInfo status) {
+	  refreshExecutor.schedule(Lane.READ, Priority.BACKGROUND, null, () -> {
+	    Repository repository = getCurrentRepository();
+	    if (stagingPanel != null && repository != null) {
+	      try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_COUNTERS)) {
+	        stagingPanel.getCommitPanel().setRepoStatus(status);
+	      }
+
+	      try {
+	        // The remote-tracking branches changed. Refreshes the toolbar, the actions,
+	        // the branches combo and the Branches and History views.
+	        staleViews.repositoryChanged(RepositorySnapshot.take(repository, uncommittedChanges));
+	      } catch (IOException e) {
+	        LOGGER.debug(e.getMessage(), e);
+	      }
+
+	      if (watcher != null && OptionsManager.getInstance().isNotifyAboutNewRemoteCommits()) {
+	        // Make the check more frequently.
+	        try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_REMOTE_WATCHER)) {
+	          watcher.checkRemoteRepository(false);
+	        }
+	      }
+	    }
+	  }, 0);
 	}
 
 	/**
 	 * Fetch the latest changes from the remote repository.
 	 * 
-	 * @return Repository status.
+	 * @param gitDir      The Git directory of the repository to fetch.
+	 * @param interactive <code>false</code> to fail silently instead of asking the user for credentials.
+	 * 
+	 * @return Repository status or <code>null</code> if the repository is no longer the current one.
 	 */
-	private RepositoryStatusInfo fetch() {
+	private RepositoryStatusInfo fetch(File gitDir, boolean interactive) {
+		Repository repository = getCurrentRepository();
+		if (repository == null || !repository.getDirectory().equals(gitDir)) {
+		  return null;
+		}
+
 		// Connect to the remote.
 		RepositoryStatusInfo statusInfo = new RepositoryStatusInfo(RepositoryStatus.AVAILABLE);
-		try {
-			GitAccess.getInstance().fetch();
+		try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_FETCH)) {
+			GitAccess.getInstance().fetch(interactive);
 		} catch (RepositoryUnavailableException e) {
 			statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
 		} catch (SSHPassphraseRequiredException e) {
 			statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
 
 			String sshPassphrase = OptionsManager.getInstance().getSshPassphrase();
-			if (sshPassphrase != null && !sshPassphrase.isEmpty()) {
+			if (interactive && sshPassphrase != null && !sshPassphrase.isEmpty()) {
 				// If the passphrase is null or empty, it is already treated by
 				// com.oxygenxml.git.auth.SSHCapableUserCredentialsProvider.get(URIish, CredentialItem...)
 
@@ -235,17 +379,19 @@ public class PanelRefresh implements GitRefreshSupport {
 						+ TRANSLATOR.getTranslation(Tags.PLEASE_TRY_AGAIN);
 				String passphrase = new PassphraseDialog(message).getPassphrase();
 				if(passphrase != null) {
-					return fetch();
+					return fetch(gitDir, true);
 				}
 			}
 		} catch (PrivateRepositoryException e) {
 			statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
 
-			LoginDialog loginDlg = new LoginDialog(
-					GitAccess.getInstance().getHostName(), 
-					TRANSLATOR.getTranslation(Tags.LOGIN_DIALOG_PRIVATE_REPOSITORY_MESSAGE));
-			if (loginDlg.getCredentials() != null) {
-				return fetch();
+			if (interactive) {
+			  LoginDialog loginDlg = new LoginDialog(
+			      GitAccess.getInstance().getHostName(), 
+			      TRANSLATOR.getTranslation(Tags.LOGIN_DIALOG_PRIVATE_REPOSITORY_MESSAGE));
+			  if (loginDlg.getCredentials() != null) {
+			    return fetch(gitDir, true);
+			  }
 			}
 		} catch (Exception e) {
 			statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
@@ -254,6 +400,19 @@ public class PanelRefresh implements GitRefreshSupport {
 		return statusInfo;
 	}
 
+	/**
+	 * @return The current repository or <code>null</code>.
+	 */
+	private Repository getCurrentRepository() {
+	  Repository repository = null;
+	  try {
+	    repository = gitAccess.getRepository();
+	  } catch (NoRepositorySelected e) {
+	    LOGGER.debug(e.getMessage(), e);
+	  }
+	  return repository;
+	}
+
 	/**
 	 * Compute status extra info.
 	 * 
@@ -282,28 +441,21 @@ public class PanelRefresh implements GitRefreshSupport {
 	 * @param newfiles The new files to be presented in the panel.
 	 */
 	private void updateFiles(ChangesPanel panelToUpdate, final List<FileStatus> newfiles) {
-		// The current files presented in the panel.
-		List<FileStatus> filesInModel = panelToUpdate.getFilesStatuses();
-
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("New files      " + newfiles);
-			LOGGER.debug("Files in model " + filesInModel);
 		}
 
-		// Quick change detection.
-		boolean changeDetected = newfiles.size() != filesInModel.size();
-		if (!changeDetected) {
-			// Same size. Sort and compare files.
-			Collections.sort(newfiles, (o1, o2) -> o1.getFileLocation().compareTo(o2.getFileLocation()));
-			List<FileStatus> sortedModel = new ArrayList<>(filesInModel.size());
-			Collections.sort(sortedModel, (o1, o2) -> o1.getFileLocation().compareTo(o2.getFileLocation()));
-
-			changeDetected = !newfiles.equals(sortedModel);
-		}
-
-		if (changeDetected) {
-			SwingUtilities.invokeLater(() -> panelToUpdate.update(newfiles));
-		}
+		// The files presented in the panel are only read and changed on the AWT thread.
+		SwingUtilities.invokeLater(() -> {
+		  GitStatusDelta delta = GitStatusDelta.compute(panelToUpdate.getFilesStatuses(), newfiles);
+		  // An unchanged working copy costs no UI work.
+		  if (!delta.isEmpty()) {
+		    if (LOGGER.isDebugEnabled()) {
+		      LOGGER.debug("Apply status delta: " + delta);
+		    }
+		    panelToUpdate.applyDelta(delta);
+		  }
+		});
 	}
 
 	/**
@@ -313,6 +465,14 @@ public class PanelRefresh implements GitRefreshSupport {
 	 */
 	public void setStagingPanel(StagingPanel stagingPanel) {
 		this.stagingPanel = stagingPanel;
+		lastRefreshFingerprint = null;
+		if (stagingPanel != null) {
+			// The actions are also presented in the menus, so they are kept up to date even if the view is hidden.
+			staleViews.registerAlwaysPresented(
+			    "staging",
+			    EnumSet.allOf(Part.class),
+			    this::refreshStagingStates);
+		}
 	}
 
 	/**
@@ -321,7 +481,18 @@ public class PanelRefresh implements GitRefreshSupport {
 	 * @param branchesPanel The branch manager panel.
 	 */
 	public void setBranchPanel(BranchManagementPanel branchesPanel) {
-		this.branchesPanel = branchesPanel;
+		lastRefreshFingerprint = null;
+		if (branchesPanel != null) {
+			staleViews.register(
+			    "branches",
+			    branchesPanel,
+			    EnumSet.of(Part.HEAD, Part.REFS, Part.CONFIG),
+			    () -> {
+			      try (Timing timing = GitMetrics.getInstance().time(GitMetrics.REFRESH_BRANCH_PANEL)) {
+			        branchesPanel.refreshBranches();
+			      }
+			    });
+		}
 	}
 
 	/**
@@ -330,7 +501,14 @@ public class PanelRefresh implements GitRefreshSupport {
 	 * @param historyPanel The history panel.
 	 */
 	public void setHistoryPanel(HistoryPanel historyPanel) {
-		this.historyPanel = historyPanel;
+		lastRefreshFingerprint = null;
+		if (historyPanel != null) {
+			staleViews.register(
+			    "history",
+			    historyPanel,
+			    EnumSet.of(Part.HEAD, Part.REFS, Part.UNCOMMITTED_CHANGES),
+			    historyPanel::scheduleRefreshHistory);
+		}
 	}
 
 	/**
@@ -342,6 +520,8 @@ public class PanelRefresh implements GitRefreshSupport {
 			refreshFuture.cancel(false);
 		}
 		refreshExecutor.shutdown();
+		fetchScheduler.shutdown();
+		GitListeners.getInstance().removeGitListener(repositoryListener);
 	}
 
 	/**
@@ -0,0 +1,193 @@
+package com.oxygenxml.git.view.refresh;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+import com.oxygenxml.git.utils.RepoUtil;
+
+/**
+ * A cheap snapshot of the repository parts presented by the Git views. Two snapshots
+ * are compared to find out if a view presents stale data.
+ */
+public final class RepositorySnapshot {
+
+  /**
+   * The parts of the repository a view can depend on.
+   */
+  public enum Part {
+    /**
+     * The checked out branch or commit and the state of the repository (merging, rebasing, etc).
+     */
+    HEAD,
+    /**
+     * The branches, tags and stashes.
+     */
+    REFS,
+    /**
+     * The index.
+     */
+    INDEX,
+    /**
+     * The repository configuration: remotes, upstream branches.
+     */
+    CONFIG,
+    /**
+     * Whether there are uncommitted changes.
+     */
+    UNCOMMITTED_CHANGES
+  }
+
+  /**
+   * The Git directory.
+   */
+  private final File gitDir;
+  /**
+   * The full name of the checked out branch, the commit and the repository state.
+   */
+  private final String head;
+  /**
+   * A hash of the names and targets of all the references.
+   */
+  private final int refs;
+  /**
+   * The generation of the index file: last modification time and size.
+   */
+  private final String index;
+  /**
+   * The generation of the configuration file: last modification time and size.
+   */
+  private final String config;
+  /**
+   * <code>true</code> if there are uncommitted changes.
+   */
+  private final boolean uncommittedChanges;
+
+  /**
+   * Constructor.
+   *
+   * @param gitDir             The Git directory.
+   * @param head               The full name of the checked out branch, the commit and the repository state.
+   * @param refs               A hash of the names and targets of all the references.
+   * @param index              The generation of the index file.
+   * @param config             The generation of the configuration file.
+   * @param uncommittedChanges <code>true</code> if there are uncommitted changes.
+   */
+  private RepositorySnapshot(
+      File gitDir,
+      String head,
+      int refs,
+      String index,
+      String config,
+      boolean uncommittedChanges) {
+    this.gitDir = gitDir;
+    this.head = head;
+    this.refs = refs;
+    this.index = index;
+    this.config = config;
+    this.uncommittedChanges = uncommittedChanges;
+  }
+
+  /**
+   * Takes a snapshot. Only the references and a few file attributes are read.
+   *
+   * @param repository         The repository.
+   * @param uncommittedChanges <code>true</code> if there are uncommitted changes.
+   *
+   * @return The snapshot.
+   *
+   * @throws IOException Unable to read the references.
+   */
+  public static RepositorySnapshot take(Repository repository, boolean uncommittedChanges) throws IOException {
+    File gitDir = repository.getDirectory();
+
+    Ref headRef = repository.exactRef(Constants.HEAD);
+    ObjectId headId = headRef != null ? headRef.getObjectId() : null;
+    String head = repository.getFullBranch()
+        + ":" + (headId != null ? headId.name() : null)
+        + ":" + repository.getRepositoryState();
+
+    int refs = RepoUtil.hashRefs(repository.getRefDatabase().getRefs());
+
+    return new RepositorySnapshot(
+        gitDir,
+        head,
+        refs,
+        getGeneration(repository.getIndexFile()),
+        getGeneration(new File(gitDir, Constants.CONFIG)),
+        uncommittedChanges);
+  }
+
+  /**
+   * @param file A file.
+   *
+   * @return The last modification time and the size of the file.
+   */
+  private static String getGeneration(File file) {
+    return file.lastModified() + ":" + file.length();
+  }
+
+  /**
+   * Checks if a view that presented another snapshot is stale.
+   *
+   * @param presented The snapshot presented by the view. May be <code>null</code>.
+   * @param parts     The parts the view depends on.
+   *
+   * @return <code>true</code> if any of the given parts differs or if the snapshots
+   * come from different repositories.
+   */
+  public boolean differsFrom(RepositorySnapshot presented, Set<Part> parts) {
+    boolean differs = presented == null || !gitDir.equals(presented.gitDir);
+    if (!differs) {
+      for (Part part : parts) {
+        if (differsIn(presented, part)) {
+          differs = true;
+          break;
+        }
+      }
+    }
+    return differs;
+  }
+
+  /**
+   * @param other Another snapshot of the same repository.
+   * @param part  A part of the repository.
+   *
+   * @return <code>true</code> if the part differs.
+   */
+  private boolean differsIn(RepositorySnapshot other, Part part) {
+    boolean differs;
+    switch (part) {
+      case HEAD:
+        differs = !head.equals(other.head);
+        break;
+      case REFS:
+        differs = refs != other.refs;
+        break;
+      case INDEX:
+        differs = !index.equals(other.index);
+        break;
+      case CONFIG:
+        differs = !config.equals(other.config);
+        break;
+      case UNCOMMITTED_CHANGES:
+        differs = uncommittedChanges != other.uncommittedChanges;
+        break;
+      default:
+        differs = true;
+        break;
+    }
+    return differs;
+  }
+
+  @Override
+  public String toString() {
+    return "RepositorySnapshot [head=" + head + ", refs=" + refs + ", index=" + index
+        + ", config=" + config + ", uncommittedChanges=" + uncommittedChanges + "]";
+  }
+}
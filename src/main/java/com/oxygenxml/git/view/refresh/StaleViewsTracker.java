@@ -0,0 +1,157 @@
+package com.oxygenxml.git.view.refresh;
+
+import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
+import com.oxygenxml.git.view.refresh.RepositorySnapshot.Part;
+
+/**
+ * Keeps track of the repository state presented by each Git view. On a refresh only
+ * the views that are showing and depend on a changed part of the repository are
+ * recomputed. A hidden view is recomputed when it becomes visible, if it is stale.
+ */
+public class StaleViewsTracker {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(StaleViewsTracker.class);
+
+  /**
+   * A registered view.
+   */
+  private static final class TrackedView {
+    /**
+     * The name of the view.
+     */
+    private final String name;
+    /**
+     * The view. <code>null</code> if the view is recomputed even when it is not showing.
+     */
+    private final Component component;
+    /**
+     * The parts of the repository the view presents.
+     */
+    private final Set<Part> parts;
+    /**
+     * Recomputes the view.
+     */
+    private final Runnable refresh;
+    /**
+     * The snapshot the view presents. <code>null</code> until the view is computed.
+     */
+    private RepositorySnapshot presented;
+
+    /**
+     * Constructor.
+     *
+     * @param name      The name of the view.
+     * @param component The view.
+     * @param parts     The parts of the repository the view presents.
+     * @param refresh   Recomputes the view.
+     */
+    private TrackedView(String name, Component component, Set<Part> parts, Runnable refresh) {
+      this.name = name;
+      this.component = component;
+      this.parts = parts;
+      this.refresh = refresh;
+    }
+  }
+
+  /**
+   * The registered views, by name.
+   */
+  private final Map<String, TrackedView> views = new ConcurrentHashMap<>();
+
+  /**
+   * The latest snapshot of the repository.
+   */
+  private volatile RepositorySnapshot current;
+
+  /**
+   * Registers a view that is recomputed only while it is showing. Replaces the view
+   * previously registered with the same name.
+   *
+   * @param name      The name of the view.
+   * @param component The view.
+   * @param parts     The parts of the repository the view presents.
+   * @param refresh   Recomputes the view.
+   */
+  public void register(String name, Component component, Set<Part> parts, Runnable refresh) {
+    TrackedView view = new TrackedView(name, component, EnumSet.copyOf(parts), refresh);
+    views.put(name, view);
+    component.addHierarchyListener(e -> {
+      if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0
+          && component.isShowing()
+          && views.get(name) == view) {
+        GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.USER, () -> refreshIfStale(view));
+      }
+    });
+  }
+
+  /**
+   * Registers a view that is recomputed whenever it is stale, even if it is not showing.
+   * Used for the views whose state is also presented elsewhere, like the actions in menus.
+   *
+   * @param name    The name of the view.
+   * @param parts   The parts of the repository the view presents.
+   * @param refresh Recomputes the view.
+   */
+  public void registerAlwaysPresented(String name, Set<Part> parts, Runnable refresh) {
+    views.put(name, new TrackedView(name, null, EnumSet.copyOf(parts), refresh));
+  }
+
+  /**
+   * Records a new snapshot of the repository and recomputes the stale views that are showing.
+   *
+   * @param snapshot The new snapshot.
+   */
+  public void repositoryChanged(RepositorySnapshot snapshot) {
+    current = snapshot;
+    for (TrackedView view : views.values()) {
+      if (view.component == null || view.component.isShowing()) {
+        refreshIfStale(view);
+      }
+    }
+  }
+
+  /**
+   * Recomputes a view if it presents an older snapshot. If the refresh fails, the view
+   * remains stale.
+   *
+   * @param view The view.
+   */
+  private void refreshIfStale(TrackedView view) {
+    RepositorySnapshot snapshot = current;
+    RepositorySnapshot presented;
+    synchronized (view) {
+      presented = view.presented;
+    }
+
+    if (snapshot != null && snapshot.differsFrom(presented, view.parts)) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Refresh stale view " + view.name + " for " + snapshot);
+      }
+      try {
+        view.refresh.run();
+        synchronized (view) {
+          // Unless a concurrent refresh already presented another snapshot.
+          if (view.presented == presented) {
+            view.presented = snapshot;
+          }
+        }
+      } catch (RuntimeException e) {
+        LOGGER.error(e.getMessage(), e);
+      }
+    }
+  }
+}
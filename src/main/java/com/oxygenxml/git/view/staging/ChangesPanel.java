@@ -54,6 +54,7 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitEventAdapter;
+import com.oxygenxml.git.service.GitStatusDelta;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
@@ -63,6 +64,7 @@ import com.oxygenxml.git.utils.PlatformDetectionUtil;
 import com.oxygenxml.git.utils.RepoUtil;
 import com.oxygenxml.git.view.DiffPresenter;
 import com.oxygenxml.git.view.GitTreeNode;
+import com.oxygenxml.git.view.event.BatchGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.event.GitOperation;
 import com.oxygenxml.git.view.history.HistoryController;
@@ -103,6 +105,11 @@ public class ChangesPanel extends JPanel {
    * Scroll pane width.
    */
   private static final int CHANGES_SCROLL_PANE_WIDTH = 200;
+  
+  /**
+   * The maximum number of files added to the view at once, to keep the AWT thread responsive.
+   */
+  private static final int APPEND_CHUNK_SIZE = 500;
 
   /**
    * Provides the selected resources, sometimes filtered.
@@ -290,6 +297,17 @@ public class ChangesPanel extends JPanel {
         }
       }
       
+      @Override
+      public void operationsSuccessfullyEnded(BatchGitEventInfo batch) {
+        // Update the models once for the whole compound operation.
+        SwingUtilities.invokeLater(() -> ChangesPanel.this.fileStatesChanged(batch));
+      }
+      
+      @Override
+      public boolean isCoalesced() {
+        return true;
+      }
+      
       /**
        * Update models with newly detected files.
        * 
@@ -397,6 +415,53 @@ public class ChangesPanel extends JPanel {
   }
   
 	
+  /**
+   * Applies the differences from a newly computed status to the current view. Only the
+   * affected rows or nodes are updated, the selection and the expanded nodes are kept.
+   * Must be called on the AWT thread.
+   * 
+   * @param delta The differences between the presented files and the new ones.
+   */
+  public void applyDelta(GitStatusDelta delta) {
+    if (currentViewMode == ResourcesViewMode.FLAT_VIEW && filesTable != null) {
+      ((StagingResourcesTableModel) filesTable.getModel()).applyDelta(delta);
+    } else if (currentViewMode == ResourcesViewMode.TREE_VIEW && tree != null) {
+      ((StagingResourcesTreeModel) tree.getModel()).applyDelta(delta);
+    }
+    
+    toggleSelectedButton();
+  }
+	
+  /**
+   * Adds files to the view. Used to present a status while it is being computed.
+   * Can be called from any thread. The files are added on the AWT thread, in chunks.
+   * 
+   * @param newFiles The files to add. They must not be already presented.
+   */
+  public void append(List<FileStatus> newFiles) {
+    for (int i = 0; i < newFiles.size(); i += APPEND_CHUNK_SIZE) {
+      List<FileStatus> chunk = new ArrayList<>(newFiles.subList(i, Math.min(newFiles.size(), i + APPEND_CHUNK_SIZE)));
+      SwingUtilities.invokeLater(() -> appendChunk(chunk));
+    }
+  }
+  
+  /**
+   * Adds files to the current view.
+   * 
+   * @param chunk The files to add.
+   */
+  private void appendChunk(List<FileStatus> chunk) {
+    if (currentViewMode == ResourcesViewMode.FLAT_VIEW && filesTable != null) {
+      ((StagingResourcesTableModel) filesTable.getModel()).appendFilesStatus(chunk);
+    } else if (currentViewMode == ResourcesViewMode.TREE_VIEW && tree != null) {
+      Enumeration<TreePath> expandedPaths = TreeUtil.getLastExpandedPaths(tree);
+      ((StagingResourcesTreeModel) tree.getModel()).appendFiles(chunk);
+      TreeUtil.restoreLastExpandedPaths(expandedPaths, tree);
+    }
+    
+    toggleSelectedButton();
+  }
+	
 	/**
 	 * Notify the models about the change.
 	 * 
@@ -48,6 +48,8 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.service.exceptions.RepoNotInitializedException;
@@ -60,6 +62,7 @@ import com.oxygenxml.git.utils.RepositoryStatusInfo.RepositoryStatus;
 import com.oxygenxml.git.validation.ValidationManager;
 import com.oxygenxml.git.view.UndoRedoSupportInstaller;
 import com.oxygenxml.git.view.components.ApplicationLabel;
+import com.oxygenxml.git.view.components.OperationProgressPanel;
 import com.oxygenxml.git.view.dialog.MessagePresenterProvider;
 import com.oxygenxml.git.view.dialog.internal.DialogType;
 import com.oxygenxml.git.view.event.GitController;
@@ -293,7 +296,7 @@ public class CommitAndStatusPanel extends JPanel {
       300,
       e -> {
         if (commitButtonAndMessageUpdateTask != null) {
-          GitOperationScheduler.getInstance().schedule(commitButtonAndMessageUpdateTask);
+          GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.USER, commitButtonAndMessageUpdateTask);
         } 
       });
 	
@@ -357,6 +360,7 @@ public class CommitAndStatusPanel extends JPanel {
 		addCommitMessageTextArea(gbc);
 		addStatusLabel(gbc);
 		addCommitButton(gbc);
+		addOperationProgressPanel(gbc);
 
 		this.setPreferredSize(new Dimension(getPreferredSize().width, UIConstants.COMMIT_PANEL_PREF_HEIGHT));
 		this.setMinimumSize(new Dimension(getMinimumSize().width, UIConstants.COMMIT_PANEL_MIN_HEIGHT));
@@ -663,6 +667,23 @@ public class CommitAndStatusPanel extends JPanel {
             + ")");
 	}
 
+	/**
+	 * Add the panel that presents the progress of the long running operations.
+	 * 
+	 * @param gbc Grid bad constraints.
+	 */
+	private void addOperationProgressPanel(GridBagConstraints gbc) {
+	  gbc.insets = new Insets(0, 0, 0, 0);
+	  gbc.anchor = GridBagConstraints.WEST;
+	  gbc.fill = GridBagConstraints.HORIZONTAL;
+	  gbc.gridx = 0;
+	  gbc.gridy = 4;
+	  gbc.weightx = 1;
+	  gbc.weighty = 0;
+	  gbc.gridwidth = 2;
+	  this.add(new OperationProgressPanel(), gbc);
+	}
+
   /**
    * Checks if the commit button should be enabled.
    * 
@@ -33,6 +33,8 @@ import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitEventListener;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.annotation.TestOnly;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
@@ -393,7 +395,7 @@ public class StagingPanel extends JPanel {
       editorAccess.addEditorListener(new WSEditorListener() {
         @Override
         public void editorSaved(int operationType) {
-          GitOperationScheduler.getInstance().schedule(() -> treatEditorSavedEvent(editorLocation));
+          GitOperationScheduler.getInstance().schedule(Lane.READ, Priority.BACKGROUND, () -> treatEditorSavedEvent(editorLocation));
         }
       });
     }
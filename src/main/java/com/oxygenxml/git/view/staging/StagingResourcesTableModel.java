@@ -3,8 +3,10 @@ package com.oxygenxml.git.view.staging;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.swing.table.AbstractTableModel;
@@ -15,8 +17,10 @@ import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
+import com.oxygenxml.git.service.GitStatusDelta;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.view.event.BatchGitEventInfo;
 import com.oxygenxml.git.view.event.FileGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
 
@@ -152,6 +156,107 @@ public class StagingResourcesTableModel extends AbstractTableModel {
 		fireTableRowsInserted(0, getRowCount());
 	}
 
+	/**
+	 * Adds the given files to the model and keeps it sorted.
+	 * 
+	 * @param newFiles The files to add.
+	 */
+	public void appendFilesStatus(List<FileStatus> newFiles) {
+	  filesStatuses.addAll(newFiles);
+	  filesStatuses.sort(fileStatusComparator);
+	  
+	  fireTableDataChanged();
+	}
+
+	/**
+  * Applies the differences from a newly computed status. Only the affected rows are
+  * reported as changed, unless there are more than {@link GitStatusDelta#MAX_INCREMENTAL_SIZE}
+  * differences. Then all the rows are reported as changed, with one event.
+  * Must be called on the AWT thread.
+  * 
+  * @param delta The differences between the files in the model and the new ones.
+  */
+	public void applyDelta(GitStatusDelta delta) {
+	  if (delta.size() > GitStatusDelta.MAX_INCREMENTAL_SIZE) {
+	    List<FileStatus> newFiles;
+	    synchronized (filesStatuses) {
+	      newFiles = delta.applyTo(filesStatuses);
+	    }
+	    newFiles.sort(fileStatusComparator);
+	    filesStatuses = Collections.synchronizedList(newFiles);
+	    fireTableDataChanged();
+	  } else {
+	    applyRowsDelta(delta);
+	  }
+	}
+
+	/**
+  * Applies the differences from a newly computed status, with an event for each affected row.
+  * 
+  * @param delta The differences between the files in the model and the new ones.
+  */
+	private void applyRowsDelta(GitStatusDelta delta) {
+	  for (FileStatus removed : delta.getRemoved()) {
+	    int row = indexOf(removed);
+	    if (row != -1) {
+	      filesStatuses.remove(row);
+	      fireTableRowsDeleted(row, row);
+	    }
+	  }
+	  if (!delta.getChanged().isEmpty()) {
+	    // The changed files have one status in the model, possibly with another change type.
+	    Map<String, FileStatus> filesByPath = new HashMap<>();
+	    synchronized (filesStatuses) {
+	      for (FileStatus file : filesStatuses) {
+	        filesByPath.put(file.getFileLocation(), file);
+	      }
+	    }
+	    for (FileStatus changed : delta.getChanged()) {
+	      FileStatus current = filesByPath.get(changed.getFileLocation());
+	      int row = current != null ? indexOf(current) : -1;
+	      if (row != -1 && current.getChangeType() == changed.getChangeType()) {
+	        filesStatuses.set(row, changed);
+	        fireTableRowsUpdated(row, row);
+	      } else {
+	        // The position depends on the change type.
+	        if (row != -1) {
+	          filesStatuses.remove(row);
+	          fireTableRowsDeleted(row, row);
+	        }
+	        insertSorted(changed);
+	      }
+	    }
+	  }
+	  for (FileStatus added : delta.getAdded()) {
+	    insertSorted(added);
+	  }
+	}
+
+	/**
+  * @param file A file status.
+  * 
+  * @return The row with the same path and change type or -1. The rows are sorted,
+  * so it is searched by bisection.
+  */
+	private int indexOf(FileStatus file) {
+	  int row = Collections.binarySearch(filesStatuses, file, fileStatusComparator);
+	  return row >= 0 ? row : -1;
+	}
+
+	/**
+  * Inserts a file, keeping the model sorted.
+  * 
+  * @param file The file to insert.
+  */
+	private void insertSorted(FileStatus file) {
+	  int row = Collections.binarySearch(filesStatuses, file, fileStatusComparator);
+	  if (row < 0) {
+	    row = -row - 1;
+	  }
+	  filesStatuses.add(row, file);
+	  fireTableRowsInserted(row, row);
+	}
+
 	/**
 	 * Returns the file from the given row
 	 * 
@@ -201,7 +306,13 @@ public class StagingResourcesTableModel extends AbstractTableModel {
 	    
 	  }
 
-	  updateTableModel(changeEvent);
+	  if (changeEvent instanceof BatchGitEventInfo) {
+	    for (GitEventInfo event : ((BatchGitEventInfo) changeEvent).getEvents()) {
+	      updateTableModel(event);
+	    }
+	  } else {
+	    updateTableModel(changeEvent);
+	  }
 	  removeDuplicates();
 	  filesStatuses.sort(fileStatusComparator);
 	  fireTableDataChanged();
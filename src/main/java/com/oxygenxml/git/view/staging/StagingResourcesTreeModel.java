@@ -2,7 +2,9 @@ package com.oxygenxml.git.view.staging;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.tree.DefaultTreeModel;
 
@@ -11,9 +13,12 @@ import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
+import com.oxygenxml.git.service.GitStatusDelta;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.view.GitTreeNode;
+import com.oxygenxml.git.view.NodeTreeComparator;
+import com.oxygenxml.git.view.event.BatchGitEventInfo;
 import com.oxygenxml.git.view.event.FileGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.util.TreeUtil;
@@ -71,6 +76,23 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	    LOGGER.debug("Tree model for index: " + inIndex + " event " + eventInfo);
 	  }
 
+	  if (eventInfo instanceof BatchGitEventInfo) {
+	    for (GitEventInfo event : ((BatchGitEventInfo) eventInfo).getEvents()) {
+	      applyEvent(event);
+	    }
+	  } else {
+	    applyEvent(eventInfo);
+	  }
+
+	  fireTreeStructureChanged(this, null, null, null);
+	}
+
+	/**
+	 * Updates the nodes affected by an operation, without notifying the listeners.
+	 * 
+	 * @param eventInfo Event information.
+	 */
+	private void applyEvent(GitEventInfo eventInfo) {
 	  GitAccess gitAccess = GitAccess.getInstance();
 	  switch (eventInfo.getGitOperation()) {
 	    case STAGE:
@@ -115,10 +137,129 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	      // Nothing
 	      break;
 	  }
+	}
+
+	/**
+	 * Adds nodes for the given files.
+	 * 
+	 * @param newFiles The files to add.
+	 */
+	public void appendFiles(List<FileStatus> newFiles) {
+	  insertNodes(newFiles);
 
 	  fireTreeStructureChanged(this, null, null, null);
 	}
 
+	/**
+	 * Applies the differences from a newly computed status. Only the affected nodes
+	 * are reported as inserted, removed or changed, unless there are more than
+	 * {@link GitStatusDelta#MAX_INCREMENTAL_SIZE} differences. Then the tree is rebuilt
+	 * and its structure reported as changed, with one event. Must be called on the AWT thread.
+	 * 
+	 * @param delta The differences between the files in the model and the new ones.
+	 */
+	public void applyDelta(GitStatusDelta delta) {
+	  List<FileStatus> newFiles;
+	  synchronized (filesStatuses) {
+	    newFiles = delta.applyTo(filesStatuses);
+	  }
+
+	  if (delta.size() > GitStatusDelta.MAX_INCREMENTAL_SIZE) {
+	    clearModel();
+	    insertNodes(newFiles);
+	    fireTreeStructureChanged(this, null, null, null);
+	  } else {
+	    Set<String> newPaths = new HashSet<>();
+	    for (FileStatus file : newFiles) {
+	      newPaths.add(file.getFileLocation());
+	    }
+	    synchronized (filesStatuses) {
+	      filesStatuses.clear();
+	      filesStatuses.addAll(newFiles);
+	    }
+
+	    for (FileStatus removed : delta.getRemoved()) {
+	      if (!newPaths.contains(removed.getFileLocation())) {
+	        removeLeaf(removed.getFileLocation());
+	      }
+	    }
+	    for (FileStatus changed : delta.getChanged()) {
+	      GitTreeNode node = TreeUtil.getTreeNodeFromString(this, changed.getFileLocation());
+	      if (node != null) {
+	        nodeChanged(node);
+	      }
+	    }
+	    for (FileStatus added : delta.getAdded()) {
+	      // Does nothing if the path has another status, already presented.
+	      insertLeaf(added.getFileLocation());
+	    }
+	  }
+	}
+
+	/**
+	 * Adds the nodes for a path, at their sorted position.
+	 * 
+	 * @param path A file path.
+	 */
+	private void insertLeaf(String path) {
+	  GitTreeNode node = (GitTreeNode) getRoot();
+	  String[] segments = path.split("/");
+	  for (int i = 0; i < segments.length; i++) {
+	    int index = TreeUtil.childIndex(node, segments[i]);
+	    if (index < 0) {
+	      // Build the missing branch and insert it with one event.
+	      GitTreeNode branch = new GitTreeNode(segments[i]);
+	      GitTreeNode last = branch;
+	      for (int j = i + 1; j < segments.length; j++) {
+	        GitTreeNode child = new GitTreeNode(segments[j]);
+	        last.add(child);
+	        last = child;
+	      }
+	      int insertAt = getSortedIndex(node, branch);
+	      node.insert(branch, insertAt);
+	      nodesWereInserted(node, new int[] {insertAt});
+	      return;
+	    }
+	    node = (GitTreeNode) node.getChildAt(index);
+	  }
+	}
+
+	/**
+	 * @param parent A node.
+	 * @param child  A new child.
+	 * 
+	 * @return The index where the child must be inserted to keep the children sorted.
+	 */
+	private static int getSortedIndex(GitTreeNode parent, GitTreeNode child) {
+	  NodeTreeComparator comparator = new NodeTreeComparator();
+	  int index = 0;
+	  while (index < parent.getChildCount() 
+	      && comparator.compare((GitTreeNode) parent.getChildAt(index), child) <= 0) {
+	    index++;
+	  }
+	  return index;
+	}
+
+	/**
+	 * Removes the node of a path and its parents that remain empty.
+	 * 
+	 * @param path A file path.
+	 */
+	private void removeLeaf(String path) {
+	  GitTreeNode root = (GitTreeNode) getRoot();
+	  GitTreeNode node = TreeUtil.getTreeNodeFromString(this, path);
+	  if (node == null || node == root || !node.isLeaf()) {
+	    return;
+	  }
+	  while (node.getParent() != root && node.getParent().getChildCount() == 1) {
+	    node = (GitTreeNode) node.getParent();
+	  }
+	  GitTreeNode parent = (GitTreeNode) node.getParent();
+	  int index = parent.getIndex(node);
+	  parent.remove(index);
+	  nodesWereRemoved(parent, new int[] {index}, new Object[] {node});
+	}
+
 	/**
 	 * Clears all the nodes in the model and leaves an empty root.
 	 */
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -46,6 +47,8 @@ import com.jidesoft.swing.JideSplitPane;
 import com.oxygenxml.git.constants.Icons;
 import com.oxygenxml.git.constants.UIConstants;
 import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitQueryExecutor;
 import com.oxygenxml.git.service.RevCommitUtil;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
@@ -136,6 +139,11 @@ public class ListStashesDialog extends OKCancelDialog {
    */
   private FilesTableModel affectedStashFilesTableModel;
 
+  /**
+   * Computes the files affected by the selected stash.
+   */
+  private transient Future<?> affectedFilesQuery;
+
   /**
    * The model for the stashes table.
    */
@@ -615,16 +623,11 @@ public class ListStashesDialog extends OKCancelDialog {
         if(tableOfStashes.getSelectedRowCount() > 0) {
           setStashTableButtonsEnabled(true);
           final int selectedRow = tableOfStashes.getSelectedRow();
-          try {
-            affectedStashFilesTableModel.setFilesStatus(
-                RevCommitUtil.getChangedFiles(stashesTableModel.getStashes().get(selectedRow).getName()));
-          } catch (IOException | GitAPIException exc) {
-            LOGGER.error(exc.getMessage(), exc);
-          }
+          loadAffectedFiles(stashesTableModel.getStashes().get(selectedRow));
         } else {
           deleteSelectedButton.setEnabled(false);
           applyButton.setEnabled(false);
-          affectedStashFilesTableModel.setFilesStatus(new ArrayList<>());
+          loadAffectedFiles(null);
         }
       }  
     });
@@ -646,6 +649,38 @@ public class ListStashesDialog extends OKCancelDialog {
   }
 
 
+  /**
+   * Presents the files affected by a stash. They are computed in the background and
+   * the table is updated when they are ready.
+   * 
+   * @param stash The stash or <code>null</code> to clear the table.
+   */
+  private void loadAffectedFiles(RevCommit stash) {
+    if (affectedFilesQuery != null) {
+      affectedFilesQuery.cancel(true);
+      affectedFilesQuery = null;
+    }
+    affectedStashFilesTableModel.setFilesStatus(new ArrayList<>());
+    if (stash != null) {
+      String stashId = stash.getName();
+      affectedFilesQuery = GitQueryExecutor.getInstance().submit(() -> {
+        try {
+          List<FileStatus> files = RevCommitUtil.getChangedFiles(stashId);
+          SwingUtilities.invokeLater(() -> {
+            int selectedRow = stashesTable.getSelectedRow();
+            if (selectedRow >= 0 && stashId.equals(stashesTableModel.getStashes().get(selectedRow).getName())) {
+              affectedStashFilesTableModel.setFilesStatus(files);
+            }
+          });
+        } catch (IOException | GitAPIException exc) {
+          LOGGER.error(exc.getMessage(), exc);
+        }
+        return null;
+      });
+    }
+  }
+
+
   /**
    * Creates the contextual actions menu for a stash.
    * 
@@ -784,15 +819,20 @@ public class ListStashesDialog extends OKCancelDialog {
           int noOfRows = stashesTable.getRowCount();
           List<RevCommit> stashes = new ArrayList<>(GitAccess.getInstance().listStashes());
           if (!stashes.isEmpty() && selectedRow >= 0 && selectedRow < noOfRows) {
-            try {
-              if(deleteAfterApplyingCheckBox.isSelected()) {
-                popStash(stashes, selectedRow, noOfRows);
-              } else {
-                GitAccess.getInstance().applyStash(stashes.get(selectedRow).getName());
+            final String stashRef = stashes.get(selectedRow).getName();
+            final boolean pop = deleteAfterApplyingCheckBox.isSelected();
+            // On the write lane, the stash is applied after the operations that read the repository.
+            GitOperationScheduler.getInstance().schedule(() -> {
+              try {
+                if (pop) {
+                  popStash(stashRef, selectedRow, noOfRows);
+                } else {
+                  GitAccess.getInstance().applyStash(stashRef);
+                }
+              } catch (GitAPIException e1) {
+                LOGGER.error(e1.getMessage(), e1);
               }
-            } catch (GitAPIException e1) {
-              LOGGER.error(e1.getMessage(), e1);
-            }
+            });
           }
         }
       };
@@ -838,24 +878,25 @@ public class ListStashesDialog extends OKCancelDialog {
 
 
     /**
-     * Performs the pop stash operation.
+     * Performs the pop stash operation. The table is updated on the AWT thread.
      *
-     * @param stashes              List of stashes.
+     * @param stashRef             The stash to apply and delete.
      * @param indexStashToDelete   The index of stash to be deleted.
      * @param noOfStashes          The number of total stashes.
      *
      * @throws GitAPIException     When the operation can't be applied.
      */
-    private void popStash(List<RevCommit> stashes, int indexStashToDelete, int noOfStashes) throws GitAPIException {
-      StashApplyStatus applyStashStatus =
-          GitAccess.getInstance().popStash(stashes.get(indexStashToDelete).getName());
+    private void popStash(String stashRef, int indexStashToDelete, int noOfStashes) throws GitAPIException {
+      StashApplyStatus applyStashStatus = GitAccess.getInstance().popStash(stashRef);
       if(applyStashStatus == StashApplyStatus.APPLIED_SUCCESSFULLY) {
-        stashesTableModel.removeRow(indexStashToDelete);
-        if(stashesTableModel.getRowCount() == 0) {
-          setStashTableButtonsEnabled(false);
-          affectedStashFilesTableModel.clear();
-        }
-        selectNextRowAfterDeletion(stashesTable, indexStashToDelete, noOfStashes);
+        SwingUtilities.invokeLater(() -> {
+          stashesTableModel.removeRow(indexStashToDelete);
+          if(stashesTableModel.getRowCount() == 0) {
+            setStashTableButtonsEnabled(false);
+            affectedStashFilesTableModel.clear();
+          }
+          selectNextRowAfterDeletion(stashesTable, indexStashToDelete, noOfStashes);
+        });
       }
     }
 
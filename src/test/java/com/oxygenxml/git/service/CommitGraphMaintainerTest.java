@@ -0,0 +1,84 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
+import com.oxygenxml.git.options.OptionsManager;
+
+/**
+ * Tests for the maintenance of the commit-graph file.
+ */
+public class CommitGraphMaintainerTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/CommitGraphMaintainerTest";
+
+  @Override
+  protected void tearDown() throws Exception {
+    OptionsManager.getInstance().setMaintainCommitGraph(false);
+    super.tearDown();
+  }
+
+  /**
+   * <p><b>Description:</b> the commit-graph and the configuration of the repository
+   * are left untouched unless the user enabled the maintenance of the commit-graph.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testNotEnabled() throws Exception {
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    Repository repository = createRepository(REPOSITORY_PATH);
+    try (Git git = new Git(repository)) {
+      git.commit().setAllowEmpty(true).setMessage("Commit").call();
+    }
+
+    assertFalse(CommitGraphMaintainer.getInstance().update(repository));
+    assertFalse(new File(REPOSITORY_PATH, ".git/objects/info/commit-graph").exists());
+    assertNull(repository.getConfig().getString(
+        ConfigConstants.CONFIG_CORE_SECTION, null, ConfigConstants.CONFIG_COMMIT_GRAPH));
+  }
+
+  /**
+   * <p><b>Description:</b> the commit-graph is written when a branch points to a
+   * commit it doesn't contain, and JGit reads it afterwards.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testUpdate() throws Exception {
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    Repository repository = createRepository(REPOSITORY_PATH);
+    OptionsManager.getInstance().setMaintainCommitGraph(true);
+    CommitGraphMaintainer maintainer = CommitGraphMaintainer.getInstance();
+    // No commits yet.
+    assertFalse(maintainer.update(repository));
+
+    try (Git git = new Git(repository)) {
+      for (int i = 0; i < 10; i++) {
+        git.commit().setAllowEmpty(true).setMessage("Commit " + i).call();
+      }
+
+      assertTrue(maintainer.update(repository));
+      assertTrue(new File(REPOSITORY_PATH, ".git/objects/info/commit-graph").isFile());
+      assertTrue(repository.getConfig().getBoolean(
+          ConfigConstants.CONFIG_CORE_SECTION, ConfigConstants.CONFIG_COMMIT_GRAPH, false));
+      try (ObjectReader reader = repository.newObjectReader()) {
+        assertEquals(10, reader.getCommitGraph().get().getCommitCnt());
+      }
+
+      // Nothing changed.
+      assertFalse(maintainer.update(repository));
+
+      git.commit().setAllowEmpty(true).setMessage("Commit 10").call();
+      assertTrue(maintainer.update(repository));
+      try (ObjectReader reader = repository.newObjectReader()) {
+        assertEquals(11, reader.getCommitGraph().get().getCommitCnt());
+      }
+    }
+  }
+}
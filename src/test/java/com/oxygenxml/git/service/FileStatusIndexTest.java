@@ -0,0 +1,44 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Tests for the path index of the file statuses.
+ */
+public class FileStatusIndexTest {
+
+  /**
+   * <p><b>Description:</b> files and directories are looked up and removed by path.
+   * A directory doesn't match the siblings that share its name as a prefix.</p>
+   */
+  @Test
+  public void testQueries() {
+    FileStatusIndex index = new FileStatusIndex(Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "dir/a.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "dir/sub/b.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "dir2/c.txt"),
+        new FileStatus(GitChangeType.CONFLICT, "d.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "d.txt")));
+    
+    assertEquals(
+        "[(changeType=MODIFIED, fileLocation=dir/a.txt), (changeType=UNTRACKED, fileLocation=dir/sub/b.txt)]",
+        index.get(Collections.singletonList("dir")).toString());
+    assertEquals(
+        "[(changeType=CONFLICT, fileLocation=d.txt), (changeType=MODIFIED, fileLocation=d.txt), "
+        + "(changeType=MODIFIED, fileLocation=dir2/c.txt)]",
+        index.get(Arrays.asList("dir2/c.txt", "d.txt", "missing.txt")).toString());
+    
+    index.removeAll(Arrays.asList("dir/sub", "d.txt"));
+    assertEquals(
+        "[(changeType=MODIFIED, fileLocation=dir/a.txt), (changeType=MODIFIED, fileLocation=dir2/c.txt)]",
+        index.getAll().toString());
+  }
+}
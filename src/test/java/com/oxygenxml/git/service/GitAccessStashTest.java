@@ -6,9 +6,18 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.swing.SwingUtilities;
+
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.StashListCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
@@ -20,11 +29,14 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.service.exceptions.RepositoryBusyException;
 import com.oxygenxml.git.utils.RepoUtil;
 import com.oxygenxml.git.view.dialog.MessagePresenterProvider;
 import com.oxygenxml.git.view.dialog.internal.DialogType;
 import com.oxygenxml.git.view.dialog.internal.MessageDialog;
 import com.oxygenxml.git.view.dialog.internal.MessageDialogBuilder;
+import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
 import com.oxygenxml.git.view.stash.StashApplyStatus;
 
 import junit.framework.TestCase;
@@ -183,6 +195,83 @@ public class GitAccessStashTest extends TestCase {
   }
 
 
+  /**
+   * <p><b>Description:</b> a stash applied on the AWT thread while another thread reads
+   * the repository fails with a reported error instead of an unchecked exception. Applied
+   * on the write lane, it waits for the reader.</p>
+   *
+   * @throws Exception
+   */
+  public void testApplyOnAWTWhileReading() throws Exception {
+    try (PrintWriter out = new PrintWriter(LOCAL_TEST_REPOSITORY + "/test.txt")) {
+      out.println("modify");
+    }
+    gitAccess.addAll(gitAccess.getUnstagedFiles());
+    RevCommit commitStash = gitAccess.createStash(false, null);
+
+    List<Throwable> failures = new ArrayList<>();
+    GitEventAdapter listener = new GitEventAdapter() {
+      @Override
+      public void operationFailed(GitEventInfo info, Throwable t) {
+        if (info.getGitOperation() == GitOperation.STASH_APPLY) {
+          failures.add(t);
+        }
+      }
+    };
+    GitListeners.getInstance().addGitListener(listener);
+
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService readerThread = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> read = readerThread.submit(() -> {
+        try (RepositoryGate.Access access = gitAccess.getRepositoryGate().read(gitAccess.getRepository())) {
+          reading.countDown();
+          release.await();
+        }
+        return null;
+      });
+      assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+      Throwable[] thrown = new Throwable[1];
+      SwingUtilities.invokeAndWait(() -> {
+        try {
+          gitAccess.applyStash(commitStash.getName());
+        } catch (Throwable e) { // NOSONAR
+          thrown[0] = e;
+        }
+      });
+      assertTrue(String.valueOf(thrown[0]), thrown[0] instanceof RepositoryBusyException);
+      assertEquals(1, failures.size());
+      assertSame(thrown[0], failures.get(0));
+
+      // The dialogs apply it on the write lane, which waits for the reader.
+      Future<?> apply = GitOperationScheduler.getInstance().schedule(() -> {
+        try {
+          gitAccess.applyStash(commitStash.getName());
+        } catch (GitAPIException e) {
+          failures.add(e);
+        }
+      });
+      Thread.sleep(200);
+      assertFalse(apply.isDone());
+
+      release.countDown();
+      read.get(5, TimeUnit.SECONDS);
+      apply.get(5, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      readerThread.shutdown();
+      GitListeners.getInstance().removeGitListener(listener);
+    }
+
+    assertEquals(1, failures.size());
+    try (BufferedReader reader = new BufferedReader(new FileReader(LOCAL_TEST_REPOSITORY + "/test.txt"))) {
+      assertEquals("modify", reader.lines().collect(Collectors.joining(System.lineSeparator())));
+    }
+  }
+
+
   /**
    * <p><b>Description:</b> tests the situation in which we want to apply a stash and we have uncommitted changes that do not cause conflicts.</p>
    * <p><b>Bug ID:</b> EXM-45983</p>
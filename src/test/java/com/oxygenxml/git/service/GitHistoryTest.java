@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Repository;
@@ -547,4 +548,41 @@ public class GitHistoryTest extends HistoryPanelTestBase {
      */
     }
     
+    /**
+     * <p><b>Description:</b> the history is walked one page at a time and the walk
+     * continues where the previous page ended.</p>
+     *
+     * @throws Exception If it fails.
+     */
+    @Test
+    public void testPagedHistory() throws Exception {
+      String repoPath = "target/test-resources/GitHistoryTest/testPagedHistory";
+      Repository repository = createRepository(repoPath);
+      try (Git git = Git.wrap(repository)) {
+        for (int i = 0; i < PagedHistory.PAGE_SIZE + 50; i++) {
+          git.commit().setAllowEmpty(true).setMessage("Commit " + i).call();
+        }
+      }
+
+      try (PagedHistory history = GitAccess.getInstance().openHistory(
+          HistoryStrategy.CURRENT_BRANCH, null, new RenameTracker())) {
+        List<CommitCharacteristics> page = history.loadNextPage(null);
+        assertEquals(PagedHistory.PAGE_SIZE, page.size());
+        assertEquals("Commit " + (PagedHistory.PAGE_SIZE + 49), page.get(0).getCommitMessage());
+        assertTrue(history.hasMorePages());
+
+        page = history.loadNextPage(null);
+        assertEquals(50, page.size());
+        assertEquals("Commit 49", page.get(0).getCommitMessage());
+        assertEquals("Commit 0", page.get(49).getCommitMessage());
+        assertFalse(history.hasMorePages());
+        assertTrue(history.loadNextPage(null).isEmpty());
+      }
+
+      // The whole history is still collected at once.
+      assertEquals(
+          PagedHistory.PAGE_SIZE + 50,
+          GitAccess.getInstance().getCommitsCharacteristics(HistoryStrategy.CURRENT_BRANCH, null, null).size());
+    }
+
 }
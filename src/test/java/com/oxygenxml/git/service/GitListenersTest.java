@@ -0,0 +1,73 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.view.event.BatchGitEventInfo;
+import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
+
+/**
+ * Tests for the dispatch of the Git events.
+ */
+public class GitListenersTest {
+
+  /**
+   * <p><b>Description:</b> during a compound operation the regular listeners are
+   * notified right away, while the coalesced ones receive all the events in one
+   * batch, at the end.</p>
+   */
+  @Test
+  public void testCoalescedNotifications() {
+    List<String> received = new ArrayList<>();
+    GitEventListener regular = new GitEventAdapter() {
+      @Override
+      public void operationSuccessfullyEnded(GitEventInfo info) {
+        received.add("regular " + info.getGitOperation());
+      }
+    };
+    GitEventListener coalesced = new GitEventAdapter() {
+      @Override
+      public void operationSuccessfullyEnded(GitEventInfo info) {
+        received.add("coalesced " + info.getGitOperation());
+      }
+      @Override
+      public void operationsSuccessfullyEnded(BatchGitEventInfo batch) {
+        received.add("coalesced batch of " + batch.getEvents().size());
+      }
+      @Override
+      public boolean isCoalesced() {
+        return true;
+      }
+    };
+
+    GitListeners listeners = GitListeners.getInstance();
+    listeners.addGitListener(regular);
+    listeners.addGitListener(coalesced);
+    try {
+      listeners.batch(() -> {
+        listeners.fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.UNSTAGE));
+        listeners.fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.DISCARD));
+        received.add("end");
+      });
+      assertEquals("[regular UNSTAGE, regular DISCARD, end, coalesced batch of 2]", received.toString());
+
+      // A single event is delivered as it is.
+      received.clear();
+      listeners.batch(() -> listeners.fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.STAGE)));
+      assertEquals("[regular STAGE, coalesced STAGE]", received.toString());
+
+      // Outside a compound operation, everyone is notified right away.
+      received.clear();
+      listeners.fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.COMMIT));
+      assertEquals("[regular COMMIT, coalesced COMMIT]", received.toString());
+    } finally {
+      listeners.removeGitListener(regular);
+      listeners.removeGitListener(coalesced);
+    }
+  }
+}
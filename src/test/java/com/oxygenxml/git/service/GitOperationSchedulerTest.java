@@ -0,0 +1,89 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
+
+/**
+ * Tests for the lanes, priorities and coalescing of the Git operations scheduler.
+ */
+public class GitOperationSchedulerTest {
+
+  /**
+   * <p><b>Description:</b> user tasks run before background ones, a task with the key
+   * of a waiting task is coalesced and a canceled task leaves the queue.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testPrioritiesAndCoalescing() throws Exception {
+    GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    scheduler.schedule(Lane.READ, Priority.USER, null, () -> {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, 0);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    ScheduledFuture<?> canceled = scheduler.schedule(Lane.READ, Priority.BACKGROUND, null, () -> executed.add("b1"), 0);
+    ScheduledFuture<?> refresh = scheduler.schedule(Lane.READ, Priority.BACKGROUND, "refresh", () -> executed.add("refresh"), 0);
+    scheduler.schedule(Lane.READ, Priority.USER, null, () -> executed.add("u1"), 0);
+    assertSame(refresh, scheduler.schedule(Lane.READ, Priority.BACKGROUND, "refresh", () -> executed.add("refresh2"), 0));
+    ScheduledFuture<?> last = scheduler.schedule(Lane.READ, Priority.USER, null, () -> executed.add("u2"), 0);
+    assertEquals(4, scheduler.getQueueDepth(Lane.READ));
+
+    assertTrue(canceled.cancel(false));
+    assertEquals(3, scheduler.getQueueDepth(Lane.READ));
+
+    release.countDown();
+    refresh.get(5, TimeUnit.SECONDS);
+    assertTrue(last.isDone());
+    assertEquals("[u1, u2, refresh]", executed.toString());
+    assertEquals(0, scheduler.getQueueDepth(Lane.READ));
+  }
+
+  /**
+   * <p><b>Description:</b> a blocked lane doesn't delay the tasks of the other lanes.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testIndependentLanes() throws Exception {
+    GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+    CountDownLatch release = new CountDownLatch(1);
+    ScheduledFuture<?> network = scheduler.schedule(Lane.NETWORK, Priority.BACKGROUND, null, () -> {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, 0);
+    try {
+      scheduler.schedule(() -> {}).get(2, TimeUnit.SECONDS);
+      scheduler.schedule(Lane.READ, Priority.BACKGROUND, null, () -> {}, 10).get(2, TimeUnit.SECONDS);
+      assertFalse(network.isDone());
+    } finally {
+      release.countDown();
+    }
+    network.get(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,75 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for the executor of the Git queries.
+ */
+public class GitQueryExecutorTest {
+
+  /**
+   * <p><b>Description:</b> the result of a query is returned, its I/O failures are
+   * rethrown and a query that doesn't finish in time is interrupted.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCallWithTimeout() throws Exception {
+    GitQueryExecutor executor = GitQueryExecutor.getInstance();
+    assertEquals("result", executor.call(() -> "result", 1000));
+
+    try {
+      executor.call(() -> {
+        throw new FileNotFoundException("missing");
+      }, 1000);
+      fail("The failure should be rethrown.");
+    } catch (FileNotFoundException e) {
+      assertEquals("missing", e.getMessage());
+    }
+
+    CountDownLatch interrupted = new CountDownLatch(1);
+    try {
+      executor.call(() -> {
+        try {
+          Thread.sleep(5000);
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        return null;
+      }, 100);
+      fail("The query should time out.");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("100 ms"));
+    }
+    assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+  }
+
+  /**
+   * <p><b>Description:</b> a delayed query runs after the delay, unless canceled before.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testDelayedQuery() throws Exception {
+    GitQueryExecutor executor = GitQueryExecutor.getInstance();
+    CountDownLatch executed = new CountDownLatch(1);
+    executor.schedule(executed::countDown, 50);
+    assertTrue(executed.await(2, TimeUnit.SECONDS));
+
+    CountDownLatch canceled = new CountDownLatch(1);
+    ScheduledFuture<?> pending = executor.schedule(canceled::countDown, 500);
+    assertTrue(pending.cancel(false));
+    assertFalse(canceled.await(800, TimeUnit.MILLISECONDS));
+  }
+}
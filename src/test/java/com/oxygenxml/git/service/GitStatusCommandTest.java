@@ -0,0 +1,114 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+
+/**
+ * Tests for the status computed by {@link GitStatusCommand}.
+ */
+public class GitStatusCommandTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/GitStatusCommandTest";
+
+  /**
+   * <p><b>Description:</b> the status computed in parallel, on groups of subtrees, is the
+   * same as the one computed on a single thread.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testParallelStatus() throws Exception {
+    createRepository(REPOSITORY_PATH);
+    GitAccess gitAccess = GitAccess.getInstance();
+    Git git = gitAccess.getGit();
+    
+    for (String dir : new String[] {"a", "b", "c", "d", "e"}) {
+      for (int i = 0; i < 5; i++) {
+        FileUtils.writeStringToFile(new File(REPOSITORY_PATH, dir + "/sub/f" + i + ".txt"), "content", StandardCharsets.UTF_8);
+      }
+    }
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "root.txt"), "content", StandardCharsets.UTF_8);
+    git.add().addFilepattern(".").call();
+    git.commit().setMessage("Initial").call();
+    
+    // Modified, missing, staged, untracked.
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a/sub/f0.txt"), "changed", StandardCharsets.UTF_8);
+    new File(REPOSITORY_PATH, "b/sub/f1.txt").delete();
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "c/sub/f2.txt"), "changed", StandardCharsets.UTF_8);
+    git.add().addFilepattern("c/sub/f2.txt").call();
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "new/new.txt"), "new", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "root.txt"), "changed", StandardCharsets.UTF_8);
+    
+    GitStatusCommand sequential = new GitStatusCommand(() -> git);
+    sequential.setParallelism(1, 0);
+    GitStatus expected = sequential.getStatus();
+    
+    GitStatusCommand parallel = new GitStatusCommand(() -> git);
+    parallel.setParallelism(3, 0);
+    GitStatus actual = parallel.getStatus();
+    
+    assertEquals(
+        "[(changeType=MISSING, fileLocation=b/sub/f1.txt), (changeType=MODIFIED, fileLocation=a/sub/f0.txt), "
+        + "(changeType=MODIFIED, fileLocation=root.txt), (changeType=UNTRACKED, fileLocation=new/new.txt)]",
+        sort(expected.getUnstagedFiles()));
+    assertEquals(sort(expected.getUnstagedFiles()), sort(actual.getUnstagedFiles()));
+    assertEquals("[(changeType=CHANGED, fileLocation=c/sub/f2.txt)]", sort(expected.getStagedFiles()));
+    assertEquals(sort(expected.getStagedFiles()), sort(actual.getStagedFiles()));
+    assertEquals(expected.hasUncommittedChanges(), actual.hasUncommittedChanges());
+  }
+  
+  /**
+   * <p><b>Description:</b> the status of each group of subtrees is delivered when it is
+   * ready, even when the index is too small for a parallel computation.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testStreamedStatus() throws Exception {
+    createRepository(REPOSITORY_PATH);
+    Git git = GitAccess.getInstance().getGit();
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "root.txt"), "content", StandardCharsets.UTF_8);
+    git.add().addFilepattern(".").call();
+    git.commit().setMessage("Initial").call();
+    
+    // Untracked directories.
+    for (String dir : new String[] {"a", "b", "c", "d", "e"}) {
+      for (int i = 0; i < 3; i++) {
+        FileUtils.writeStringToFile(new File(REPOSITORY_PATH, dir + "/f" + i + ".txt"), "content", StandardCharsets.UTF_8);
+      }
+    }
+    
+    GitStatusCommand command = new GitStatusCommand(() -> git);
+    command.setParallelism(4, 1000);
+    List<GitStatus> batches = new ArrayList<>();
+    GitStatus status = command.getStatus(batches::add);
+    
+    // One for each top level entry.
+    assertEquals(6, batches.size());
+    assertEquals(15, status.getUnstagedFiles().size());
+    assertEquals(
+        sort(status.getUnstagedFiles()),
+        sort(batches.stream().flatMap(batch -> batch.getUnstagedFiles().stream()).collect(Collectors.toList())));
+  }
+  
+  /**
+   * @param files File statuses.
+   * 
+   * @return The statuses, sorted by change type and path.
+   */
+  private static String sort(List<FileStatus> files) {
+    return files.stream()
+        .sorted(Comparator.comparing((FileStatus f) -> f.getChangeType().name()).thenComparing(FileStatus::getFileLocation))
+        .collect(Collectors.toList())
+        .toString();
+  }
+}
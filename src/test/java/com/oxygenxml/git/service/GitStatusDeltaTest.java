@@ -0,0 +1,59 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Tests for the differences between two lists of file statuses.
+ */
+public class GitStatusDeltaTest {
+
+  /**
+   * <p><b>Description:</b> the same files, in a different order, give no differences.</p>
+   */
+  @Test
+  public void testUnchanged() {
+    GitStatusDelta delta = GitStatusDelta.compute(
+        Arrays.asList(
+            new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+            new FileStatus(GitChangeType.UNTRACKED, "dir/b.txt")),
+        Arrays.asList(
+            new FileStatus(GitChangeType.UNTRACKED, "dir/b.txt"),
+            new FileStatus(GitChangeType.MODIFIED, "a.txt")));
+    assertTrue(delta.isEmpty());
+  }
+
+  /**
+   * <p><b>Description:</b> added, removed and changed files are reported. A path
+   * with more than one status is compared status by status.</p>
+   */
+  @Test
+  public void testDifferences() {
+    GitStatusDelta delta = GitStatusDelta.compute(
+        Arrays.asList(
+            new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+            new FileStatus(GitChangeType.UNTRACKED, "b.txt"),
+            new FileStatus(GitChangeType.SUBMODULE, "sub").setDescription("old"),
+            new FileStatus(GitChangeType.CONFLICT, "c.txt"),
+            new FileStatus(GitChangeType.MODIFIED, "c.txt")),
+        Arrays.asList(
+            new FileStatus(GitChangeType.MISSING, "a.txt"),
+            new FileStatus(GitChangeType.SUBMODULE, "sub").setDescription("new"),
+            new FileStatus(GitChangeType.CONFLICT, "c.txt"),
+            new FileStatus(GitChangeType.UNTRACKED, "d.txt")));
+
+    assertEquals("[(changeType=UNTRACKED, fileLocation=b.txt), (changeType=MODIFIED, fileLocation=c.txt)]",
+        delta.getRemoved().toString());
+    assertEquals("[(changeType=UNTRACKED, fileLocation=d.txt)]", delta.getAdded().toString());
+    assertEquals("[(changeType=MISSING, fileLocation=a.txt), (changeType=SUBMODULE, fileLocation=sub)]",
+        delta.getChanged().toString());
+    assertEquals("new", delta.getChanged().get(1).getDescription());
+  }
+}
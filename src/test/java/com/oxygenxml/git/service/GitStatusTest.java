@@ -1,7 +1,10 @@
 package com.oxygenxml.git.service;
 
+import java.io.File;
+
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.transport.RefSpec;
@@ -93,6 +96,32 @@ public class GitStatusTest extends GitTestBase {
     assertEquals(1, gitAccess.getPushesAhead());
   }
 
+  /**
+   * A fetch is executed only when the remote branches differ from the remote-tracking ones.
+   * 
+   * @throws Exception If it fails.
+   */
+  public void testFetchOnlyWhenRemoteChanged() throws Exception {
+    gitAccess.setRepositorySynchronously(SECOND_LOCAL_TEST_REPOSITORY);
+    gitAccess.fetch();
+    File fetchHead = new File(gitAccess.getRepository().getDirectory(), Constants.FETCH_HEAD);
+    assertTrue(fetchHead.exists());
+    
+    // Nothing changed in the remote.
+    assertTrue(fetchHead.delete());
+    gitAccess.fetch();
+    assertFalse("The fetch should have been skipped", fetchHead.exists());
+    
+    pushOneFileToRemote(LOCAL_TEST_REPOSITORY, "new.txt", "new");
+    ObjectId pushed = gitAccess.getRepository().resolve(Constants.HEAD);
+    
+    gitAccess.setRepositorySynchronously(SECOND_LOCAL_TEST_REPOSITORY);
+    gitAccess.fetch();
+    assertTrue(fetchHead.exists());
+    assertEquals(pushed, gitAccess.getRepository().resolve(
+        Constants.R_REMOTES + "origin/" + GitAccess.DEFAULT_BRANCH_NAME));
+  }
+
   /**
    * Up to date repository.
    * 
@@ -68,6 +68,8 @@ import org.slf4j.LoggerFactory;
 import com.oxygenxml.git.auth.SSHCapableUserCredentialsProvider;
 import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.protocol.GitRevisionURLHandler;
+import com.oxygenxml.git.service.GitOperationScheduler.Lane;
+import com.oxygenxml.git.service.GitOperationScheduler.Priority;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
@@ -1076,9 +1078,12 @@ public abstract class GitTestBase extends JFCTestCase { // NOSONAR
     }
     
     try {
-    Semaphore s = new Semaphore(0);
-    GitOperationScheduler.getInstance().schedule(() -> {s.release();}, 50);
-      s.tryAcquire(1, 4000, TimeUnit.MILLISECONDS);
+      // The views are refreshed on the READ lane, the changes are made on the WRITE lane.
+      for (Lane lane : new Lane[] {Lane.WRITE, Lane.READ}) {
+        Semaphore s = new Semaphore(0);
+        GitOperationScheduler.getInstance().schedule(lane, Priority.BACKGROUND, null, s::release, 50);
+        s.tryAcquire(1, 4000, TimeUnit.MILLISECONDS);
+      }
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       
@@ -0,0 +1,175 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.oxygenxml.git.service.HistoryMetadataStore.CommitMetadata;
+
+/**
+ * Tests for the store that keeps the details of the commits presented in the history.
+ */
+public class HistoryMetadataStoreTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/HistoryMetadataStoreTest";
+
+  /**
+   * <p><b>Description:</b> the details of the commits are appended to the store, read
+   * back after reloading it, and the records of an interrupted append are dropped.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testStore() throws Exception {
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    Repository repository = createRepository(REPOSITORY_PATH);
+    File folder = HistoryMetadataStore.getFolder(repository.getDirectory());
+
+    try (Git git = new Git(repository)) {
+      for (int i = 0; i < 5; i++) {
+        git.commit().setAllowEmpty(true).setMessage("Commit " + i + "\n\nD\u00e9tails").call();
+      }
+
+      HistoryMetadataStore store = new HistoryMetadataStore(folder);
+      assertEquals(0, store.size());
+      assertEquals(
+          "Commit 4\n\nD\u00e9tails, Commit 3\n\nD\u00e9tails, Commit 2\n\nD\u00e9tails, Commit 1\n\nD\u00e9tails, Commit 0\n\nD\u00e9tails",
+          readMessages(repository, store));
+      assertEquals(5, store.size());
+
+      // Reload.
+      store = new HistoryMetadataStore(folder);
+      assertEquals(5, store.size());
+      List<CommitMetadata> metadata = read(repository, store);
+      assertEquals("Commit 4\n\nD\u00e9tails", metadata.get(0).getMessage());
+      assertEquals("AlexJitianu <alex_jitianu@sync.ro>", metadata.get(0).getAuthor());
+      assertEquals("AlexJitianu", metadata.get(0).getCommitter());
+
+      // Only the new commit is appended.
+      git.commit().setAllowEmpty(true).setMessage("Commit 5").call();
+      assertEquals("Commit 5", read(repository, store).get(0).getMessage());
+      assertEquals(6, store.size());
+
+      // An interrupted append leaves a partial id.
+      try (OutputStream out = new FileOutputStream(new File(folder, "ids"), true)) {
+        out.write(new byte[] {1, 2, 3});
+      }
+      store = new HistoryMetadataStore(folder);
+      assertEquals(6, store.size());
+      git.commit().setAllowEmpty(true).setMessage("Commit 6").call();
+      assertTrue(readMessages(repository, store).startsWith("Commit 6, Commit 5, Commit 4"));
+      store = new HistoryMetadataStore(folder);
+      assertEquals(7, store.size());
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> loading the store doesn't change the files, because another
+   * Oxygen might be appending to them. The partial records are dropped by the next append.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testLoadDoesNotTruncate() throws Exception {
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    Repository repository = createRepository(REPOSITORY_PATH);
+    File folder = HistoryMetadataStore.getFolder(repository.getDirectory());
+
+    try (Git git = new Git(repository)) {
+      git.commit().setAllowEmpty(true).setMessage("Commit 0").call();
+      readMessages(repository, new HistoryMetadataStore(folder));
+
+      File ids = new File(folder, "ids");
+      try (OutputStream out = new FileOutputStream(ids, true)) {
+        out.write(new byte[] {1, 2, 3});
+      }
+      HistoryMetadataStore store = new HistoryMetadataStore(folder);
+      assertEquals("Commit 0", readMessages(repository, store));
+      assertEquals(1, store.size());
+      assertEquals(20 + 3, ids.length());
+
+      git.commit().setAllowEmpty(true).setMessage("Commit 1").call();
+      assertEquals("Commit 1, Commit 0", readMessages(repository, store));
+      assertEquals(2 * 20, ids.length());
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the store is rebuilt when it grows too much, and another
+   * store of the same repository notices it.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testRebuildWhenTooLarge() throws Exception {
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    Repository repository = createRepository(REPOSITORY_PATH);
+    File folder = HistoryMetadataStore.getFolder(repository.getDirectory());
+
+    try (Git git = new Git(repository)) {
+      for (int i = 0; i < 5; i++) {
+        git.commit().setAllowEmpty(true).setMessage("Commit " + i).call();
+      }
+      // Room for a few records.
+      HistoryMetadataStore store = new HistoryMetadataStore(folder, 200);
+      HistoryMetadataStore otherStore = new HistoryMetadataStore(folder, 200);
+      readMessages(repository, store);
+      assertEquals(5, store.size());
+      assertEquals(5, otherStore.size());
+
+      // Over the limit. Only the new commit is kept.
+      git.commit().setAllowEmpty(true).setMessage("Commit 5").call();
+      assertTrue(readMessages(repository, store).startsWith("Commit 5, Commit 4"));
+      assertEquals(1, store.size());
+      assertEquals(20, new File(folder, "ids").length());
+
+      // The other store reloads the rebuilt files.
+      assertTrue(readMessages(repository, otherStore).startsWith("Commit 5, Commit 4"));
+      assertEquals(6, otherStore.size());
+      assertEquals(6, new HistoryMetadataStore(folder).size());
+    }
+  }
+
+  /**
+   * Reads the details of the commits of the current branch.
+   *
+   * @param repository The repository.
+   * @param store      The store.
+   *
+   * @return The details, from the newest commit to the oldest.
+   *
+   * @throws Exception If it fails.
+   */
+  private static List<CommitMetadata> read(Repository repository, HistoryMetadataStore store) throws Exception {
+    try (RevWalk walk = new RevWalk(repository)) {
+      walk.setRetainBody(false);
+      walk.markStart(walk.parseCommit(repository.resolve("HEAD")));
+      List<RevCommit> commits = new ArrayList<>();
+      walk.forEach(commits::add);
+      return store.read(commits, walk);
+    }
+  }
+
+  /**
+   * Reads the messages of the commits of the current branch.
+   *
+   * @param repository The repository.
+   * @param store      The store.
+   *
+   * @return The messages, from the newest commit to the oldest, separated by commas.
+   *
+   * @throws Exception If it fails.
+   */
+  private static String readMessages(Repository repository, HistoryMetadataStore store) throws Exception {
+    List<String> messages = new ArrayList<>();
+    read(repository, store).forEach(metadata -> messages.add(metadata.getMessage()));
+    return String.join(", ", messages);
+  }
+}
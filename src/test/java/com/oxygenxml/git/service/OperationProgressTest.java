@@ -0,0 +1,99 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.junit.Test;
+
+/**
+ * Tests for the progress and cancellation of the long running operations.
+ */
+public class OperationProgressTest {
+
+  /**
+   * <p><b>Description:</b> the progress reported by JGit is recorded and the
+   * cancellation is reported back to JGit.</p>
+   */
+  @Test
+  public void testProgressMonitor() {
+    OperationProgress progress = new OperationProgress("Pull");
+    AtomicInteger notifications = new AtomicInteger();
+    progress.addProgressListener(notifications::incrementAndGet);
+
+    ProgressMonitor monitor = progress.asProgressMonitor();
+    monitor.beginTask("Receiving objects", 200);
+    assertEquals("Receiving objects", progress.getTask());
+    assertEquals(0, progress.getPercent());
+
+    monitor.update(50);
+    // The same percent doesn't notify again.
+    monitor.update(1);
+    assertEquals(25, progress.getPercent());
+    assertEquals(2, notifications.get());
+
+    monitor.beginTask("Resolving deltas", ProgressMonitor.UNKNOWN);
+    assertEquals(-1, progress.getPercent());
+
+    assertFalse(monitor.isCancelled());
+    progress.cancel();
+    assertTrue(monitor.isCancelled());
+    try {
+      progress.checkCancelled();
+      fail("The operation should be cancelled.");
+    } catch (CancellationException e) {
+      // Expected.
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> cancelling a token also cancels the tokens derived from it.</p>
+   */
+  @Test
+  public void testParentToken() {
+    CancellationToken parent = new CancellationToken();
+    CancellationToken child = new CancellationToken(parent);
+    child.cancel();
+    assertFalse(parent.isCancelled());
+
+    CancellationToken otherChild = new CancellationToken(parent);
+    assertFalse(otherChild.asProgressMonitor().isCancelled());
+    parent.cancel();
+    assertTrue(otherChild.isCancelled());
+    assertTrue(otherChild.asProgressMonitor().isCancelled());
+  }
+
+  /**
+   * <p><b>Description:</b> the views are told about the running operations.</p>
+   */
+  @Test
+  public void testRunningOperations() {
+    RunningOperations operations = RunningOperations.getInstance();
+    AtomicInteger changes = new AtomicInteger();
+    Runnable listener = changes::incrementAndGet;
+    operations.addChangeListener(listener);
+    try {
+      OperationProgress push = operations.begin("Push");
+      OperationProgress history = operations.begin("History");
+      assertEquals(history, operations.getCurrent().get());
+
+      push.beginTask("Writing objects", 10);
+      assertEquals(3, changes.get());
+
+      operations.end(history);
+      assertEquals(push, operations.getCurrent().get());
+      operations.end(push);
+      operations.end(push);
+      assertFalse(operations.getCurrent().isPresent());
+      assertFalse(operations.isRunning(push));
+      assertEquals(5, changes.get());
+    } finally {
+      operations.removeChangeListener(listener);
+    }
+  }
+}
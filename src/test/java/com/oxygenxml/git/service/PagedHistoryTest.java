@@ -0,0 +1,133 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revplot.PlotWalk;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.oxygenxml.git.view.history.CommitCharacteristics;
+import com.oxygenxml.git.view.history.graph.GraphColorUtil;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList;
+
+/**
+ * Tests for the history loaded in pages.
+ */
+public class PagedHistoryTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/PagedHistoryTest";
+
+  /**
+   * Opens the history of the current branch, like the History view.
+   *
+   * @param repository The repository.
+   *
+   * @return The history.
+   *
+   * @throws Exception If it fails.
+   */
+  private static PagedHistory openHistory(Repository repository) throws Exception {
+    PlotWalk walk = new PlotWalk(repository);
+    walk.setRetainBody(false);
+    walk.markStart(walk.parseCommit(repository.resolve(Constants.HEAD)));
+    VisualCommitsList commitList = new VisualCommitsList(GraphColorUtil.createColorDispatcher(false));
+    return new PagedHistory(repository, walk, commitList);
+  }
+
+  /**
+   * <p><b>Description:</b> the ids and the parents of the rows are derived from the
+   * commits on first access, once, and are equal to the ones of the commits.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testIdsDerivedOnce() throws Exception {
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    Repository repository = createRepository(REPOSITORY_PATH);
+    try (Git git = new Git(repository)) {
+      git.commit().setAllowEmpty(true).setMessage("First").call();
+      git.branchCreate().setName("feature").call();
+      git.commit().setAllowEmpty(true).setMessage("Second").call();
+      git.checkout().setName("feature").call();
+      RevCommit feature = git.commit().setAllowEmpty(true).setMessage("Feature").call();
+      git.checkout().setName(Constants.MASTER).call();
+      git.merge().include(feature).setFastForward(FastForwardMode.NO_FF).setMessage("Merge").call();
+    }
+
+    List<CommitCharacteristics> rows;
+    try (PagedHistory history = openHistory(repository)) {
+      rows = history.loadAll(null);
+    }
+    assertEquals(4, rows.size());
+    assertEquals("Merge", rows.get(0).getCommitMessage());
+    assertEquals("AlexJitianu <alex_jitianu@sync.ro>", rows.get(0).getAuthor());
+
+    try (RevWalk walk = new RevWalk(repository)) {
+      for (CommitCharacteristics row : rows) {
+        RevCommit commit = walk.parseCommit(repository.resolve(row.getCommitId()));
+        List<String> parents = null;
+        if (commit.getParentCount() > 0) {
+          parents = new ArrayList<>();
+          for (RevCommit parent : commit.getParents()) {
+            parents.add(parent.abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name());
+          }
+        }
+
+        assertEquals(commit.getName(), row.getCommitId());
+        assertEquals(commit.abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name(), row.getCommitAbbreviatedId());
+        assertEquals(parents, row.getParentCommitId());
+
+        // Derived once.
+        assertSame(row.getCommitId(), row.getCommitId());
+        assertSame(row.getCommitAbbreviatedId(), row.getCommitAbbreviatedId());
+        assertSame(row.getParentCommitId(), row.getParentCommitId());
+      }
+    }
+    assertEquals(2, rows.get(0).getParentCommitId().size());
+    assertNull(rows.get(3).getParentCommitId());
+  }
+
+  /**
+   * <p><b>Description:</b> the messages and the people are read only for the commits
+   * of the loaded pages. The walk still visits all the commits on the first page,
+   * to sort them topologically.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testPagesReadOnlyTheirCommits() throws Exception {
+    String repositoryPath = REPOSITORY_PATH + "Pages";
+    FileUtils.deleteDirectory(new File(repositoryPath));
+    Repository repository = createRepository(repositoryPath);
+    int commitsCount = PagedHistory.PAGE_SIZE + 50;
+    try (Git git = new Git(repository)) {
+      for (int i = 0; i < commitsCount; i++) {
+        git.commit().setAllowEmpty(true).setMessage("Commit " + i).call();
+      }
+    }
+
+    try (PagedHistory history = openHistory(repository)) {
+      HistoryMetadataStore store = HistoryMetadataStore.forRepository(repository);
+      assertEquals(0, store.size());
+
+      List<CommitCharacteristics> page = history.loadNextPage(null);
+      assertEquals(PagedHistory.PAGE_SIZE, page.size());
+      assertEquals("Commit " + (commitsCount - 1), page.get(0).getCommitMessage());
+      assertEquals(PagedHistory.PAGE_SIZE, store.size());
+      assertTrue(history.hasMorePages());
+
+      page = history.loadNextPage(null);
+      assertEquals(50, page.size());
+      assertEquals("Commit 0", page.get(49).getCommitMessage());
+      assertEquals(commitsCount, store.size());
+      assertFalse(history.hasMorePages());
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.RepositoryGate.Access;
+
+/**
+ * Tests for the coordination of the repository reads and changes.
+ */
+public class RepositoryGateTest {
+
+  /**
+   * <p><b>Description:</b> readers don't wait for each other, while a change waits
+   * for all of them.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testConcurrentReads() throws Exception {
+    RepositoryGate gate = new RepositoryGate();
+    Repository repository = FileRepositoryBuilder.create(new File("target/test-resources/RepositoryGateTest/.git"));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      CountDownLatch otherReading = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      Future<?> otherReader = executor.submit(() -> {
+        try (Access access = gate.read(repository)) {
+          otherReading.countDown();
+          release.await(5, TimeUnit.SECONDS);
+        }
+        return null;
+      });
+      assertTrue(otherReading.await(5, TimeUnit.SECONDS));
+
+      // Another read is not blocked.
+      try (Access access = gate.read(repository)) {
+        // Nothing to do.
+      }
+
+      Future<?> writer = executor.submit(() -> {
+        try (Access access = gate.write(repository)) {
+          // Nothing to do.
+        }
+      });
+      Thread.sleep(200);
+      assertFalse(writer.isDone());
+
+      release.countDown();
+      otherReader.get(5, TimeUnit.SECONDS);
+      writer.get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> a change requested while reading on the same thread
+   * fails instead of waiting forever or running without coordination.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testWriteWhileReading() throws Exception {
+    RepositoryGate gate = new RepositoryGate();
+    Repository repository = FileRepositoryBuilder.create(new File("target/test-resources/RepositoryGateTest/.git"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      boolean failed = executor.submit(() -> {
+        try (Access read = gate.read(repository)) {
+          try (Access write = gate.write(repository)) {
+            return false;
+          } catch (IllegalStateException e) {
+            return true;
+          }
+        }
+      }).get(5, TimeUnit.SECONDS);
+      assertTrue(failed);
+
+      // The read access was released.
+      executor.submit(() -> {
+        try (Access write = gate.write(repository)) {
+          // Nothing to do.
+        }
+      }).get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the AWT thread doesn't wait to change a repository that
+   * is being read.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testWriteOnAWTWhileReading() throws Exception {
+    RepositoryGate gate = new RepositoryGate();
+    Repository repository = FileRepositoryBuilder.create(new File("target/test-resources/RepositoryGateTest/.git"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    try {
+      executor.submit(() -> {
+        try (Access read = gate.read(repository)) {
+          reading.countDown();
+          done.await(5, TimeUnit.SECONDS);
+        }
+        return null;
+      });
+      assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+      boolean[] failed = new boolean[1];
+      SwingUtilities.invokeAndWait(() -> {
+        try (Access write = gate.write(repository)) {
+          // Nothing to do.
+        } catch (IllegalStateException e) {
+          failed[0] = true;
+        }
+      });
+      assertTrue(failed[0]);
+
+      done.countDown();
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+      // Nobody reads now.
+      SwingUtilities.invokeAndWait(() -> {
+        try (Access write = gate.write(repository)) {
+          failed[0] = false;
+        }
+      });
+      assertFalse(failed[0]);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+
+/**
+ * Measures the sequential and the parallel status on a large working tree, right after
+ * the files were touched, when all the files are racily clean and their content must be
+ * compared.<br><br>
+ *
+ * Not a unit test. Run it with:<br>
+ * <code>java com.oxygenxml.git.service.StatusBenchmark [files count] [parallelism] [fixture dir]</code><br>
+ * The defaults are 100000 files, 4 threads and <code>target/benchmark/status</code>. Place the
+ * fixture on an SSD for meaningful results.
+ */
+public class StatusBenchmark {
+  /**
+   * The number of files in a directory of the fixture.
+   */
+  private static final int FILES_PER_DIR = 100;
+  /**
+   * The number of measured runs for each mode.
+   */
+  private static final int RUNS = 5;
+
+  /**
+   * Hidden constructor.
+   */
+  private StatusBenchmark() {
+    // Nothing
+  }
+
+  /**
+   * Main.
+   *
+   * @param args Files count, parallelism and fixture directory.
+   *
+   * @throws Exception If it fails.
+   */
+  public static void main(String[] args) throws Exception {
+    int filesCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    File fixture = new File(args.length > 2 ? args[2] : "target/benchmark/status");
+
+    try (Git git = createFixture(fixture, filesCount)) {
+      touchAll(fixture);
+
+      long sequential = measure(git, 1);
+      long parallel = measure(git, parallelism);
+
+      System.out.println("Files:      " + filesCount);
+      System.out.println("Sequential: " + sequential + " ms");
+      System.out.println("Parallel:   " + parallel + " ms (" + parallelism + " threads)");
+      System.out.printf("Speedup:    %.2fx%n", (double) sequential / parallel);
+    }
+  }
+
+  /**
+   * Creates a repository with the given number of committed files, spread in
+   * top level directories with sub-directories.
+   *
+   * @param fixture    The repository directory.
+   * @param filesCount The number of files.
+   *
+   * @return The repository.
+   *
+   * @throws Exception If it fails.
+   */
+  private static Git createFixture(File fixture, int filesCount) throws Exception {
+    if (new File(fixture, ".git").isDirectory()) {
+      System.out.println("Reusing " + fixture.getAbsolutePath());
+      return Git.open(fixture);
+    }
+
+    System.out.println("Creating " + filesCount + " files in " + fixture.getAbsolutePath());
+    FileUtils.deleteDirectory(fixture);
+    Git git = Git.init().setDirectory(fixture).call();
+    int dirsCount = Math.max(1, filesCount / FILES_PER_DIR);
+    int topLevelCount = Math.max(1, (int) Math.sqrt(dirsCount));
+    for (int i = 0; i < filesCount; i++) {
+      int dir = i / FILES_PER_DIR;
+      File file = new File(fixture, "top" + (dir % topLevelCount) + "/dir" + dir + "/file" + i + ".xml");
+      FileUtils.writeStringToFile(file, "<root>" + i + "</root>", StandardCharsets.UTF_8);
+    }
+    git.add().addFilepattern(".").call();
+    git.commit().setMessage("Fixture").call();
+
+    return git;
+  }
+
+  /**
+   * Changes the last modification time of all the files, without changing their content.
+   * This is what a checkout or a network drive does and the status must compare the contents.
+   *
+   * @param fixture The repository directory.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void touchAll(File fixture) throws Exception {
+    FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+    for (File file : FileUtils.listFiles(fixture, null, true)) {
+      if (!file.getPath().contains(File.separator + ".git" + File.separator)) {
+        Files.setLastModifiedTime(file.toPath(), now);
+      }
+    }
+  }
+
+  /**
+   * Measures the status computation.
+   *
+   * @param git         The repository.
+   * @param parallelism The number of threads.
+   *
+   * @return The average duration, in milliseconds.
+   */
+  private static long measure(Git git, int parallelism) {
+    GitStatusCommand warmUp = new GitStatusCommand(() -> git);
+    warmUp.setParallelism(parallelism, 0);
+    warmUp.getStatus();
+
+    long total = 0;
+    for (int i = 0; i < RUNS; i++) {
+      GitStatusCommand command = new GitStatusCommand(() -> git);
+      command.setParallelism(parallelism, 0);
+      long start = System.nanoTime();
+      GitStatus status = command.getStatus();
+      total += System.nanoTime() - start;
+      if (!status.getUnstagedFiles().isEmpty()) {
+        throw new IllegalStateException("The fixture should be clean: " + status.getUnstagedFiles().size());
+      }
+    }
+    return total / RUNS / 1_000_000;
+  }
+}
@@ -1,18 +1,32 @@
 package com.oxygenxml.git.service;
 
+import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
+import org.apache.commons.io.FileUtils;
+import org.awaitility.Awaitility;
+import org.awaitility.Duration;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import com.oxygenxml.git.OxygenGitPluginExtension;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.event.GitOperation;
 
@@ -46,7 +60,8 @@ public class StatusCacheTest extends GitTestBase {
   }
 
   /**
-   * <p><b>Description:</b> Test that a window activated event drops the cache.</p>
+   * <p><b>Description:</b> Test that changes done outside the application are detected
+   * when the window is activated.</p>
    * <p><b>Bug ID:</b> EXM-49363</p>
    *
    * @author alex_jitianu
@@ -62,12 +77,252 @@ public class StatusCacheTest extends GitTestBase {
     extension.applicationStarted((StandalonePluginWorkspace) pluginWorkspace);
     
     GitStatus status = GitAccess.getInstance().getStatus();
+    assertTrue(status.getUnstagedFiles().isEmpty());
+    
+    // A file is created outside the application.
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "external.txt"), "external", StandardCharsets.UTF_8);
     
     Arrays.stream(mockFrame.getWindowListeners()).forEach(l -> l.windowActivated(null));
     
-    GitStatus newstatus = GitAccess.getInstance().getStatus();
+    Awaitility.await().atMost(Duration.FIVE_SECONDS).until(() -> 
+      GitAccess.getInstance().getStatus().getUnstagedFiles().stream()
+        .anyMatch(f -> "external.txt".equals(f.getFileLocation())));
+  }
+    
+  /**
+   * <p><b>Description:</b> Only the paths changed in the working tree are re-computed
+   * and merged into the cached status.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testIncrementalStatus() throws Exception {
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a.txt"), "a", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "dir/b.txt"), "b", StandardCharsets.UTF_8);
+    
+    GitStatus status = GitAccess.getInstance().getStatus();
+    assertEquals(2, status.getUnstagedFiles().size());
+    
+    // A new file inside a new directory, a deleted file.
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "dir2/c.txt"), "c", StandardCharsets.UTF_8);
+    new File(REPOSITORY_PATH, "a.txt").delete();
+    
+    Awaitility.await().atMost(Duration.FIVE_SECONDS).until(() -> 
+      "[(changeType=UNTRACKED, fileLocation=dir/b.txt), (changeType=UNTRACKED, fileLocation=dir2/c.txt)]".equals(
+          GitAccess.getInstance().getStatus().getUnstagedFiles().stream()
+          .sorted((f1, f2) -> f1.getFileLocation().compareTo(f2.getFileLocation()))
+          .collect(Collectors.toList()).toString()));
+  }
+  
+  /**
+   * <p><b>Description:</b> Staging and un-staging update the cached status only
+   * for the affected files. Subset queries are answered from the cache.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testStageUpdatesCache() throws Exception {
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a.txt"), "a", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "b.txt"), "b", StandardCharsets.UTF_8);
+    
+    GitAccess gitAccess = GitAccess.getInstance();
+    GitStatus status = gitAccess.getStatus();
+    assertEquals(2, status.getUnstagedFiles().size());
+    
+    gitAccess.add(new FileStatus(GitChangeType.UNTRACKED, "a.txt"));
+    assertEquals("[(changeType=ADD, fileLocation=a.txt)]", 
+        gitAccess.getStagedFile(Arrays.asList("a.txt")).toString());
+    assertEquals("[]", gitAccess.getUnstagedFiles(Arrays.asList("a.txt")).toString());
+    assertEquals("[(changeType=UNTRACKED, fileLocation=b.txt)]", gitAccess.getUnstagedFiles().toString());
+    
+    gitAccess.resetAll(Arrays.asList(new FileStatus(GitChangeType.ADD, "a.txt")));
+    assertEquals("[]", gitAccess.getStagedFile(Arrays.asList("a.txt")).toString());
+    assertEquals("[(changeType=UNTRACKED, fileLocation=a.txt), (changeType=UNTRACKED, fileLocation=b.txt)]",
+        gitAccess.getUnstagedFiles().toString());
+  }
+  
+  /**
+   * <p><b>Description:</b> Discarding files updates the cached status only for the
+   * discarded files.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testDiscardUpdatesCache() throws Exception {
+    GitAccess gitAccess = GitAccess.getInstance();
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a.txt"), "a", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "b.txt"), "b", StandardCharsets.UTF_8);
+    gitAccess.add(new FileStatus(GitChangeType.UNTRACKED, "a.txt"));
+    gitAccess.add(new FileStatus(GitChangeType.UNTRACKED, "b.txt"));
+    gitAccess.commit("Initial");
+    
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a.txt"), "a2", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "b.txt"), "b2", StandardCharsets.UTF_8);
+    GitStatus status = gitAccess.getStatus();
+    assertEquals(2, status.getUnstagedFiles().size());
+    
+    gitAccess.restoreLastCommitFile(Arrays.asList("a.txt"));
+    assertEquals("[(changeType=MODIFIED, fileLocation=b.txt)]", gitAccess.getUnstagedFiles().toString());
+  }
+  
+  /**
+   * <p><b>Description:</b> The last computed status is saved and it is presented on the
+   * next start, as long as the index and HEAD are unchanged.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testPersistedStatus() throws Exception {
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a.txt"), "a", StandardCharsets.UTF_8);
+    
+    GitAccess gitAccess = GitAccess.getInstance();
+    assertEquals(1, gitAccess.getStatus().getUnstagedFiles().size());
+    gitAccess.getStatusCache().dispose();
+    
+    // Simulate a new session.
+    StatusCache newSession = new StatusCache(GitListeners.newInstance(), gitAccess::getGit);
+    GitStatus persisted = newSession.loadPersistedStatus();
+    assertNotNull(persisted);
+    assertEquals("[(changeType=UNTRACKED, fileLocation=a.txt)]", persisted.getUnstagedFiles().toString());
+    // Only offered once.
+    assertNull(newSession.loadPersistedStatus());
+    
+    // The index changes. The saved status is no longer valid.
+    gitAccess.add(new FileStatus(GitChangeType.UNTRACKED, "a.txt"));
+    newSession = new StatusCache(GitListeners.newInstance(), gitAccess::getGit);
+    assertNull(newSession.loadPersistedStatus());
+  }
+  
+  /**
+   * <p><b>Description:</b> Invalidating the cache doesn't wait for the running
+   * computation. The computation is superseded and the newest status is returned.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testSupersededStatus() throws Exception {
+    GitAccess gitAccess = GitAccess.getInstance();
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean block = new AtomicBoolean(false);
+    StatusCache cache = new StatusCache(GitListeners.newInstance(), () -> {
+      if (block.getAndSet(false)) {
+        computing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return gitAccess.getGit();
+    });
+    GitStatus first = cache.getStatus();
+    assertTrue(first.getUnstagedFiles().isEmpty());
+    
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a.txt"), "a", StandardCharsets.UTF_8);
+    cache.resetCache();
+    block.set(true);
+    AtomicReference<GitStatus> computed = new AtomicReference<>();
+    Thread computer = new Thread(() -> computed.set(cache.getStatus()));
+    computer.start();
+    assertTrue(computing.await(5, TimeUnit.SECONDS));
+    
+    // The computation is running. Neither the reset nor the last status wait for it.
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "b.txt"), "b", StandardCharsets.UTF_8);
+    cache.resetCache();
+    assertSame(first, cache.getLastCompletedStatus());
+    
+    release.countDown();
+    computer.join(5000);
+    assertEquals("[(changeType=UNTRACKED, fileLocation=a.txt), (changeType=UNTRACKED, fileLocation=b.txt)]",
+        computed.get().getUnstagedFiles().stream()
+        .sorted((f1, f2) -> f1.getFileLocation().compareTo(f2.getFileLocation()))
+        .collect(Collectors.toList()).toString());
+    assertSame(computed.get(), cache.getLastCompletedStatus());
+    cache.dispose();
+  }
+  
+  /**
+   * <p><b>Description:</b> The submodules status is presented without waiting for
+   * the running status computation.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testSubmodulesSnapshotDoesNotWait() throws Exception {
+    GitAccess gitAccess = GitAccess.getInstance();
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean block = new AtomicBoolean(false);
+    StatusCache cache = new StatusCache(GitListeners.newInstance(), () -> {
+      if (block.getAndSet(false)) {
+        computing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return gitAccess.getGit();
+    });
+    cache.getStatus();
+    SubmoduleStatusSnapshot submodules = cache.getSubmoduleStatusSnapshot();
+    assertTrue(submodules.isEmpty());
+    
+    cache.resetCache();
+    block.set(true);
+    Thread computer = new Thread(cache::getStatus);
+    computer.start();
+    assertTrue(computing.await(5, TimeUnit.SECONDS));
+    try {
+      assertSame(submodules, CompletableFuture.supplyAsync(cache::getSubmoduleStatusSnapshot).get(5, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      computer.join(5000);
+      cache.dispose();
+    }
+  }
+  
+  /**
+   * <p><b>Description:</b> The AWT thread gets the last published status instead of
+   * waiting for the running computation. Other threads wait for the current status.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testAWTDoesNotWait() throws Exception {
+    GitAccess gitAccess = GitAccess.getInstance();
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean block = new AtomicBoolean(false);
+    StatusCache cache = new StatusCache(GitListeners.newInstance(), () -> {
+      if (block.getAndSet(false)) {
+        computing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return gitAccess.getGit();
+    });
+    GitStatus first = cache.getStatus();
+    
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "a.txt"), "a", StandardCharsets.UTF_8);
+    cache.resetCache();
+    block.set(true);
+    Thread computer = new Thread(cache::getStatus);
+    computer.start();
+    assertTrue(computing.await(5, TimeUnit.SECONDS));
+    try {
+      CompletableFuture<GitStatus> onAWT = new CompletableFuture<>();
+      SwingUtilities.invokeLater(() -> onAWT.complete(cache.getStatus()));
+      assertSame(first, onAWT.get(5, TimeUnit.SECONDS));
+      
+      CompletableFuture<List<FileStatus>> filesOnAWT = new CompletableFuture<>();
+      SwingUtilities.invokeLater(() -> filesOnAWT.complete(cache.getUnstagedFiles(Arrays.asList("a.txt"))));
+      assertEquals("[]", filesOnAWT.get(5, TimeUnit.SECONDS).toString());
+    } finally {
+      release.countDown();
+    }
     
-    assertFalse("A window activated event should drop the cache", status == newstatus);
+    // Waits for the running computation.
+    assertEquals("[(changeType=UNTRACKED, fileLocation=a.txt)]", cache.getStatus().getUnstagedFiles().toString());
+    computer.join(5000);
+    cache.dispose();
   }
   
   /**
@@ -85,7 +340,13 @@ public class StatusCacheTest extends GitTestBase {
     Mockito.when(pluginWorkspace.getParentFrame()).thenReturn(mockFrame);
     
     // These operations do not affect a status.
-    List<GitOperation> exceptions = Arrays.asList(GitOperation.DELETE_BRANCH, GitOperation.PUSH);
+    List<GitOperation> exceptions = Arrays.asList(
+        GitOperation.CREATE_BRANCH,
+        GitOperation.DELETE_BRANCH,
+        GitOperation.CREATE_TAG,
+        GitOperation.DELETE_TAG,
+        GitOperation.STASH_DROP,
+        GitOperation.PUSH);
     
     extension.applicationStarted((StandalonePluginWorkspace) pluginWorkspace);
     
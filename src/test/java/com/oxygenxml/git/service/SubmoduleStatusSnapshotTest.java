@@ -0,0 +1,86 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.submodule.SubmoduleStatus;
+import org.eclipse.jgit.submodule.SubmoduleStatusType;
+
+/**
+ * Tests for the status of the submodules, computed in a single pass.
+ */
+public class SubmoduleStatusSnapshotTest extends GitTestBase {
+  /**
+   * Path for the parent repository.
+   */
+  private static final String PARENT_PATH = "target/test-resources/SubmoduleStatusSnapshotTest/parent";
+  /**
+   * Path for the repository used as submodule.
+   */
+  private static final String SUBMODULE_PATH = "target/test-resources/SubmoduleStatusSnapshotTest/submodule";
+
+  /**
+   * <p><b>Description:</b> a repository without submodules has an empty snapshot.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testNoSubmodules() throws Exception {
+    assertTrue(SubmoduleStatusSnapshot.compute(null).isEmpty());
+
+    Repository repository = createRepository(PARENT_PATH);
+    SubmoduleStatusSnapshot snapshot = SubmoduleStatusSnapshot.compute(repository);
+    assertTrue(snapshot.isEmpty());
+    assertTrue(snapshot.getSubmodules().isEmpty());
+    assertNull(snapshot.getStatus("missing"));
+  }
+
+  /**
+   * <p><b>Description:</b> the snapshot reports each submodule and whether its checked
+   * out commit is the one recorded in the parent repository. The change description
+   * is computed once for the same pair of commits.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testSubmodules() throws Exception {
+    FileUtils.deleteDirectory(new File(SUBMODULE_PATH));
+    Repository submoduleOrigin = createRepository(SUBMODULE_PATH);
+    try (Git git = new Git(submoduleOrigin)) {
+      git.commit().setAllowEmpty(true).setMessage("First").call();
+    }
+
+    FileUtils.deleteDirectory(new File(PARENT_PATH));
+    Repository parent = createRepository(PARENT_PATH);
+    try (Git git = new Git(parent)) {
+      git.submoduleAdd()
+          .setPath("modules/sub")
+          .setURI(submoduleOrigin.getDirectory().toURI().toString())
+          .call()
+          .close();
+      git.commit().setMessage("Submodule added").call();
+    }
+
+    SubmoduleStatusSnapshot snapshot = SubmoduleStatusSnapshot.compute(parent);
+    assertFalse(snapshot.isEmpty());
+    assertEquals("[modules/sub]", snapshot.getSubmodules().toString());
+    SubmoduleStatus status = snapshot.getStatus("modules/sub");
+    assertEquals(SubmoduleStatusType.INITIALIZED, status.getType());
+    assertEquals(status.getIndexId(), status.getHeadId());
+
+    // A new commit is checked out in the submodule.
+    File submoduleDir = new File(PARENT_PATH, "modules/sub");
+    try (Git git = Git.open(submoduleDir)) {
+      git.commit().setAllowEmpty(true).setMessage("Second").call();
+    }
+    snapshot = SubmoduleStatusSnapshot.compute(parent);
+    status = snapshot.getStatus("modules/sub");
+    assertEquals(SubmoduleStatusType.REV_CHECKED_OUT, status.getType());
+    assertFalse(status.getIndexId().equals(status.getHeadId()));
+
+    String description = SubmoduleStatusSnapshot.getChangeDescription(parent, status);
+    assertTrue(description, description.contains("Second"));
+    assertTrue(description, description.contains("First"));
+    assertSame(description, SubmoduleStatusSnapshot.getChangeDescription(parent, status));
+  }
+}
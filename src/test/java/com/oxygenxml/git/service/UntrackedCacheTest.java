@@ -0,0 +1,159 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
+
+/**
+ * Tests for the cache of the untracked directories.
+ */
+public class UntrackedCacheTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/UntrackedCacheTest";
+  /**
+   * The test repository.
+   */
+  private Repository repository;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    repository = createRepository(REPOSITORY_PATH);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "tracked.txt"), "tracked", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, ".gitignore"), "build/\n", StandardCharsets.UTF_8);
+    try (Git git = new Git(repository)) {
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("Initial").call();
+    }
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "out/x/a.txt"), "a", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "out/b.txt"), "b", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "build/c.txt"), "c", StandardCharsets.UTF_8);
+    makeOld();
+  }
+
+  /**
+   * Moves the modification time of the working tree files in the past, so that the
+   * directories are not considered racily modified.
+   */
+  private static void makeOld() {
+    long past = System.currentTimeMillis() - 60_000;
+    for (File file : FileUtils.listFilesAndDirs(new File(REPOSITORY_PATH), TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE)) {
+      if (!file.getPath().contains(".git" + File.separator) && !file.getName().equals(".git")) {
+        file.setLastModified(past);
+      }
+    }
+  }
+
+  /**
+   * @param cache The cache.
+   *
+   * @return The sorted untracked files from the entire working tree.
+   *
+   * @throws Exception If it fails.
+   */
+  private String getUntracked(UntrackedCache cache) throws Exception {
+    return new TreeSet<>(cache.getStatus(repository, Collections.emptyList(), null).getUntracked()).toString();
+  }
+
+  /**
+   * <p><b>Description:</b> an untracked directory is cached after the first status and
+   * its files are reported without walking it again. Adding a file or changing the
+   * ignore rules is detected.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testUntrackedDirectoryCached() throws Exception {
+    UntrackedCache cache = new UntrackedCache();
+    assertEquals("[out/b.txt, out/x/a.txt]", getUntracked(cache));
+    assertTrue(cache.isCached("out"));
+    assertFalse("Ignored directories are not cached", cache.isCached("build"));
+
+    assertEquals("[out/b.txt, out/x/a.txt]", getUntracked(cache));
+    assertEquals("[out/x/a.txt]", new TreeSet<>(
+        cache.getStatus(repository, Arrays.asList("out/x"), null).getUntracked()).toString());
+
+    // A new file changes the modification time of its directory.
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, "out/x/d.txt"), "d", StandardCharsets.UTF_8);
+    assertEquals("[out/b.txt, out/x/a.txt, out/x/d.txt]", getUntracked(cache));
+
+    // New ignore rules.
+    makeOld();
+    getUntracked(cache);
+    assertTrue(cache.isCached("out"));
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, ".gitignore"), "build/\nd.txt\n", StandardCharsets.UTF_8);
+    assertEquals("[out/b.txt, out/x/a.txt]", getUntracked(cache));
+  }
+
+  /**
+   * <p><b>Description:</b> a directory with files added to the index is no longer
+   * taken from the cache.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testStagedFileInsideCachedDirectory() throws Exception {
+    UntrackedCache cache = new UntrackedCache();
+    getUntracked(cache);
+    assertTrue(cache.isCached("out"));
+
+    try (Git git = new Git(repository)) {
+      git.add().addFilepattern("out/b.txt").call();
+    }
+    assertEquals("[out/x/a.txt]", getUntracked(cache));
+    assertFalse(cache.isCached("out"));
+    assertTrue(cache.isCached("out/x"));
+  }
+
+  /**
+   * <p><b>Description:</b> the cache is saved in the Git directory and loaded on the next start.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testPersistence() throws Exception {
+    UntrackedCache cache = new UntrackedCache();
+    getUntracked(cache);
+    cache.save(repository.getDirectory());
+
+    UntrackedCache loaded = UntrackedCache.load(repository.getDirectory());
+    assertTrue(loaded.isCached("out"));
+    assertEquals("[out/b.txt, out/x/a.txt]", getUntracked(loaded));
+  }
+
+  /**
+   * <p><b>Description:</b> the cache is used only when <code>core.untrackedCache=true</code>
+   * or, when it is not set, when the add-on system property asks for it.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testEnabledByConfig() throws Exception {
+    assertFalse(UntrackedCache.isEnabled(repository));
+
+    StoredConfig config = repository.getConfig();
+    config.setString("core", null, "untrackedCache", "keep");
+    assertFalse(UntrackedCache.isEnabled(repository));
+    config.setBoolean("core", null, "untrackedCache", true);
+    assertTrue(UntrackedCache.isEnabled(repository));
+
+    System.setProperty(GitAddonSystemProperties.UNTRACKED_CACHE, "true");
+    try {
+      config.setBoolean("core", null, "untrackedCache", false);
+      assertFalse(UntrackedCache.isEnabled(repository));
+      config.unset("core", null, "untrackedCache");
+      assertTrue(UntrackedCache.isEnabled(repository));
+    } finally {
+      System.clearProperty(GitAddonSystemProperties.UNTRACKED_CACHE);
+    }
+  }
+}
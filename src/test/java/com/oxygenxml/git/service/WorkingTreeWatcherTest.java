@@ -0,0 +1,69 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.awaitility.Awaitility;
+import org.awaitility.Duration;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Tests for the watcher of the working tree.
+ */
+public class WorkingTreeWatcherTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/WorkingTreeWatcherTest";
+
+  /**
+   * <p><b>Description:</b> the ignored directories are not watched, neither the existing
+   * ones nor the created ones, unless they contain tracked files.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testIgnoredDirectoriesNotWatched() throws Exception {
+    FileUtils.deleteDirectory(new File(REPOSITORY_PATH));
+    Repository repository = createRepository(REPOSITORY_PATH);
+    File workTree = repository.getWorkTree();
+    // An ignored directory with a tracked file, added before it was ignored.
+    FileUtils.write(new File(workTree, "out/tracked.txt"), "v1", StandardCharsets.UTF_8);
+    try (Git git = new Git(repository)) {
+      git.add().addFilepattern("out/tracked.txt").call();
+    }
+    FileUtils.write(new File(workTree, ".gitignore"), "build/\nout/\n", StandardCharsets.UTF_8);
+    new File(workTree, "build/classes").mkdirs();
+    new File(workTree, "src").mkdirs();
+
+    Set<String> paths = new HashSet<>();
+    try (WorkingTreeWatcher watcher = WorkingTreeWatcher.start(repository)) {
+      FileUtils.write(new File(workTree, "build/classes/A.class"), "A", StandardCharsets.UTF_8);
+      new File(workTree, "out/created").mkdirs();
+      FileUtils.write(new File(workTree, "out/tracked.txt"), "v2", StandardCharsets.UTF_8);
+      FileUtils.write(new File(workTree, "src/a.txt"), "a", StandardCharsets.UTF_8);
+
+      Awaitility.await().atMost(Duration.FIVE_SECONDS).until(() -> {
+        paths.addAll(watcher.drainChanges().getPaths());
+        return paths.contains("src/a.txt") && paths.contains("out/tracked.txt");
+      });
+
+      // A created ignored directory isn't watched either.
+      new File(workTree, "build/generated").mkdirs();
+      new File(workTree, "out/created").delete();
+      new File(workTree, "out2").mkdirs();
+      FileUtils.write(new File(workTree, "src/b.txt"), "b", StandardCharsets.UTF_8);
+      Awaitility.await().atMost(Duration.FIVE_SECONDS).until(() -> {
+        paths.addAll(watcher.drainChanges().getPaths());
+        return paths.contains("src/b.txt") && paths.contains("out2");
+      });
+    }
+
+    for (String path : paths) {
+      assertFalse(path, path.startsWith("build/"));
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.oxygenxml.git.service.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+/**
+ * Tests for the metrics of the refresh pipeline.
+ */
+public class GitMetricsTest {
+
+  /**
+   * <p><b>Description:</b> the percentiles are reported as the upper bound of the bucket
+   * that contains them.</p>
+   */
+  @Test
+  public void testHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 90; i++) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+    }
+    for (int i = 0; i < 9; i++) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+    histogram.record(TimeUnit.SECONDS.toNanos(40));
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(5, histogram.getPercentile(50));
+    assertEquals(5, histogram.getPercentile(90));
+    assertEquals(200, histogram.getPercentile(99));
+    // Longer than the last bound.
+    assertEquals(-1, histogram.getPercentile(100));
+    assertEquals(40_000, histogram.getMax(), 0.1);
+    assertEquals((90 * 3 + 9 * 150 + 40_000) / 100.0, histogram.getMean(), 0.1);
+    assertTrue(histogram.toString(), histogram.toString().contains("p50<5ms, p90<5ms, p99<200ms"));
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMean(), 0);
+  }
+
+  /**
+   * <p><b>Description:</b> the timings and the status cache counters are published
+   * through the MBean.</p>
+   */
+  @Test
+  public void testMBean() throws Exception {
+    GitMetrics metrics = GitMetrics.getInstance();
+    metrics.reset();
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(GitMetrics.OBJECT_NAME)));
+
+    try (GitMetrics.Timing timing = metrics.time(GitMetrics.REFRESH_STATUS)) {
+      // Measure an empty phase.
+    }
+    metrics.record(GitMetrics.REFRESH_STATUS, TimeUnit.MILLISECONDS.toNanos(30));
+    assertEquals(2, metrics.getTimer(GitMetrics.REFRESH_STATUS).getCount());
+
+    metrics.statusCacheHit();
+    metrics.statusCacheHit();
+    metrics.statusCacheUpdate();
+    metrics.statusCacheMiss();
+    assertEquals(0.75, metrics.getStatusCacheHitRatio(), 0.001);
+
+    String dump = metrics.dump();
+    assertTrue(dump, dump.contains(GitMetrics.REFRESH_STATUS + ": count=2"));
+    assertTrue(dump, dump.contains("status cache: hits=2, updates=1, misses=1"));
+
+    metrics.reset();
+    assertEquals(0, metrics.getTimers().length);
+    assertEquals(0, metrics.getStatusCacheMisses());
+  }
+}
@@ -17,6 +17,8 @@ import javax.swing.JMenuItem;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 
+import org.awaitility.Awaitility;
+import org.awaitility.Duration;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 
@@ -265,6 +267,7 @@ public class StashVisualTest extends GitTestBase {
       ListStashesDialog listStashesDialog = (ListStashesDialog)findDialog(Tags.STASHES);
       assertNotNull(listStashesDialog);
       assertEquals(3, listStashesDialog.getStashesTable().getModel().getRowCount());
+      waitForAffectedFiles(listStashesDialog);
       assertEquals(1, listStashesDialog.getAffectedFilesTable().getModel().getRowCount());
       JButton[] deleteAllStashesButton = new JButton[1];
       deleteAllStashesButton[0] = findFirstButton(listStashesDialog, Tags.DELETE_ALL);
@@ -543,6 +546,8 @@ public class StashVisualTest extends GitTestBase {
       applyButton[0] = findFirstButton(listStashesDialog, Tags.APPLY);
       assertNotNull(applyButton[0]);
       SwingUtilities.invokeLater(() -> applyButton[0].doClick());
+      // The stash is applied on the write lane.
+      waitForScheduler();
       flushAWT();
       
       // Check if the stash was been deleted and applied
@@ -584,6 +589,8 @@ public class StashVisualTest extends GitTestBase {
       applyButton[0] = findFirstButton(listStashesDialog, Tags.APPLY);
       assertNotNull(applyButton[0]);
       SwingUtilities.invokeLater(() -> applyButton[0].doClick());
+      // The stash is applied on the write lane.
+      waitForScheduler();
       flushAWT();
       
       stashes = new ArrayList<>(gitAccess.listStashes());
@@ -742,11 +749,13 @@ public class StashVisualTest extends GitTestBase {
       
       
       FilesTableModel stashFilesTableModel = (FilesTableModel) listStashesDialog.getAffectedFilesTable().getModel();
+      waitForAffectedFiles(listStashesDialog);
       assertEquals(GitChangeType.CHANGED, stashFilesTableModel.getValueAt(0, 0));
       assertEquals(filesNames[0], ((FileStatus) stashFilesTableModel.getValueAt(0, 1)).getFileLocation());
       stashFilesTableModel = (FilesTableModel) listStashesDialog.getAffectedFilesTable().getModel();
       SwingUtilities.invokeLater(() -> listStashesDialog.getStashesTable().setRowSelectionInterval(1, 1));
       flushAWT();
+      waitForAffectedFiles(listStashesDialog);
      
       for (int i = 0; i < filesNames.length - 1; i++) {
         assertEquals(GitChangeType.ADD, stashFilesTableModel.getValueAt(i, 0));
@@ -771,6 +780,7 @@ public class StashVisualTest extends GitTestBase {
       stashFilesTableModel = (FilesTableModel) listStashesDialog.getAffectedFilesTable().getModel();
       SwingUtilities.invokeLater(() -> listStashesDialog.getStashesTable().setRowSelectionInterval(0, 0));
       flushAWT();
+      waitForAffectedFiles(listStashesDialog);
       assertEquals(GitChangeType.CHANGED, stashFilesTableModel.getValueAt(0, 0));
       assertEquals(filesNames[0], ((FileStatus) stashFilesTableModel.getValueAt(0, 1)).getFileLocation()); 
       
@@ -927,6 +937,17 @@ public class StashVisualTest extends GitTestBase {
   }
   
   
+  /**
+   * Waits for the files affected by the selected stash, computed in the background.
+   * 
+   * @param listStashesDialog The stashes dialog.
+   */
+  private void waitForAffectedFiles(ListStashesDialog listStashesDialog) {
+    Awaitility.await().atMost(Duration.FIVE_SECONDS).until(
+        () -> listStashesDialog.getAffectedFilesTable().getModel().getRowCount() > 0);
+    flushAWT();
+  }
+
   /**
    * Get the content for a file.
    * 
@@ -0,0 +1,138 @@
+package com.oxygenxml.git.view.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the index used to filter the commits of the History view.
+ */
+public class CommitFilterIndexTest {
+
+  /**
+   * Creates a commit.
+   *
+   * @param message The message.
+   * @param author  The author.
+   * @param id      The id.
+   *
+   * @return The commit.
+   */
+  private static CommitCharacteristics commit(String message, String author, String id) {
+    return new CommitCharacteristics(message, new Date(0), author, id.substring(0, 7), id, author,
+        Collections.emptyList());
+  }
+
+  /**
+   * @param commits Some commits.
+   *
+   * @return The messages of the commits, separated by commas.
+   */
+  private static String messages(List<CommitCharacteristics> commits) {
+    List<String> messages = new ArrayList<>();
+    commits.forEach(commit -> messages.add(commit.getCommitMessage()));
+    return String.join(", ", messages);
+  }
+
+  /**
+   * <p><b>Description:</b> every token must be found in the author, message, date or id
+   * of a commit, ignoring the case, except for the date.</p>
+   */
+  @Test
+  public void testFilter() {
+    List<CommitCharacteristics> commits = new ArrayList<>();
+    commits.add(commit("Rename the file", "Alex <alex@sync.ro>", "1111111aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa"));
+    commits.add(commit("First commit", "Bob <bob@sync.ro>", "2222222bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb"));
+    commits.add(commit("Second\tcommit", "Alex <alex@sync.ro>", "3333333ccccccccccccccccccccccccccccccccc"));
+    CommitFilterIndex index = new CommitFilterIndex(commits);
+
+    assertEquals("Rename the file, Second\tcommit", messages(index.filter("alex")));
+    assertEquals("Rename the file", messages(index.filter("ALEX, rename")));
+    assertEquals("First commit", messages(index.filter("commit First")));
+    assertEquals("First commit, Second\tcommit", messages(index.filter("mmi")));
+    assertEquals("", messages(index.filter("nimic")));
+    assertEquals("Rename the file, First commit, Second\tcommit", messages(index.filter(" - ")));
+
+    // The ids must be equal to the token.
+    assertEquals("First commit", messages(index.filter("2222222")));
+    assertEquals("Second\tcommit", messages(index.filter("3333333CCCCCCCCCCCCCCCCCCCCCCCCCCCCCCCCC")));
+    assertEquals("", messages(index.filter("222222")));
+
+    // The date is compared as presented.
+    String year = new Date(0).toString().split(" ")[5];
+    assertEquals(3, index.filter(year).size());
+
+    // Tokens that span words.
+    assertEquals("Second\tcommit", messages(index.filter("d\tcom")));
+  }
+
+  /**
+   * <p><b>Description:</b> the filter is refined while typing and the commits appended
+   * after the first filtering are found too.</p>
+   */
+  @Test
+  public void testRefineAndAppend() {
+    List<CommitCharacteristics> commits = new ArrayList<>();
+    commits.add(commit("Update the topics", "Alex <alex@sync.ro>", "1111111aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa"));
+    commits.add(commit("Update the tables", "Alex <alex@sync.ro>", "2222222bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb"));
+    CommitFilterIndex index = new CommitFilterIndex(commits);
+
+    assertEquals("Update the topics, Update the tables", messages(index.filter("t")));
+    assertEquals("Update the topics", messages(index.filter("to")));
+    assertEquals("Update the topics", messages(index.filter("topic")));
+    assertEquals("Update the topics, Update the tables", messages(index.filter("t")));
+    assertEquals("Update the tables", messages(index.filter("ta")));
+
+    commits.add(commit("Add the topic maps", "Bob <bob@sync.ro>", "3333333ccccccccccccccccccccccccccccccccc"));
+    assertEquals("Update the topics, Add the topic maps", messages(index.filter("topic")));
+    assertEquals("Add the topic maps", messages(index.filter("topic ma")));
+    assertEquals("Add the topic maps", messages(index.filter("topic map")));
+  }
+
+  /**
+   * <p><b>Description:</b> a large history is indexed outside the filtering, and the
+   * commits appended later are indexed too.</p>
+   */
+  @Test
+  public void testIndexInBackground() {
+    List<CommitCharacteristics> commits = new ArrayList<>();
+    for (int i = 0; i < 2500; i++) {
+      commits.add(commit("Commit " + i, "Alex <alex@sync.ro>", String.format("%040x", i)));
+    }
+    CommitFilterIndex index = new CommitFilterIndex(commits);
+    assertTrue(index.needsIndexing());
+    index.index();
+    assertFalse(index.needsIndexing());
+    assertEquals("Commit 1234", messages(index.filter("1234")));
+
+    List<CommitCharacteristics> page = new ArrayList<>();
+    for (int i = 2500; i < 4000; i++) {
+      page.add(commit("Commit " + i, "Bob <bob@sync.ro>", String.format("%040x", i)));
+    }
+    index.append(page);
+    assertTrue(index.needsIndexing());
+    index.index();
+    assertEquals(1500, index.filter("bob").size());
+  }
+
+  /**
+   * <p><b>Description:</b> a commit is checked against the filter without the index.</p>
+   */
+  @Test
+  public void testMatches() {
+    CommitFilterIndex index = new CommitFilterIndex(new ArrayList<>());
+    CommitCharacteristics commit = commit("Rename the file", "Alex <alex@sync.ro>", "1111111aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+
+    assertTrue(index.matches(commit, "alex rename"));
+    assertTrue(index.matches(commit, "1111111"));
+    assertFalse(index.matches(commit, "111111"));
+    assertFalse(index.matches(commit, "alex copy"));
+  }
+}
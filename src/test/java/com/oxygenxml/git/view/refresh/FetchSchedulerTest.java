@@ -0,0 +1,145 @@
+package com.oxygenxml.git.view.refresh;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.utils.RepositoryStatusInfo;
+import com.oxygenxml.git.utils.RepositoryStatusInfo.RepositoryStatus;
+
+/**
+ * Tests for the background fetches.
+ */
+public class FetchSchedulerTest {
+
+  /**
+   * <p><b>Description:</b> requests are ignored while a fetch is in flight and until
+   * the interval passes. The results are published.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCoalescedRequests() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger fetches = new AtomicInteger();
+    List<RepositoryStatus> results = Collections.synchronizedList(new ArrayList<>());
+    FetchScheduler scheduler = new FetchScheduler((gitDir, interactive) -> {
+      fetches.incrementAndGet();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new RepositoryStatusInfo(RepositoryStatus.AVAILABLE);
+    }, r -> results.add(r.getRepoStatus()), TimeUnit.MINUTES.toMillis(1));
+    try {
+      File gitDir = new File("repo/.git");
+      scheduler.requestFetch(gitDir);
+      scheduler.requestFetch(gitDir);
+      release.countDown();
+      scheduler.waitForFetch(5000);
+      // Within the interval.
+      scheduler.requestFetch(gitDir);
+      scheduler.waitForFetch(5000);
+
+      assertEquals(1, fetches.get());
+      assertEquals("[AVAILABLE]", results.toString());
+
+      // Another repository is fetched right away.
+      scheduler.requestFetch(new File("other/.git"));
+      scheduler.waitForFetch(5000);
+      assertEquals(2, fetches.get());
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the interval doubles after each failed fetch, up to a
+   * limit, and it is restored after a successful one.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testBackoff() throws Exception {
+    AtomicReference<RepositoryStatus> remoteState = new AtomicReference<>(RepositoryStatus.UNAVAILABLE);
+    FetchScheduler scheduler = new FetchScheduler(
+        (gitDir, interactive) -> new RepositoryStatusInfo(remoteState.get()),
+        r -> {},
+        1000);
+    try {
+      assertEquals(1000, scheduler.getCurrentInterval());
+      File gitDir = new File("repo/.git");
+      scheduler.requestFetch(gitDir);
+      scheduler.waitForFetch(5000);
+      assertEquals(2000, scheduler.getCurrentInterval());
+      // Too early.
+      scheduler.requestFetch(gitDir);
+      scheduler.waitForFetch(5000);
+      assertEquals(2000, scheduler.getCurrentInterval());
+
+      // The periodic fetch fails again.
+      Thread.sleep(2500);
+      scheduler.waitForFetch(5000);
+      assertEquals(4000, scheduler.getCurrentInterval());
+
+      // Another repository starts over.
+      remoteState.set(RepositoryStatus.AVAILABLE);
+      scheduler.requestFetch(new File("other/.git"));
+      scheduler.waitForFetch(5000);
+      assertEquals(1000, scheduler.getCurrentInterval());
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> when the repository changes, the periodic fetches move to
+   * the new repository and the result of a fetch of the previous one is dropped. Only
+   * the requested fetches may ask for credentials.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testRepositoryChanged() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> fetches = Collections.synchronizedList(new ArrayList<>());
+    List<RepositoryStatus> results = Collections.synchronizedList(new ArrayList<>());
+    FetchScheduler scheduler = new FetchScheduler((gitDir, interactive) -> {
+      fetches.add(gitDir.getParent() + ":" + interactive);
+      if ("repo".equals(gitDir.getParent())) {
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return new RepositoryStatusInfo(RepositoryStatus.AVAILABLE);
+    }, r -> results.add(r.getRepoStatus()), 500);
+    try {
+      scheduler.requestFetch(new File("repo/.git"));
+      Thread.sleep(100);
+      scheduler.repositoryChanged(new File("other/.git"));
+      release.countDown();
+      scheduler.waitForFetch(5000);
+      assertEquals("The result for the previous repository is dropped", "[]", results.toString());
+
+      // The periodic fetch of the new repository.
+      Thread.sleep(800);
+      scheduler.waitForFetch(5000);
+      assertEquals("[repo:true, other:false]", fetches.subList(0, 2).toString());
+      assertEquals("[AVAILABLE]", results.subList(0, 1).toString());
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+}
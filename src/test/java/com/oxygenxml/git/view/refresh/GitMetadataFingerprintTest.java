@@ -0,0 +1,67 @@
+package com.oxygenxml.git.view.refresh;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Test;
+
+/**
+ * Tests for the fingerprint of the Git metadata.
+ */
+public class GitMetadataFingerprintTest {
+
+  /**
+   * <p><b>Description:</b> the fingerprint matches only while the metadata is unchanged
+   * and old enough for its modification times to be trusted.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testUnchangedMetadata() throws Exception {
+    File dir = Files.createTempDirectory("fingerprint").toFile();
+    try (Git git = Git.init().setDirectory(dir).call()) {
+      git.commit().setMessage("First").setAllowEmpty(true).call();
+      File gitDir = git.getRepository().getDirectory();
+
+      // Just modified. Not trusted.
+      GitMetadataFingerprint fresh = GitMetadataFingerprint.compute(gitDir);
+      assertFalse(GitMetadataFingerprint.compute(gitDir).isUnchangedSince(fresh));
+      assertFalse(fresh.isUnchangedSince(null));
+
+      makeOld(gitDir);
+      GitMetadataFingerprint old = GitMetadataFingerprint.compute(gitDir);
+      assertTrue(GitMetadataFingerprint.compute(gitDir).isUnchangedSince(old));
+
+      git.branchCreate().setName("feature").call();
+      assertFalse(GitMetadataFingerprint.compute(gitDir).isUnchangedSince(old));
+
+      makeOld(gitDir);
+      old = GitMetadataFingerprint.compute(gitDir);
+      git.commit().setMessage("Second").setAllowEmpty(true).call();
+      assertFalse(GitMetadataFingerprint.compute(gitDir).isUnchangedSince(old));
+    } finally {
+      FileUtils.delete(dir, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * Moves the modification time of all the metadata files one minute back.
+   *
+   * @param gitDir The Git directory.
+   *
+   * @throws Exception If it fails.
+   */
+  private static void makeOld(File gitDir) throws Exception {
+    long time = System.currentTimeMillis() - 60_000;
+    try (Stream<Path> paths = Files.walk(gitDir.toPath())) {
+      paths.forEach(path -> path.toFile().setLastModified(time));
+    }
+  }
+}
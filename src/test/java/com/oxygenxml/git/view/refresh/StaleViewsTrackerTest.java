@@ -0,0 +1,156 @@
+package com.oxygenxml.git.view.refresh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.HierarchyEvent;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JPanel;
+
+import org.awaitility.Awaitility;
+import org.awaitility.Duration;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.Test;
+
+import com.oxygenxml.git.view.refresh.RepositorySnapshot.Part;
+
+/**
+ * Tests for the detection of the stale views.
+ */
+public class StaleViewsTrackerTest {
+
+  /**
+   * <p><b>Description:</b> a snapshot differs only in the parts changed by an operation.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testSnapshotParts() throws Exception {
+    File dir = Files.createTempDirectory("snapshot").toFile();
+    try (Git git = Git.init().setDirectory(dir).call()) {
+      git.commit().setMessage("First").setAllowEmpty(true).call();
+      RepositorySnapshot initial = RepositorySnapshot.take(git.getRepository(), false);
+      assertFalse(initial.differsFrom(initial, EnumSet.allOf(Part.class)));
+      assertTrue(initial.differsFrom(null, EnumSet.noneOf(Part.class)));
+
+      git.tag().setName("v1").call();
+      RepositorySnapshot tagged = RepositorySnapshot.take(git.getRepository(), false);
+      assertFalse(tagged.differsFrom(initial, EnumSet.of(Part.HEAD, Part.CONFIG)));
+      assertTrue(tagged.differsFrom(initial, EnumSet.of(Part.REFS)));
+
+      git.commit().setMessage("Second").setAllowEmpty(true).call();
+      RepositorySnapshot committed = RepositorySnapshot.take(git.getRepository(), true);
+      assertTrue(committed.differsFrom(tagged, EnumSet.of(Part.HEAD)));
+      assertTrue(committed.differsFrom(tagged, EnumSet.of(Part.UNCOMMITTED_CHANGES)));
+    } finally {
+      FileUtils.delete(dir, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> a view is recomputed only when a part it presents changes.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testRefreshOnlyStaleViews() throws Exception {
+    File dir = Files.createTempDirectory("stale").toFile();
+    try (Git git = Git.init().setDirectory(dir).call()) {
+      git.commit().setMessage("First").setAllowEmpty(true).call();
+
+      StaleViewsTracker tracker = new StaleViewsTracker();
+      AtomicInteger headViewRefreshes = new AtomicInteger();
+      AtomicInteger refsViewRefreshes = new AtomicInteger();
+      tracker.registerAlwaysPresented("head", EnumSet.of(Part.HEAD), headViewRefreshes::incrementAndGet);
+      tracker.registerAlwaysPresented("refs", EnumSet.of(Part.REFS), refsViewRefreshes::incrementAndGet);
+
+      tracker.repositoryChanged(RepositorySnapshot.take(git.getRepository(), false));
+      tracker.repositoryChanged(RepositorySnapshot.take(git.getRepository(), false));
+      assertEquals(1, headViewRefreshes.get());
+      assertEquals(1, refsViewRefreshes.get());
+
+      git.tag().setName("v1").call();
+      tracker.repositoryChanged(RepositorySnapshot.take(git.getRepository(), false));
+      assertEquals(1, headViewRefreshes.get());
+      assertEquals(2, refsViewRefreshes.get());
+    } finally {
+      FileUtils.delete(dir, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> a view that fails to refresh remains stale.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFailedRefresh() throws Exception {
+    File dir = Files.createTempDirectory("stale").toFile();
+    try (Git git = Git.init().setDirectory(dir).call()) {
+      git.commit().setMessage("First").setAllowEmpty(true).call();
+
+      StaleViewsTracker tracker = new StaleViewsTracker();
+      AtomicInteger refreshes = new AtomicInteger();
+      tracker.registerAlwaysPresented("head", EnumSet.of(Part.HEAD), () -> {
+        if (refreshes.incrementAndGet() == 1) {
+          throw new IllegalStateException("Unable to refresh");
+        }
+      });
+
+      RepositorySnapshot snapshot = RepositorySnapshot.take(git.getRepository(), false);
+      tracker.repositoryChanged(snapshot);
+      tracker.repositoryChanged(snapshot);
+      tracker.repositoryChanged(snapshot);
+      assertEquals(2, refreshes.get());
+    } finally {
+      FileUtils.delete(dir, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> a hidden view is not recomputed when the repository changes,
+   * but when it becomes visible, if it is stale.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testRefreshWhenShown() throws Exception {
+    File dir = Files.createTempDirectory("stale").toFile();
+    try (Git git = Git.init().setDirectory(dir).call()) {
+      git.commit().setMessage("First").setAllowEmpty(true).call();
+
+      boolean[] showing = new boolean[1];
+      JPanel view = new JPanel() {
+        @Override
+        public boolean isShowing() {
+          return showing[0];
+        }
+      };
+      StaleViewsTracker tracker = new StaleViewsTracker();
+      AtomicInteger refreshes = new AtomicInteger();
+      tracker.register("view", view, EnumSet.of(Part.HEAD), refreshes::incrementAndGet);
+
+      tracker.repositoryChanged(RepositorySnapshot.take(git.getRepository(), false));
+      assertEquals(0, refreshes.get());
+
+      showing[0] = true;
+      view.dispatchEvent(new HierarchyEvent(
+          view, HierarchyEvent.HIERARCHY_CHANGED, view, null, HierarchyEvent.SHOWING_CHANGED));
+      Awaitility.await().atMost(Duration.FIVE_SECONDS).until(() -> refreshes.get() == 1);
+
+      // Hidden and shown again without changes.
+      view.dispatchEvent(new HierarchyEvent(
+          view, HierarchyEvent.HIERARCHY_CHANGED, view, null, HierarchyEvent.SHOWING_CHANGED));
+      tracker.repositoryChanged(RepositorySnapshot.take(git.getRepository(), false));
+      assertEquals(1, refreshes.get());
+    } finally {
+      FileUtils.delete(dir, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+  }
+}
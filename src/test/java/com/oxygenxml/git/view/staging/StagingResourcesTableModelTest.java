@@ -0,0 +1,154 @@
+package com.oxygenxml.git.view.staging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitStatusDelta;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Tests for applying status differences to the model of the flat view.
+ */
+public class StagingResourcesTableModelTest {
+
+  /**
+   * @param event A table event.
+   * 
+   * @return The type and the rows of the event.
+   */
+  private static String describe(TableModelEvent event) {
+    String type;
+    switch (event.getType()) {
+      case TableModelEvent.INSERT:
+        type = "insert";
+        break;
+      case TableModelEvent.DELETE:
+        type = "delete";
+        break;
+      default:
+        type = "update";
+        break;
+    }
+    return type + " " + event.getFirstRow() + "-" + event.getLastRow();
+  }
+
+  /**
+   * @param model A table model.
+   * 
+   * @return The files presented in the model, in order.
+   */
+  private static String rows(StagingResourcesTableModel model) {
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < model.getRowCount(); i++) {
+      rows.add(model.getValueAt(i, StagingResourcesTableModel.FILE_LOCATION_COLUMN).toString());
+    }
+    return String.join("\n", rows);
+  }
+
+  /**
+   * <p><b>Description:</b> the added, removed and changed files are applied with row
+   * events. The model remains sorted by change type and path.</p>
+   */
+  @Test
+  public void testApplyDelta() {
+    List<FileStatus> oldFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "b.txt"),
+        new FileStatus(GitChangeType.SUBMODULE, "sub").setDescription("old"),
+        new FileStatus(GitChangeType.MODIFIED, "c.txt"));
+    List<FileStatus> newFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+        new FileStatus(GitChangeType.SUBMODULE, "sub").setDescription("new"),
+        new FileStatus(GitChangeType.MISSING, "c.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "d.txt"));
+
+    StagingResourcesTableModel model = new StagingResourcesTableModel(null, false);
+    model.setFilesStatus(oldFiles);
+    assertEquals(
+        "(changeType=SUBMODULE, fileLocation=sub)\n"
+        + "(changeType=UNTRACKED, fileLocation=b.txt)\n"
+        + "(changeType=MODIFIED, fileLocation=a.txt)\n"
+        + "(changeType=MODIFIED, fileLocation=c.txt)",
+        rows(model));
+
+    List<String> events = new ArrayList<>();
+    model.addTableModelListener(e -> events.add(describe(e)));
+    model.applyDelta(GitStatusDelta.compute(model.getFilesStatuses(), newFiles));
+
+    assertEquals(
+        "(changeType=SUBMODULE, fileLocation=sub)\n"
+        + "(changeType=UNTRACKED, fileLocation=d.txt)\n"
+        + "(changeType=MODIFIED, fileLocation=a.txt)\n"
+        + "(changeType=MISSING, fileLocation=c.txt)",
+        rows(model));
+    assertEquals("new", ((FileStatus) model.getValueAt(0, StagingResourcesTableModel.FILE_LOCATION_COLUMN)).getDescription());
+    assertSame(newFiles.get(1), model.getValueAt(0, StagingResourcesTableModel.FILE_LOCATION_COLUMN));
+    // b.txt removed. The submodule updated in place. c.txt moved to the MISSING rows. d.txt added.
+    assertEquals("[delete 1-1, update 0-0, delete 2-2, insert 2-2, insert 1-1]", events.toString());
+
+    // Nothing else to apply.
+    assertEquals(true, GitStatusDelta.compute(model.getFilesStatuses(), newFiles).isEmpty());
+  }
+
+  /**
+   * <p><b>Description:</b> all the files are removed and new ones are added.</p>
+   */
+  @Test
+  public void testReplaceAll() {
+    StagingResourcesTableModel model = new StagingResourcesTableModel(null, true);
+    model.setFilesStatus(Arrays.asList(
+        new FileStatus(GitChangeType.ADD, "a.txt"),
+        new FileStatus(GitChangeType.CHANGED, "b.txt")));
+
+    List<FileStatus> newFiles = Arrays.asList(
+        new FileStatus(GitChangeType.REMOVED, "c.txt"),
+        new FileStatus(GitChangeType.ADD, "d.txt"));
+    model.applyDelta(GitStatusDelta.compute(model.getFilesStatuses(), newFiles));
+
+    assertEquals(
+        "(changeType=ADD, fileLocation=d.txt)\n"
+        + "(changeType=REMOVED, fileLocation=c.txt)",
+        rows(model));
+  }
+
+  /**
+   * <p><b>Description:</b> many differences are applied with one event for the whole table.</p>
+   */
+  @Test
+  public void testApplyLargeDelta() {
+    List<FileStatus> oldFiles = new ArrayList<>();
+    List<FileStatus> newFiles = new ArrayList<>();
+    for (int i = 0; i < GitStatusDelta.MAX_INCREMENTAL_SIZE; i++) {
+      oldFiles.add(new FileStatus(GitChangeType.MODIFIED, "old" + i + ".txt"));
+      newFiles.add(new FileStatus(GitChangeType.UNTRACKED, "new" + i + ".txt"));
+    }
+    oldFiles.add(new FileStatus(GitChangeType.MODIFIED, "a.txt"));
+    newFiles.add(new FileStatus(GitChangeType.MISSING, "a.txt"));
+    oldFiles.add(new FileStatus(GitChangeType.MODIFIED, "b.txt"));
+    newFiles.add(new FileStatus(GitChangeType.MODIFIED, "b.txt"));
+
+    StagingResourcesTableModel model = new StagingResourcesTableModel(null, false);
+    model.setFilesStatus(oldFiles);
+    List<String> events = new ArrayList<>();
+    model.addTableModelListener(e -> events.add(describe(e)));
+    model.applyDelta(GitStatusDelta.compute(model.getFilesStatuses(), newFiles));
+
+    assertEquals("[update 0-" + Integer.MAX_VALUE + "]", events.toString());
+    assertEquals(newFiles.size(), model.getRowCount());
+    assertEquals("(changeType=UNTRACKED, fileLocation=new0.txt)", rows(model).split("\n")[0]);
+    assertEquals(
+        "(changeType=MODIFIED, fileLocation=b.txt)\n"
+        + "(changeType=MISSING, fileLocation=a.txt)",
+        rows(model).substring(rows(model).indexOf("(changeType=MODIFIED")));
+    assertEquals(true, GitStatusDelta.compute(model.getFilesStatuses(), newFiles).isEmpty());
+  }
+}
@@ -0,0 +1,186 @@
+package com.oxygenxml.git.view.staging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitStatusDelta;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.view.GitTreeNode;
+
+/**
+ * Tests for applying status differences to the model of the tree view.
+ */
+public class StagingResourcesTreeModelTest {
+
+  /**
+   * Records the events of a tree model.
+   */
+  private static class EventsRecorder implements TreeModelListener {
+    /**
+     * The recorded events.
+     */
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    public void treeNodesChanged(TreeModelEvent e) {
+      events.add("changed " + Arrays.toString(e.getChildren()));
+    }
+
+    @Override
+    public void treeNodesInserted(TreeModelEvent e) {
+      events.add("inserted " + Arrays.toString(e.getChildren()));
+    }
+
+    @Override
+    public void treeNodesRemoved(TreeModelEvent e) {
+      events.add("removed " + Arrays.toString(e.getChildren()));
+    }
+
+    @Override
+    public void treeStructureChanged(TreeModelEvent e) {
+      events.add("structure");
+    }
+  }
+
+  /**
+   * @param node   A node.
+   * @param indent The indent of the node.
+   * @param dump   Receives the node and its descendants, one on each line.
+   */
+  private static void dump(GitTreeNode node, String indent, StringBuilder dump) {
+    dump.append(indent).append(node.getUserObject()).append('\n');
+    for (int i = 0; i < node.getChildCount(); i++) {
+      dump(((GitTreeNode) node.getChildAt(i)), indent + "  ", dump);
+    }
+  }
+
+  /**
+   * @param model A tree model.
+   * 
+   * @return The nodes of the model.
+   */
+  private static String dump(StagingResourcesTreeModel model) {
+    StringBuilder dump = new StringBuilder();
+    dump((GitTreeNode) model.getRoot(), "", dump);
+    return dump.toString();
+  }
+
+  /**
+   * <p><b>Description:</b> the added, removed and changed files are applied with node
+   * events. Empty folders are removed, new folders are inserted at their sorted position.</p>
+   */
+  @Test
+  public void testApplyDelta() {
+    List<FileStatus> oldFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "dir/a.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "dir/b.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "other/c.txt"),
+        new FileStatus(GitChangeType.SUBMODULE, "sub").setDescription("old"));
+    List<FileStatus> newFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MISSING, "dir/a.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "dir/b.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "new/d/e.txt"),
+        new FileStatus(GitChangeType.SUBMODULE, "sub").setDescription("new"));
+
+    StagingResourcesTreeModel model = new StagingResourcesTreeModel(null, "repo", false, oldFiles);
+    assertEquals(
+        "repo\n"
+        + "  dir\n"
+        + "    a.txt\n"
+        + "    b.txt\n"
+        + "  other\n"
+        + "    c.txt\n"
+        + "  sub\n",
+        dump(model));
+
+    EventsRecorder recorder = new EventsRecorder();
+    model.addTreeModelListener(recorder);
+    model.applyDelta(GitStatusDelta.compute(model.getFilesStatuses(), newFiles));
+
+    assertEquals(
+        "repo\n"
+        + "  dir\n"
+        + "    a.txt\n"
+        + "    b.txt\n"
+        + "  new\n"
+        + "    d\n"
+        + "      e.txt\n"
+        + "  sub\n",
+        dump(model));
+    assertEquals("[removed [other], changed [a.txt], changed [sub], inserted [new]]", recorder.events.toString());
+
+    assertEquals(GitChangeType.MISSING, model.getFileByPath("dir/a.txt").getChangeType());
+    assertEquals("new", model.getFileByPath("sub").getDescription());
+    assertEquals(GitChangeType.UNTRACKED, model.getFileByPath("new/d/e.txt").getChangeType());
+    assertNull(model.getFileByPath("other/c.txt"));
+    assertTrue(GitStatusDelta.compute(model.getFilesStatuses(), newFiles).isEmpty());
+  }
+
+  /**
+   * <p><b>Description:</b> a file removed from a folder that has other files keeps the
+   * folder. A file with two statuses keeps its node while one status remains.</p>
+   */
+  @Test
+  public void testRemoveFromFolder() {
+    List<FileStatus> oldFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "dir/a.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "dir/b.txt"),
+        new FileStatus(GitChangeType.CONFLICT, "dir/b.txt"));
+    StagingResourcesTreeModel model = new StagingResourcesTreeModel(null, "repo", false, oldFiles);
+
+    model.applyDelta(GitStatusDelta.compute(
+        model.getFilesStatuses(),
+        Collections.singletonList(new FileStatus(GitChangeType.CONFLICT, "dir/b.txt"))));
+
+    assertEquals(
+        "repo\n"
+        + "  dir\n"
+        + "    b.txt\n",
+        dump(model));
+    assertEquals(GitChangeType.CONFLICT, model.getFileByPath("dir/b.txt").getChangeType());
+    assertEquals(1, model.getFilesStatuses().size());
+  }
+
+  /**
+   * <p><b>Description:</b> many differences rebuild the tree, with one event.</p>
+   */
+  @Test
+  public void testApplyLargeDelta() {
+    List<FileStatus> oldFiles = new ArrayList<>();
+    List<FileStatus> newFiles = new ArrayList<>();
+    for (int i = 0; i < GitStatusDelta.MAX_INCREMENTAL_SIZE; i++) {
+      oldFiles.add(new FileStatus(GitChangeType.MODIFIED, "old/" + i + ".txt"));
+    }
+    oldFiles.add(new FileStatus(GitChangeType.MODIFIED, "dir/a.txt"));
+    newFiles.add(new FileStatus(GitChangeType.MISSING, "dir/a.txt"));
+    newFiles.add(new FileStatus(GitChangeType.UNTRACKED, "new/b.txt"));
+
+    StagingResourcesTreeModel model = new StagingResourcesTreeModel(null, "repo", false, oldFiles);
+    EventsRecorder recorder = new EventsRecorder();
+    model.addTreeModelListener(recorder);
+    model.applyDelta(GitStatusDelta.compute(model.getFilesStatuses(), newFiles));
+
+    assertEquals("[structure]", recorder.events.toString());
+    assertEquals(
+        "repo\n"
+        + "  dir\n"
+        + "    a.txt\n"
+        + "  new\n"
+        + "    b.txt\n",
+        dump(model));
+    assertEquals(GitChangeType.MISSING, model.getFileByPath("dir/a.txt").getChangeType());
+    assertTrue(GitStatusDelta.compute(model.getFilesStatuses(), newFiles).isEmpty());
+  }
+}